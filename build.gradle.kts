@@ -11,6 +11,7 @@ repositories {
 }
 
 dependencies {
+    implementation("com.h2database:h2:2.2.224")
     testImplementation(platform("org.junit:junit-bom:5.10.2"))
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
@@ -0,0 +1,58 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.include.IncludeGraphService;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.testFramework.LightVirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Opens a read-only preview of the statement under the caret with every {@code <include>} expanded inline.
+ */
+public class ExpandIncludesAction extends AnAction {
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(findSqlTag(e) != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        XmlTag sqlTag = findSqlTag(e);
+        if (project == null || sqlTag == null) {
+            return;
+        }
+
+        String expanded = ReadAction.compute(() -> IncludeGraphService.getInstance(project).expandTag(sqlTag));
+        String id = ReadAction.compute(() -> sqlTag.getAttributeValue("id"));
+        LightVirtualFile file = new LightVirtualFile((id == null ? sqlTag.getName() : id) + ".expanded.xml",
+                XmlFileType.INSTANCE, expanded);
+        file.setWritable(false);
+        FileEditorManager.getInstance(project).openFile(file, true);
+    }
+
+    static @Nullable XmlTag findSqlTag(@NotNull AnActionEvent e) {
+        Editor editor = e.getData(CommonDataKeys.EDITOR);
+        PsiFile file = e.getData(CommonDataKeys.PSI_FILE);
+        if (editor == null || MapperTagUtils.getMapperTag(file) == null) {
+            return null;
+        }
+        return MapperTagUtils.findSqlTag(file.findElementAt(editor.getCaretModel().getOffset()));
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.engine.BoundSql;
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.ExplainPlan;
+import com.github.eatmoreapple.juice.engine.IncrementalRenderer;
+import com.github.eatmoreapple.juice.engine.SchemaService;
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import com.github.eatmoreapple.juice.explain.DataSourceExplainer;
+import com.github.eatmoreapple.juice.explain.EmbeddedExplainer;
+import com.github.eatmoreapple.juice.report.StatementReport;
+import com.github.eatmoreapple.juice.report.StatementReports;
+import com.github.eatmoreapple.juice.toolwindow.SqlPreviewFixtures;
+import com.github.eatmoreapple.juice.toolwindow.SqlPreviewSupport;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.database.dataSource.LocalDataSource;
+import com.intellij.database.dataSource.LocalDataSourceManager;
+import com.intellij.ide.impl.TrustedProjects;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the statement under the caret with its SQL preview fixture and shows its {@code EXPLAIN} plan in the
+ * reports tool window, with full scans, filesorts and temporary tables highlighted. The plan comes from a data
+ * source of the Database tools, or from an in-memory H2 database loaded from the {@code schema/*.sql}
+ * migrations, which needs no server and is only offered in trusted projects.
+ */
+public class ExplainStatementAction extends AnAction {
+    private static final String EMBEDDED = "Embedded H2 (schema/*.sql)";
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        XmlTag tag = ExpandIncludesAction.findSqlTag(e);
+        e.getPresentation().setEnabledAndVisible(tag != null && MapperTagUtils.isStatementTag(tag));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        XmlTag tag = ExpandIncludesAction.findSqlTag(e);
+        if (project == null || tag == null) {
+            return;
+        }
+
+        Rendered rendered;
+        try {
+            rendered = ReadAction.compute(() -> render(project, tag));
+        } catch (IllegalArgumentException | SqlRenderException ex) {
+            Messages.showErrorDialog(project, "Cannot render the statement: " + ex.getMessage()
+                    + "\nEdit its parameters in the Juice SQL Preview window.", "Explain Statement");
+            return;
+        }
+        if (rendered == null) {
+            return;
+        }
+
+        // The embedded target runs the project's migrations, so an untrusted project only gets its data sources.
+        boolean embedded = TrustedProjects.isTrusted(project);
+        List<LocalDataSource> dataSources = LocalDataSourceManager.getInstance(project).getDataSources();
+        if (dataSources.isEmpty() && !embedded) {
+            Messages.showErrorDialog(project, "Add a data source to explain statements: the embedded H2 database "
+                    + "runs the project's schema/*.sql migrations and is only available in trusted projects.",
+                    "Explain Statement");
+            return;
+        }
+        if (dataSources.isEmpty()) {
+            explain(project, rendered, null);
+            return;
+        }
+        List<String> targets = new ArrayList<>();
+        if (embedded) {
+            targets.add(EMBEDDED);
+        }
+        dataSources.forEach(dataSource -> targets.add(dataSource.getName()));
+        JBPopupFactory.getInstance().createPopupChooserBuilder(targets)
+                .setTitle("Explain With")
+                .setItemChosenCallback(target -> explain(project, rendered, dataSources.stream()
+                        .filter(dataSource -> dataSource.getName().equals(target)).findFirst().orElse(null)))
+                .createPopup()
+                .showInBestPositionFor(e.getDataContext());
+    }
+
+    /**
+     * A statement rendered with its fixture, and where it is declared.
+     */
+    private record Rendered(@NotNull String id, @NotNull BoundSql sql, @Nullable VirtualFile file, int offset) {
+    }
+
+    private static @Nullable Rendered render(@NotNull Project project, @NotNull XmlTag tag) {
+        String id = tag.getAttributeValue("id");
+        String namespace = MapperTagUtils.getNamespace(tag.getParentTag());
+        CompiledStatement compiled = CompiledStatementService.getInstance(project).getCompiled(tag);
+        if (id == null || namespace == null || compiled == null) {
+            return null;
+        }
+        String fixture = SqlPreviewFixtures.getInstance(project).get(namespace.trim() + "." + id);
+        Map<String, Object> parameters = SqlPreviewSupport.parseFixture(fixture == null ? "" : fixture);
+        BoundSql sql = new IncrementalRenderer().render(compiled, parameters);
+        return new Rendered(id, sql, tag.getContainingFile().getVirtualFile(), tag.getTextOffset());
+    }
+
+    private static void explain(@NotNull Project project, @NotNull Rendered rendered, @Nullable LocalDataSource dataSource) {
+        String target = dataSource == null ? "embedded H2" : dataSource.getName();
+        new Task.Backgroundable(project, "Explaining " + rendered.id(), true) {
+            private ExplainPlan plan;
+            private String note = "";
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    if (dataSource != null) {
+                        plan = DataSourceExplainer.explain(project, dataSource, rendered.sql());
+                        return;
+                    }
+                    List<String> ddl = ReadAction.compute(() -> SchemaService.getInstance(project).getStatements());
+                    EmbeddedExplainer.Result result = EmbeddedExplainer.explain(ddl, rendered.sql());
+                    plan = result.plan();
+                    if (result.skippedStatements() > 0) {
+                        note = ", " + result.skippedStatements() + " DDL statements skipped: " + result.firstError();
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                List<String> columns = new ArrayList<>();
+                columns.add("Findings");
+                columns.addAll(plan.columns());
+                List<StatementReport.Row> rows = new ArrayList<>();
+                for (int i = 0; i < plan.rows().size(); i++) {
+                    List<Object> values = new ArrayList<>();
+                    values.add(new StatementReport.Highlight(String.join(", ",
+                            plan.findings(i).stream().map(ExplainPlan.Finding::toString).toList())));
+                    values.addAll(plan.rows().get(i));
+                    rows.add(new StatementReport.Row(values, rendered.file(), rendered.offset()));
+                }
+                StatementReports.show(project, new StatementReport(
+                        "EXPLAIN " + rendered.id() + " (" + target + note + ")", columns, rows));
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, "EXPLAIN failed on " + target + ": " + error.getMessage(),
+                        "Explain Statement");
+            }
+        }.queue();
+    }
+}
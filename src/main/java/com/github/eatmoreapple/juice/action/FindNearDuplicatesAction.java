@@ -0,0 +1,111 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.MinHash;
+import com.github.eatmoreapple.juice.engine.SqlTokens;
+import com.github.eatmoreapple.juice.report.StatementReport;
+import com.github.eatmoreapple.juice.report.StatementReports;
+import com.github.eatmoreapple.juice.resolve.GoMethodResolver;
+import com.goide.psi.GoTypeSpec;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Clusters statements whose SQL is nearly the same, each a separate prepared statement and cache entry on the
+ * database, and lists them with their Go methods as candidates for consolidation. See {@link MinHash}.
+ */
+public class FindNearDuplicatesAction extends AnAction {
+    private static final int SHINGLE_WORDS = 3;
+    private static final double THRESHOLD = 0.8;
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        // 16 bands of 4 rows make pairs at 0.8 similarity near-certain candidates and pairs at 0.3 rare ones.
+        MinHash minHash = new MinHash(16, 4, THRESHOLD);
+        CompiledStatementService service = CompiledStatementService.getInstance(project);
+        StatementReports.runCombined(project, "Near-Duplicate Statements",
+                List.of("Cluster", "Cluster size", "Statement", "Similarity", "Go method"),
+                (tag, key) -> {
+                    CompiledStatement statement = service.getCompiled(tag);
+                    if (statement == null) {
+                        return null;
+                    }
+                    int[] signature = minHash.signature(MinHash.shingles(SqlTokens.words(statement), SHINGLE_WORDS));
+                    return signature.length == 0 ? null : List.of(key, signature);
+                },
+                (rows, indicator) -> clusters(project, minHash, rows, indicator));
+    }
+
+    private static @NotNull List<StatementReport.Row> clusters(@NotNull Project project,
+                                                               @NotNull MinHash minHash,
+                                                               @NotNull List<StatementReport.Row> rows,
+                                                               @NotNull ProgressIndicator indicator) {
+        indicator.setText2("Clustering " + rows.size() + " statements");
+        List<int[]> signatures = rows.stream().map(row -> (int[]) row.values().get(1)).toList();
+        List<MinHash.Cluster> clusters = minHash.cluster(signatures);
+
+        List<StatementReport.Row> result = new ArrayList<>();
+        DumbService dumbService = DumbService.getInstance(project);
+        for (int i = 0; i < clusters.size(); i++) {
+            indicator.checkCanceled();
+            MinHash.Cluster cluster = clusters.get(i);
+            for (int j = 0; j < cluster.members().size(); j++) {
+                StatementReport.Row row = rows.get(cluster.members().get(j));
+                String key = (String) row.values().get(0);
+                StatementReport.Link method = dumbService.runReadActionInSmartMode(() -> goMethod(project, key));
+                List<Object> values = new ArrayList<>();
+                values.add(i + 1);
+                values.add(cluster.members().size());
+                values.add(key);
+                values.add(Math.round(cluster.similarities().get(j) * 100) / 100.0);
+                values.add(method);
+                result.add(new StatementReport.Row(values, row.file(), row.offset()));
+            }
+        }
+        result.sort(Comparator.comparing((StatementReport.Row row) -> (Integer) row.values().get(1)).reversed()
+                .thenComparing(row -> (Integer) row.values().get(0)));
+        return result;
+    }
+
+    private static @Nullable StatementReport.Link goMethod(@NotNull Project project, @NotNull String key) {
+        int dot = key.lastIndexOf('.');
+        PsiElement method = dot <= 0 ? null : GoMethodResolver.resolveBySqlId(project, key.substring(dot + 1), key.substring(0, dot));
+        PsiFile file = method == null ? null : method.getContainingFile();
+        if (!(method instanceof PsiNamedElement named) || file == null || file.getVirtualFile() == null) {
+            return null;
+        }
+        GoTypeSpec type = PsiTreeUtil.getParentOfType(method, GoTypeSpec.class);
+        String name = type == null ? named.getName() : type.getName() + "." + named.getName();
+        return new StatementReport.Link(String.valueOf(name), file.getVirtualFile(), method.getTextOffset());
+    }
+}
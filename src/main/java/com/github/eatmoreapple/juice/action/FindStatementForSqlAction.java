@@ -0,0 +1,78 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.search.SqlStatementFinder;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.ui.SimpleListCellRenderer;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.datatransfer.DataFlavor;
+import java.util.List;
+
+/**
+ * Asks for a piece of SQL, such as a query from a slow log, and navigates to the statements rendering it,
+ * see {@link SqlStatementFinder}.
+ */
+public class FindStatementForSqlAction extends AnAction {
+    private static final int MAX_RESULTS = 20;
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        String clipboard = CopyPasteManager.getInstance().getContents(DataFlavor.stringFlavor);
+        String sql = Messages.showMultilineInputDialog(project, "SQL to look up:", "Find Statement for SQL",
+                SqlStatementFinder.looksLikeSql(clipboard) ? clipboard : "", null, null);
+        if (sql == null || sql.isBlank()) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("Statements can be looked up once indexing finishes");
+            return;
+        }
+
+        List<SqlStatementFinder.Match> matches = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> SqlStatementFinder.find(project, sql, MAX_RESULTS)),
+                "Finding Statements", true, project);
+        if (matches.isEmpty()) {
+            Messages.showInfoMessage(project, "No statement renders this SQL.", "Find Statement for SQL");
+        } else if (matches.size() == 1 && matches.get(0).exact()) {
+            navigate(project, matches.get(0));
+        } else {
+            JBPopupFactory.getInstance().createPopupChooserBuilder(matches)
+                    .setTitle(matches.get(0).exact() ? "Statements Rendering This SQL" : "Similar Statements")
+                    .setRenderer(SimpleListCellRenderer.create("", SqlStatementFinder.Match::presentableText))
+                    .setItemChosenCallback(match -> navigate(project, match))
+                    .createPopup()
+                    .showCenteredInCurrentWindow(project);
+        }
+    }
+
+    static void navigate(@NotNull Project project, @NotNull SqlStatementFinder.Match match) {
+        XmlTag tag = ReadAction.compute(() -> SqlStatementFinder.findTag(project, match));
+        if (tag != null) {
+            tag.navigate(true);
+        }
+    }
+}
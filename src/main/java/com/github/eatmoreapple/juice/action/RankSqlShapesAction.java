@@ -0,0 +1,78 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.ShapeCounter;
+import com.github.eatmoreapple.juice.inspection.SqlShapeCountInspection;
+import com.github.eatmoreapple.juice.report.StatementReport;
+import com.github.eatmoreapple.juice.report.StatementReports;
+import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Ranks every statement of the project by the number of SQL shapes it can render, using the thresholds of
+ * {@link SqlShapeCountInspection} in the current profile.
+ */
+public class RankSqlShapesAction extends AnAction {
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        SqlShapeCountInspection settings = settings(project);
+        // Counters memoize per subtree and are not thread-safe, so each worker takes one of its own.
+        Queue<ShapeCounter> counters = new ConcurrentLinkedQueue<>();
+        CompiledStatementService service = CompiledStatementService.getInstance(project);
+        StatementReports.run(project, "SQL Shapes",
+                List.of("Statement", "Shapes", "Conditions", "Loops", "${} substitutions", "Over threshold"),
+                (tag, key) -> {
+                    CompiledStatement statement = service.getCompiled(tag);
+                    if (statement == null) {
+                        return null;
+                    }
+                    ShapeCounter counter = counters.poll();
+                    if (counter == null) {
+                        counter = new ShapeCounter(settings.collectionSizes);
+                    }
+                    ShapeCounter.Shapes shapes;
+                    try {
+                        shapes = counter.count(statement);
+                    } finally {
+                        counters.offer(counter);
+                    }
+                    return List.of(key, shapes.shapes(), shapes.conditions(), shapes.loops(), shapes.substitutions(),
+                            shapes.shapes() > settings.maxShapes);
+                },
+                Comparator.comparing((StatementReport.Row row) -> (Long) row.values().get(1)).reversed());
+    }
+
+    private static @NotNull SqlShapeCountInspection settings(@NotNull Project project) {
+        InspectionToolWrapper<?, ?> wrapper = InspectionProjectProfileManager.getInstance(project).getCurrentProfile()
+                .getInspectionTool(SqlShapeCountInspection.SHORT_NAME, project);
+        return wrapper != null && wrapper.getTool() instanceof SqlShapeCountInspection inspection
+                ? inspection
+                : new SqlShapeCountInspection();
+    }
+}
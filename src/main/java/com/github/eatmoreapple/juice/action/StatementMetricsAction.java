@@ -0,0 +1,57 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.StatementMetrics;
+import com.github.eatmoreapple.juice.report.StatementReport;
+import com.github.eatmoreapple.juice.report.StatementReports;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lists every statement of the project with its {@link StatementMetrics}, heaviest joins first.
+ */
+public class StatementMetricsAction extends AnAction {
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        CompiledStatementService service = CompiledStatementService.getInstance(project);
+        StatementReports.run(project, "Statement Metrics",
+                List.of("Statement", "Joins", "Subqueries", "Branches", "foreach depth", "Include depth",
+                        "#{} placeholders", "${} substitutions"),
+                (tag, key) -> {
+                    CompiledStatement statement = service.getCompiled(tag);
+                    if (statement == null) {
+                        return null;
+                    }
+                    StatementMetrics metrics = StatementMetrics.of(statement);
+                    return List.of(key, metrics.joins(), metrics.subqueries(), metrics.branches(),
+                            metrics.foreachDepth(), metrics.includeDepth(), metrics.placeholders(),
+                            metrics.substitutions());
+                },
+                Comparator.comparing((StatementReport.Row row) -> (Integer) row.values().get(1))
+                        .thenComparing(row -> (Integer) row.values().get(2))
+                        .thenComparing(row -> (Integer) row.values().get(3))
+                        .reversed());
+    }
+}
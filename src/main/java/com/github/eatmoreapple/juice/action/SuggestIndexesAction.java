@@ -0,0 +1,106 @@
+package com.github.eatmoreapple.juice.action;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.IndexAdvisor;
+import com.github.eatmoreapple.juice.engine.Schema;
+import com.github.eatmoreapple.juice.engine.SchemaService;
+import com.github.eatmoreapple.juice.engine.SqlTokens;
+import com.github.eatmoreapple.juice.report.StatementReport;
+import com.github.eatmoreapple.juice.report.StatementReports;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranks the indexes {@link IndexAdvisor} suggests over every statement against the project's
+ * {@code schema/*.sql} migrations, by the number of statements each would serve. A suggestion that another
+ * one starts with is folded into it, since the wider index serves both.
+ */
+public class SuggestIndexesAction extends AnAction {
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        CompiledStatementService service = CompiledStatementService.getInstance(project);
+        SchemaService schemas = SchemaService.getInstance(project);
+        Map<StatementId, List<IndexAdvisor.Suggestion>> suggestions = new ConcurrentHashMap<>();
+        StatementReports.runCombined(project, "Suggested Indexes",
+                List.of("Index", "Table", "Statements", "First statement"),
+                (tag, key) -> {
+                    Schema schema = schemas.getSchema();
+                    CompiledStatement statement = schema.tables().isEmpty() ? null : service.getCompiled(tag);
+                    List<IndexAdvisor.Suggestion> suggested = statement == null ? List.of()
+                            : IndexAdvisor.suggest(SqlTokens.text(statement), schema);
+                    if (suggested.isEmpty()) {
+                        return null;
+                    }
+                    suggestions.put(new StatementId(tag.getContainingFile().getVirtualFile(), key), suggested);
+                    return List.of(key);
+                },
+                (rows, indicator) -> rank(rows, suggestions));
+    }
+
+    /**
+     * Identifies the statement of a row: a key is unique within its mapper file.
+     */
+    private record StatementId(@Nullable VirtualFile file, @NotNull String key) {
+    }
+
+    private static @NotNull List<StatementReport.Row> rank(@NotNull List<StatementReport.Row> rows,
+                                                          @NotNull Map<StatementId, List<IndexAdvisor.Suggestion>> suggestions) {
+        Map<IndexAdvisor.Suggestion, Set<StatementReport.Row>> statements = new LinkedHashMap<>();
+        for (StatementReport.Row row : rows) {
+            StatementId id = new StatementId(row.file(), (String) row.values().get(0));
+            for (IndexAdvisor.Suggestion suggestion : suggestions.getOrDefault(id, List.of())) {
+                statements.computeIfAbsent(suggestion, k -> new LinkedHashSet<>()).add(row);
+            }
+        }
+
+        List<IndexAdvisor.Suggestion> widestFirst = new ArrayList<>(statements.keySet());
+        widestFirst.sort(Comparator.comparing((IndexAdvisor.Suggestion suggestion) -> suggestion.columns().size()).reversed());
+        // A statement whose suggestions fold into the same wider index counts once for it.
+        Map<IndexAdvisor.Suggestion, Set<StatementReport.Row>> merged = new LinkedHashMap<>();
+        for (IndexAdvisor.Suggestion suggestion : widestFirst) {
+            IndexAdvisor.Suggestion wider = merged.keySet().stream().filter(candidate -> candidate.serves(suggestion))
+                    .findFirst().orElse(suggestion);
+            merged.computeIfAbsent(wider, k -> new LinkedHashSet<>()).addAll(statements.get(suggestion));
+        }
+
+        List<StatementReport.Row> result = new ArrayList<>();
+        merged.forEach((suggestion, served) -> {
+            StatementReport.Row first = served.iterator().next();
+            result.add(new StatementReport.Row(
+                    List.of(suggestion.ddl(), suggestion.table(), served.size(), first.values().get(0)),
+                    first.file(), first.offset()));
+        });
+        result.sort(Comparator.comparing((StatementReport.Row row) -> (Integer) row.values().get(2)).reversed());
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.eatmoreapple.juice.annotator;
+
+import com.github.eatmoreapple.juice.expression.Builtins;
+import com.github.eatmoreapple.juice.expression.ExprSyntaxException;
+import com.github.eatmoreapple.juice.expression.Expressions;
+import com.github.eatmoreapple.juice.highlight.JuiceExprSyntaxHighlighter;
+import com.github.eatmoreapple.juice.lang.JuiceExprReferenceExpression;
+import com.github.eatmoreapple.juice.lang.JuiceExprTokenType;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.Annotator;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Reports syntax errors, unknown parameters, fields and functions in {@code test} expressions.
+ * <p>
+ * Syntax comes from the shared parse cache, so editing one attribute does not re-parse the others.
+ * Unknown names are only reported when the Go method of the statement is known.
+ */
+public class TestExpressionAnnotator implements Annotator {
+    @Override
+    public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
+        if (element instanceof PsiFile file) {
+            annotateSyntax(file, holder);
+        } else if (element instanceof JuiceExprReferenceExpression reference) {
+            annotateReference(reference, holder);
+        } else if (element.getNode().getElementType() == JuiceExprTokenType.FUNCTION_NAME) {
+            holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
+                    .textAttributes(JuiceExprSyntaxHighlighter.FUNCTION)
+                    .create();
+            if (!Builtins.NAMES.contains(element.getText())) {
+                holder.newAnnotation(HighlightSeverity.WARNING, "Unknown function '" + element.getText() + "'").create();
+            }
+        }
+    }
+
+    private static void annotateSyntax(@NotNull PsiFile file, @NotNull AnnotationHolder holder) {
+        String text = file.getText();
+        ExprSyntaxException error = Expressions.parse(text).error();
+        if (error == null) {
+            return;
+        }
+        int start = file.getTextRange().getStartOffset();
+        int offset = Math.min(error.getOffset(), Math.max(text.length() - 1, 0));
+        TextRange range = text.isEmpty() ? TextRange.from(start, 0) : TextRange.from(start + offset, 1);
+        holder.newAnnotation(HighlightSeverity.ERROR, error.getMessage()).range(range).create();
+    }
+
+    private static void annotateReference(@NotNull JuiceExprReferenceExpression reference,
+                                          @NotNull AnnotationHolder holder) {
+        List<ASTNode> segments = reference.getSegments();
+        for (int i = 1; i < segments.size(); i++) {
+            holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
+                    .range(segments.get(i).getTextRange())
+                    .textAttributes(JuiceExprSyntaxHighlighter.FIELD)
+                    .create();
+        }
+
+        StatementParameters.Scope scope = reference.getScope();
+        if (scope == null) {
+            return;
+        }
+        List<String> path = reference.getPath();
+        List<StatementParameters.Binding> resolved = scope.resolve(path);
+        int unresolved = resolved.size();
+        if (unresolved == path.size()) {
+            return;
+        }
+
+        TextRange range = segments.get(unresolved).getTextRange();
+        if (unresolved == 0) {
+            if (scope.complete()) {
+                holder.newAnnotation(HighlightSeverity.ERROR, "Unknown parameter '" + path.get(0) + "'")
+                        .range(range)
+                        .create();
+            }
+        } else if (StatementParameters.isStruct(resolved.get(unresolved - 1).type())) {
+            holder.newAnnotation(HighlightSeverity.ERROR, "Unknown field '" + path.get(unresolved) + "' of '"
+                            + String.join(".", path.subList(0, unresolved)) + "'")
+                    .range(range)
+                    .create();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.eatmoreapple.juice.documentation;
+
+import com.github.eatmoreapple.juice.include.IncludeGraphService;
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoTypeSpec;
+import com.intellij.lang.documentation.AbstractDocumentationProvider;
+import com.intellij.lang.documentation.DocumentationMarkup;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Quick documentation for Go mapper interface methods: the method's signature and doc comment, as Go shows
+ * them, followed by the SQL of the mapped statement with includes expanded and parameter placeholders
+ * highlighted. Methods without a statement keep Go's own documentation.
+ * <p>
+ * The rendered HTML is cached on the method and dropped when any XML or the method's own file changes.
+ */
+public class GoMapperDocumentationProvider extends AbstractDocumentationProvider {
+    private static final Pattern HIGHLIGHTED = Pattern.compile("[#$]\\{[^}]*}|</?[A-Za-z][\\w-]*(?:\\s[^<>]*)?/?>");
+
+    @Override
+    public @Nullable String generateDoc(PsiElement element, @Nullable PsiElement originalElement) {
+        if (!(element instanceof GoMethodSpec method)) {
+            return null;
+        }
+        return CachedValuesManager.getCachedValue(method, () -> CachedValueProvider.Result.create(
+                render(method),
+                PsiModificationTracker.getInstance(method.getProject()).forLanguage(XMLLanguage.INSTANCE),
+                method.getContainingFile()));
+    }
+
+    private static @Nullable String render(@NotNull GoMethodSpec method) {
+        GoTypeSpec typeSpec = PsiTreeUtil.getParentOfType(method, GoTypeSpec.class);
+        String methodName = method.getName();
+        if (typeSpec == null || methodName == null) {
+            return null;
+        }
+        Project project = method.getProject();
+        String namespace = MapperNamespaceResolver.namespaceOf(project, typeSpec);
+        if (namespace == null) {
+            return null;
+        }
+        XmlTag statement = MapperStatementIndex.findStatementTags(project, namespace, methodName).stream()
+                .filter(MapperTagUtils::isStatementTag)
+                .findFirst()
+                .orElse(null);
+        if (statement == null) {
+            return null;
+        }
+
+        String body = IncludeGraphService.getInstance(project).expandBody(statement);
+        String comment = docComment(method);
+        return DocumentationMarkup.DEFINITION_START
+                + StringUtil.escapeXmlEntities(typeSpec.getName() + "." + method.getText().strip())
+                + DocumentationMarkup.DEFINITION_END
+                + DocumentationMarkup.CONTENT_START
+                + (comment.isEmpty() ? "" : "<p>" + StringUtil.escapeXmlEntities(comment).replace("\n\n", "<p>"))
+                + "<pre>" + highlight(body.strip()) + "</pre>"
+                + DocumentationMarkup.CONTENT_END
+                + DocumentationMarkup.SECTIONS_START
+                + section("Statement", "&lt;" + statement.getName() + "&gt; " + StringUtil.escapeXmlEntities(methodName))
+                + section("Mapper", StringUtil.escapeXmlEntities(statement.getContainingFile().getName()))
+                + section("Namespace", StringUtil.escapeXmlEntities(namespace))
+                + DocumentationMarkup.SECTIONS_END;
+    }
+
+    /**
+     * Returns the text of the comments directly above the method, without their markers.
+     */
+    static @NotNull String docComment(@NotNull PsiElement method) {
+        Deque<String> lines = new ArrayDeque<>();
+        for (PsiElement sibling = method.getPrevSibling(); sibling != null; sibling = sibling.getPrevSibling()) {
+            if (sibling instanceof PsiComment comment) {
+                lines.addFirst(comment.getText().replaceAll("^//\\s?|^/\\*+\\s*|\\s*\\*/$", "").strip());
+            } else if (!(sibling instanceof PsiWhiteSpace) || StringUtil.countNewLines(sibling.getText()) > 1) {
+                break;
+            }
+        }
+        // Blank comment lines separate paragraphs; the other line breaks are wrapping.
+        return String.join("\n", lines).replaceAll("(?<!\n)\n(?!\n)", " ").strip();
+    }
+
+    /**
+     * Escapes the SQL, bolding {@code #{}} placeholders, underlining {@code ${}} substitutions and graying out
+     * dynamic tags.
+     */
+    static @NotNull String highlight(@NotNull String sql) {
+        StringBuilder html = new StringBuilder(sql.length() + 64);
+        Matcher matcher = HIGHLIGHTED.matcher(sql);
+        int last = 0;
+        while (matcher.find()) {
+            html.append(StringUtil.escapeXmlEntities(sql.substring(last, matcher.start())));
+            String token = StringUtil.escapeXmlEntities(matcher.group());
+            if (matcher.group().startsWith("#")) {
+                html.append("<b>").append(token).append("</b>");
+            } else if (matcher.group().startsWith("$")) {
+                html.append("<b><u>").append(token).append("</u></b>");
+            } else {
+                html.append(DocumentationMarkup.GRAYED_START).append(token).append(DocumentationMarkup.GRAYED_END);
+            }
+            last = matcher.end();
+        }
+        return html.append(StringUtil.escapeXmlEntities(sql.substring(last))).toString();
+    }
+
+    private static @NotNull String section(@NotNull String name, @NotNull String value) {
+        return DocumentationMarkup.SECTION_HEADER_START + name + ":" + DocumentationMarkup.SECTION_SEPARATOR
+                + "<p>" + value + DocumentationMarkup.SECTION_END;
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.eatmoreapple.juice.documentation;
+
+import com.github.eatmoreapple.juice.include.IncludeGraphService;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.lang.documentation.AbstractDocumentationProvider;
+import com.intellij.lang.documentation.DocumentationMarkup;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlAttributeValue;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Quick documentation for statements and {@code <sql>} fragments showing the body with includes expanded.
+ */
+public class MapperDocumentationProvider extends AbstractDocumentationProvider {
+    @Override
+    public @Nullable PsiElement getCustomDocumentationElement(@NotNull Editor editor,
+                                                              @NotNull PsiFile file,
+                                                              @Nullable PsiElement contextElement,
+                                                              int targetOffset) {
+        XmlTag sqlTag = MapperTagUtils.findSqlTag(contextElement);
+        if (sqlTag == null) {
+            return null;
+        }
+        // Only the start tag is claimed, the body keeps the SQL documentation.
+        return targetOffset < sqlTag.getValue().getTextRange().getStartOffset() ? sqlTag : null;
+    }
+
+    @Override
+    public @Nullable String generateDoc(PsiElement element, @Nullable PsiElement originalElement) {
+        XmlTag sqlTag = toSqlTag(element);
+        if (sqlTag == null) {
+            return null;
+        }
+
+        String body = IncludeGraphService.getInstance(sqlTag.getProject()).expandBody(sqlTag);
+        return DocumentationMarkup.DEFINITION_START
+                + StringUtil.escapeXmlEntities("<" + sqlTag.getName() + " id=\"" + sqlTag.getAttributeValue("id") + "\">")
+                + DocumentationMarkup.DEFINITION_END
+                + DocumentationMarkup.CONTENT_START
+                + "<pre>" + StringUtil.escapeXmlEntities(body.strip()) + "</pre>"
+                + DocumentationMarkup.CONTENT_END;
+    }
+
+    private static @Nullable XmlTag toSqlTag(@Nullable PsiElement element) {
+        if (element instanceof XmlTag tag) {
+            return MapperTagUtils.isSqlTag(tag) ? tag : null;
+        }
+        // Include references resolve to the id value of the target <sql> tag.
+        if (element instanceof XmlAttributeValue value
+                && value.getParent() instanceof XmlAttribute attribute
+                && "id".equals(attribute.getName())
+                && attribute.getParent() instanceof XmlTag tag
+                && MapperTagUtils.isSqlTag(tag)) {
+            return tag;
+        }
+        return null;
+    }
+}
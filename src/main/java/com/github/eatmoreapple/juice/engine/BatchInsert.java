@@ -0,0 +1,92 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the text of a single-row {@code INSERT ... VALUES (...)} into a multi-row insert, wrapping the value
+ * tuple in a {@code <foreach>} over a collection of rows.
+ */
+public final class BatchInsert {
+    private static final Pattern PLACEHOLDER = Pattern.compile("([#$])\\{\\s*([^}]*?)\\s*}");
+    private static final Pattern VALUES = Pattern.compile("(?i)\\bvalues?\\s*\\(");
+
+    private BatchInsert() {
+    }
+
+    /**
+     * The rewritten text and the bind parameters each row adds.
+     */
+    public record Rewrite(@NotNull String text, int placeholdersPerRow) {
+    }
+
+    /**
+     * Rewrites {@code text}, or returns {@code null} if it has no {@code VALUES (...)} tuple.
+     * <p>
+     * Placeholders of the tuple are moved onto {@code item}: {@code #{user.Name}} with {@code parameter}
+     * {@code user} becomes {@code #{item.Name}}, and a field bound directly, such as {@code #{Name}}, becomes
+     * {@code #{item.Name}}.
+     */
+    public static @Nullable Rewrite rewrite(@NotNull String text, @Nullable String parameter,
+                                            @NotNull String collection, @NotNull String item) {
+        Matcher values = VALUES.matcher(text);
+        if (!values.find()) {
+            return null;
+        }
+        int open = values.end() - 1;
+        int close = closingParen(text, open);
+        if (close < 0) {
+            return null;
+        }
+
+        String tuple = text.substring(open, close + 1);
+        Matcher matcher = PLACEHOLDER.matcher(tuple);
+        StringBuilder rewritten = new StringBuilder();
+        int placeholders = 0;
+        while (matcher.find()) {
+            String path = matcher.group(2);
+            String moved = parameter != null && (path.equals(parameter) || path.startsWith(parameter + "."))
+                    ? item + path.substring(parameter.length())
+                    : item + "." + path;
+            if ("#".equals(matcher.group(1))) {
+                placeholders++;
+            }
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(matcher.group(1) + "{" + moved + "}"));
+        }
+        matcher.appendTail(rewritten);
+
+        String loop = "<foreach collection=\"" + collection + "\" item=\"" + item + "\" separator=\",\">"
+                + rewritten + "</foreach>";
+        return new Rewrite(text.substring(0, open) + loop + text.substring(close + 1), placeholders);
+    }
+
+    /**
+     * Returns the largest batch whose rows stay within {@code maxPlaceholders}, capped at {@code preferred}.
+     */
+    public static int batchSize(int placeholdersPerRow, int maxPlaceholders, int preferred) {
+        return Math.max(1, Math.min(preferred, maxPlaceholders / Math.max(1, placeholdersPerRow)));
+    }
+
+    private static int closingParen(@NotNull String text, int open) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Worst-case bind placeholders and statement bytes of compiled SQL, for checking {@code <foreach>} output
+ * against database limits such as 65535 bind parameters or {@code max_allowed_packet}.
+ * <p>
+ * Every {@code <if>} is assumed true and a {@code <choose>} takes its costliest branch. Each loop renders
+ * the number of items given by the size function. Bytes count the literal SQL plus {@code valueBytes} for
+ * every bound value or {@code ${}} substitution.
+ */
+public final class BindBudget {
+    private final int valueBytes;
+    private final ToLongFunction<ForeachSqlNode> sizes;
+
+    public BindBudget(int valueBytes, @NotNull ToLongFunction<ForeachSqlNode> sizes) {
+        this.valueBytes = valueBytes;
+        this.sizes = sizes;
+    }
+
+    /**
+     * Placeholders and bytes; both saturate at {@link Long#MAX_VALUE}.
+     */
+    public record Cost(long placeholders, long bytes) {
+        public static final Cost ZERO = new Cost(0, 0);
+
+        @NotNull Cost plus(@NotNull Cost other) {
+            return new Cost(add(placeholders, other.placeholders), add(bytes, other.bytes));
+        }
+
+        @NotNull Cost times(long count) {
+            return new Cost(multiply(placeholders, count), multiply(bytes, count));
+        }
+
+        static @NotNull Cost max(@NotNull Cost a, @NotNull Cost b) {
+            return new Cost(Math.max(a.placeholders, b.placeholders), Math.max(a.bytes, b.bytes));
+        }
+    }
+
+    public @NotNull Cost of(@NotNull SqlNode node) {
+        if (node instanceof TextSqlNode text) {
+            long placeholders = text.params().stream().filter(param -> !param.substitution()).count();
+            return new Cost(placeholders, text.literalLength() + 1L + (long) text.params().size() * (valueBytes + 1));
+        }
+        if (node instanceof MixedSqlNode mixed) {
+            Cost cost = Cost.ZERO;
+            for (SqlNode child : mixed.children()) {
+                cost = cost.plus(of(child));
+            }
+            return cost;
+        }
+        if (node instanceof IfSqlNode ifNode) {
+            return of(ifNode.body());
+        }
+        if (node instanceof ChooseSqlNode choose) {
+            Cost cost = choose.otherwise() == null ? Cost.ZERO : of(choose.otherwise());
+            for (IfSqlNode when : choose.whens()) {
+                cost = Cost.max(cost, of(when.body()));
+            }
+            return cost;
+        }
+        if (node instanceof TrimSqlNode trim) {
+            return of(trim.body()).plus(new Cost(0, trim.prefix().length() + trim.suffix().length() + 2L));
+        }
+        if (node instanceof ForeachSqlNode foreach) {
+            long size = sizes.applyAsLong(foreach);
+            if (size <= 0) {
+                return Cost.ZERO;
+            }
+            return perItem(foreach).times(size)
+                    .plus(new Cost(0, foreach.open().length() + foreach.close().length() + 2L));
+        }
+        if (node instanceof IncludeSqlNode include && include.fragment() != null) {
+            return of(include.fragment());
+        }
+        return Cost.ZERO;
+    }
+
+    /**
+     * Cost of one item of a loop, its separator included.
+     */
+    public @NotNull Cost perItem(@NotNull ForeachSqlNode foreach) {
+        return of(foreach.body()).plus(new Cost(0, foreach.separator().length() + 1L));
+    }
+
+    /**
+     * Sizes loops by their bound in {@code bounds}; loops without a known bound, such as the loops of included
+     * fragments, and negative bounds take {@code defaultSize}.
+     */
+    public static @NotNull ToLongFunction<ForeachSqlNode> sizes(@NotNull Map<ForeachSqlNode, Long> bounds, long defaultSize) {
+        return loop -> {
+            long bound = bounds.getOrDefault(loop, -1L);
+            return bound >= 0 ? bound : defaultSize;
+        };
+    }
+
+    /**
+     * Loops of the statement itself in document order, nested loops included and loops of included
+     * fragments excluded, matching the order of the {@code <foreach>} tags in its source.
+     */
+    public static @NotNull List<ForeachSqlNode> loops(@NotNull SqlNode root) {
+        List<ForeachSqlNode> loops = new ArrayList<>();
+        collectLoops(root, loops);
+        return loops;
+    }
+
+    private static void collectLoops(@NotNull SqlNode node, @NotNull List<ForeachSqlNode> loops) {
+        if (node instanceof MixedSqlNode mixed) {
+            mixed.children().forEach(child -> collectLoops(child, loops));
+        } else if (node instanceof IfSqlNode ifNode) {
+            collectLoops(ifNode.body(), loops);
+        } else if (node instanceof ChooseSqlNode choose) {
+            choose.whens().forEach(when -> collectLoops(when, loops));
+            if (choose.otherwise() != null) {
+                collectLoops(choose.otherwise(), loops);
+            }
+        } else if (node instanceof TrimSqlNode trim) {
+            collectLoops(trim.body(), loops);
+        } else if (node instanceof ForeachSqlNode foreach) {
+            loops.add(foreach);
+            collectLoops(foreach.body(), loops);
+        }
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        return Math.multiplyHigh(a, b) != 0 || a * b < 0 ? Long.MAX_VALUE : a * b;
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parameter values visible while rendering: the statement parameters plus a stack of {@code <foreach>}
+ * item and index variables. Pushing a variable reuses the stack arrays instead of copying maps.
+ */
+public final class Bindings {
+    /**
+     * Returned by {@link #resolve(ParamPath)} when the path does not lead to a value; {@code null} is a value.
+     */
+    public static final Object MISSING = new Object() {
+        @Override
+        public String toString() {
+            return "<missing>";
+        }
+    };
+
+    private final Map<String, ?> parameters;
+    private @Nullable ReadListener listener;
+    private String[] names = new String[4];
+    private Object[] values = new Object[4];
+    private int size;
+
+    public Bindings(@NotNull Map<String, ?> parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * Registers a listener for reads of statement parameters; {@code <foreach>} variables are not reported.
+     */
+    public void setReadListener(@Nullable ReadListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Number of {@code <foreach>} variables currently bound.
+     */
+    public int depth() {
+        return size;
+    }
+
+    public void push(@NotNull String name, @Nullable Object value) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+    }
+
+    public void pop() {
+        size--;
+        names[size] = null;
+        values[size] = null;
+    }
+
+    public @Nullable Object resolve(@NotNull ParamPath path) {
+        Object current = lookup(path.root());
+        for (int i = 1; i < path.length() && current != MISSING; i++) {
+            current = member(current, path.segment(i));
+        }
+        return current;
+    }
+
+    public @Nullable Object lookup(@NotNull String name) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        Object value = parameters.containsKey(name) ? parameters.get(name) : MISSING;
+        if (listener != null) {
+            listener.onRead(name, value);
+        }
+        return value;
+    }
+
+    /**
+     * Reads a map entry, or an element when {@code name} is an index into a list or array.
+     */
+    public static @Nullable Object member(@Nullable Object target, @NotNull String name) {
+        if (target instanceof Map<?, ?> map) {
+            return map.containsKey(name) ? map.get(name) : MISSING;
+        }
+        int index = parseIndex(name);
+        if (index >= 0 && target instanceof List<?> list) {
+            return index < list.size() ? list.get(index) : MISSING;
+        }
+        if (index >= 0 && target != null && target.getClass().isArray()) {
+            return index < Array.getLength(target) ? Array.get(target, index) : MISSING;
+        }
+        return MISSING;
+    }
+
+    private static int parseIndex(@NotNull String name) {
+        if (name.isEmpty() || name.length() > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    @FunctionalInterface
+    public interface ReadListener {
+        void onRead(@NotNull String name, @Nullable Object value);
+    }
+}
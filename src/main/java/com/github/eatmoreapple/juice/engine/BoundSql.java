@@ -0,0 +1,11 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Rendered SQL with one bind argument per {@code ?} placeholder, in order.
+ */
+public record BoundSql(@NotNull String sql, @NotNull List<Object> args) {
+}
@@ -0,0 +1,28 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code <choose>}: the first matching {@code <when>} wins, otherwise {@code <otherwise>} if present.
+ */
+public record ChooseSqlNode(@NotNull List<IfSqlNode> whens, @Nullable SqlNode otherwise) implements SqlNode {
+    public ChooseSqlNode {
+        whens = List.copyOf(whens);
+    }
+
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        for (IfSqlNode when : whens) {
+            if (context.test(when)) {
+                context.apply(when.body());
+                return;
+            }
+        }
+        if (otherwise != null) {
+            context.apply(otherwise);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * A statement compiled by {@link StatementCompiler}; immutable and safe to render from several threads.
+ */
+public record CompiledStatement(@Nullable String namespace,
+                                @Nullable String id,
+                                @NotNull String tagName,
+                                @NotNull SqlNode root) {
+    public @NotNull BoundSql render(@NotNull Map<String, ?> parameters) {
+        return render(new DynamicContext(new Bindings(parameters)));
+    }
+
+    public @NotNull BoundSql render(@NotNull DynamicContext context) {
+        context.apply(root);
+        return context.toBoundSql();
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.eatmoreapple.juice.engine;
+
+import com.github.eatmoreapple.juice.expression.Expressions;
+import com.github.eatmoreapple.juice.include.IncludeGraph;
+import com.github.eatmoreapple.juice.include.IncludeGraphService;
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlTagChild;
+import com.intellij.psi.xml.XmlText;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles mapper statements from PSI. Each statement's tree is cached on its tag, and fragments are shared
+ * through one {@link StatementCompiler} per XML modification; both are dropped after any XML change.
+ */
+@Service(Service.Level.PROJECT)
+public final class CompiledStatementService {
+    private final Project project;
+
+    public CompiledStatementService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static @NotNull CompiledStatementService getInstance(@NotNull Project project) {
+        return project.getService(CompiledStatementService.class);
+    }
+
+    /**
+     * Returns the compiled statement or {@code <sql>} fragment, or {@code null} if the tag is neither.
+     */
+    public @Nullable CompiledStatement getCompiled(@NotNull XmlTag sqlTag) {
+        if (!MapperTagUtils.isSqlTag(sqlTag)) {
+            return null;
+        }
+        return CachedValuesManager.getCachedValue(sqlTag, () -> CachedValueProvider.Result.create(
+                getCompiler().compile(MapperTagUtils.getNamespace(sqlTag.getParentTag()), toSource(sqlTag)),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE)));
+    }
+
+    private @NotNull StatementCompiler getCompiler() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, () -> CachedValueProvider.Result.create(
+                new StatementCompiler(this::resolveFragment, Expressions.CONDITIONS),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE)));
+    }
+
+    private @Nullable FragmentResolver.Fragment resolveFragment(@Nullable String namespace, @NotNull String refid) {
+        IncludeGraph graph = IncludeGraphService.getInstance(project).getGraph();
+        String key = graph.resolveKey(namespace, refid);
+        IncludeGraph.Fragment fragment = key == null ? null : graph.getFragment(key);
+        if (fragment == null) {
+            return null;
+        }
+        for (XmlTag tag : MapperStatementIndex.findStatementTags(project, fragment.namespace(), fragment.id())) {
+            if (MapperTagUtils.SQL.equals(tag.getName())) {
+                return new FragmentResolver.Fragment(key, fragment.namespace(), toSource(tag));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the tag into a {@link SourceNode} tree, with entities and CDATA already decoded.
+     */
+    public static @NotNull SourceNode.Element toSource(@NotNull XmlTag tag) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (XmlAttribute attribute : tag.getAttributes()) {
+            String value = attribute.getValue();
+            attributes.put(attribute.getName(), value == null ? "" : value);
+        }
+        List<SourceNode> children = new ArrayList<>();
+        for (XmlTagChild child : tag.getValue().getChildren()) {
+            if (child instanceof XmlTag childTag) {
+                children.add(toSource(childTag));
+            } else if (child instanceof XmlText text) {
+                children.add(new SourceNode.Text(text.getValue()));
+            }
+        }
+        return new SourceNode.Element(tag.getName(), attributes, children);
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled {@code test} expression of {@code <if>} or {@code <when>}.
+ */
+public interface Condition {
+    @NotNull String expression();
+
+    boolean test(@NotNull Bindings bindings);
+}
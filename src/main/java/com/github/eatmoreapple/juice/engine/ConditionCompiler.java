@@ -0,0 +1,16 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compiles {@code test} attributes once per statement, so rendering never parses expressions.
+ */
+@FunctionalInterface
+public interface ConditionCompiler {
+    /**
+     * Only understands a bare parameter path, tested for Go truthiness; other expressions fail when rendered.
+     */
+    ConditionCompiler PARAMETER = ParameterCondition::compile;
+
+    @NotNull Condition compile(@NotNull String expression);
+}
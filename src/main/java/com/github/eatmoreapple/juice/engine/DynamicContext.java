@@ -0,0 +1,98 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * State of a single render: the output buffer, bind arguments and visible parameters.
+ * <p>
+ * {@link #test}, {@link #collection} and {@link #value} are the only places parameter values are read,
+ * so subclasses can render a statement without real parameters, e.g. by choosing branches themselves.
+ * Nodes render their children through {@link #apply}, which subclasses can intercept per subtree.
+ */
+public class DynamicContext {
+    private final Bindings bindings;
+    private final StringBuilder sql = new StringBuilder(256);
+    private final List<Object> args = new ArrayList<>();
+
+    public DynamicContext(@NotNull Bindings bindings) {
+        this.bindings = bindings;
+    }
+
+    public final @NotNull Bindings bindings() {
+        return bindings;
+    }
+
+    /**
+     * Renders a node; every node renders its children through here.
+     */
+    public void apply(@NotNull SqlNode node) {
+        node.apply(this);
+    }
+
+    protected boolean test(@NotNull IfSqlNode node) {
+        return node.condition().test(bindings);
+    }
+
+    protected @Nullable Object collection(@NotNull ForeachSqlNode node) {
+        return value(node.collection());
+    }
+
+    protected @Nullable Object value(@NotNull ParamPath path) {
+        Object value = bindings.resolve(path);
+        if (value == Bindings.MISSING) {
+            throw new SqlRenderException("Parameter not found: " + path);
+        }
+        return value;
+    }
+
+    protected void appendParam(@NotNull TextSqlNode.Param param) {
+        Object value = value(param.path());
+        if (param.substitution()) {
+            sql.append(value);
+        } else {
+            sql.append('?');
+            args.add(value);
+        }
+    }
+
+    /**
+     * Appends a chunk of SQL, separated from the previous output by one space where SQL needs one.
+     */
+    public final void appendText(@NotNull String text) {
+        if (!text.isEmpty()) {
+            separate(text.charAt(0));
+            sql.append(text);
+        }
+    }
+
+    final void appendRaw(@NotNull String text) {
+        sql.append(text);
+    }
+
+    final void separate(char next) {
+        if (sql.isEmpty() || next == ')' || next == ',') {
+            return;
+        }
+        char last = sql.charAt(sql.length() - 1);
+        if (last != ' ' && last != '(') {
+            sql.append(' ');
+        }
+    }
+
+    final @NotNull StringBuilder sql() {
+        return sql;
+    }
+
+    final @NotNull List<Object> args() {
+        return args;
+    }
+
+    public @NotNull BoundSql toBoundSql() {
+        return new BoundSql(sql.toString().strip(), Collections.unmodifiableList(args));
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A query plan as returned by {@code EXPLAIN}, one row per plan step, with the steps that read a whole table,
+ * sort outside an index or build a temporary table marked. MySQL/MariaDB, PostgreSQL, SQLite and H2 plans are
+ * recognized.
+ * <p>
+ * H2 does not name its sorts or temporary tables; its plan is the rewritten query, marked
+ * <code>/* index sorted *&#47;</code> or <code>/* group sorted *&#47;</code> where an index delivers the
+ * order. A top-level {@code ORDER BY} without the marker is read as a sort, and a {@code GROUP BY} without it
+ * or a {@code SELECT DISTINCT} as a temporary table.
+ *
+ * @param columns the result columns of the {@code EXPLAIN} statement
+ * @param rows    the values of each row as text, {@code null} values as empty strings
+ */
+public record ExplainPlan(@NotNull List<String> columns, @NotNull List<List<String>> rows) {
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "(?:^|\\s)type=ALL(?:\\s|$)|\\bSeq Scan\\b|\\bSCAN (?:TABLE )?[\\w.\"`]++(?!\\s+USING)|\\.tableScan\\b");
+    private static final Pattern FILESORT = Pattern.compile(
+            "\\bUsing filesort\\b|\\bUSE TEMP B-TREE FOR (?:RIGHT PART OF |LAST TERM OF )?ORDER BY\\b"
+                    + "|(?:^|->|=)\\s*(?:Incremental )?Sort\\s+(?!Key|Method)");
+    private static final Pattern TEMPORARY = Pattern.compile(
+            "\\bUsing temporary\\b|\\bUSE TEMP B-TREE FOR (?:GROUP BY|DISTINCT)\\b|\\bMATERIALIZE\\b|\\bMaterialize\\b");
+    private static final String H2_PLAN = "PLAN=";
+    private static final Pattern H2_ORDER_BY = Pattern.compile("(?m)^ORDER BY\\b");
+    private static final Pattern H2_GROUP_BY = Pattern.compile("(?m)^GROUP BY\\b");
+    private static final Pattern POSTGRESQL_DDL = Pattern.compile("(?i)\\b(?:big)?serial\\b|::|\\bjsonb\\b|\\btimestamptz\\b");
+
+    /**
+     * What a plan step does that gets slower as its table grows.
+     */
+    public enum Finding {
+        FULL_SCAN("Full scan"),
+        FILESORT("Filesort"),
+        TEMPORARY("Temporary table");
+
+        private final String text;
+
+        Finding(@NotNull String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * The database a plan comes from, which decides how to ask for it.
+     */
+    public enum Dialect {
+        MYSQL, POSTGRESQL, SQLITE, H2, OTHER;
+
+        /**
+         * Maps a JDBC product or DBMS name, such as {@code MySQL} or {@code SQLite}, to its dialect.
+         */
+        public static @NotNull Dialect of(@NotNull String productName) {
+            String name = productName.toLowerCase(Locale.ROOT);
+            if (name.contains("mysql") || name.contains("maria")) {
+                return MYSQL;
+            }
+            if (name.contains("postgres")) {
+                return POSTGRESQL;
+            }
+            if (name.contains("sqlite")) {
+                return SQLITE;
+            }
+            return name.equals("h2") || name.startsWith("h2 ") ? H2 : OTHER;
+        }
+
+        /**
+         * Returns the statement that explains {@code sql} without running it.
+         */
+        public @NotNull String explain(@NotNull String sql) {
+            return (this == SQLITE ? "EXPLAIN QUERY PLAN " : "EXPLAIN ") + sql;
+        }
+    }
+
+    /**
+     * Returns the findings of one row.
+     */
+    public @NotNull Set<Finding> findings(int row) {
+        return classify(rowText(row));
+    }
+
+    /**
+     * Returns a row as {@code column=value} pairs separated by two spaces, the text the findings are read from.
+     */
+    public @NotNull String rowText(int row) {
+        List<String> pairs = new ArrayList<>();
+        List<String> values = rows.get(row);
+        for (int i = 0; i < values.size(); i++) {
+            pairs.add((i < columns.size() ? columns.get(i) : "") + "=" + values.get(i));
+        }
+        return String.join("  ", pairs);
+    }
+
+    /**
+     * Returns the findings of a plan step's text.
+     */
+    public static @NotNull Set<Finding> classify(@NotNull String text) {
+        Set<Finding> findings = EnumSet.noneOf(Finding.class);
+        if (FULL_SCAN.matcher(text).find()) {
+            findings.add(Finding.FULL_SCAN);
+        }
+        if (FILESORT.matcher(text).find()) {
+            findings.add(Finding.FILESORT);
+        }
+        if (TEMPORARY.matcher(text).find()) {
+            findings.add(Finding.TEMPORARY);
+        }
+        if (text.startsWith(H2_PLAN)) {
+            if (H2_ORDER_BY.matcher(text).find() && !text.contains("/* index sorted */")) {
+                findings.add(Finding.FILESORT);
+            }
+            if (H2_GROUP_BY.matcher(text).find() && !text.contains("/* group sorted */")
+                    || text.startsWith(H2_PLAN + "SELECT DISTINCT")) {
+                findings.add(Finding.TEMPORARY);
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * Returns the H2 compatibility mode for loading the DDL statements: {@code PostgreSQL} when they use
+     * PostgreSQL types or casts, {@code MySQL} otherwise.
+     */
+    public static @NotNull String h2Mode(@NotNull List<String> statements) {
+        return statements.stream().anyMatch(statement -> POSTGRESQL_DDL.matcher(statement).find()) ? "PostgreSQL" : "MySQL";
+    }
+}
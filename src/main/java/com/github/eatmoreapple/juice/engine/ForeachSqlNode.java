@@ -0,0 +1,80 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.Map;
+
+/**
+ * {@code <foreach>}. Items whose body renders nothing get no separator, and an empty collection renders
+ * nothing, open and close included.
+ */
+public record ForeachSqlNode(@NotNull ParamPath collection,
+                             @Nullable String item,
+                             @Nullable String index,
+                             @NotNull String open,
+                             @NotNull String close,
+                             @NotNull String separator,
+                             @NotNull SqlNode body) implements SqlNode {
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        Object value = context.collection(this);
+        int mark = context.sql().length();
+        context.appendText(open);
+
+        boolean rendered = false;
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                rendered |= iterate(context, entry.getKey(), entry.getValue(), rendered);
+            }
+        } else if (value instanceof Iterable<?> iterable) {
+            int i = 0;
+            for (Object element : iterable) {
+                rendered |= iterate(context, i++, element, rendered);
+            }
+        } else if (value != null && value.getClass().isArray()) {
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                rendered |= iterate(context, i, Array.get(value, i), rendered);
+            }
+        } else if (value != null) {
+            throw new SqlRenderException("Foreach collection is not iterable: " + collection);
+        }
+
+        if (rendered) {
+            context.appendText(close);
+        } else {
+            context.sql().setLength(mark);
+        }
+    }
+
+    private boolean iterate(@NotNull DynamicContext context, Object key, Object element, boolean separate) {
+        Bindings bindings = context.bindings();
+        if (item != null) {
+            bindings.push(item, element);
+        }
+        if (index != null) {
+            bindings.push(index, key);
+        }
+
+        StringBuilder sql = context.sql();
+        int before = sql.length();
+        if (separate) {
+            context.appendText(separator);
+        }
+        int bodyStart = sql.length();
+        context.apply(body);
+        boolean rendered = sql.length() > bodyStart;
+        if (!rendered) {
+            sql.setLength(before);
+        }
+
+        if (index != null) {
+            bindings.pop();
+        }
+        if (item != null) {
+            bindings.pop();
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Looks up the {@code <sql>} fragment an {@code <include refid>} points to.
+ */
+@FunctionalInterface
+public interface FragmentResolver {
+    FragmentResolver NONE = (namespace, refid) -> null;
+
+    @Nullable Fragment resolve(@Nullable String namespace, @NotNull String refid);
+
+    /**
+     * {@code key} identifies the fragment across namespaces and is used to memoize its compiled node.
+     */
+    record Fragment(@NotNull String key, @Nullable String namespace, @NotNull SourceNode.Element element) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code <if>}, and the {@code <when>} branches of {@code <choose>}.
+ */
+public record IfSqlNode(@NotNull Condition condition, @NotNull SqlNode body) implements SqlNode {
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        if (context.test(this)) {
+            context.apply(body);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code <include>}. {@code fragment} is the shared compiled node of the target, or {@code null} when the
+ * refid does not resolve ({@code key} is {@code null}) or the include closes a cycle.
+ */
+public record IncludeSqlNode(@NotNull String refid, @Nullable String key, @Nullable SqlNode fragment)
+        implements SqlNode {
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        if (fragment == null) {
+            throw new SqlRenderException(key == null ? "Unresolved include: " + refid : "Include cycle at: " + key);
+        }
+        context.apply(fragment);
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Renders one statement over and over, e.g. while its text or parameter fixture is being edited, reusing
+ * the output of every subtree that is unchanged since the previous render.
+ * <p>
+ * Each subtree's output is remembered together with the parameters it read. A subtree is replayed instead of
+ * rendered when a structurally equal subtree was rendered last time and every parameter it read still has an
+ * equal value. Because nodes compare structurally, this also holds across recompilation after an edit: only
+ * the edited subtree and its ancestors are rendered again. Subtrees inside {@code <foreach>} bodies depend on
+ * the loop variables and are always rendered as part of their loop.
+ */
+public final class IncrementalRenderer {
+    private Map<SqlNode, Output> previous = Map.of();
+    private int rendered;
+    private int reused;
+
+    public synchronized @NotNull BoundSql render(@NotNull CompiledStatement statement, @NotNull Map<String, ?> parameters) {
+        Map<SqlNode, Output> next = new HashMap<>();
+        MemoizingContext context = new MemoizingContext(new Bindings(parameters), previous, next);
+        BoundSql result = statement.render(context);
+        previous = next;
+        rendered = context.rendered;
+        reused = context.reused;
+        return result;
+    }
+
+    /**
+     * Number of subtrees rendered by the last call.
+     */
+    public synchronized int getRenderedCount() {
+        return rendered;
+    }
+
+    /**
+     * Number of subtrees replayed from the previous call by the last call.
+     */
+    public synchronized int getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * Output of a subtree: {@code before} is the last output character before it, which decides separation.
+     */
+    private record Output(char before, @NotNull Map<String, Object> reads, @NotNull String sql, @NotNull List<Object> args) {
+    }
+
+    private static final class MemoizingContext extends DynamicContext {
+        private final Map<SqlNode, Output> previous;
+        private final Map<SqlNode, Output> next;
+        private final Deque<Map<String, Object>> reads = new ArrayDeque<>();
+        private final Bindings.ReadListener listener = this::onRead;
+        private int rendered;
+        private int reused;
+
+        MemoizingContext(@NotNull Bindings bindings, @NotNull Map<SqlNode, Output> previous, @NotNull Map<SqlNode, Output> next) {
+            super(bindings);
+            this.previous = previous;
+            this.next = next;
+            bindings.setReadListener(listener);
+        }
+
+        private void onRead(@NotNull String name, @Nullable Object value) {
+            Map<String, Object> current = reads.peek();
+            if (current != null) {
+                current.putIfAbsent(name, value);
+            }
+        }
+
+        @Override
+        public void apply(@NotNull SqlNode node) {
+            if (bindings().depth() > 0) {
+                super.apply(node);
+                return;
+            }
+
+            StringBuilder sql = sql();
+            char before = sql.isEmpty() ? 0 : sql.charAt(sql.length() - 1);
+            Output output = previous.get(node);
+            if (output != null && output.before() == before && isCurrent(output.reads())) {
+                sql.append(output.sql());
+                args().addAll(output.args());
+                propagate(output.reads());
+                next.put(node, output);
+                reused++;
+                return;
+            }
+
+            int mark = sql.length();
+            int argsMark = args().size();
+            reads.push(new LinkedHashMap<>());
+            super.apply(node);
+            Map<String, Object> nodeReads = reads.pop();
+            propagate(nodeReads);
+            rendered++;
+            next.put(node, new Output(before, nodeReads, sql.substring(mark),
+                    new ArrayList<>(args().subList(argsMark, args().size()))));
+        }
+
+        private boolean isCurrent(@NotNull Map<String, Object> reads) {
+            Bindings bindings = bindings();
+            bindings.setReadListener(null);
+            try {
+                for (Map.Entry<String, Object> read : reads.entrySet()) {
+                    if (!Objects.equals(bindings.lookup(read.getKey()), read.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                bindings.setReadListener(listener);
+            }
+        }
+
+        private void propagate(@NotNull Map<String, Object> nodeReads) {
+            Map<String, Object> parent = reads.peek();
+            if (parent != null) {
+                nodeReads.forEach(parent::putIfAbsent);
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suggests indexes for the tables a statement reads, from the columns of its {@code WHERE} and {@code ON}
+ * predicates and its {@code ORDER BY}, checked against a {@link Schema}.
+ * <p>
+ * A table is covered when one of its indexes starts with a column the statement filters on, or, when it only
+ * sorts, with its first sort column. Otherwise the suggestion orders the columns equality first, then sort,
+ * then the first range column, so that the index serves the filter and the sort together. A filter split by
+ * {@code OR} needs an index on each side, and gets one suggestion per side no index serves. Columns the schema
+ * does not declare for the table are left out, and statements are read lexically, every branch included;
+ * parenthesized subqueries are read as their own predicates.
+ */
+public final class IndexAdvisor {
+    private static final Pattern TOKEN = Pattern.compile(
+            "'(?:[^']|'')*'|[#$]\\{[^}]*}|[\\w`\"\\[\\]]+(?:\\.[\\w`\"\\[\\]]+)?|<=>|<>|!=|<=|>=|[=<>(),?]");
+    private static final Set<String> KEYWORDS = Set.of(
+            "select", "from", "where", "and", "or", "not", "on", "join", "inner", "left", "right", "full", "outer",
+            "cross", "natural", "as", "order", "group", "by", "having", "limit", "offset", "union", "all", "distinct",
+            "asc", "desc", "nulls", "first", "last", "in", "between", "like", "is", "null", "exists", "case", "when",
+            "then", "else", "end", "set", "update", "delete", "insert", "into", "values", "using", "for", "true",
+            "false", "lock", "share", "mode", "straight_join", "ilike", "escape");
+    private static final Set<String> EQUALITY = Set.of("=", "<=>", "in", "is");
+    private static final Set<String> RANGE = Set.of("<", ">", "<=", ">=", "between", "like", "ilike");
+
+    private IndexAdvisor() {
+    }
+
+    /**
+     * An index to add on {@code table}, key parts in order.
+     */
+    public record Suggestion(@NotNull String table, @NotNull List<String> columns) {
+        public @NotNull String ddl() {
+            return "CREATE INDEX idx_" + table + "_" + String.join("_", columns)
+                    + " ON " + table + " (" + String.join(", ", columns) + ")";
+        }
+
+        /**
+         * Whether an index on this suggestion's columns also serves {@code other}, being on the same table and
+         * starting with its columns.
+         */
+        public boolean serves(@NotNull Suggestion other) {
+            return table.equals(other.table) && columns.size() >= other.columns.size()
+                    && columns.subList(0, other.columns.size()).equals(other.columns);
+        }
+    }
+
+    /**
+     * Returns the indexes the statement text needs on tables of the schema that no index covers.
+     */
+    public static @NotNull List<Suggestion> suggest(@NotNull String sql, @NotNull Schema schema) {
+        Accesses accesses = accesses(sql, schema);
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (String name : accesses.tables) {
+            Schema.Table table = schema.table(name);
+            if (table == null) {
+                continue;
+            }
+            List<List<Filter>> paths = paths(accesses, name);
+            Set<String> orderBy = accesses.orderBy.getOrDefault(name, Set.of());
+            if (isCovered(accesses, name, table, orderBy)) {
+                continue;
+            }
+            if (paths == null) {
+                addSuggestion(suggestions, table, new LinkedHashSet<>(orderBy));
+                continue;
+            }
+            for (List<Filter> path : paths) {
+                if (path.stream().noneMatch(filter -> table.hasIndexStartingWith(filter.column()))) {
+                    addSuggestion(suggestions, table, columns(path, paths.size() == 1 ? orderBy : Set.of()));
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Orders the columns of one access path equality first, then sort, then the first range column.
+     */
+    private static @NotNull Set<String> columns(@NotNull List<Filter> path, @NotNull Set<String> orderBy) {
+        Set<String> columns = new LinkedHashSet<>();
+        path.stream().filter(Filter::equality).forEach(filter -> columns.add(filter.column()));
+        columns.addAll(orderBy);
+        path.stream().filter(filter -> !filter.equality()).findFirst().ifPresent(filter -> columns.add(filter.column()));
+        return columns;
+    }
+
+    private static void addSuggestion(@NotNull List<Suggestion> suggestions, @NotNull Schema.Table table,
+                                      @NotNull Set<String> columns) {
+        columns.retainAll(table.columns());
+        Suggestion suggestion = new Suggestion(table.name(), List.copyOf(columns));
+        if (!columns.isEmpty() && !suggestions.contains(suggestion)) {
+            suggestions.add(suggestion);
+        }
+    }
+
+    /**
+     * Whether an index serves every access path of one predicate, or, when no predicate filters the table,
+     * its first sort column.
+     */
+    private static boolean isCovered(@NotNull Accesses accesses, @NotNull String name, @NotNull Schema.Table table,
+                                     @NotNull Set<String> orderBy) {
+        boolean filtered = false;
+        for (Predicate predicate : accesses.predicates) {
+            List<List<Filter>> paths = paths(predicate, name);
+            if (paths == null) {
+                continue;
+            }
+            filtered = true;
+            if (paths.stream().allMatch(path -> path.stream().anyMatch(filter -> table.hasIndexStartingWith(filter.column())))) {
+                return true;
+            }
+        }
+        return !filtered && (orderBy.isEmpty() || table.hasIndexStartingWith(orderBy.iterator().next()));
+    }
+
+    /**
+     * Returns the access paths of the table over every predicate of the statement. Predicates hold together, so
+     * the filters of those with one path are joined into one; otherwise the predicate with the fewest paths is
+     * taken. Returns {@code null} if no predicate restricts the table.
+     */
+    private static @Nullable List<List<Filter>> paths(@NotNull Accesses accesses, @NotNull String table) {
+        List<Filter> joined = new ArrayList<>();
+        List<List<Filter>> fewest = null;
+        for (Predicate predicate : accesses.predicates) {
+            List<List<Filter>> paths = paths(predicate, table);
+            if (paths != null && paths.size() == 1) {
+                joined.addAll(paths.get(0));
+            } else if (paths != null && (fewest == null || paths.size() < fewest.size())) {
+                fewest = paths;
+            }
+        }
+        return joined.isEmpty() ? fewest : List.of(joined);
+    }
+
+    /**
+     * Returns the filters on {@code table} an index can use for each way the predicate can hold: one path for
+     * an {@code AND}, one per side for an {@code OR}. Returns {@code null} if the predicate does not restrict the
+     * table, as when one side of an {@code OR} does not mention it.
+     */
+    private static @Nullable List<List<Filter>> paths(@NotNull Predicate predicate, @NotNull String table) {
+        if (predicate.branches.size() == 1) {
+            return paths(predicate.branches.get(0), table);
+        }
+        List<List<Filter>> paths = new ArrayList<>();
+        for (List<Object> branch : predicate.branches) {
+            List<List<Filter>> branchPaths = paths(branch, table);
+            if (branchPaths == null) {
+                return null;
+            }
+            paths.addAll(branchPaths);
+        }
+        return paths;
+    }
+
+    private static @Nullable List<List<Filter>> paths(@NotNull List<Object> branch, @NotNull String table) {
+        List<Filter> filters = new ArrayList<>();
+        List<Predicate> alternatives = new ArrayList<>();
+        collect(branch, table, filters, alternatives);
+        if (!filters.isEmpty()) {
+            return List.of(filters);
+        }
+        List<List<Filter>> fewest = null;
+        for (Predicate alternative : alternatives) {
+            List<List<Filter>> paths = paths(alternative, table);
+            if (paths != null && (fewest == null || paths.size() < fewest.size())) {
+                fewest = paths;
+            }
+        }
+        return fewest;
+    }
+
+    /**
+     * Collects the filters on {@code table} joined by {@code AND} in a branch, through parentheses, and the
+     * {@code OR} groups among them.
+     */
+    private static void collect(@NotNull List<Object> branch, @NotNull String table, @NotNull List<Filter> filters,
+                                @NotNull List<Predicate> alternatives) {
+        for (Object term : branch) {
+            if (term instanceof Filter filter && filter.table().equals(table)) {
+                filters.add(filter);
+            } else if (term instanceof Predicate nested && nested.branches.size() == 1) {
+                collect(nested.branches.get(0), table, filters, alternatives);
+            } else if (term instanceof Predicate nested) {
+                alternatives.add(nested);
+            }
+        }
+    }
+
+    /**
+     * A column compared with a value, by equality or by range.
+     */
+    private record Filter(@NotNull String table, @NotNull String column, boolean equality) {
+    }
+
+    /**
+     * A predicate clause or a parenthesized part of one: {@code OR} branches of terms joined by {@code AND},
+     * each a {@link Filter} or a nested predicate.
+     */
+    private static final class Predicate {
+        final List<List<Object>> branches = new ArrayList<>(List.of(new ArrayList<>()));
+
+        void add(@NotNull Object term) {
+            branches.get(branches.size() - 1).add(term);
+        }
+    }
+
+    /**
+     * The predicates of a statement, which all hold together, and the tables it filters or sorts.
+     */
+    private static final class Accesses {
+        final List<Predicate> predicates = new ArrayList<>();
+        final Map<String, Set<String>> orderBy = new LinkedHashMap<>();
+        final Set<String> tables = new LinkedHashSet<>();
+    }
+
+    /**
+     * The clause and predicate before a parenthesis, restored when it closes, and the predicate opened by it.
+     */
+    private record Scope(@NotNull Clause clause, @Nullable Predicate predicate, @Nullable Predicate nested) {
+    }
+
+    private enum Clause {
+        PREDICATE, ORDER_BY, OTHER
+    }
+
+    private static @NotNull Accesses accesses(@NotNull String sql, @NotNull Schema schema) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(sql);
+        while (matcher.find()) {
+            String token = matcher.group();
+            tokens.add(token.startsWith("#{") || token.startsWith("${") ? "?" : token);
+        }
+
+        Map<String, String> aliases = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String word = lower(tokens.get(i));
+            if (!word.equals("from") && !word.equals("join") && !word.equals("update")) {
+                continue;
+            }
+            for (int j = i + 1; j < tokens.size() && isName(tokens.get(j)); ) {
+                String table = Schema.normalize(tokens.get(j));
+                aliases.put(table, table);
+                int next = j + 1;
+                if (next < tokens.size() && lower(tokens.get(next)).equals("as")) {
+                    next++;
+                }
+                if (next < tokens.size() && isName(tokens.get(next))) {
+                    aliases.put(Schema.normalize(tokens.get(next)), table);
+                    next++;
+                }
+                j = next < tokens.size() && tokens.get(next).equals(",") && word.equals("from") ? next + 1 : tokens.size();
+            }
+        }
+
+        Accesses accesses = new Accesses();
+        Deque<Scope> scopes = new ArrayDeque<>();
+        Clause clause = Clause.OTHER;
+        Predicate predicate = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String word = lower(token);
+            switch (word) {
+                case "where", "on", "having" -> {
+                    clause = Clause.PREDICATE;
+                    predicate = new Predicate();
+                    accesses.predicates.add(predicate);
+                    continue;
+                }
+                case "or" -> {
+                    if (predicate != null) {
+                        predicate.branches.add(new ArrayList<>());
+                    }
+                    continue;
+                }
+                case "(" -> {
+                    Predicate nested = predicate == null ? null : new Predicate();
+                    scopes.push(new Scope(clause, predicate, nested));
+                    predicate = nested;
+                    continue;
+                }
+                case ")" -> {
+                    Scope scope = scopes.poll();
+                    if (scope != null) {
+                        clause = scope.clause();
+                        predicate = scope.predicate();
+                        if (predicate != null && scope.nested() != null) {
+                            predicate.add(scope.nested());
+                        }
+                    }
+                    continue;
+                }
+                case "order" -> {
+                    clause = i + 1 < tokens.size() && lower(tokens.get(i + 1)).equals("by") ? Clause.ORDER_BY : Clause.OTHER;
+                    predicate = null;
+                    i++;
+                    continue;
+                }
+                case "select", "from", "join", "group", "limit", "set", "values", "union", "update", "into" -> {
+                    clause = Clause.OTHER;
+                    predicate = null;
+                    continue;
+                }
+                default -> {
+                }
+            }
+            if (!isName(token) || i + 1 < tokens.size() && tokens.get(i + 1).equals("(")) {
+                continue;
+            }
+            if (clause == Clause.ORDER_BY) {
+                String table = tableOf(aliases, schema, token);
+                if (table != null) {
+                    accesses.tables.add(table);
+                    accesses.orderBy.computeIfAbsent(table, k -> new LinkedHashSet<>()).add(Schema.normalize(token));
+                }
+            } else if (clause == Clause.PREDICATE && predicate != null && i + 1 < tokens.size()) {
+                String operator = lower(tokens.get(i + 1));
+                int value = i + 2;
+                if (operator.equals("not") && value < tokens.size()) {
+                    operator = lower(tokens.get(value++));
+                    if (!operator.equals("in") && !operator.equals("between") && !operator.equals("like")) {
+                        continue;
+                    }
+                }
+                if (EQUALITY.contains(operator)) {
+                    addFilter(accesses, predicate, aliases, schema, token, true);
+                    // In a join condition the other side is a lookup key of its own table.
+                    if (operator.equals("=") && value < tokens.size() && isName(tokens.get(value))
+                            && tokens.get(value).contains(".")
+                            && (value + 1 >= tokens.size() || !tokens.get(value + 1).equals("("))) {
+                        addFilter(accesses, predicate, aliases, schema, tokens.get(value), true);
+                    }
+                } else if (RANGE.contains(operator)) {
+                    addFilter(accesses, predicate, aliases, schema, token, false);
+                }
+            }
+        }
+        return accesses;
+    }
+
+    private static void addFilter(@NotNull Accesses accesses, @NotNull Predicate predicate,
+                                  @NotNull Map<String, String> aliases, @NotNull Schema schema,
+                                  @NotNull String reference, boolean equality) {
+        String table = tableOf(aliases, schema, reference);
+        if (table != null) {
+            accesses.tables.add(table);
+            predicate.add(new Filter(table, Schema.normalize(reference), equality));
+        }
+    }
+
+    /**
+     * Returns the table of a column reference: its qualifier's table, or for an unqualified column the only
+     * table of the statement, or else the first one the schema declares the column for.
+     */
+    private static @Nullable String tableOf(@NotNull Map<String, String> aliases, @NotNull Schema schema,
+                                            @NotNull String reference) {
+        int dot = reference.indexOf('.');
+        if (dot > 0) {
+            return aliases.get(Schema.normalize(reference.substring(0, dot)));
+        }
+        String column = Schema.normalize(reference);
+        Set<String> tables = new LinkedHashSet<>(aliases.values());
+        if (tables.size() == 1) {
+            return tables.iterator().next();
+        }
+        for (String table : tables) {
+            Schema.Table declared = schema.table(table);
+            if (declared != null && declared.columns().contains(column)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isName(@NotNull String token) {
+        char first = token.charAt(0);
+        return (Character.isLetter(first) || first == '_' || first == '`' || first == '"' || first == '[')
+                && !KEYWORDS.contains(lower(token));
+    }
+
+    private static @NotNull String lower(@NotNull String token) {
+        return token.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offset pagination in statement text, and its keyset form.
+ * <p>
+ * {@code LIMIT n OFFSET #{offset}} and {@code LIMIT #{offset}, n} make the database read and discard every
+ * skipped row, so deep pages cost as much as all pages before them. The keyset form continues after the last
+ * row of the previous page, {@code WHERE (sort, id) > (#{lastSort}, #{lastId})}, which an index on the
+ * {@code ORDER BY} columns answers directly. Works on raw mapper text, so comparisons are XML-escaped.
+ */
+public final class KeysetPagination {
+    private static final String VALUE = "(#\\{[^}]*}|\\$\\{[^}]*}|\\?|\\d+)";
+    private static final String PARAMETER = "([#$]\\{[^}]*}|\\?)";
+    private static final Pattern LIMIT_OFFSET = Pattern.compile(
+            "\\blimit\\s+" + VALUE + "\\s+offset\\s+" + PARAMETER, Pattern.CASE_INSENSITIVE);
+    private static final Pattern LIMIT_COMMA = Pattern.compile(
+            "\\blimit\\s+" + PARAMETER + "\\s*,\\s*" + VALUE, Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("\\border\\s+by\\s+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SORT_KEY = Pattern.compile(
+            "([a-z_][\\w$]*(?:\\.[a-z_][\\w$]*)?)(?:\\s+(asc|desc))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\bwhere\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern OR = Pattern.compile("\\bor\\b", Pattern.CASE_INSENSITIVE);
+    private static final String KEY_COLUMN = "id";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * An offset-paginated {@code LIMIT} at {@code [start, end)}; {@code limit} and {@code offset} are the source
+     * text of the page size and of the offset placeholder.
+     */
+    public record Page(int start, int end, @NotNull String limit, @NotNull String offset) {
+    }
+
+    /**
+     * The {@code ORDER BY} keys right before a page, at {@code [start, end)}.
+     */
+    public record OrderBy(int start, int end, @NotNull List<String> columns, boolean descending) {
+    }
+
+    /**
+     * Returns the offset-paginated limits of the text; literal offsets such as {@code OFFSET 0} are not pages.
+     */
+    public static @NotNull List<Page> findPages(@NotNull String text) {
+        List<Page> pages = new ArrayList<>();
+        Matcher matcher = LIMIT_OFFSET.matcher(text);
+        while (matcher.find()) {
+            pages.add(new Page(matcher.start(), matcher.end(), matcher.group(1), matcher.group(2)));
+        }
+        matcher = LIMIT_COMMA.matcher(text);
+        while (matcher.find()) {
+            pages.add(new Page(matcher.start(), matcher.end(), matcher.group(2), matcher.group(1)));
+        }
+        pages.sort((a, b) -> Integer.compare(a.start(), b.start()));
+        return pages;
+    }
+
+    /**
+     * Returns the {@code ORDER BY} directly before the page if every key is a plain column and all go in the same
+     * direction, as a row comparison needs; otherwise {@code null}.
+     */
+    public static @Nullable OrderBy orderBy(@NotNull String text, @NotNull Page page) {
+        Matcher matcher = ORDER_BY.matcher(text);
+        int start = -1;
+        int keysStart = -1;
+        while (matcher.find() && matcher.end() <= page.start()) {
+            start = matcher.start();
+            keysStart = matcher.end();
+        }
+        if (start < 0) {
+            return null;
+        }
+        List<String> columns = new ArrayList<>();
+        Boolean descending = null;
+        for (String key : text.substring(keysStart, page.start()).split(",")) {
+            Matcher sortKey = SORT_KEY.matcher(key.strip());
+            if (!sortKey.matches()) {
+                return null;
+            }
+            boolean desc = "desc".equalsIgnoreCase(sortKey.group(2));
+            if (descending != null && descending != desc) {
+                return null;
+            }
+            descending = desc;
+            columns.add(sortKey.group(1));
+        }
+        return new OrderBy(start, page.start(), withKeyColumn(columns), descending);
+    }
+
+    /**
+     * The sort keys with the key column appended as a tie-breaker unless they already end with it.
+     */
+    private static @NotNull List<String> withKeyColumn(@NotNull List<String> columns) {
+        String last = columns.get(columns.size() - 1);
+        if (KEY_COLUMN.equalsIgnoreCase(bareName(last))) {
+            return List.copyOf(columns);
+        }
+        String first = columns.get(0);
+        int dot = first.lastIndexOf('.');
+        List<String> keys = new ArrayList<>(columns);
+        keys.add(dot < 0 ? KEY_COLUMN : first.substring(0, dot + 1) + KEY_COLUMN);
+        return List.copyOf(keys);
+    }
+
+    /**
+     * The parameter carrying a key column of the previous page's last row, e.g. {@code lastCreatedAt}.
+     */
+    public static @NotNull String parameterName(@NotNull String column) {
+        StringBuilder name = new StringBuilder("last");
+        for (String part : bareName(column).split("_+")) {
+            if (!part.isEmpty()) {
+                name.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * The comparison with the previous page's last row, XML-escaped.
+     */
+    public static @NotNull String predicate(@NotNull OrderBy orderBy) {
+        List<String> columns = orderBy.columns();
+        List<String> parameters = columns.stream().map(column -> "#{" + parameterName(column) + "}").toList();
+        String operator = orderBy.descending() ? " &lt; " : " &gt; ";
+        if (columns.size() == 1) {
+            return columns.get(0) + operator + parameters.get(0);
+        }
+        return "(" + String.join(", ", columns) + ")" + operator + "(" + String.join(", ", parameters) + ")";
+    }
+
+    /**
+     * Returns the {@code ORDER BY} and {@code LIMIT} text replacing {@code [orderBy.start, page.end)}: the keys
+     * with their tie-breaker and the page size alone.
+     */
+    public static @NotNull String orderAndLimit(@NotNull OrderBy orderBy, @NotNull Page page) {
+        String direction = orderBy.descending() ? " DESC" : "";
+        List<String> keys = orderBy.columns().stream().map(column -> column + direction).toList();
+        return "ORDER BY " + String.join(", ", keys) + " LIMIT " + page.limit();
+    }
+
+    /**
+     * Returns the offset of the predicate after the statement's own {@code WHERE} keyword in mapper text, or
+     * {@code -1}; a {@code WHERE} in a subquery or inside a tag's attributes is not the statement's.
+     */
+    public static int whereBody(@NotNull String text) {
+        Matcher matcher = WHERE.matcher(topLevel(text));
+        int end = -1;
+        while (matcher.find()) {
+            end = matcher.end();
+        }
+        if (end < 0) {
+            return -1;
+        }
+        while (end < text.length() && Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Whether the predicate has an {@code OR} outside parentheses, so that an appended {@code AND} would bind to
+     * its last term only. Tags such as {@code <if>} are looked through, their attributes skipped.
+     */
+    public static boolean hasTopLevelOr(@NotNull String predicate) {
+        return OR.matcher(topLevel(predicate)).find();
+    }
+
+    /**
+     * Blanks XML tags, string literals and everything in parentheses, keeping offsets.
+     */
+    private static @NotNull String topLevel(@NotNull String text) {
+        char[] blanked = text.toCharArray();
+        int depth = 0;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end = i + 1;
+            if (text.startsWith("<![CDATA[", i)) {
+                end = i + "<![CDATA[".length();
+            } else if (text.startsWith("]]>", i)) {
+                end = i + "]]>".length();
+            } else if (c == '<' && i + 1 < text.length()
+                    && (Character.isLetter(text.charAt(i + 1)) || text.charAt(i + 1) == '/')) {
+                int close = text.indexOf('>', i);
+                end = close < 0 ? text.length() : close + 1;
+            } else if (c == '\'') {
+                int close = text.indexOf('\'', i + 1);
+                end = close < 0 ? text.length() : close + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+            } else if (depth == 0) {
+                i++;
+                continue;
+            }
+            for (int j = i; j < end; j++) {
+                blanked[j] = ' ';
+            }
+            i = end;
+        }
+        return new String(blanked);
+    }
+
+    private static @NotNull String bareName(@NotNull String column) {
+        return column.substring(column.lastIndexOf('.') + 1);
+    }
+}
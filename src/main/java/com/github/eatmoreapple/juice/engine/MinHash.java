@@ -0,0 +1,169 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Near-duplicate detection with MinHash signatures and locality-sensitive hashing.
+ * <p>
+ * A signature is the minimum of {@code bands * rows} hash functions over a set of shingles; two signatures
+ * agree on a position with probability equal to the Jaccard similarity of the sets. Signatures are split
+ * into bands, and only items that share a whole band are compared. Each item is compared with the first
+ * item of every bucket it falls into rather than with every other member, so clustering is linear in the
+ * number of items; clusters are the connected components of the similar pairs found.
+ */
+public final class MinHash {
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final long[] seeds;
+
+    /**
+     * @param threshold the estimated similarity at which two items are linked
+     */
+    public MinHash(int bands, int rows, double threshold) {
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        this.seeds = new SplittableRandom(0x6A756963L).longs(bands * rows).toArray();
+    }
+
+    /**
+     * A group of near-duplicates; {@code similarities} holds each member's estimated similarity to the first.
+     */
+    public record Cluster(@NotNull List<Integer> members, @NotNull List<Double> similarities) {
+    }
+
+    /**
+     * Returns the hashes of the {@code k}-word shingles of {@code words}; texts shorter than {@code k} words
+     * are a single shingle.
+     */
+    public static long @NotNull [] shingles(@NotNull List<String> words, int k) {
+        if (words.isEmpty()) {
+            return new long[0];
+        }
+        int count = Math.max(words.size() - k + 1, 1);
+        long[] shingles = new long[count];
+        for (int i = 0; i < count; i++) {
+            long hash = 0;
+            for (int j = i; j < Math.min(i + k, words.size()); j++) {
+                hash = hash * 31 + words.get(j).hashCode();
+            }
+            shingles[i] = hash;
+        }
+        return shingles;
+    }
+
+    /**
+     * Returns the signature of a shingle set, or an empty array for an empty set.
+     */
+    public int @NotNull [] signature(long @NotNull [] shingles) {
+        if (shingles.length == 0) {
+            return new int[0];
+        }
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the sets behind two signatures.
+     */
+    public static double similarity(int @NotNull [] a, int @NotNull [] b) {
+        if (a.length == 0 || a.length != b.length) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    /**
+     * Groups signatures into clusters of two or more near-duplicates, in order of their first member.
+     * Empty signatures are never clustered.
+     */
+    public @NotNull List<Cluster> cluster(@NotNull List<int[]> signatures) {
+        int[] parent = new int[signatures.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        List<Map<Band, Integer>> buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+        for (int item = 0; item < signatures.size(); item++) {
+            int[] signature = signatures.get(item);
+            if (signature.length != bands * rows) {
+                continue;
+            }
+            for (int band = 0; band < bands; band++) {
+                Band key = new Band(Arrays.copyOfRange(signature, band * rows, (band + 1) * rows));
+                Integer first = buckets.get(band).putIfAbsent(key, item);
+                if (first != null && similarity(signatures.get(first), signature) >= threshold) {
+                    parent[find(parent, item)] = find(parent, first);
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> components = new LinkedHashMap<>();
+        for (int item = 0; item < parent.length; item++) {
+            components.computeIfAbsent(find(parent, item), k -> new ArrayList<>()).add(item);
+        }
+        List<Cluster> clusters = new ArrayList<>();
+        for (List<Integer> members : components.values()) {
+            if (members.size() < 2) {
+                continue;
+            }
+            int[] first = signatures.get(members.get(0));
+            clusters.add(new Cluster(List.copyOf(members),
+                    members.stream().map(member -> similarity(first, signatures.get(member))).toList()));
+        }
+        clusters.sort((a, b) -> Integer.compare(a.members().get(0), b.members().get(0)));
+        return clusters;
+    }
+
+    private static int find(int[] parent, int item) {
+        while (parent[item] != item) {
+            parent[item] = parent[parent[item]];
+            item = parent[item];
+        }
+        return item;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Band(int[] values) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Band band && Arrays.equals(values, band.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class MixedSqlNode implements SqlNode {
+    public static final MixedSqlNode EMPTY = new MixedSqlNode(new SqlNode[0]);
+
+    private final SqlNode[] children;
+    private final int hash;
+
+    private MixedSqlNode(@NotNull SqlNode[] children) {
+        this.children = children;
+        this.hash = Arrays.hashCode(children);
+    }
+
+    static @NotNull SqlNode of(@NotNull List<SqlNode> children) {
+        if (children.isEmpty()) {
+            return EMPTY;
+        }
+        return children.size() == 1 ? children.get(0) : new MixedSqlNode(children.toArray(new SqlNode[0]));
+    }
+
+    public @NotNull List<SqlNode> children() {
+        return List.of(children);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MixedSqlNode other && hash == other.hash && Arrays.equals(children, other.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        for (SqlNode child : children) {
+            context.apply(child);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds predicates that keep the database from using an index on the column they test: a leading wildcard
+ * in {@code LIKE}, a function, cast or arithmetic wrapped around a compared column, and random ordering. Works on
+ * the text of SQL injected into a mapper, with bind parameters as {@code ?} and other placeholders as
+ * {@code juice_} words.
+ * <p>
+ * Wrapped columns are judged one comparison operand at a time, so that either side of a comparison can be
+ * checked; the caller finds the operands in the SQL PSI, whose expression tree is shared by the dialects.
+ * Comments and the contents of string literals are blanked first, so text inside them never matches.
+ */
+public final class NonSargablePredicates {
+    private static final String COLUMN = "([a-z_][\\w$]*(?:\\.[a-z_][\\w$]*)?)";
+    private static final String NUMBER = "(?:\\d+(?:\\.\\d+)?|\\?)";
+    private static final Pattern COMPARISON_BEFORE = Pattern.compile(
+            "(?:<>|!=|<=|>=|=|<|>|\\blike)\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARISON_AFTER = Pattern.compile(
+            "^\\s*(?:<>|!=|<=|>=|=|<|>|(?:not\\s+)?(?:like|in|between)\\b)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEADING_WILDCARD = Pattern.compile(
+            "\\blike\\s+(?:'%'\\s*\\|\\||concat\\s*\\(\\s*'%'|'%)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRAPPED_COLUMN = Pattern.compile(
+            "(lower|upper|trim|ltrim|rtrim|date|year|month|day|date_format|to_char|substr|substring|left|right"
+                    + "|ifnull|coalesce|nvl|cast|convert|abs|round)\\s*\\(\\s*" + COLUMN
+                    + "\\s*(?:,[^()]*|\\s+as\\s+[\\w\\s]+(?:\\([\\d\\s,]*\\))?\\s*)?\\)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CAST_COLUMN = Pattern.compile(COLUMN + "\\s*::\\s*\\w+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ARITHMETIC_LEFT = Pattern.compile(
+            COLUMN + "\\s*[-+*/%]\\s*" + NUMBER, Pattern.CASE_INSENSITIVE);
+    private static final Pattern ARITHMETIC_RIGHT = Pattern.compile(
+            NUMBER + "\\s*[-+*/]\\s*" + COLUMN, Pattern.CASE_INSENSITIVE);
+    private static final Pattern RANDOM_ORDER = Pattern.compile("\\b(?:rand|random|newid)\\s*\\(\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private NonSargablePredicates() {
+    }
+
+    /**
+     * A problem at {@code [start, end)} of the clause text.
+     */
+    public record Finding(int start, int end, @NotNull String message) {
+    }
+
+    /**
+     * Checks the {@code LIKE} predicates of a {@code WHERE}, {@code HAVING} or join condition clause.
+     */
+    public static @NotNull List<Finding> inPredicates(@NotNull String text) {
+        String clause = mask(text);
+        List<Finding> findings = new ArrayList<>();
+        Matcher matcher = LEADING_WILDCARD.matcher(clause);
+        while (matcher.find()) {
+            findings.add(new Finding(matcher.start(), matcher.end(),
+                    "LIKE with a leading wildcard cannot use an index on the column and scans every row; "
+                            + "consider a full-text index or matching a prefix"));
+        }
+        return findings;
+    }
+
+    /**
+     * Checks one operand of an expression, e.g. {@code lower(name)} in {@code ? = lower(name)}. Only operands of
+     * a comparison, {@code LIKE}, {@code IN} or {@code BETWEEN} are reported, so the operand of arithmetic or a
+     * function argument is left to the enclosing operand.
+     *
+     * @param before  the expression's text before the operand
+     * @param operand the operand's text
+     * @param after   the expression's text after the operand
+     * @return the problem, at offsets within the operand, or {@code null}
+     */
+    public static @Nullable Finding inOperand(@NotNull String before, @NotNull String operand, @NotNull String after) {
+        if (!COMPARISON_BEFORE.matcher(mask(before)).find() && !COMPARISON_AFTER.matcher(mask(after)).find()) {
+            return null;
+        }
+        String masked = mask(operand);
+        int start = masked.length() - masked.stripLeading().length();
+        int end = masked.stripTrailing().length();
+        if (start >= end) {
+            return null;
+        }
+        Matcher matcher = WRAPPED_COLUMN.matcher(masked).region(start, end);
+        if (matcher.matches() && !isSynthetic(matcher.group(2))) {
+            String function = matcher.group(1).toLowerCase(Locale.ROOT);
+            return new Finding(start, end, function.toUpperCase(Locale.ROOT) + "() around '" + matcher.group(2)
+                    + "' hides the column from its index" + rewrite(function, matcher.group(2)));
+        }
+        matcher = CAST_COLUMN.matcher(masked).region(start, end);
+        if (matcher.matches() && !isSynthetic(matcher.group(1))) {
+            return new Finding(start, end, "A cast of '" + matcher.group(1) + "' hides the column from its index"
+                    + rewrite("cast", matcher.group(1)));
+        }
+        for (Pattern arithmetic : List.of(ARITHMETIC_LEFT, ARITHMETIC_RIGHT)) {
+            matcher = arithmetic.matcher(masked).region(start, end);
+            if (matcher.matches() && !isKeyword(matcher.group(1)) && !isSynthetic(matcher.group(1))) {
+                return new Finding(matcher.start(1), matcher.end(1), "Arithmetic on '" + matcher.group(1)
+                        + "' hides the column from its index; move the arithmetic to the other side of the comparison");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks an {@code ORDER BY} clause.
+     */
+    public static @NotNull List<Finding> inOrderBy(@NotNull String text) {
+        String clause = mask(text);
+        List<Finding> findings = new ArrayList<>();
+        Matcher matcher = RANDOM_ORDER.matcher(clause);
+        while (matcher.find()) {
+            findings.add(new Finding(matcher.start(), matcher.end(),
+                    "Ordering by a random value reads and sorts every matching row; pick random keys or offsets instead"));
+        }
+        return findings;
+    }
+
+    /**
+     * Replaces comments and the contents of string literals with spaces, keeping offsets. A literal's leading
+     * {@code %} is kept for the wildcard check.
+     */
+    static @NotNull String mask(@NotNull String sql) {
+        char[] masked = sql.toCharArray();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                int j = i + 1;
+                while (j < length) {
+                    char d = sql.charAt(j);
+                    if (d == '\\' || d == '\'' && j + 1 < length && sql.charAt(j + 1) == '\'') {
+                        blank(masked, j, Math.min(j + 2, length));
+                        j += 2;
+                    } else if (d == '\'') {
+                        break;
+                    } else {
+                        if (d != '%' || j != i + 1) {
+                            masked[j] = ' ';
+                        }
+                        j++;
+                    }
+                }
+                i = j + 1;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                end = end < 0 ? length : end;
+                blank(masked, i, end);
+                i = end;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                blank(masked, i, end);
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return new String(masked);
+    }
+
+    private static void blank(char @NotNull [] text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text[i] != '\n') {
+                text[i] = ' ';
+            }
+        }
+    }
+
+    private static @NotNull String rewrite(@NotNull String function, @NotNull String column) {
+        return switch (function) {
+            case "date" -> "; compare a range instead: " + column + " >= ? AND " + column + " < ? + INTERVAL 1 DAY";
+            case "year", "month", "day", "date_format", "to_char" -> "; compare a range of " + column + " instead";
+            case "lower", "upper" -> "; use a case-insensitive collation or an index on the expression";
+            case "trim", "ltrim", "rtrim" -> "; store the value trimmed and compare " + column + " directly";
+            case "ifnull", "coalesce", "nvl" -> "; test " + column + " IS NULL OR " + column + " = ? instead";
+            default -> "; compare " + column + " directly or index the expression";
+        };
+    }
+
+    /**
+     * Whether the word stands in for a placeholder or include in injected SQL.
+     */
+    private static boolean isSynthetic(@NotNull String word) {
+        return word.startsWith("juice_");
+    }
+
+    private static boolean isKeyword(@NotNull String word) {
+        return switch (word.toLowerCase(Locale.ROOT)) {
+            case "and", "or", "not", "where", "on", "having", "interval", "select" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Pattern;
+
+/**
+ * A dotted parameter reference such as {@code user.Name}, split once at compile time.
+ */
+public final class ParamPath {
+    private static final Pattern DOT = Pattern.compile("\\s*\\.\\s*");
+
+    private final String text;
+    private final String[] segments;
+
+    private ParamPath(@NotNull String text, @NotNull String[] segments) {
+        this.text = text;
+        this.segments = segments;
+    }
+
+    public static @NotNull ParamPath parse(@NotNull String text) {
+        String trimmed = text.strip();
+        return new ParamPath(trimmed, DOT.split(trimmed));
+    }
+
+    public @NotNull String text() {
+        return text;
+    }
+
+    public @NotNull String root() {
+        return segments[0];
+    }
+
+    public int length() {
+        return segments.length;
+    }
+
+    public @NotNull String segment(int index) {
+        return segments[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ParamPath other && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
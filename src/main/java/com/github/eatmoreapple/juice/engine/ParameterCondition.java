@@ -0,0 +1,26 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Pattern;
+
+/**
+ * Condition of {@link ConditionCompiler#PARAMETER}.
+ */
+record ParameterCondition(@NotNull String expression, @Nullable ParamPath path) implements Condition {
+    private static final Pattern PATH = Pattern.compile("[A-Za-z_]\\w*(\\.\\w+)*");
+
+    static @NotNull Condition compile(@NotNull String expression) {
+        String trimmed = expression.strip();
+        return new ParameterCondition(trimmed, PATH.matcher(trimmed).matches() ? ParamPath.parse(trimmed) : null);
+    }
+
+    @Override
+    public boolean test(@NotNull Bindings bindings) {
+        if (path == null) {
+            throw new SqlRenderException("Unsupported test expression: " + expression);
+        }
+        return Values.isTruthy(bindings.resolve(path));
+    }
+}
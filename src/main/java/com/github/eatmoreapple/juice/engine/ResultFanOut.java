@@ -0,0 +1,57 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code <collection>} mappings of a {@code <resultMap>}. Juice fills every mapping from the rows of one
+ * joined query, so each collection multiplies the rows a parent comes back as, and sibling collections
+ * multiply each other: a parent with two collections of ten is read from a hundred rows.
+ *
+ * @param collections the property paths of the collections, such as {@code orders} or {@code owner.pets}
+ */
+public record ResultFanOut(@NotNull List<String> collections) {
+    /**
+     * Collects the collections of a {@code <resultMap>}, including those inside associations.
+     */
+    public static @NotNull ResultFanOut of(@NotNull SourceNode.Element resultMap) {
+        List<String> collections = new ArrayList<>();
+        collect(resultMap, "", collections);
+        return new ResultFanOut(List.copyOf(collections));
+    }
+
+    /**
+     * Returns the rows read per parent when every collection holds {@code rowsPerCollection} elements,
+     * saturating at {@link Long#MAX_VALUE}.
+     */
+    public long rowsPerParent(long rowsPerCollection) {
+        long rows = 1;
+        for (int i = 0; i < collections.size(); i++) {
+            rows = rowsPerCollection != 0 && rows > Long.MAX_VALUE / rowsPerCollection
+                    ? Long.MAX_VALUE : rows * rowsPerCollection;
+        }
+        return rows;
+    }
+
+    private static void collect(@NotNull SourceNode.Element element, @NotNull String prefix,
+                                @NotNull List<String> collections) {
+        for (SourceNode child : element.children()) {
+            if (!(child instanceof SourceNode.Element nested)) {
+                continue;
+            }
+            String property = nested.attribute("property");
+            if (property == null || property.isBlank()) {
+                continue;
+            }
+            String path = prefix + property.strip();
+            if ("collection".equals(nested.name())) {
+                collections.add(path);
+                collect(nested, path + ".", collections);
+            } else if ("association".equals(nested.name())) {
+                collect(nested, path + ".", collections);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Whether a statement always limits the rows it returns, with {@code LIMIT}, {@code FETCH FIRST/NEXT} or
+ * {@code TOP}, judged from its compiled template.
+ */
+public enum RowLimit {
+    /**
+     * Every rendering has a limit.
+     */
+    ALWAYS,
+    /**
+     * Only some renderings do, e.g. a {@code LIMIT} inside {@code <if>}.
+     */
+    CONDITIONAL,
+    NONE;
+
+    private static final Pattern LIMIT = Pattern.compile("\\blimit\\b|\\bfetch\\s+(?:first|next)\\b|\\btop\\s*\\(?\\s*[\\d?]",
+            Pattern.CASE_INSENSITIVE);
+
+    public static @NotNull RowLimit of(@NotNull CompiledStatement statement) {
+        return of(statement.root(), Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static @NotNull RowLimit of(@NotNull SqlNode node, @NotNull Set<SqlNode> including) {
+        if (node instanceof TextSqlNode text) {
+            return LIMIT.matcher(text.text()).find() ? ALWAYS : NONE;
+        }
+        if (node instanceof MixedSqlNode mixed) {
+            RowLimit result = NONE;
+            for (SqlNode child : mixed.children()) {
+                RowLimit limit = of(child, including);
+                if (limit == ALWAYS) {
+                    return ALWAYS;
+                }
+                if (limit == CONDITIONAL) {
+                    result = CONDITIONAL;
+                }
+            }
+            return result;
+        }
+        if (node instanceof IfSqlNode ifNode) {
+            return of(ifNode.body(), including) == NONE ? NONE : CONDITIONAL;
+        }
+        if (node instanceof ChooseSqlNode choose) {
+            boolean all = choose.otherwise() != null && of(choose.otherwise(), including) == ALWAYS;
+            boolean any = choose.otherwise() != null && of(choose.otherwise(), including) != NONE;
+            for (IfSqlNode when : choose.whens()) {
+                RowLimit limit = of(when.body(), including);
+                all &= limit == ALWAYS;
+                any |= limit != NONE;
+            }
+            return all ? ALWAYS : any ? CONDITIONAL : NONE;
+        }
+        if (node instanceof TrimSqlNode trim) {
+            return of(trim.body(), including);
+        }
+        if (node instanceof ForeachSqlNode foreach) {
+            // An empty collection renders nothing.
+            return of(foreach.body(), including) == NONE ? NONE : CONDITIONAL;
+        }
+        if (node instanceof IncludeSqlNode include && include.fragment() != null && including.add(include.fragment())) {
+            RowLimit limit = of(include.fragment(), including);
+            including.remove(include.fragment());
+            return limit;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,296 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tables, columns and indexes declared by DDL scripts, such as the migrations of a {@code schema} directory
+ * applied in order. {@code CREATE TABLE}, {@code CREATE INDEX}, {@code ALTER TABLE ... ADD/DROP} and
+ * {@code DROP INDEX/TABLE} are understood in their MySQL, PostgreSQL and SQLite forms; other statements are
+ * ignored. Names are unquoted, lower-case and without a schema prefix.
+ */
+public final class Schema {
+    private static final String NAME = "[\\w`\"\\[\\].]+";
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "(?is)create\\s+(?:temporary\\s+)?table\\s+(?:if\\s+not\\s+exists\\s+)?(" + NAME + ")\\s*\\((.*)\\)[^)]*");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?is)create\\s+(unique\\s+)?index\\s+(?:concurrently\\s+)?(?:if\\s+not\\s+exists\\s+)?(" + NAME + ")"
+                    + "\\s+on\\s+(?:only\\s+)?(" + NAME + ")\\s*(?:using\\s+\\w+\\s*)?\\((.*)\\)[^)]*");
+    private static final Pattern ALTER_TABLE = Pattern.compile(
+            "(?is)alter\\s+table\\s+(?:if\\s+exists\\s+)?(?:only\\s+)?(" + NAME + ")\\s+(.*)");
+    private static final Pattern DROP_INDEX = Pattern.compile(
+            "(?is)drop\\s+index\\s+(?:concurrently\\s+)?(?:if\\s+exists\\s+)?(" + NAME + ")(?:\\s+on\\s+(" + NAME + "))?.*");
+    private static final Pattern DROP_TABLE = Pattern.compile(
+            "(?is)drop\\s+table\\s+(?:if\\s+exists\\s+)?(" + NAME + ").*");
+    private static final Pattern KEY_DEFINITION = Pattern.compile(
+            "(?is)(?:constraint\\s+(" + NAME + ")\\s+)?(primary\\s+key|unique(?:\\s+(?:key|index))?|key|index)\\b"
+                    + "\\s*(" + NAME + ")?\\s*(?:using\\s+\\w+\\s*)?\\((.*)\\).*");
+    private static final Pattern ADD = Pattern.compile("(?is)add\\s+(?:column\\s+)?(?:if\\s+not\\s+exists\\s+)?(.*)");
+    private static final Pattern DROP = Pattern.compile(
+            "(?is)drop\\s+(primary\\s+key|index\\s+|key\\s+|constraint\\s+|column\\s+)?(?:if\\s+exists\\s+)?(" + NAME + ")?.*");
+    private static final Pattern KEY_PART = Pattern.compile("(" + NAME + ")\\s*(?:\\(\\s*\\d+\\s*\\))?(?:\\s+.*)?");
+    private static final Pattern SKIPPED_DEFINITION = Pattern.compile(
+            "(?is)(?:constraint\\s+" + NAME + "\\s+)?(?:foreign\\s+key|check|fulltext|spatial|exclude)\\b.*");
+
+    private static final Pattern MIGRATION_VERSION = Pattern.compile("[Vv]?(\\d+(?:[._]\\d+)*)(?=__|[_.-]|$).*");
+
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+
+    private Schema() {
+    }
+
+    /**
+     * A table with its columns in declaration order and its indexes, the primary key included.
+     */
+    public record Table(@NotNull String name, @NotNull List<String> columns, @NotNull List<Index> indexes) {
+        /**
+         * Whether some index starts with {@code column}, so a lookup by it can use the index.
+         */
+        public boolean hasIndexStartingWith(@NotNull String column) {
+            return indexes.stream().anyMatch(index -> !index.columns().isEmpty() && index.columns().get(0).equals(column));
+        }
+    }
+
+    /**
+     * An index; {@code columns} are the key parts in order, expression parts kept as written.
+     */
+    public record Index(@NotNull String name, @NotNull List<String> columns, boolean unique) {
+    }
+
+    /**
+     * Builds the schema by applying the statements of the scripts in order.
+     */
+    public static @NotNull Schema of(@NotNull List<List<String>> scripts) {
+        Schema schema = new Schema();
+        for (List<String> statements : scripts) {
+            for (String statement : statements) {
+                schema.apply(statement);
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Splits a script into statements at semicolons outside strings, quoted names and comments, with the
+     * comments removed and whitespace collapsed.
+     */
+    public static @NotNull List<String> statements(@NotNull String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                current.append(c);
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+                current.append(c);
+            } else if (c == '-' && script.startsWith("--", i) || c == '#') {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? script.length() : end;
+                current.append(' ');
+            } else if (c == '/' && script.startsWith("/*", i)) {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? script.length() : end + 1;
+                current.append(' ');
+            } else if (c == ';') {
+                add(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        add(statements, current);
+        return statements;
+    }
+
+    /**
+     * Orders migration file names by their version prefix as migration tools apply them: {@code V2__x.sql} before
+     * {@code V10__x.sql} and {@code 2_y.sql} before {@code 10_x.sql}, with Flyway's {@code V1_1__} read as
+     * version 1.1. Names without a version, such as Flyway's repeatable {@code R__x.sql}, come after the
+     * versioned ones and compare equal among themselves.
+     */
+    public static int compareMigrations(@NotNull String first, @NotNull String second) {
+        Matcher a = MIGRATION_VERSION.matcher(first);
+        Matcher b = MIGRATION_VERSION.matcher(second);
+        boolean versioned = a.matches();
+        if (versioned != b.matches()) {
+            return versioned ? -1 : 1;
+        }
+        if (!versioned) {
+            return 0;
+        }
+        String[] x = a.group(1).split("[._]");
+        String[] y = b.group(1).split("[._]");
+        for (int i = 0; i < Math.min(x.length, y.length); i++) {
+            String p = x[i].replaceFirst("^0+(?=\\d)", "");
+            String q = y[i].replaceFirst("^0+(?=\\d)", "");
+            int order = p.length() != q.length() ? Integer.compare(p.length(), q.length()) : p.compareTo(q);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(x.length, y.length);
+    }
+
+    /**
+     * Whether the statement is one of the DDL statements the schema understands, as split by {@link #statements}.
+     */
+    public static boolean isDeclaration(@NotNull String statement) {
+        return CREATE_TABLE.matcher(statement).matches() || CREATE_INDEX.matcher(statement).matches()
+                || ALTER_TABLE.matcher(statement).matches() || DROP_INDEX.matcher(statement).matches()
+                || DROP_TABLE.matcher(statement).matches();
+    }
+
+    public @Nullable Table table(@NotNull String name) {
+        return tables.get(normalize(name));
+    }
+
+    public @NotNull Collection<Table> tables() {
+        return tables.values();
+    }
+
+    /**
+     * Unquotes, lower-cases and strips the schema prefix of a name.
+     */
+    public static @NotNull String normalize(@NotNull String name) {
+        String unquoted = name.replaceAll("[`\"\\[\\]]", "").toLowerCase(Locale.ROOT);
+        return unquoted.substring(unquoted.lastIndexOf('.') + 1);
+    }
+
+    private void apply(@NotNull String statement) {
+        Matcher matcher;
+        if ((matcher = CREATE_TABLE.matcher(statement)).matches()) {
+            Table table = new Table(normalize(matcher.group(1)), new ArrayList<>(), new ArrayList<>());
+            tables.put(table.name(), table);
+            for (String definition : splitTopLevel(matcher.group(2))) {
+                addDefinition(table, definition);
+            }
+        } else if ((matcher = CREATE_INDEX.matcher(statement)).matches()) {
+            Table table = table(matcher.group(3));
+            if (table != null) {
+                table.indexes().add(new Index(normalize(matcher.group(2)), keyParts(matcher.group(4)), matcher.group(1) != null));
+            }
+        } else if ((matcher = ALTER_TABLE.matcher(statement)).matches()) {
+            Table table = table(matcher.group(1));
+            if (table != null) {
+                for (String action : splitTopLevel(matcher.group(2))) {
+                    alter(table, action);
+                }
+            }
+        } else if ((matcher = DROP_INDEX.matcher(statement)).matches()) {
+            String index = normalize(matcher.group(1));
+            Table on = matcher.group(2) == null ? null : table(matcher.group(2));
+            for (Table table : on != null ? List.of(on) : tables.values()) {
+                table.indexes().removeIf(candidate -> candidate.name().equals(index));
+            }
+        } else if ((matcher = DROP_TABLE.matcher(statement)).matches()) {
+            tables.remove(normalize(matcher.group(1)));
+        }
+    }
+
+    private static void addDefinition(@NotNull Table table, @NotNull String definition) {
+        if (SKIPPED_DEFINITION.matcher(definition).matches()) {
+            return;
+        }
+        Matcher key = KEY_DEFINITION.matcher(definition);
+        if (key.matches()) {
+            String kind = key.group(2).toLowerCase(Locale.ROOT);
+            boolean primary = kind.startsWith("primary");
+            String name = primary ? "primary" : key.group(3) != null ? key.group(3) : key.group(1);
+            table.indexes().add(new Index(name == null ? "" : normalize(name), keyParts(key.group(4)),
+                    primary || kind.startsWith("unique")));
+            return;
+        }
+        String[] words = definition.split("\\s+", 2);
+        String column = normalize(words[0]);
+        table.columns().add(column);
+        String rest = words.length > 1 ? words[1].toLowerCase(Locale.ROOT) : "";
+        if (rest.matches("(?s).*\\bprimary\\s+key\\b.*")) {
+            table.indexes().add(new Index("primary", List.of(column), true));
+        } else if (rest.matches("(?s).*\\bunique\\b.*")) {
+            table.indexes().add(new Index(column, List.of(column), true));
+        }
+    }
+
+    private static void alter(@NotNull Table table, @NotNull String action) {
+        Matcher add = ADD.matcher(action);
+        if (add.matches()) {
+            addDefinition(table, add.group(1));
+            return;
+        }
+        Matcher drop = DROP.matcher(action);
+        if (!drop.matches()) {
+            return;
+        }
+        String kind = drop.group(1) == null ? "column" : drop.group(1).strip().toLowerCase(Locale.ROOT);
+        String name = drop.group(2) == null ? null : normalize(drop.group(2));
+        if (kind.startsWith("primary")) {
+            table.indexes().removeIf(index -> index.name().equals("primary"));
+        } else if (name != null && kind.equals("column")) {
+            table.columns().remove(name);
+            table.indexes().removeIf(index -> index.columns().contains(name));
+        } else if (name != null) {
+            table.indexes().removeIf(index -> index.name().equals(name));
+        }
+    }
+
+    /**
+     * Returns the column of each key part, such as {@code name} for {@code name(16) DESC}; expression parts are
+     * kept as written so they never match a column.
+     */
+    private static @NotNull List<String> keyParts(@NotNull String list) {
+        List<String> columns = new ArrayList<>();
+        for (String part : splitTopLevel(list)) {
+            Matcher column = KEY_PART.matcher(part);
+            columns.add(column.matches() ? normalize(column.group(1)) : part);
+        }
+        return columns;
+    }
+
+    private static @NotNull List<String> splitTopLevel(@NotNull String text) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        char quote = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(text.substring(start, i).strip());
+                start = i + 1;
+            }
+        }
+        parts.add(text.substring(start).strip());
+        parts.removeIf(String::isEmpty);
+        return parts;
+    }
+
+    private static void add(@NotNull List<String> statements, @NotNull StringBuilder current) {
+        String statement = current.toString().replaceAll("\\s+", " ").strip();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+}
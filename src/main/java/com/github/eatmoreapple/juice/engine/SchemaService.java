@@ -0,0 +1,96 @@
+package com.github.eatmoreapple.juice.engine;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The {@link Schema} declared by the project's {@code schema/*.sql} migrations, applied in version order, see
+ * {@link Schema#compareMigrations}, and in path order among equal versions.
+ * <p>
+ * Each file is split into statements once per change of that file; the schema is rebuilt from those when a
+ * migration changes or one is added or removed.
+ */
+@Service(Service.Level.PROJECT)
+public final class SchemaService {
+    private static final String SCHEMA_DIRECTORY = "schema";
+
+    private final Project project;
+
+    public SchemaService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static @NotNull SchemaService getInstance(@NotNull Project project) {
+        return project.getService(SchemaService.class);
+    }
+
+    /**
+     * Returns the schema, empty when the project has no migrations. Requires a read action.
+     */
+    public @NotNull Schema getSchema() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, () -> {
+            List<PsiFile> files = findMigrations();
+            List<List<String>> scripts = new ArrayList<>();
+            for (PsiFile file : files) {
+                scripts.add(statementsOf(file));
+            }
+            List<Object> dependencies = new ArrayList<>(files);
+            dependencies.add(VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
+            return CachedValueProvider.Result.create(Schema.of(scripts), dependencies);
+        });
+    }
+
+    /**
+     * Returns the statements of every migration in the order they apply. Requires a read action.
+     */
+    public @NotNull List<String> getStatements() {
+        List<String> statements = new ArrayList<>();
+        for (PsiFile file : findMigrations()) {
+            statements.addAll(statementsOf(file));
+        }
+        return statements;
+    }
+
+    private @NotNull List<PsiFile> findMigrations() {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        List<PsiFile> files = new ArrayList<>();
+        FilenameIndex.getAllFilesByExt(project, "sql", GlobalSearchScope.projectScope(project)).stream()
+                .filter(SchemaService::isMigration)
+                .sorted(Comparator.comparing(VirtualFile::getName, Schema::compareMigrations)
+                        .thenComparing(VirtualFile::getPath))
+                .map(psiManager::findFile)
+                .forEach(file -> {
+                    if (file != null) {
+                        files.add(file);
+                    }
+                });
+        return files;
+    }
+
+    private static boolean isMigration(@NotNull VirtualFile file) {
+        for (VirtualFile parent = file.getParent(); parent != null; parent = parent.getParent()) {
+            if (SCHEMA_DIRECTORY.equals(parent.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @NotNull List<String> statementsOf(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                Schema.statements(file.getText()), file));
+    }
+}
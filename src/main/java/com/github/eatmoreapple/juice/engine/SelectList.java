@@ -0,0 +1,215 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The columns of the outermost {@code SELECT} of a piece of SQL, for comparing what a statement fetches with
+ * what its result type reads. Only a list written out in the text, from {@code SELECT} to {@code FROM}, is read.
+ */
+public final class SelectList {
+    private static final Pattern STAR = Pattern.compile("(?:([\\w`\"]+)\\.)?\\*");
+    private static final Pattern COLUMN = Pattern.compile("(?:[\\w`\"]+\\.)?([\\w`\"]+)");
+    private static final Pattern ALIAS = Pattern.compile("\\s(?:as\\s+)?([\\w`\"]+)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DISTINCT = Pattern.compile("(?i)distinct\\s+");
+    private static final List<String> FROM_END = List.of("where", "group", "having", "order", "limit", "union",
+            "window", "for");
+
+    private SelectList() {
+    }
+
+    /**
+     * An item at {@code [start, end)}; {@code name} is the column it yields, or {@code null} for {@code *} and
+     * unnamed expressions, and {@code qualifier} the table of {@code t.*}.
+     */
+    public record Item(int start, int end, @Nullable String name, boolean star, @Nullable String qualifier) {
+    }
+
+    /**
+     * A column a result reads. {@code exact} is set for names taken from a {@code column} attribute or tag;
+     * otherwise {@code name} is a Go field name, which juice matches ignoring case and underscores.
+     */
+    public record Column(@NotNull String name, boolean exact) {
+        /**
+         * Returns the name to select: the name itself if exact, else the field name in snake_case, which juice
+         * reads back into the same field.
+         */
+        public @NotNull String sqlName() {
+            return exact ? name : snakeCase(name);
+        }
+    }
+
+    /**
+     * Returns the select list replacing {@code *}, or {@code t.*} when {@code qualifier} is {@code t}.
+     */
+    public static @NotNull String expansion(@Nullable String qualifier, @NotNull List<Column> columns) {
+        String prefix = qualifier == null ? "" : qualifier + ".";
+        return String.join(", ", columns.stream().map(column -> prefix + column.sqlName()).toList());
+    }
+
+    /**
+     * Returns the items of the first top-level select list, or {@code null} if the text has none up to a
+     * {@code FROM}.
+     */
+    public static @Nullable List<Item> parse(@NotNull String sql) {
+        int select = keyword(sql, "select", 0);
+        if (select < 0) {
+            return null;
+        }
+        int start = select + "select".length();
+        Matcher distinct = DISTINCT.matcher(sql).region(skipWhitespace(sql, start), sql.length());
+        if (distinct.lookingAt()) {
+            start = distinct.end();
+        }
+        int from = keyword(sql, "from", start);
+        if (from < 0) {
+            return null;
+        }
+
+        List<Item> items = new ArrayList<>();
+        int depth = 0;
+        int itemStart = start;
+        char quote = 0;
+        for (int i = start; i <= from; i++) {
+            char c = i < from ? sql.charAt(i) : ',';
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                Item item = item(sql, itemStart, i);
+                if (item != null) {
+                    items.add(item);
+                }
+                itemStart = i + 1;
+            }
+        }
+        return items.isEmpty() ? null : items;
+    }
+
+    /**
+     * Whether the {@code FROM} of the first top-level select reads a single table, with no join and no
+     * comma-separated tables, as far as the text goes. Only then can a {@code *} be expanded from the result's
+     * columns alone: with more tables some columns would be ambiguous or belong to another table.
+     */
+    public static boolean singleTable(@NotNull String sql) {
+        int select = keyword(sql, "select", 0);
+        int from = select < 0 ? -1 : keyword(sql, "from", select + "select".length());
+        if (from < 0) {
+            return false;
+        }
+        int start = from + "from".length();
+        int end = sql.length();
+        for (String clause : FROM_END) {
+            int at = keyword(sql, clause, start);
+            if (at >= 0 && at < end) {
+                end = at;
+            }
+        }
+        String tables = sql.substring(start, end);
+        return keyword(tables, "join", 0) < 0 && keyword(tables, ",", 0) < 0;
+    }
+
+    /**
+     * Normalizes a column name for comparison: unquoted, lower-case and without underscores.
+     */
+    public static @NotNull String normalize(@NotNull String name) {
+        return name.replaceAll("[`\"_]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts a Go field name to snake_case, keeping acronyms together: {@code UserID} becomes {@code user_id}.
+     */
+    static @NotNull String snakeCase(@NotNull String name) {
+        StringBuilder snake = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && name.charAt(i - 1) != '_'
+                    && (!Character.isUpperCase(name.charAt(i - 1))
+                    || i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1)))) {
+                snake.append('_');
+            }
+            snake.append(Character.toLowerCase(c));
+        }
+        return snake.toString();
+    }
+
+    private static @Nullable Item item(@NotNull String sql, int start, int end) {
+        while (start < end && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(sql.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        String expression = sql.substring(start, end);
+        Matcher star = STAR.matcher(expression);
+        if (star.matches()) {
+            return new Item(start, end, null, true, star.group(1));
+        }
+        Matcher column = COLUMN.matcher(expression);
+        if (column.matches()) {
+            return new Item(start, end, unquote(column.group(1)), false, null);
+        }
+        Matcher alias = ALIAS.matcher(expression);
+        return new Item(start, end, alias.find() ? unquote(alias.group(1)) : null, false, null);
+    }
+
+    /**
+     * Returns the offset of the first whole-word keyword, or punctuation such as {@code ,}, at or after
+     * {@code from} outside parentheses and quotes.
+     */
+    private static int keyword(@NotNull String sql, @NotNull String keyword, int from) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = from; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && sql.regionMatches(true, i, keyword, 0, keyword.length())
+                    && (i == 0 || !isWordPart(sql.charAt(i - 1)) || !isWordPart(keyword.charAt(0)))
+                    && (i + keyword.length() == sql.length() || !isWordPart(sql.charAt(i + keyword.length()))
+                    || !isWordPart(keyword.charAt(keyword.length() - 1)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(@NotNull String sql, int i) {
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static @NotNull String unquote(@NotNull String name) {
+        return name.replaceAll("[`\"]", "");
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounds the number of distinct SQL strings ("shapes") a statement can render, each of which is a separate
+ * entry in the database's prepared statement and plan caches.
+ * <p>
+ * The bound is computed bottom-up over the compiled tree: an {@code <if>} doubles the shapes of its body's
+ * surroundings, a {@code <choose>} adds up its branches and a {@code <foreach>} multiplies by the shapes of
+ * every collection length up to {@link #getCollectionSizes()}. Ifs that share a test expression always take
+ * the same branch, so the result is also capped by {@code 2^conditions} times the loop shapes. Every subtree
+ * is counted once, and compiled fragments are shared between includes, so the cost is linear in the size of
+ * the statement and its fragments rather than in the number of shapes. {@code ${}} substitutions add a shape
+ * per distinct value and are only reported.
+ * <p>
+ * A counter is not thread-safe; threads counting in parallel use one each.
+ */
+public final class ShapeCounter {
+    private final int collectionSizes;
+    private final Map<SqlNode, Summary> memo = new IdentityHashMap<>();
+
+    /**
+     * @param collectionSizes the number of distinct non-empty collection lengths assumed per {@code <foreach>}
+     */
+    public ShapeCounter(int collectionSizes) {
+        this.collectionSizes = Math.max(collectionSizes, 1);
+    }
+
+    public int getCollectionSizes() {
+        return collectionSizes;
+    }
+
+    /**
+     * Shape bound of a statement; {@code shapes} saturates at {@link Long#MAX_VALUE}.
+     *
+     * @param conditions   distinct test expressions outside loops
+     * @param loops        {@code <foreach>} tags outside other loops
+     * @param substitutions {@code ${}} placeholders, each of which renders a shape per value
+     */
+    public record Shapes(long shapes, int conditions, int loops, int substitutions) {
+        public boolean isSaturated() {
+            return shapes == Long.MAX_VALUE;
+        }
+    }
+
+    public @NotNull Shapes count(@NotNull CompiledStatement statement) {
+        Summary summary = summarize(statement.root());
+        long correlated = multiply(powerOfTwo(summary.conditions().size()), summary.loopShapes());
+        return new Shapes(Math.min(summary.shapes(), correlated), summary.conditions().size(), summary.loops(),
+                summary.substitutions());
+    }
+
+    /**
+     * {@code shapes} is the structural bound, {@code loopShapes} the product of the shapes of top-level loops.
+     */
+    private record Summary(long shapes, Set<String> conditions, long loopShapes, int loops, int substitutions) {
+        static final Summary CONSTANT = new Summary(1, Set.of(), 1, 0, 0);
+    }
+
+    private @NotNull Summary summarize(@NotNull SqlNode node) {
+        Summary summary = memo.get(node);
+        if (summary == null) {
+            summary = compute(node);
+            memo.put(node, summary);
+        }
+        return summary;
+    }
+
+    private @NotNull Summary compute(@NotNull SqlNode node) {
+        if (node instanceof TextSqlNode text) {
+            int substitutions = (int) text.params().stream().filter(TextSqlNode.Param::substitution).count();
+            return substitutions == 0 ? Summary.CONSTANT : new Summary(1, Set.of(), 1, 0, substitutions);
+        }
+        if (node instanceof MixedSqlNode mixed) {
+            Summary result = Summary.CONSTANT;
+            for (SqlNode child : mixed.children()) {
+                result = sequence(result, summarize(child));
+            }
+            return result;
+        }
+        if (node instanceof IfSqlNode ifNode) {
+            Summary body = summarize(ifNode.body());
+            return new Summary(add(body.shapes(), 1), union(body.conditions(), ifNode.condition().expression()),
+                    body.loopShapes(), body.loops(), body.substitutions());
+        }
+        if (node instanceof ChooseSqlNode choose) {
+            long shapes = choose.otherwise() == null ? 1 : 0;
+            Set<String> conditions = new HashSet<>();
+            long loopShapes = 1;
+            int loops = 0;
+            int substitutions = 0;
+            for (IfSqlNode when : choose.whens()) {
+                Summary body = summarize(when.body());
+                shapes = add(shapes, body.shapes());
+                conditions.add(when.condition().expression());
+                conditions.addAll(body.conditions());
+                loopShapes = multiply(loopShapes, body.loopShapes());
+                loops += body.loops();
+                substitutions += body.substitutions();
+            }
+            if (choose.otherwise() != null) {
+                Summary otherwise = summarize(choose.otherwise());
+                shapes = add(shapes, otherwise.shapes());
+                conditions.addAll(otherwise.conditions());
+                loopShapes = multiply(loopShapes, otherwise.loopShapes());
+                loops += otherwise.loops();
+                substitutions += otherwise.substitutions();
+            }
+            return new Summary(shapes, Set.copyOf(conditions), loopShapes, loops, substitutions);
+        }
+        if (node instanceof TrimSqlNode trim) {
+            return summarize(trim.body());
+        }
+        if (node instanceof ForeachSqlNode foreach) {
+            Summary body = summarize(foreach.body());
+            // An empty collection plus every length from 1 to collectionSizes, each item taking any body shape.
+            long shapes = 1;
+            long perLength = 1;
+            for (int length = 1; length <= collectionSizes && shapes != Long.MAX_VALUE; length++) {
+                perLength = multiply(perLength, body.shapes());
+                shapes = add(shapes, perLength);
+            }
+            return new Summary(shapes, Set.of(), shapes, 1, body.substitutions());
+        }
+        if (node instanceof IncludeSqlNode include && include.fragment() != null) {
+            return summarize(include.fragment());
+        }
+        return Summary.CONSTANT;
+    }
+
+    private static @NotNull Summary sequence(@NotNull Summary first, @NotNull Summary second) {
+        if (first == Summary.CONSTANT) {
+            return second;
+        }
+        if (second == Summary.CONSTANT) {
+            return first;
+        }
+        Set<String> conditions = second.conditions().isEmpty() ? first.conditions() : union(first.conditions(), second.conditions());
+        return new Summary(multiply(first.shapes(), second.shapes()), conditions,
+                multiply(first.loopShapes(), second.loopShapes()), first.loops() + second.loops(),
+                first.substitutions() + second.substitutions());
+    }
+
+    private static @NotNull Set<String> union(@NotNull Set<String> first, @NotNull String second) {
+        if (first.contains(second)) {
+            return first;
+        }
+        Set<String> result = new HashSet<>(first);
+        result.add(second);
+        return Set.copyOf(result);
+    }
+
+    private static @NotNull Set<String> union(@NotNull Set<String> first, @NotNull Set<String> second) {
+        if (first.containsAll(second)) {
+            return first;
+        }
+        Set<String> result = new HashSet<>(first);
+        result.addAll(second);
+        return Set.copyOf(result);
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        return high != 0 || a * b < 0 ? Long.MAX_VALUE : a * b;
+    }
+
+    private static long powerOfTwo(int exponent) {
+        return exponent >= 63 ? Long.MAX_VALUE : 1L << exponent;
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the distinct SQL strings of a statement without parameters, by walking its branch decisions.
+ * <p>
+ * Every render follows a script of decisions for the choice points it meets: each {@code <if>} or
+ * {@code <when>} test, and whether a {@code <foreach>} collection is empty or holds one item. The next script
+ * advances the last decision that has an alternative left, like an odometer, so each path through the
+ * statement is rendered once and nothing else is. Outside loops a test expression that was already decided
+ * keeps its outcome, so only consistent combinations are produced. Placeholders render as {@code ?} and
+ * {@code ${}} substitutions as {@code ?} too; loops render at most one item, since fingerprints collapse
+ * lists anyway.
+ */
+public final class ShapeEnumerator {
+    private static final Object ITEM = new Object();
+
+    private ShapeEnumerator() {
+    }
+
+    /**
+     * Distinct rendered SQL in rendering order; {@code complete} is {@code false} when {@code maxRenders}
+     * stopped the walk early.
+     */
+    public record Result(@NotNull List<String> shapes, boolean complete) {
+    }
+
+    /**
+     * @throws SqlRenderException if the statement cannot be rendered, e.g. because of an unresolved include
+     */
+    public static @NotNull Result enumerate(@NotNull CompiledStatement statement, int maxRenders) {
+        Set<String> shapes = new LinkedHashSet<>();
+        List<Integer> script = new ArrayList<>();
+        for (int renders = 0; renders < maxRenders; renders++) {
+            ScriptedContext context = new ScriptedContext(script);
+            shapes.add(statement.render(context).sql());
+            script = context.next();
+            if (script == null) {
+                return new Result(List.copyOf(shapes), true);
+            }
+        }
+        return new Result(List.copyOf(shapes), false);
+    }
+
+    private static final class ScriptedContext extends DynamicContext {
+        private final List<Integer> script;
+        private final List<Integer> choices = new ArrayList<>();
+        private final List<Integer> arities = new ArrayList<>();
+        private final Map<String, Boolean> decided = new HashMap<>();
+
+        ScriptedContext(@NotNull List<Integer> script) {
+            super(new Bindings(Map.of()));
+            this.script = script;
+        }
+
+        private int choose(int arity) {
+            int index = choices.size();
+            int choice = index < script.size() ? script.get(index) : 0;
+            choices.add(choice);
+            arities.add(arity);
+            return choice;
+        }
+
+        /**
+         * Returns the script of the next path, or {@code null} after the last one.
+         */
+        @Nullable List<Integer> next() {
+            for (int i = choices.size() - 1; i >= 0; i--) {
+                if (choices.get(i) + 1 < arities.get(i)) {
+                    List<Integer> next = new ArrayList<>(choices.subList(0, i));
+                    next.add(choices.get(i) + 1);
+                    return next;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected boolean test(@NotNull IfSqlNode node) {
+            if (bindings().depth() > 0) {
+                return choose(2) == 0;
+            }
+            String expression = node.condition().expression();
+            Boolean outcome = decided.get(expression);
+            if (outcome == null) {
+                outcome = choose(2) == 0;
+                decided.put(expression, outcome);
+            }
+            return outcome;
+        }
+
+        @Override
+        protected @Nullable Object collection(@NotNull ForeachSqlNode node) {
+            return choose(2) == 0 ? List.of(ITEM) : List.of();
+        }
+
+        @Override
+        protected @Nullable Object value(@NotNull ParamPath path) {
+            return "?";
+        }
+    }
+}
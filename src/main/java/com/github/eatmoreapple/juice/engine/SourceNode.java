@@ -0,0 +1,23 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Editor-independent view of a statement body, the input of {@link StatementCompiler}.
+ */
+public sealed interface SourceNode {
+    record Text(@NotNull String text) implements SourceNode {
+    }
+
+    record Element(@NotNull String name,
+                   @NotNull Map<String, String> attributes,
+                   @NotNull List<SourceNode> children) implements SourceNode {
+        public @Nullable String attribute(@NotNull String name) {
+            return attributes.get(name);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.eatmoreapple.juice.engine;
+
+import com.github.eatmoreapple.juice.include.IncludeGraph;
+import com.github.eatmoreapple.juice.include.IncludeGraphService;
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.index.SqlFingerprintIndex;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps SQL fingerprints to the statements that render them. Lookups go through {@link SqlFingerprintIndex};
+ * statements the index could not fingerprint on its own are fingerprinted with the project-wide compiler.
+ * Their fingerprints are cached per mapper file and dropped when that file or a file declaring one of the
+ * fragments they include changes, so an edit only re-renders the statements it can affect.
+ */
+@Service(Service.Level.PROJECT)
+public final class SqlFingerprintService {
+    private final Project project;
+
+    public SqlFingerprintService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static @NotNull SqlFingerprintService getInstance(@NotNull Project project) {
+        return project.getService(SqlFingerprintService.class);
+    }
+
+    /**
+     * Returns the {@code namespace.id} keys of statements rendering SQL with the same fingerprint as {@code sql},
+     * read in every dialect.
+     */
+    public @NotNull Set<String> findStatementsForSql(@NotNull String sql) {
+        Set<String> statements = new LinkedHashSet<>();
+        for (SqlFingerprints.Dialect dialect : SqlFingerprints.Dialect.values()) {
+            statements.addAll(findStatements(SqlFingerprints.id(SqlFingerprints.fingerprint(sql, dialect))));
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the {@code namespace.id} keys of statements rendering the fingerprint with this id.
+     */
+    public @NotNull Set<String> findStatements(@NotNull String fingerprintId) {
+        Set<String> statements = SqlFingerprintIndex.getStatements(project, fingerprintId);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        for (VirtualFile file : SqlFingerprintIndex.getPartialFiles(project)) {
+            PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+            List<String> partial = psiFile == null ? null : getPartialFingerprints(psiFile).get(fingerprintId);
+            if (partial != null) {
+                statements.addAll(partial);
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the distinct fingerprint ids of a statement, or an empty set if it cannot be rendered.
+     */
+    public @NotNull Set<String> getFingerprintIds(@NotNull XmlTag statement) {
+        return CachedValuesManager.getCachedValue(statement, () -> CachedValueProvider.Result.create(
+                computeFingerprintIds(statement),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE)));
+    }
+
+    private @NotNull Set<String> computeFingerprintIds(@NotNull XmlTag statement) {
+        CompiledStatement compiled = CompiledStatementService.getInstance(project).getCompiled(statement);
+        if (compiled == null) {
+            return Set.of();
+        }
+        try {
+            return SqlFingerprintIndex.fingerprintIds(compiled);
+        } catch (SqlRenderException e) {
+            return Set.of();
+        }
+    }
+
+    /**
+     * Returns fingerprint id to {@code namespace.id} keys of the file's {@link SqlFingerprintIndex#PARTIAL}
+     * statements.
+     */
+    private @NotNull Map<String, List<String>> getPartialFingerprints(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> {
+            Map<String, List<String>> fingerprints = new HashMap<>();
+            Set<Object> dependencies = new LinkedHashSet<>();
+            dependencies.add(file);
+            VirtualFile virtualFile = file.getVirtualFile();
+            List<String> keys = virtualFile == null ? List.of() : SqlFingerprintIndex.getPartialStatements(project, virtualFile);
+            Map<String, List<MapperStatementIndex.StatementInfo>> statements = virtualFile == null
+                    ? Map.of() : MapperStatementIndex.getFileData(project, virtualFile);
+            for (String key : keys) {
+                int dot = key.lastIndexOf('.');
+                List<MapperStatementIndex.StatementInfo> declared = statements.get(key.substring(0, dot));
+                if (declared == null) {
+                    continue;
+                }
+                for (MapperStatementIndex.StatementInfo statement : declared) {
+                    XmlTag tag = statement.id().equals(key.substring(dot + 1))
+                            ? MapperStatementIndex.findTag(file, statement) : null;
+                    if (tag == null) {
+                        continue;
+                    }
+                    addFragmentFiles(tag, dependencies);
+                    for (String id : computeFingerprintIds(tag)) {
+                        fingerprints.computeIfAbsent(id, k -> new ArrayList<>()).add(key);
+                    }
+                }
+            }
+            return CachedValueProvider.Result.create(fingerprints, dependencies.toArray());
+        });
+    }
+
+    /**
+     * Adds the files declaring the fragments the statement includes, directly or through other fragments. An
+     * include that does not resolve could be resolved by any XML change, so it adds the XML tracker instead.
+     */
+    private void addFragmentFiles(@NotNull XmlTag statement, @NotNull Set<Object> dependencies) {
+        IncludeGraph graph = IncludeGraphService.getInstance(project).getGraph();
+        String namespace = MapperTagUtils.getNamespace(statement.getParentTag());
+        Deque<String> pending = new ArrayDeque<>();
+        for (XmlTag include : PsiTreeUtil.findChildrenOfType(statement, XmlTag.class)) {
+            String refid = include.getAttributeValue("refid");
+            if (!MapperTagUtils.INCLUDE.equals(include.getName()) || refid == null) {
+                continue;
+            }
+            String key = graph.resolveKey(namespace, refid);
+            if (key == null) {
+                dependencies.add(PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE));
+            } else {
+                pending.add(key);
+            }
+        }
+        PsiManager psiManager = PsiManager.getInstance(project);
+        Set<String> visited = new HashSet<>();
+        while (!pending.isEmpty()) {
+            String key = pending.poll();
+            IncludeGraph.Fragment fragment = graph.getFragment(key);
+            if (!visited.add(key) || fragment == null) {
+                continue;
+            }
+            for (VirtualFile file : MapperStatementIndex.findMapperFiles(project, fragment.namespace().trim())) {
+                PsiFile psiFile = psiManager.findFile(file);
+                if (psiFile != null) {
+                    dependencies.add(psiFile);
+                }
+            }
+            pending.addAll(graph.includesOf(key));
+        }
+    }
+}
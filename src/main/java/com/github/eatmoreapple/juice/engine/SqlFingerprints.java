@@ -0,0 +1,163 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL into a fingerprint the way {@code pt-query-digest} does, so a query captured in production
+ * and a rendered statement map to the same text, and hashes it to a stable id.
+ * <p>
+ * Comments are dropped, string and number literals and PostgreSQL's {@code $1} parameters become {@code ?},
+ * whitespace collapses and everything outside quoted identifiers is lower-cased. {@code IN} lists of
+ * placeholders collapse to {@code in(?+)} and multi-row {@code VALUES} to {@code values(?+)}, so lists of any
+ * length share a fingerprint, and {@code pg_stat_statements} entries match rendered statements.
+ */
+public final class SqlFingerprints {
+    private static final Pattern IN_LIST = Pattern.compile("\\bin ?\\( ?\\?(?: ?, ?\\?)* ?\\)");
+    private static final Pattern VALUES_LIST = Pattern.compile("\\bvalues ?\\([^()]*(?:\\([^()]*\\)[^()]*)*\\)(?: ?, ?\\([^()]*(?:\\([^()]*\\)[^()]*)*\\))*");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private SqlFingerprints() {
+    }
+
+    /**
+     * How the database reads the characters that differ between dialects.
+     */
+    public enum Dialect {
+        /**
+         * {@code "..."} is a string and {@code #} starts a comment.
+         */
+        MYSQL,
+        /**
+         * {@code "..."} is a quoted identifier and {@code #} an operator.
+         */
+        POSTGRESQL
+    }
+
+    /**
+     * Returns the fingerprint of MySQL text.
+     */
+    public static @NotNull String fingerprint(@NotNull String sql) {
+        return fingerprint(sql, Dialect.MYSQL);
+    }
+
+    public static @NotNull String fingerprint(@NotNull String sql, @NotNull Dialect dialect) {
+        boolean mysql = dialect == Dialect.MYSQL;
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' && mysql) {
+                i = skipQuoted(sql, i, c);
+                out.append('?');
+            } else if (c == '`' || c == '"') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-' || c == '#' && mysql) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!out.isEmpty() && out.charAt(out.length() - 1) != ' ' && i < length) {
+                    out.append(' ');
+                }
+            } else if (isDigit(c) && !isWordEnd(out)) {
+                i = skipNumber(sql, i);
+                out.append('?');
+            } else if (c == '$' && i + 1 < length && isDigit(sql.charAt(i + 1)) && !isWordEnd(out)) {
+                i++;
+                while (i < length && isDigit(sql.charAt(i))) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$')) {
+                    i++;
+                }
+                out.append(sql.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        String text = out.toString().strip();
+        text = IN_LIST.matcher(text).replaceAll("in(?+)");
+        return VALUES_LIST.matcher(text).replaceAll("values(?+)");
+    }
+
+    /**
+     * Returns the last 16 hex digits of the MD5 of the fingerprint, as {@code pt-query-digest} reports it.
+     */
+    public static @NotNull String id(@NotNull String fingerprint) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            StringBuilder id = new StringBuilder(16);
+            for (int i = 8; i < 16; i++) {
+                id.append(HEX[(digest[i] >> 4) & 0xF]).append(HEX[digest[i] & 0xF]);
+            }
+            return id.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int skipQuoted(@NotNull String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    private static int skipNumber(@NotNull String sql, int start) {
+        int i = start;
+        if (sql.startsWith("0x", i) || sql.startsWith("0X", i)) {
+            i += 2;
+        }
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+            char c = sql.charAt(i);
+            if ((c == 'e' || c == 'E') && i + 1 < sql.length() && (sql.charAt(i + 1) == '-' || sql.charAt(i + 1) == '+')) {
+                i++;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordEnd(@NotNull StringBuilder out) {
+        if (out.isEmpty()) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '`' || last == '"';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable node of a compiled statement. A tree is built once per statement and can be rendered
+ * concurrently with different contexts. Nodes are equal when their subtrees are structurally equal,
+ * even across recompilations.
+ */
+public sealed interface SqlNode
+        permits TextSqlNode, MixedSqlNode, IfSqlNode, ChooseSqlNode, TrimSqlNode, ForeachSqlNode, IncludeSqlNode {
+    void apply(@NotNull DynamicContext context);
+}
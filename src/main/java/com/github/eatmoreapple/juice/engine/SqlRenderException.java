@@ -0,0 +1,13 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when a statement cannot be rendered with the given parameters, e.g. a placeholder names
+ * a parameter that does not exist.
+ */
+public class SqlRenderException extends RuntimeException {
+    public SqlRenderException(@NotNull String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Word tokens of SQL for similarity ranking. Tokens are taken from the {@link SqlFingerprints fingerprint},
+ * so literals are already gone and case does not matter.
+ */
+public final class SqlTokens {
+    private static final Pattern PLACEHOLDER = Pattern.compile("[#$]\\{[^}]*}");
+    private static final Set<String> KEYWORDS = Set.of(
+            "select", "from", "where", "and", "or", "not", "in", "is", "null", "as", "on", "join", "left", "right",
+            "inner", "outer", "cross", "full", "group", "by", "order", "having", "limit", "offset", "asc", "desc",
+            "insert", "into", "values", "update", "set", "delete", "distinct", "union", "all", "exists", "between",
+            "like", "case", "when", "then", "else", "end", "with", "count", "sum", "min", "max", "avg", "true",
+            "false", "using", "duplicate", "key", "ignore", "replace", "for", "returning", "if", "now");
+
+    private SqlTokens() {
+    }
+
+    /**
+     * Returns every word of the SQL in order; mapper placeholders count as literals.
+     */
+    public static @NotNull List<String> words(@NotNull String sql) {
+        String fingerprint = SqlFingerprints.fingerprint(PLACEHOLDER.matcher(sql).replaceAll(" ? "));
+        List<String> words = new ArrayList<>();
+        int length = fingerprint.length();
+        int i = 0;
+        while (i < length) {
+            if (!isWordPart(fingerprint.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isWordPart(fingerprint.charAt(i))) {
+                i++;
+            }
+            words.add(fingerprint.substring(start, i).replace("`", ""));
+        }
+        return words;
+    }
+
+    /**
+     * Returns the distinct words that are not SQL keywords, i.e. mostly table, column and function names.
+     */
+    public static @NotNull Set<String> identifiers(@NotNull String sql) {
+        Set<String> identifiers = new LinkedHashSet<>();
+        for (String word : words(sql)) {
+            if (!word.isEmpty() && !KEYWORDS.contains(word)) {
+                identifiers.add(word);
+            }
+        }
+        return identifiers;
+    }
+
+    /**
+     * Returns every word of a compiled statement's text, as if every conditional body and branch were
+     * rendered once; included fragments are inlined.
+     */
+    public static @NotNull List<String> words(@NotNull CompiledStatement statement) {
+        return words(text(statement));
+    }
+
+    /**
+     * Returns the text of a compiled statement with every conditional body and branch once, included fragments
+     * inlined and placeholders left as written.
+     */
+    public static @NotNull String text(@NotNull CompiledStatement statement) {
+        StringBuilder text = new StringBuilder();
+        appendText(statement.root(), Collections.newSetFromMap(new IdentityHashMap<>()), text);
+        return text.toString();
+    }
+
+    private static void appendText(@NotNull SqlNode node, @NotNull Set<SqlNode> including, @NotNull StringBuilder text) {
+        if (node instanceof TextSqlNode chunk) {
+            text.append(chunk.text()).append(' ');
+        } else if (node instanceof MixedSqlNode mixed) {
+            for (SqlNode child : mixed.children()) {
+                appendText(child, including, text);
+            }
+        } else if (node instanceof IfSqlNode ifNode) {
+            appendText(ifNode.body(), including, text);
+        } else if (node instanceof ChooseSqlNode choose) {
+            for (IfSqlNode when : choose.whens()) {
+                appendText(when.body(), including, text);
+            }
+            if (choose.otherwise() != null) {
+                appendText(choose.otherwise(), including, text);
+            }
+        } else if (node instanceof TrimSqlNode trim) {
+            text.append(trim.prefix()).append(' ');
+            appendText(trim.body(), including, text);
+            text.append(trim.suffix()).append(' ');
+        } else if (node instanceof ForeachSqlNode foreach) {
+            text.append(foreach.open()).append(' ');
+            appendText(foreach.body(), including, text);
+            text.append(foreach.close()).append(' ');
+        } else if (node instanceof IncludeSqlNode include && include.fragment() != null
+                && including.add(include.fragment())) {
+            appendText(include.fragment(), including, text);
+            including.remove(include.fragment());
+        }
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '`';
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles statement bodies into {@link SqlNode} trees mirroring juice's renderer.
+ * <p>
+ * Included fragments are compiled once per compiler and the resulting node is shared by every statement
+ * that includes them. Unknown tags are transparent, their children are compiled in place.
+ */
+public final class StatementCompiler {
+    private final FragmentResolver fragments;
+    private final ConditionCompiler conditions;
+    private final Map<String, SqlNode> compiledFragments = new ConcurrentHashMap<>();
+
+    public StatementCompiler(@NotNull FragmentResolver fragments, @NotNull ConditionCompiler conditions) {
+        this.fragments = fragments;
+        this.conditions = conditions;
+    }
+
+    public @NotNull CompiledStatement compile(@Nullable String namespace, @NotNull SourceNode.Element statement) {
+        SqlNode root = compileChildren(statement.children(), namespace, new HashSet<>());
+        return new CompiledStatement(namespace, statement.attribute("id"), statement.name(), root);
+    }
+
+    private @NotNull SqlNode compileChildren(@NotNull List<SourceNode> children,
+                                             @Nullable String namespace,
+                                             @NotNull Set<String> including) {
+        List<SqlNode> nodes = new ArrayList<>(children.size());
+        for (SourceNode child : children) {
+            SqlNode node = child instanceof SourceNode.Element element
+                    ? compileElement(element, namespace, including)
+                    : TextSqlNode.compile(((SourceNode.Text) child).text());
+            if (node != null && node != MixedSqlNode.EMPTY) {
+                nodes.add(node);
+            }
+        }
+        return MixedSqlNode.of(nodes);
+    }
+
+    private @NotNull SqlNode compileElement(@NotNull SourceNode.Element element,
+                                            @Nullable String namespace,
+                                            @NotNull Set<String> including) {
+        switch (element.name()) {
+            case "if", "when" -> {
+                return compileIf(element, namespace, including);
+            }
+            case "choose" -> {
+                List<IfSqlNode> whens = new ArrayList<>();
+                SqlNode otherwise = null;
+                for (SourceNode child : element.children()) {
+                    if (child instanceof SourceNode.Element branch && "when".equals(branch.name())) {
+                        whens.add(compileIf(branch, namespace, including));
+                    } else if (child instanceof SourceNode.Element branch && "otherwise".equals(branch.name())) {
+                        otherwise = compileChildren(branch.children(), namespace, including);
+                    }
+                }
+                return new ChooseSqlNode(whens, otherwise);
+            }
+            case "where" -> {
+                return TrimSqlNode.where(compileChildren(element.children(), namespace, including));
+            }
+            case "set" -> {
+                return TrimSqlNode.set(compileChildren(element.children(), namespace, including));
+            }
+            case "trim" -> {
+                return new TrimSqlNode(
+                        attribute(element, "prefix"),
+                        attribute(element, "suffix"),
+                        TrimSqlNode.overrides(element.attribute("prefixOverrides")),
+                        TrimSqlNode.overrides(element.attribute("suffixOverrides")),
+                        compileChildren(element.children(), namespace, including));
+            }
+            case "foreach" -> {
+                return new ForeachSqlNode(
+                        ParamPath.parse(attribute(element, "collection")),
+                        blankToNull(element.attribute("item")),
+                        blankToNull(element.attribute("index")),
+                        attribute(element, "open").strip(),
+                        attribute(element, "close").strip(),
+                        attribute(element, "separator").strip(),
+                        compileChildren(element.children(), namespace, including));
+            }
+            case "include" -> {
+                return compileInclude(attribute(element, "refid"), namespace, including);
+            }
+            default -> {
+                return compileChildren(element.children(), namespace, including);
+            }
+        }
+    }
+
+    private @NotNull IfSqlNode compileIf(@NotNull SourceNode.Element element,
+                                         @Nullable String namespace,
+                                         @NotNull Set<String> including) {
+        return new IfSqlNode(conditions.compile(attribute(element, "test")),
+                compileChildren(element.children(), namespace, including));
+    }
+
+    private @NotNull SqlNode compileInclude(@NotNull String refid,
+                                            @Nullable String namespace,
+                                            @NotNull Set<String> including) {
+        FragmentResolver.Fragment fragment = fragments.resolve(namespace, refid);
+        if (fragment == null) {
+            return new IncludeSqlNode(refid, null, null);
+        }
+        String key = fragment.key();
+        if (including.contains(key)) {
+            return new IncludeSqlNode(refid, key, null);
+        }
+
+        SqlNode compiled = compiledFragments.get(key);
+        if (compiled == null) {
+            including.add(key);
+            compiled = compileChildren(fragment.element().children(), fragment.namespace(), including);
+            including.remove(key);
+            SqlNode previous = compiledFragments.putIfAbsent(key, compiled);
+            if (previous != null) {
+                compiled = previous;
+            }
+        }
+        return new IncludeSqlNode(refid, key, compiled);
+    }
+
+    private static @NotNull String attribute(@NotNull SourceNode.Element element, @NotNull String name) {
+        String value = element.attribute(name);
+        return value == null ? "" : value;
+    }
+
+    private static @Nullable String blankToNull(@Nullable String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
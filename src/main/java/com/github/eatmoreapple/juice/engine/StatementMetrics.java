@@ -0,0 +1,93 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Size and complexity figures of a compiled statement, counted over its template rather than a rendering:
+ * every branch and loop body counts once and included fragments count at every include.
+ *
+ * @param joins          {@code JOIN} keywords
+ * @param subqueries     {@code (SELECT} openings
+ * @param branches       {@code <if>}, {@code <when>} and {@code <otherwise>} bodies
+ * @param foreachDepth   deepest nesting of {@code <foreach>} tags
+ * @param includeDepth   deepest nesting of resolved includes
+ * @param placeholders   {@code #{}} placeholders
+ * @param substitutions  {@code ${}} placeholders
+ */
+public record StatementMetrics(int joins, int subqueries, int branches, int foreachDepth, int includeDepth,
+                               int placeholders, int substitutions) {
+    private static final Pattern JOIN = Pattern.compile("\\bjoin\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SUBQUERY = Pattern.compile("\\(\\s*select\\b", Pattern.CASE_INSENSITIVE);
+
+    public static @NotNull StatementMetrics of(@NotNull CompiledStatement statement) {
+        Counter counter = new Counter();
+        counter.visit(statement.root(), 0, 0);
+        return new StatementMetrics(counter.joins, counter.subqueries, counter.branches, counter.foreachDepth,
+                counter.includeDepth, counter.placeholders, counter.substitutions);
+    }
+
+    private static final class Counter {
+        private final Set<SqlNode> including = Collections.newSetFromMap(new IdentityHashMap<>());
+        int joins;
+        int subqueries;
+        int branches;
+        int foreachDepth;
+        int includeDepth;
+        int placeholders;
+        int substitutions;
+
+        void visit(@NotNull SqlNode node, int foreaches, int includes) {
+            if (node instanceof TextSqlNode text) {
+                joins += count(JOIN, text.text());
+                subqueries += count(SUBQUERY, text.text());
+                for (TextSqlNode.Param param : text.params()) {
+                    if (param.substitution()) {
+                        substitutions++;
+                    } else {
+                        placeholders++;
+                    }
+                }
+            } else if (node instanceof MixedSqlNode mixed) {
+                for (SqlNode child : mixed.children()) {
+                    visit(child, foreaches, includes);
+                }
+            } else if (node instanceof IfSqlNode ifNode) {
+                branches++;
+                visit(ifNode.body(), foreaches, includes);
+            } else if (node instanceof ChooseSqlNode choose) {
+                for (IfSqlNode when : choose.whens()) {
+                    visit(when, foreaches, includes);
+                }
+                if (choose.otherwise() != null) {
+                    branches++;
+                    visit(choose.otherwise(), foreaches, includes);
+                }
+            } else if (node instanceof TrimSqlNode trim) {
+                visit(trim.body(), foreaches, includes);
+            } else if (node instanceof ForeachSqlNode foreach) {
+                foreachDepth = Math.max(foreachDepth, foreaches + 1);
+                visit(foreach.body(), foreaches + 1, includes);
+            } else if (node instanceof IncludeSqlNode include && include.fragment() != null
+                    && including.add(include.fragment())) {
+                includeDepth = Math.max(includeDepth, includes + 1);
+                visit(include.fragment(), foreaches, includes + 1);
+                including.remove(include.fragment());
+            }
+        }
+
+        private static int count(@NotNull Pattern pattern, @NotNull String text) {
+            Matcher matcher = pattern.matcher(text);
+            int count = 0;
+            while (matcher.find()) {
+                count++;
+            }
+            return count;
+        }
+    }
+}
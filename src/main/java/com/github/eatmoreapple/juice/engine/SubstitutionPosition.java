@@ -0,0 +1,202 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Where a {@code ${}} substitution sits in a statement, judged from the SQL before it and the first character
+ * after it.
+ * <p>
+ * Value positions are the right-hand side of comparisons and arithmetic, {@code LIKE}, {@code BETWEEN},
+ * {@code LIMIT}/{@code OFFSET}, {@code THEN}/{@code ELSE} and the items of {@code IN (...)} and
+ * {@code VALUES (...)} lists; a bind parameter can take the substitution's place there. A substitution that
+ * the SQL after it continues as a name, such as {@code ${alias}.id} or {@code ${fn}(x)}, is not a value, and
+ * one that makes up a whole {@code IN} list is a list of values. Anything else, such as {@code ORDER BY}
+ * columns, table names or whole clauses, is left to the substitution.
+ */
+public enum SubstitutionPosition {
+    /**
+     * A value that a {@code #{}} bind parameter can replace as is.
+     */
+    VALUE,
+    /**
+     * Part of a string literal in a value position, e.g. {@code LIKE '%${name}%'}.
+     */
+    QUOTED_VALUE,
+    /**
+     * A whole string literal in a value position, e.g. {@code name = '${name}'}; a {@code #{}} bind parameter
+     * without the quotes replaces it.
+     */
+    QUOTED_WHOLE_VALUE,
+    /**
+     * The only item of an {@code IN} list, e.g. {@code id in (${ids})} with pre-joined ids; a single bind
+     * parameter would compare against the joined text, a {@code <foreach>} binds the items.
+     */
+    LIST,
+    /**
+     * An identifier, keyword or SQL fragment, or a position that cannot be told.
+     */
+    OTHER;
+
+    private static final Set<String> VALUE_OPERATORS = Set.of("=", "<", ">", "<=", ">=", "<>", "!=", "+", "-", "/", "%", "||");
+    private static final Set<String> VALUE_KEYWORDS = Set.of("limit", "offset", "like", "ilike", "rlike", "regexp",
+            "between", "then", "else");
+    private static final Set<String> LIST_KEYWORDS = Set.of("in", "values", "value");
+
+    /**
+     * Classifies a substitution with nothing known after it.
+     *
+     * @param before the SQL before the substitution, with XML entities decoded
+     */
+    public static @NotNull SubstitutionPosition of(@NotNull String before) {
+        return of(before, "");
+    }
+
+    /**
+     * @param before the SQL before the substitution, with XML entities decoded
+     * @param after  the SQL after it, as far as known
+     */
+    public static @NotNull SubstitutionPosition of(@NotNull String before, @NotNull String after) {
+        List<String> tokens = new ArrayList<>();
+        boolean quoted = tokenize(before, tokens);
+        if (!isValue(tokens)) {
+            return OTHER;
+        }
+        if (quoted) {
+            return isQuote(before, before.length() - 1) && !isQuote(before, before.length() - 2)
+                    && isQuote(after, 0) && after.charAt(0) == before.charAt(before.length() - 1)
+                    && !isQuote(after, 1) ? QUOTED_WHOLE_VALUE : QUOTED_VALUE;
+        }
+        if (!after.isEmpty() && isNamePart(after.charAt(0))) {
+            return OTHER;
+        }
+        int last = tokens.size() - 1;
+        if ("(".equals(tokens.get(last)) && last > 0 && "in".equals(tokens.get(last - 1))
+                && after.stripLeading().startsWith(")")) {
+            return LIST;
+        }
+        return VALUE;
+    }
+
+    private static boolean isQuote(@NotNull String sql, int index) {
+        return index >= 0 && index < sql.length() && (sql.charAt(index) == '\'' || sql.charAt(index) == '"');
+    }
+
+    /**
+     * Whether a character right after the placeholder makes it part of a name or a call.
+     */
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.' || c == '`' || c == '(';
+    }
+
+    private static boolean isValue(@NotNull List<String> tokens) {
+        int last = tokens.size() - 1;
+        if (last < 0) {
+            return false;
+        }
+        String token = tokens.get(last);
+        if (VALUE_OPERATORS.contains(token) || VALUE_KEYWORDS.contains(token)) {
+            return true;
+        }
+        if ("and".equals(token)) {
+            // BETWEEN x AND ${to}
+            return last >= 2 && "between".equals(tokens.get(last - 2));
+        }
+        if ("(".equals(token) || ",".equals(token)) {
+            return isListItem(tokens, last);
+        }
+        return false;
+    }
+
+    /**
+     * Whether the {@code (} or {@code ,} at {@code index} opens or continues an {@code IN}/{@code VALUES} list
+     * or a {@code LIMIT offset, count}.
+     */
+    private static boolean isListItem(@NotNull List<String> tokens, int index) {
+        int depth = 0;
+        for (int i = index; i >= 0; i--) {
+            String token = tokens.get(i);
+            if (")".equals(token)) {
+                depth++;
+            } else if ("(".equals(token) && depth > 0) {
+                depth--;
+            } else if ("(".equals(token)) {
+                if (i == 0) {
+                    return false;
+                }
+                String previous = tokens.get(i - 1);
+                if (LIST_KEYWORDS.contains(previous)) {
+                    return true;
+                }
+                if (!",".equals(previous)) {
+                    return false;
+                }
+                // Another row of VALUES (...), (...): keep looking for the keyword before the first row.
+                i--;
+            } else if (depth == 0 && !",".equals(token) && i < index && isKeyword(token)) {
+                // LIMIT ?, ${count}, or VALUES reached over the earlier rows.
+                return "limit".equals(token) || "values".equals(token) || "value".equals(token);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isKeyword(@NotNull String token) {
+        return switch (token) {
+            case "select", "from", "where", "set", "by", "limit", "on", "and", "or", "having", "join", "into",
+                    "update", "values", "value" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Splits the SQL into lower-case words, numbers and punctuation, with string literals as {@code 'str'}.
+     * Returns {@code true} if the SQL ends inside a string literal, whose opening quote is then left out.
+     */
+    private static boolean tokenize(@NotNull String sql, @NotNull List<String> tokens) {
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = i + 1;
+                while (end < length && (sql.charAt(end) != c || end + 1 < length && sql.charAt(end + 1) == c)) {
+                    end += sql.charAt(end) == c || sql.charAt(end) == '\\' ? 2 : 1;
+                }
+                if (end >= length) {
+                    return true;
+                }
+                tokens.add("'str'");
+                i = end + 1;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '`' || c == '.') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || "_`.$".indexOf(sql.charAt(i)) >= 0)) {
+                    i++;
+                }
+                tokens.add(sql.substring(start, i).toLowerCase(Locale.ROOT));
+            } else if (i + 1 < length && isTwoCharOperator(c, sql.charAt(i + 1))) {
+                tokens.add(sql.substring(i, i + 2));
+                i += 2;
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTwoCharOperator(char first, char second) {
+        return switch (first) {
+            case '<' -> second == '=' || second == '>';
+            case '>', '!' -> second == '=';
+            case '|' -> second == '|';
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Static text with its {@code #{}} and {@code ${}} placeholders split out at compile time, so rendering
+ * only appends the literal chunks and parameter values.
+ */
+public final class TextSqlNode implements SqlNode {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAM = Pattern.compile("([#$])\\{([^}]*)}");
+
+    private final String text;
+    private final String[] literals;
+    private final Param[] params;
+
+    private TextSqlNode(@NotNull String text, @NotNull String[] literals, @NotNull Param[] params) {
+        this.text = text;
+        this.literals = literals;
+        this.params = params;
+    }
+
+    /**
+     * Collapses whitespace the way the rendered SQL is joined, or returns {@code null} for blank text.
+     */
+    static @Nullable TextSqlNode compile(@NotNull String raw) {
+        String text = WHITESPACE.matcher(raw).replaceAll(" ").strip();
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<Param> params = new ArrayList<>();
+        Matcher matcher = PARAM.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(last, matcher.start()));
+            params.add(new Param(ParamPath.parse(matcher.group(2)), matcher.group(1).equals("$")));
+            last = matcher.end();
+        }
+        literals.add(text.substring(last));
+        return new TextSqlNode(text, literals.toArray(new String[0]), params.toArray(new Param[0]));
+    }
+
+    /**
+     * The normalized source text, placeholders included.
+     */
+    public @NotNull String text() {
+        return text;
+    }
+
+    public @NotNull List<Param> params() {
+        return List.of(params);
+    }
+
+    /**
+     * Length of the rendered text without placeholder values.
+     */
+    public int literalLength() {
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TextSqlNode other && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        context.separate(text.charAt(0));
+        for (int i = 0; i < params.length; i++) {
+            context.appendRaw(literals[i]);
+            context.appendParam(params[i]);
+        }
+        context.appendRaw(literals[params.length]);
+    }
+
+    /**
+     * A {@code #{path}} bind placeholder, or a {@code ${path}} text substitution when {@code substitution} is set.
+     */
+    public record Param(@NotNull ParamPath path, boolean substitution) {
+    }
+}
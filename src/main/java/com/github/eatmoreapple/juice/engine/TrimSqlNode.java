@@ -0,0 +1,139 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@code <trim>}, and {@code <where>}/{@code <set>} as its presets. The body is rendered straight into the
+ * output and trimmed in place, without a temporary buffer.
+ */
+public final class TrimSqlNode implements SqlNode {
+    private final String prefix;
+    private final String suffix;
+    private final String[] prefixOverrides;
+    private final String[] suffixOverrides;
+    private final SqlNode body;
+    private final int hash;
+
+    TrimSqlNode(@NotNull String prefix, @NotNull String suffix,
+                @NotNull String[] prefixOverrides, @NotNull String[] suffixOverrides, @NotNull SqlNode body) {
+        this.prefix = prefix.strip();
+        this.suffix = suffix.strip();
+        this.prefixOverrides = prefixOverrides;
+        this.suffixOverrides = suffixOverrides;
+        this.body = body;
+        this.hash = Objects.hash(this.prefix, this.suffix, Arrays.hashCode(prefixOverrides),
+                Arrays.hashCode(suffixOverrides), body);
+    }
+
+    static @NotNull TrimSqlNode where(@NotNull SqlNode body) {
+        return new TrimSqlNode("WHERE", "", new String[]{"AND ", "OR "}, new String[0], body);
+    }
+
+    static @NotNull TrimSqlNode set(@NotNull SqlNode body) {
+        return new TrimSqlNode("SET", "", new String[0], new String[]{","}, body);
+    }
+
+    /**
+     * Splits a {@code prefixOverrides}/{@code suffixOverrides} attribute on {@code |}.
+     */
+    static @NotNull String[] overrides(String attribute) {
+        if (attribute == null || attribute.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(attribute.split("\\|")).filter(s -> !s.isBlank()).toArray(String[]::new);
+    }
+
+    public @NotNull String prefix() {
+        return prefix;
+    }
+
+    public @NotNull String suffix() {
+        return suffix;
+    }
+
+    public @NotNull List<String> prefixOverrides() {
+        return List.of(prefixOverrides);
+    }
+
+    public @NotNull List<String> suffixOverrides() {
+        return List.of(suffixOverrides);
+    }
+
+    public @NotNull SqlNode body() {
+        return body;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TrimSqlNode other
+                && hash == other.hash
+                && prefix.equals(other.prefix)
+                && suffix.equals(other.suffix)
+                && Arrays.equals(prefixOverrides, other.prefixOverrides)
+                && Arrays.equals(suffixOverrides, other.suffixOverrides)
+                && body.equals(other.body);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public void apply(@NotNull DynamicContext context) {
+        StringBuilder sql = context.sql();
+        int mark = sql.length();
+        context.apply(body);
+
+        int start = mark;
+        while (start < sql.length() && sql.charAt(start) == ' ') {
+            start++;
+        }
+        int end = sql.length();
+        while (end > start && sql.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            sql.setLength(mark);
+            return;
+        }
+        sql.setLength(end);
+
+        for (String override : suffixOverrides) {
+            int at = end - override.length();
+            if (at >= start && matchesAt(sql, at, override)) {
+                sql.setLength(at);
+                break;
+            }
+        }
+        for (String override : prefixOverrides) {
+            if (matchesAt(sql, start, override)) {
+                sql.delete(start, start + override.length());
+                break;
+            }
+        }
+        if (!prefix.isEmpty()) {
+            sql.insert(start, prefix.endsWith("(") ? prefix : prefix + ' ');
+        }
+        if (!suffix.isEmpty()) {
+            context.separate(suffix.charAt(0));
+            sql.append(suffix);
+        }
+    }
+
+    private static boolean matchesAt(@NotNull StringBuilder sql, int offset, @NotNull String override) {
+        if (offset + override.length() > sql.length()) {
+            return false;
+        }
+        for (int i = 0; i < override.length(); i++) {
+            if (Character.toUpperCase(sql.charAt(offset + i)) != Character.toUpperCase(override.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Go-flavoured helpers for parameter values.
+ */
+public final class Values {
+    private Values() {
+    }
+
+    /**
+     * {@code nil}, {@code false}, zero, empty strings and empty collections are false; everything else is true.
+     */
+    public static boolean isTruthy(@Nullable Object value) {
+        if (value == null || value == Bindings.MISSING) {
+            return false;
+        }
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue() != 0;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return !value.getClass().isArray() || Array.getLength(value) > 0;
+    }
+}
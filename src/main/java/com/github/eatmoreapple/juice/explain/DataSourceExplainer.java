@@ -0,0 +1,72 @@
+package com.github.eatmoreapple.juice.explain;
+
+import com.github.eatmoreapple.juice.engine.BoundSql;
+import com.github.eatmoreapple.juice.engine.ExplainPlan;
+import com.intellij.database.dataSource.DatabaseConnection;
+import com.intellij.database.dataSource.DatabaseConnectionManager;
+import com.intellij.database.dataSource.LocalDataSource;
+import com.intellij.database.remote.jdbc.RemoteConnection;
+import com.intellij.database.remote.jdbc.RemotePreparedStatement;
+import com.intellij.database.remote.jdbc.RemoteResultSet;
+import com.intellij.database.remote.jdbc.RemoteResultSetMetaData;
+import com.intellij.database.util.GuardedRef;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Explains statements on a data source of the Database tools, through the connection they manage, so the
+ * driver, credentials and SSH tunnels configured there apply. The statement is only explained, not run.
+ */
+public final class DataSourceExplainer {
+    private DataSourceExplainer() {
+    }
+
+    public static @NotNull ExplainPlan explain(@NotNull Project project, @NotNull LocalDataSource dataSource,
+                                               @NotNull BoundSql sql) throws Exception {
+        ExplainPlan.Dialect dialect = ExplainPlan.Dialect.of(dataSource.getDbms().getName());
+        try (GuardedRef<DatabaseConnection> ref = DatabaseConnectionManager.getInstance()
+                .build(project, dataSource).setAskPassword(true).create()) {
+            // No connection is created when the password prompt is cancelled.
+            if (ref == null) {
+                throw new SQLException("not connected, the password prompt was cancelled");
+            }
+            RemoteConnection connection = ref.get().getRemoteConnection();
+            RemotePreparedStatement explain = connection.prepareStatement(dialect.explain(sql.sql()));
+            try {
+                for (int i = 0; i < sql.args().size(); i++) {
+                    explain.setObject(i + 1, EmbeddedExplainer.jdbcValue(sql.args().get(i)));
+                }
+                RemoteResultSet resultSet = explain.executeQuery();
+                try {
+                    return tabulate(resultSet);
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                explain.close();
+            }
+        }
+    }
+
+    private static @NotNull ExplainPlan tabulate(@NotNull RemoteResultSet resultSet) throws Exception {
+        RemoteResultSetMetaData metaData = resultSet.getMetaData();
+        List<String> columns = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnLabel(i));
+        }
+        List<List<String>> rows = new ArrayList<>();
+        while (resultSet.next()) {
+            List<String> row = new ArrayList<>();
+            for (int i = 1; i <= columns.size(); i++) {
+                Object value = resultSet.getObject(i);
+                row.add(value == null ? "" : value.toString());
+            }
+            rows.add(row);
+        }
+        return new ExplainPlan(columns, rows);
+    }
+}
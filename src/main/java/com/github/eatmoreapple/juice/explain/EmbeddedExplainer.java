@@ -0,0 +1,126 @@
+package com.github.eatmoreapple.juice.explain;
+
+import com.github.eatmoreapple.juice.engine.BoundSql;
+import com.github.eatmoreapple.juice.engine.ExplainPlan;
+import com.github.eatmoreapple.juice.engine.Schema;
+import com.google.gson.GsonBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Explains statements on a private in-memory H2 database created from the project's migrations, so plans can
+ * be checked without a database server. H2 runs in the compatibility mode of {@link ExplainPlan#h2Mode}, and
+ * DDL statements it does not understand are skipped and counted.
+ * <p>
+ * The migrations come from the project, so only the statements {@link Schema#isDeclaration} understands are
+ * run, and they run as a user without admin rights: H2 keeps aliases of Java methods, file and CSV functions,
+ * {@code RUNSCRIPT} and linked tables to admins, so a {@code CREATE TABLE ... AS SELECT FILE_WRITE(...)}
+ * fails too.
+ */
+public final class EmbeddedExplainer {
+    private static final String USER = "juice";
+
+    private EmbeddedExplainer() {
+    }
+
+    /**
+     * The plan, and the DDL statements skipped, as not understood or rejected by H2, with the first reason.
+     */
+    public record Result(@NotNull ExplainPlan plan, int skippedStatements, @Nullable String firstError) {
+    }
+
+    public static @NotNull Result explain(@NotNull List<String> ddl, @NotNull BoundSql sql) throws SQLException {
+        String url = "jdbc:h2:mem:juice_explain_" + UUID.randomUUID().toString().replace("-", "")
+                + ";MODE=" + ExplainPlan.h2Mode(ddl) + ";DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+        // The driver is created directly: DriverManager does not see drivers of plugin class loaders. The admin
+        // connection keeps the database open while the unprivileged one runs the migrations and the EXPLAIN.
+        org.h2.Driver driver = new org.h2.Driver();
+        try (Connection admin = driver.connect(url, new Properties())) {
+            try (Statement statement = admin.createStatement()) {
+                statement.execute("CREATE USER " + USER + " PASSWORD ''");
+                statement.execute("GRANT ALTER ANY SCHEMA TO " + USER);
+            }
+            Properties user = new Properties();
+            user.setProperty("user", USER);
+            user.setProperty("password", "");
+            try (Connection connection = driver.connect(url, user)) {
+                return explain(connection, ddl, sql);
+            }
+        }
+    }
+
+    private static @NotNull Result explain(@NotNull Connection connection, @NotNull List<String> ddl,
+                                           @NotNull BoundSql sql) throws SQLException {
+        int skipped = 0;
+        String firstError = null;
+        try (Statement statement = connection.createStatement()) {
+            for (String sqlStatement : ddl) {
+                if (!Schema.isDeclaration(sqlStatement)) {
+                    skipped++;
+                    if (firstError == null) {
+                        firstError = "not a CREATE TABLE, CREATE INDEX, ALTER TABLE or DROP statement: "
+                                + (sqlStatement.length() > 60 ? sqlStatement.substring(0, 60) + "..." : sqlStatement);
+                    }
+                    continue;
+                }
+                try {
+                    statement.execute(sqlStatement);
+                } catch (SQLException e) {
+                    skipped++;
+                    if (firstError == null) {
+                        firstError = e.getMessage();
+                    }
+                }
+            }
+        }
+        try (PreparedStatement explain = connection.prepareStatement(ExplainPlan.Dialect.H2.explain(sql.sql()))) {
+            for (int i = 0; i < sql.args().size(); i++) {
+                explain.setObject(i + 1, jdbcValue(sql.args().get(i)));
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                return new Result(tabulate(resultSet), skipped, firstError);
+            }
+        }
+    }
+
+    static @NotNull ExplainPlan tabulate(@NotNull ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        List<String> columns = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnLabel(i));
+        }
+        List<List<String>> rows = new ArrayList<>();
+        while (resultSet.next()) {
+            List<String> row = new ArrayList<>();
+            for (int i = 1; i <= columns.size(); i++) {
+                Object value = resultSet.getObject(i);
+                row.add(value == null ? "" : value.toString());
+            }
+            rows.add(row);
+        }
+        return new ExplainPlan(columns, rows);
+    }
+
+    /**
+     * Converts a fixture value into a bind argument: objects and arrays are passed as JSON text.
+     */
+    static @Nullable Object jdbcValue(@Nullable Object value) {
+        if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+            return new GsonBuilder().serializeNulls().create().toJson(value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Functions callable from {@code test} expressions.
+ */
+public final class Builtins {
+    public static final Set<String> NAMES = Set.of("len", "contains", "hasPrefix", "hasSuffix", "lower", "upper", "trim");
+
+    private Builtins() {
+    }
+
+    static @Nullable Object call(@NotNull String function, @NotNull List<Object> args) {
+        switch (function) {
+            case "len" -> {
+                return (long) length(arg(function, args, 0, 1));
+            }
+            case "contains" -> {
+                Object target = arg(function, args, 0, 2);
+                Object element = args.get(1);
+                if (target instanceof Collection<?> collection) {
+                    return collection.stream().anyMatch(item -> Operators.equal(item, element));
+                }
+                if (target instanceof Map<?, ?> map) {
+                    return map.containsKey(String.valueOf(element));
+                }
+                return string(function, target).contains(string(function, element));
+            }
+            case "hasPrefix" -> {
+                return string(function, arg(function, args, 0, 2)).startsWith(string(function, args.get(1)));
+            }
+            case "hasSuffix" -> {
+                return string(function, arg(function, args, 0, 2)).endsWith(string(function, args.get(1)));
+            }
+            case "lower" -> {
+                return string(function, arg(function, args, 0, 1)).toLowerCase();
+            }
+            case "upper" -> {
+                return string(function, arg(function, args, 0, 1)).toUpperCase();
+            }
+            case "trim" -> {
+                return string(function, arg(function, args, 0, 1)).strip();
+            }
+            default -> throw new SqlRenderException("Unknown function: " + function);
+        }
+    }
+
+    static int length(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length();
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value);
+        }
+        throw new SqlRenderException("len of unsupported value: " + value);
+    }
+
+    private static @Nullable Object arg(@NotNull String function, @NotNull List<Object> args, int index, int count) {
+        if (args.size() != count) {
+            throw new SqlRenderException(function + " expects " + count + " argument(s), got " + args.size());
+        }
+        return args.get(index);
+    }
+
+    private static @NotNull String string(@NotNull String function, @Nullable Object value) {
+        if (value instanceof CharSequence text) {
+            return text.toString();
+        }
+        throw new SqlRenderException(function + " expects a string, got " + value);
+    }
+}
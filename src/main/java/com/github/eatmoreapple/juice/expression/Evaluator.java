@@ -0,0 +1,13 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.engine.Bindings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A compiled expression. Missing parameters and fields evaluate to {@code nil}, as Go map lookups do.
+ */
+@FunctionalInterface
+public interface Evaluator {
+    @Nullable Object evaluate(@NotNull Bindings bindings);
+}
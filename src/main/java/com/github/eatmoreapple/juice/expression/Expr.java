@@ -0,0 +1,57 @@
+package com.github.eatmoreapple.juice.expression;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Syntax tree of a {@code test} expression; offsets are relative to the expression text.
+ */
+public sealed interface Expr {
+    int start();
+
+    int end();
+
+    record Literal(@Nullable Object value, int start, int end) implements Expr {
+    }
+
+    record Identifier(@NotNull String name, int start, int end) implements Expr {
+    }
+
+    record Member(@NotNull Expr target, @NotNull String name, int nameStart, int end) implements Expr {
+        @Override
+        public int start() {
+            return target.start();
+        }
+    }
+
+    record Index(@NotNull Expr target, @NotNull Expr index, int end) implements Expr {
+        @Override
+        public int start() {
+            return target.start();
+        }
+    }
+
+    record Call(@NotNull String function, @NotNull List<Expr> args, int start, int end) implements Expr {
+    }
+
+    record Unary(@NotNull String operator, @NotNull Expr operand, int start) implements Expr {
+        @Override
+        public int end() {
+            return operand.end();
+        }
+    }
+
+    record Binary(@NotNull String operator, @NotNull Expr left, @NotNull Expr right) implements Expr {
+        @Override
+        public int start() {
+            return left.start();
+        }
+
+        @Override
+        public int end() {
+            return right.end();
+        }
+    }
+}
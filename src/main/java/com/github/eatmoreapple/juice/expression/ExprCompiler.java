@@ -0,0 +1,92 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.engine.Bindings;
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a syntax tree into a tree of {@link Evaluator} closures, so evaluation never looks at the text again.
+ */
+public final class ExprCompiler {
+    private ExprCompiler() {
+    }
+
+    public static @NotNull Evaluator compile(@NotNull Expr expr) {
+        if (expr instanceof Expr.Literal literal) {
+            Object value = literal.value();
+            return bindings -> value;
+        }
+        if (expr instanceof Expr.Identifier identifier) {
+            String name = identifier.name();
+            return bindings -> nilIfMissing(bindings.lookup(name));
+        }
+        if (expr instanceof Expr.Member member) {
+            Evaluator target = compile(member.target());
+            String name = member.name();
+            return bindings -> nilIfMissing(Bindings.member(target.evaluate(bindings), name));
+        }
+        if (expr instanceof Expr.Index index) {
+            Evaluator target = compile(index.target());
+            Evaluator key = compile(index.index());
+            return bindings -> index(target.evaluate(bindings), key.evaluate(bindings));
+        }
+        if (expr instanceof Expr.Call call) {
+            return compileCall(call);
+        }
+        if (expr instanceof Expr.Unary unary) {
+            Evaluator operand = compile(unary.operand());
+            if (unary.operator().equals("!")) {
+                return bindings -> !Operators.asBoolean("!", operand.evaluate(bindings));
+            }
+            return bindings -> Operators.negate(operand.evaluate(bindings));
+        }
+
+        Expr.Binary binary = (Expr.Binary) expr;
+        Evaluator left = compile(binary.left());
+        Evaluator right = compile(binary.right());
+        String operator = binary.operator();
+        return switch (operator) {
+            case "&&" -> bindings -> Operators.asBoolean("&&", left.evaluate(bindings))
+                    && Operators.asBoolean("&&", right.evaluate(bindings));
+            case "||" -> bindings -> Operators.asBoolean("||", left.evaluate(bindings))
+                    || Operators.asBoolean("||", right.evaluate(bindings));
+            default -> bindings -> Operators.binary(operator, left.evaluate(bindings), right.evaluate(bindings));
+        };
+    }
+
+    private static @NotNull Evaluator compileCall(@NotNull Expr.Call call) {
+        String function = call.function();
+        if (!Builtins.NAMES.contains(function)) {
+            return bindings -> {
+                throw new SqlRenderException("Unknown function: " + function);
+            };
+        }
+        Evaluator[] args = call.args().stream().map(ExprCompiler::compile).toArray(Evaluator[]::new);
+        return bindings -> {
+            List<Object> values = new ArrayList<>(args.length);
+            for (Evaluator arg : args) {
+                values.add(arg.evaluate(bindings));
+            }
+            return Builtins.call(function, values);
+        };
+    }
+
+    private static @Nullable Object index(@Nullable Object target, @Nullable Object key) {
+        if (target instanceof Map<?, ?> map) {
+            return map.get(String.valueOf(key));
+        }
+        if (key instanceof Number number) {
+            return nilIfMissing(Bindings.member(target, Long.toString(number.longValue())));
+        }
+        throw new SqlRenderException("Cannot index " + target + " with " + key);
+    }
+
+    private static @Nullable Object nilIfMissing(@Nullable Object value) {
+        return value == Bindings.MISSING ? null : value;
+    }
+}
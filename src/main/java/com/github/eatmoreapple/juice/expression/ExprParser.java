@@ -0,0 +1,250 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.expression.ExprTokenizer.Kind;
+import com.github.eatmoreapple.juice.expression.ExprTokenizer.Token;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive descent parser with Go operator precedence: {@code ||}/{@code or}, {@code &&}/{@code and},
+ * comparisons, {@code + -}, {@code * / %}, unary {@code ! -}, then member access, indexing and calls.
+ */
+public final class ExprParser {
+    private final String text;
+    private final List<Token> tokens;
+    private int position;
+
+    private ExprParser(@NotNull String text) {
+        this.text = text;
+        this.tokens = ExprTokenizer.tokenize(text);
+    }
+
+    public static @NotNull Expr parse(@NotNull String text) throws ExprSyntaxException {
+        ExprParser parser = new ExprParser(text);
+        if (parser.tokens.isEmpty()) {
+            throw new ExprSyntaxException("Empty expression", 0);
+        }
+        Expr expr = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw parser.unexpected();
+        }
+        return expr;
+    }
+
+    private @NotNull Expr parseOr() throws ExprSyntaxException {
+        Expr left = parseAnd();
+        while (accept("||") || accept("or")) {
+            left = new Expr.Binary("||", left, parseAnd());
+        }
+        return left;
+    }
+
+    private @NotNull Expr parseAnd() throws ExprSyntaxException {
+        Expr left = parseComparison();
+        while (accept("&&") || accept("and")) {
+            left = new Expr.Binary("&&", left, parseComparison());
+        }
+        return left;
+    }
+
+    private @NotNull Expr parseComparison() throws ExprSyntaxException {
+        Expr left = parseAdditive();
+        String operator;
+        while ((operator = acceptAny("==", "!=", "<=", ">=", "<", ">")) != null) {
+            left = new Expr.Binary(operator, left, parseAdditive());
+        }
+        return left;
+    }
+
+    private @NotNull Expr parseAdditive() throws ExprSyntaxException {
+        Expr left = parseMultiplicative();
+        String operator;
+        while ((operator = acceptAny("+", "-")) != null) {
+            left = new Expr.Binary(operator, left, parseMultiplicative());
+        }
+        return left;
+    }
+
+    private @NotNull Expr parseMultiplicative() throws ExprSyntaxException {
+        Expr left = parseUnary();
+        String operator;
+        while ((operator = acceptAny("*", "/", "%")) != null) {
+            left = new Expr.Binary(operator, left, parseUnary());
+        }
+        return left;
+    }
+
+    private @NotNull Expr parseUnary() throws ExprSyntaxException {
+        Token token = peek();
+        String operator = acceptAny("!", "-");
+        if (operator != null) {
+            return new Expr.Unary(operator, parseUnary(), token.start());
+        }
+        return parsePostfix(parsePrimary());
+    }
+
+    private @NotNull Expr parsePostfix(@NotNull Expr expr) throws ExprSyntaxException {
+        while (true) {
+            if (acceptKind(Kind.DOT)) {
+                Token name = expect(Kind.IDENTIFIER, "Field name expected");
+                expr = new Expr.Member(expr, name.text(text), name.start(), name.end());
+            } else if (acceptKind(Kind.LBRACKET)) {
+                Expr index = parseOr();
+                Token close = expect(Kind.RBRACKET, "']' expected");
+                expr = new Expr.Index(expr, index, close.end());
+            } else {
+                return expr;
+            }
+        }
+    }
+
+    private @NotNull Expr parsePrimary() throws ExprSyntaxException {
+        Token token = peek();
+        if (token == null) {
+            throw new ExprSyntaxException("Unexpected end of expression", text.length());
+        }
+        position++;
+        String value = token.text(text);
+        switch (token.kind()) {
+            case IDENTIFIER -> {
+                if (acceptKind(Kind.LPAREN)) {
+                    return parseCall(token);
+                }
+                return new Expr.Identifier(value, token.start(), token.end());
+            }
+            case NUMBER -> {
+                Object number = value.contains(".") ? (Object) new BigDecimal(value).doubleValue() : parseLong(token);
+                return new Expr.Literal(number, token.start(), token.end());
+            }
+            case STRING -> {
+                return new Expr.Literal(unquote(token), token.start(), token.end());
+            }
+            case KEYWORD -> {
+                if ("and".equals(value) || "or".equals(value)) {
+                    break;
+                }
+                Object literal = "nil".equals(value) ? null : Boolean.valueOf(value);
+                return new Expr.Literal(literal, token.start(), token.end());
+            }
+            case LPAREN -> {
+                Expr inner = parseOr();
+                expect(Kind.RPAREN, "')' expected");
+                return inner;
+            }
+            default -> {
+            }
+        }
+        position--;
+        throw unexpected();
+    }
+
+    private @NotNull Expr parseCall(@NotNull Token name) throws ExprSyntaxException {
+        List<Expr> args = new ArrayList<>();
+        if (!acceptKind(Kind.RPAREN)) {
+            do {
+                args.add(parseOr());
+            } while (acceptKind(Kind.COMMA));
+            expect(Kind.RPAREN, "')' expected");
+        }
+        return new Expr.Call(name.text(text), args, name.start(), tokens.get(position - 1).end());
+    }
+
+    private @NotNull Long parseLong(@NotNull Token token) throws ExprSyntaxException {
+        try {
+            return Long.parseLong(token.text(text));
+        } catch (NumberFormatException e) {
+            throw new ExprSyntaxException("Number out of range", token.start());
+        }
+    }
+
+    private @NotNull String unquote(@NotNull Token token) throws ExprSyntaxException {
+        String value = token.text(text);
+        char quote = value.charAt(0);
+        if (value.length() < 2 || value.charAt(value.length() - 1) != quote) {
+            throw new ExprSyntaxException("Unterminated string", token.start());
+        }
+        String body = value.substring(1, value.length() - 1);
+        if (quote == '`' || body.indexOf('\\') < 0) {
+            return body;
+        }
+        StringBuilder unescaped = new StringBuilder(body.length());
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c == '\\' && i + 1 < body.length()) {
+                char escaped = body.charAt(++i);
+                unescaped.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    case 'r' -> '\r';
+                    default -> escaped;
+                });
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private @Nullable Token peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private boolean accept(@NotNull String value) {
+        Token token = peek();
+        if (token != null && (token.kind() == Kind.OPERATOR || token.kind() == Kind.KEYWORD)
+                && value.equals(token.text(text))) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private @Nullable String acceptAny(@NotNull String... values) {
+        for (String value : values) {
+            if (accept(value)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private boolean acceptKind(@NotNull Kind kind) {
+        Token token = peek();
+        if (token != null && token.kind() == kind) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private @NotNull Token expect(@NotNull Kind kind, @NotNull String message) throws ExprSyntaxException {
+        Token token = peek();
+        if (token == null || token.kind() != kind) {
+            throw new ExprSyntaxException(message, token == null ? text.length() : token.start());
+        }
+        position++;
+        return token;
+    }
+
+    private @NotNull ExprSyntaxException unexpected() {
+        Token token = peek();
+        if (token == null) {
+            return new ExprSyntaxException("Unexpected end of expression", text.length());
+        }
+        String value = token.text(text);
+        if (token.kind() == Kind.BAD_CHARACTER) {
+            String hint = switch (value) {
+                case "=" -> ", use '=='";
+                case "&" -> ", use '&&'";
+                case "|" -> ", use '||'";
+                default -> "";
+            };
+            return new ExprSyntaxException("Unexpected character '" + value + "'" + hint, token.start());
+        }
+        return new ExprSyntaxException("Unexpected '" + value + "'", token.start());
+    }
+}
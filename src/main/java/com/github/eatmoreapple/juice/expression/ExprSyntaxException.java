@@ -0,0 +1,19 @@
+package com.github.eatmoreapple.juice.expression;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A syntax error at {@code offset} of the expression text.
+ */
+public class ExprSyntaxException extends Exception {
+    private final int offset;
+
+    public ExprSyntaxException(@NotNull String message, int offset) {
+        super(message);
+        this.offset = offset;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+}
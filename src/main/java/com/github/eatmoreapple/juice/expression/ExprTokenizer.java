@@ -0,0 +1,119 @@
+package com.github.eatmoreapple.juice.expression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tokenizer of juice {@code test} expressions, shared by the parser and the editor lexer.
+ */
+public final class ExprTokenizer {
+    public static final Set<String> KEYWORDS = Set.of("true", "false", "nil", "and", "or");
+
+    private ExprTokenizer() {
+    }
+
+    public enum Kind {
+        IDENTIFIER, NUMBER, STRING, KEYWORD, OPERATOR, LPAREN, RPAREN, LBRACKET, RBRACKET, DOT, COMMA,
+        WHITESPACE, BAD_CHARACTER
+    }
+
+    public record Token(@NotNull Kind kind, int start, int end) {
+        public @NotNull String text(@NotNull CharSequence source) {
+            return source.subSequence(start, end).toString();
+        }
+    }
+
+    /**
+     * Returns the token starting at {@code offset}; {@code offset} must be before {@code end}.
+     */
+    public static @NotNull Token next(@NotNull CharSequence text, int offset, int end) {
+        char c = text.charAt(offset);
+        if (Character.isWhitespace(c)) {
+            int i = offset + 1;
+            while (i < end && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            return new Token(Kind.WHITESPACE, offset, i);
+        }
+        if (Character.isLetter(c) || c == '_') {
+            int i = offset + 1;
+            while (i < end && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                i++;
+            }
+            Kind kind = KEYWORDS.contains(text.subSequence(offset, i).toString()) ? Kind.KEYWORD : Kind.IDENTIFIER;
+            return new Token(kind, offset, i);
+        }
+        if (Character.isDigit(c)) {
+            int i = offset + 1;
+            while (i < end && Character.isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i + 1 < end && text.charAt(i) == '.' && Character.isDigit(text.charAt(i + 1))) {
+                i += 2;
+                while (i < end && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+            }
+            return new Token(Kind.NUMBER, offset, i);
+        }
+        if (c == '"' || c == '\'' || c == '`') {
+            int i = offset + 1;
+            while (i < end && text.charAt(i) != c) {
+                i += text.charAt(i) == '\\' && c != '`' ? 2 : 1;
+            }
+            return new Token(Kind.STRING, offset, Math.min(i + 1, end));
+        }
+        switch (c) {
+            case '(' -> {
+                return new Token(Kind.LPAREN, offset, offset + 1);
+            }
+            case ')' -> {
+                return new Token(Kind.RPAREN, offset, offset + 1);
+            }
+            case '[' -> {
+                return new Token(Kind.LBRACKET, offset, offset + 1);
+            }
+            case ']' -> {
+                return new Token(Kind.RBRACKET, offset, offset + 1);
+            }
+            case '.' -> {
+                return new Token(Kind.DOT, offset, offset + 1);
+            }
+            case ',' -> {
+                return new Token(Kind.COMMA, offset, offset + 1);
+            }
+            default -> {
+            }
+        }
+
+        char following = offset + 1 < end ? text.charAt(offset + 1) : 0;
+        if ((c == '=' || c == '!' || c == '<' || c == '>') && following == '='
+                || c == '&' && following == '&'
+                || c == '|' && following == '|') {
+            return new Token(Kind.OPERATOR, offset, offset + 2);
+        }
+        if ("!<>+-*/%".indexOf(c) >= 0) {
+            return new Token(Kind.OPERATOR, offset, offset + 1);
+        }
+        return new Token(Kind.BAD_CHARACTER, offset, offset + 1);
+    }
+
+    /**
+     * Tokenizes the whole text, dropping whitespace.
+     */
+    public static @NotNull List<Token> tokenize(@NotNull CharSequence text) {
+        List<Token> tokens = new ArrayList<>();
+        int offset = 0;
+        while (offset < text.length()) {
+            Token token = next(text, offset, text.length());
+            if (token.kind() != Kind.WHITESPACE) {
+                tokens.add(token);
+            }
+            offset = token.end();
+        }
+        return tokens;
+    }
+}
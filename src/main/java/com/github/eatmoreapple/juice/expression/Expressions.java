@@ -0,0 +1,84 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.engine.Bindings;
+import com.github.eatmoreapple.juice.engine.Condition;
+import com.github.eatmoreapple.juice.engine.ConditionCompiler;
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of parsed and compiled {@code test} expressions, keyed by expression text.
+ * The editor annotator and the renderer share it, so an expression is parsed once however often it is
+ * evaluated.
+ */
+public final class Expressions {
+    /**
+     * {@link ConditionCompiler} for the SQL engine backed by this cache.
+     */
+    public static final ConditionCompiler CONDITIONS = Expressions::condition;
+
+    private static final int MAX_SIZE = 10_000;
+    private static final Map<String, Parsed> CACHE = new ConcurrentHashMap<>();
+
+    private Expressions() {
+    }
+
+    public static @NotNull Parsed parse(@NotNull String text) {
+        Parsed parsed = CACHE.get(text);
+        if (parsed != null) {
+            return parsed;
+        }
+        if (CACHE.size() >= MAX_SIZE) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(text, Expressions::doParse);
+    }
+
+    public static @NotNull Condition condition(@NotNull String text) {
+        return parse(text);
+    }
+
+    private static @NotNull Parsed doParse(@NotNull String text) {
+        try {
+            Expr expr = ExprParser.parse(text);
+            return new Parsed(text.strip(), expr, ExprCompiler.compile(expr), null);
+        } catch (ExprSyntaxException e) {
+            return new Parsed(text.strip(), null, null, e);
+        }
+    }
+
+    /**
+     * The outcome of parsing; exactly one of {@code expr} and {@code error} is set.
+     */
+    public record Parsed(@NotNull String expression,
+                         @Nullable Expr expr,
+                         @Nullable Evaluator evaluator,
+                         @Nullable ExprSyntaxException error) implements Condition {
+        @Override
+        public boolean test(@NotNull Bindings bindings) {
+            if (evaluator == null) {
+                throw new SqlRenderException("Invalid test expression '" + expression + "': "
+                        + (error == null ? "" : error.getMessage()));
+            }
+            Object value = evaluator.evaluate(bindings);
+            if (value instanceof Boolean bool) {
+                return bool;
+            }
+            throw new SqlRenderException("Test expression '" + expression + "' is not a bool: " + value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Parsed other && expression.equals(other.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return expression.hashCode();
+        }
+    }
+}
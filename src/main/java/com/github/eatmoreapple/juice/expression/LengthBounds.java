@@ -0,0 +1,75 @@
+package com.github.eatmoreapple.juice.expression;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the bound a test expression puts on a collection's length, such as {@code len(ids) <= 1000}.
+ */
+public final class LengthBounds {
+    private LengthBounds() {
+    }
+
+    /**
+     * Returns the largest length of {@code path} for which {@code expr} can be true, or {@code -1} if the
+     * expression does not bound it. Only comparisons of {@code len(path)} with an integer, possibly joined
+     * with {@code &&}, are understood.
+     */
+    public static long upperBound(@NotNull Expr expr, @NotNull String path) {
+        if (!(expr instanceof Expr.Binary binary)) {
+            return -1;
+        }
+        if ("&&".equals(binary.operator())) {
+            long left = upperBound(binary.left(), path);
+            long right = upperBound(binary.right(), path);
+            return left < 0 ? right : right < 0 ? left : Math.min(left, right);
+        }
+        Long limit = integer(binary.right());
+        if (limit != null && isLengthOf(binary.left(), path)) {
+            return bound(binary.operator(), limit);
+        }
+        limit = integer(binary.left());
+        if (limit != null && isLengthOf(binary.right(), path)) {
+            return bound(flip(binary.operator()), limit);
+        }
+        return -1;
+    }
+
+    private static long bound(@NotNull String operator, long limit) {
+        return switch (operator) {
+            case "<" -> Math.max(limit - 1, 0);
+            case "<=", "==" -> Math.max(limit, 0);
+            default -> -1;
+        };
+    }
+
+    private static @NotNull String flip(@NotNull String operator) {
+        return switch (operator) {
+            case ">" -> "<";
+            case ">=" -> "<=";
+            case "<" -> ">";
+            case "<=" -> ">=";
+            default -> operator;
+        };
+    }
+
+    private static @Nullable Long integer(@NotNull Expr expr) {
+        return expr instanceof Expr.Literal literal && literal.value() instanceof Long value ? value : null;
+    }
+
+    private static boolean isLengthOf(@NotNull Expr expr, @NotNull String path) {
+        return expr instanceof Expr.Call call && "len".equals(call.function()) && call.args().size() == 1
+                && path.equals(pathOf(call.args().get(0)));
+    }
+
+    private static @Nullable String pathOf(@NotNull Expr expr) {
+        if (expr instanceof Expr.Identifier identifier) {
+            return identifier.name();
+        }
+        if (expr instanceof Expr.Member member) {
+            String target = pathOf(member.target());
+            return target == null ? null : target + "." + member.name();
+        }
+        return null;
+    }
+}
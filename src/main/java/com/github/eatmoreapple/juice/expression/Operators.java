@@ -0,0 +1,107 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * Operator semantics. Integers and floats compare by value whatever their boxed type, since
+ * fixtures decoded from JSON mix {@code Integer}, {@code Long} and {@code Double}.
+ */
+final class Operators {
+    private Operators() {
+    }
+
+    static @Nullable Object binary(@NotNull String operator, @Nullable Object left, @Nullable Object right) {
+        return switch (operator) {
+            case "==" -> equal(left, right);
+            case "!=" -> !equal(left, right);
+            case "<" -> compare(operator, left, right) < 0;
+            case "<=" -> compare(operator, left, right) <= 0;
+            case ">" -> compare(operator, left, right) > 0;
+            case ">=" -> compare(operator, left, right) >= 0;
+            case "+" -> left instanceof CharSequence && right instanceof CharSequence
+                    ? left.toString() + right
+                    : arithmetic(operator, left, right);
+            default -> arithmetic(operator, left, right);
+        };
+    }
+
+    static boolean equal(@Nullable Object left, @Nullable Object right) {
+        if (left instanceof Number a && right instanceof Number b) {
+            return isIntegral(a) && isIntegral(b) ? a.longValue() == b.longValue() : a.doubleValue() == b.doubleValue();
+        }
+        if (left instanceof CharSequence a && right instanceof CharSequence b) {
+            return a.toString().contentEquals(b);
+        }
+        return Objects.equals(left, right);
+    }
+
+    static boolean asBoolean(@NotNull String context, @Nullable Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        throw new SqlRenderException(context + " needs a bool, got " + describe(value));
+    }
+
+    private static int compare(@NotNull String operator, @Nullable Object left, @Nullable Object right) {
+        if (left instanceof Number a && right instanceof Number b) {
+            return isIntegral(a) && isIntegral(b) ? Long.compare(a.longValue(), b.longValue())
+                    : Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        if (left instanceof CharSequence a && right instanceof CharSequence b) {
+            return a.toString().compareTo(b.toString());
+        }
+        throw new SqlRenderException("Cannot compare " + describe(left) + " " + operator + " " + describe(right));
+    }
+
+    private static @NotNull Object arithmetic(@NotNull String operator, @Nullable Object left, @Nullable Object right) {
+        if (!(left instanceof Number a) || !(right instanceof Number b)) {
+            throw new SqlRenderException("Cannot apply " + operator + " to " + describe(left) + " and " + describe(right));
+        }
+        if (isIntegral(a) && isIntegral(b)) {
+            long x = a.longValue();
+            long y = b.longValue();
+            if ((operator.equals("/") || operator.equals("%")) && y == 0) {
+                throw new SqlRenderException("Division by zero");
+            }
+            return switch (operator) {
+                case "+" -> x + y;
+                case "-" -> x - y;
+                case "*" -> x * y;
+                case "/" -> x / y;
+                default -> x % y;
+            };
+        }
+        double x = a.doubleValue();
+        double y = b.doubleValue();
+        return switch (operator) {
+            case "+" -> x + y;
+            case "-" -> x - y;
+            case "*" -> x * y;
+            case "/" -> x / y;
+            default -> x % y;
+        };
+    }
+
+    static @NotNull Object negate(@Nullable Object value) {
+        if (value instanceof Number number) {
+            return isIntegral(number) ? (Object) (-number.longValue()) : (Object) (-number.doubleValue());
+        }
+        throw new SqlRenderException("Cannot negate " + describe(value));
+    }
+
+    private static boolean isIntegral(@NotNull Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte || number instanceof BigInteger
+                || number instanceof BigDecimal decimal && decimal.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static @NotNull String describe(@Nullable Object value) {
+        return value == null ? "nil" : value.getClass().getSimpleName() + " " + value;
+    }
+}
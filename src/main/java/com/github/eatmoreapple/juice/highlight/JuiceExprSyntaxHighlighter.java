@@ -0,0 +1,79 @@
+package com.github.eatmoreapple.juice.highlight;
+
+import com.github.eatmoreapple.juice.lang.JuiceExprTokenType;
+import com.github.eatmoreapple.juice.lexer.JuiceExprLexer;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
+import com.intellij.openapi.editor.HighlighterColors;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.fileTypes.SyntaxHighlighterBase;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+
+public class JuiceExprSyntaxHighlighter extends SyntaxHighlighterBase {
+    public static final TextAttributesKey IDENTIFIER = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_IDENTIFIER", DefaultLanguageHighlighterColors.IDENTIFIER);
+    public static final TextAttributesKey FIELD = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_FIELD", DefaultLanguageHighlighterColors.INSTANCE_FIELD);
+    public static final TextAttributesKey FUNCTION = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_FUNCTION", DefaultLanguageHighlighterColors.FUNCTION_CALL);
+    private static final TextAttributesKey NUMBER = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_NUMBER", DefaultLanguageHighlighterColors.NUMBER);
+    private static final TextAttributesKey STRING = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_STRING", DefaultLanguageHighlighterColors.STRING);
+    private static final TextAttributesKey KEYWORD = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_KEYWORD", DefaultLanguageHighlighterColors.KEYWORD);
+    private static final TextAttributesKey OPERATOR = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_OPERATOR", DefaultLanguageHighlighterColors.OPERATION_SIGN);
+    private static final TextAttributesKey PARENTHESES = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_PARENTHESES", DefaultLanguageHighlighterColors.PARENTHESES);
+    private static final TextAttributesKey BRACKETS = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_BRACKETS", DefaultLanguageHighlighterColors.BRACKETS);
+    private static final TextAttributesKey DOT = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_DOT", DefaultLanguageHighlighterColors.DOT);
+    private static final TextAttributesKey COMMA = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_COMMA", DefaultLanguageHighlighterColors.COMMA);
+    private static final TextAttributesKey BAD_CHARACTER = TextAttributesKey.createTextAttributesKey(
+            "JUICE_EXPR_BAD_CHARACTER", HighlighterColors.BAD_CHARACTER);
+
+    @Override
+    public @NotNull Lexer getHighlightingLexer() {
+        return new JuiceExprLexer();
+    }
+
+    @Override
+    public TextAttributesKey @NotNull [] getTokenHighlights(IElementType tokenType) {
+        if (tokenType == JuiceExprTokenType.IDENTIFIER) {
+            return pack(IDENTIFIER);
+        }
+        if (tokenType == JuiceExprTokenType.NUMBER) {
+            return pack(NUMBER);
+        }
+        if (tokenType == JuiceExprTokenType.STRING) {
+            return pack(STRING);
+        }
+        if (tokenType == JuiceExprTokenType.KEYWORD) {
+            return pack(KEYWORD);
+        }
+        if (tokenType == JuiceExprTokenType.OPERATOR) {
+            return pack(OPERATOR);
+        }
+        if (tokenType == JuiceExprTokenType.LPAREN || tokenType == JuiceExprTokenType.RPAREN) {
+            return pack(PARENTHESES);
+        }
+        if (tokenType == JuiceExprTokenType.BRACKET) {
+            return pack(BRACKETS);
+        }
+        if (tokenType == JuiceExprTokenType.DOT) {
+            return pack(DOT);
+        }
+        if (tokenType == JuiceExprTokenType.COMMA) {
+            return pack(COMMA);
+        }
+        if (tokenType == TokenType.BAD_CHARACTER) {
+            return pack(BAD_CHARACTER);
+        }
+        return EMPTY;
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.eatmoreapple.juice.highlight;
+
+import com.intellij.openapi.fileTypes.SingleLazyInstanceSyntaxHighlighterFactory;
+import com.intellij.openapi.fileTypes.SyntaxHighlighter;
+import org.jetbrains.annotations.NotNull;
+
+public class JuiceExprSyntaxHighlighterFactory extends SingleLazyInstanceSyntaxHighlighterFactory {
+    @Override
+    protected @NotNull SyntaxHighlighter createHighlighter() {
+        return new JuiceExprSyntaxHighlighter();
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.eatmoreapple.juice.include;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable graph of {@code <sql>} fragments keyed by {@code namespace.id}, with memoized expansion.
+ * <p>
+ * A fragment is expanded at most once per graph instance; statements and other fragments that
+ * include it reuse the already expanded text instead of walking the include chain again. Expansions that
+ * run into a cycle are not memoized, since where the cycle is cut depends on the fragment the walk started
+ * from.
+ */
+public final class IncludeGraph {
+    private final Map<String, Fragment> fragments;
+    private final Map<String, String> expanded = new ConcurrentHashMap<>();
+    private volatile IncludeGraphAnalysis analysis;
+
+    public IncludeGraph(@NotNull Collection<Fragment> fragments) {
+        Map<String, Fragment> byKey = new HashMap<>();
+        for (Fragment fragment : fragments) {
+            byKey.putIfAbsent(fragment.key(), fragment);
+        }
+        this.fragments = Map.copyOf(byKey);
+    }
+
+    public @Nullable Fragment getFragment(@NotNull String key) {
+        return fragments.get(key);
+    }
+
+    public @NotNull Collection<Fragment> getFragments() {
+        return fragments.values();
+    }
+
+    /**
+     * Resolves a refid the way {@code SqlIncludeReference} does: a fragment of the including
+     * namespace wins, otherwise a dotted refid is treated as {@code namespace.id}.
+     */
+    public @Nullable String resolveKey(@Nullable String namespace, @NotNull String refid) {
+        if (namespace != null && fragments.containsKey(keyOf(namespace, refid))) {
+            return keyOf(namespace, refid);
+        }
+        if (refid.contains(".") && fragments.containsKey(refid)) {
+            return refid;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the resolved include targets of the fragment, in document order.
+     */
+    public @NotNull List<String> includesOf(@NotNull String key) {
+        Fragment fragment = fragments.get(key);
+        if (fragment == null) {
+            return List.of();
+        }
+        List<String> targets = new ArrayList<>();
+        for (Segment segment : fragment.segments()) {
+            if (segment instanceof Include include) {
+                String target = resolveKey(fragment.namespace(), include.refid());
+                if (target != null) {
+                    targets.add(target);
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Returns cycle and depth information for the whole graph, computed once per graph instance.
+     */
+    public @NotNull IncludeGraphAnalysis getAnalysis() {
+        IncludeGraphAnalysis current = analysis;
+        if (current == null) {
+            Map<String, List<String>> adjacency = new LinkedHashMap<>();
+            for (String key : fragments.keySet()) {
+                adjacency.put(key, includesOf(key));
+            }
+            current = new IncludeGraphAnalysis(adjacency);
+            analysis = current;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the body of the fragment with every include expanded inline, or {@code null} if unknown.
+     */
+    public @Nullable String expandFragment(@NotNull String key) {
+        if (!fragments.containsKey(key)) {
+            return null;
+        }
+        return expandFragment(key, new HashSet<>()).text();
+    }
+
+    /**
+     * Expands the segments of a statement (or any other body) declared in {@code namespace}.
+     */
+    public @NotNull String expand(@NotNull List<Segment> segments, @Nullable String namespace) {
+        return expand(segments, namespace, new HashSet<>()).text();
+    }
+
+    private @NotNull Expansion expandFragment(@NotNull String key, @NotNull Set<String> visiting) {
+        String cached = expanded.get(key);
+        if (cached != null) {
+            return new Expansion(cached, true);
+        }
+        if (!visiting.add(key)) {
+            return new Expansion("<!-- include cycle: " + key + " -->", false);
+        }
+        Fragment fragment = fragments.get(key);
+        Expansion expansion = expand(fragment.segments(), fragment.namespace(), visiting);
+        visiting.remove(key);
+        if (!expansion.resolved()) {
+            return expansion;
+        }
+        String previous = expanded.putIfAbsent(key, expansion.text());
+        return previous == null ? expansion : new Expansion(previous, true);
+    }
+
+    private @NotNull Expansion expand(@NotNull List<Segment> segments, @Nullable String namespace, @NotNull Set<String> visiting) {
+        StringBuilder builder = new StringBuilder();
+        boolean resolved = true;
+        for (Segment segment : segments) {
+            if (segment instanceof Text text) {
+                builder.append(text.text());
+                continue;
+            }
+            String refid = ((Include) segment).refid();
+            String key = resolveKey(namespace, refid);
+            if (key == null) {
+                builder.append("<!-- unresolved include: ").append(refid).append(" -->");
+            } else {
+                Expansion included = expandFragment(key, visiting);
+                builder.append(included.text().strip());
+                resolved &= included.resolved();
+            }
+        }
+        return new Expansion(builder.toString(), resolved);
+    }
+
+    /**
+     * Expanded text; {@code resolved} is {@code false} when a cycle was cut somewhere inside it.
+     */
+    private record Expansion(@NotNull String text, boolean resolved) {
+    }
+
+    public static @NotNull String keyOf(@NotNull String namespace, @NotNull String id) {
+        return namespace + "." + id;
+    }
+
+    /**
+     * A {@code <sql>} fragment split into literal text and include references.
+     */
+    public record Fragment(@NotNull String namespace, @NotNull String id, @NotNull List<Segment> segments) {
+        public @NotNull String key() {
+            return keyOf(namespace, id);
+        }
+    }
+
+    public sealed interface Segment permits Text, Include {
+    }
+
+    public record Text(@NotNull String text) implements Segment {
+    }
+
+    public record Include(@NotNull String refid) implements Segment {
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.eatmoreapple.juice.include;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cycle and depth information for a whole {@link IncludeGraph}, computed in a single pass.
+ * <p>
+ * Strongly connected components are found with an iterative Tarjan walk, so long include chains
+ * cannot overflow the stack. Depths are then computed over the condensed, acyclic graph.
+ */
+public final class IncludeGraphAnalysis {
+    private final List<String> keys;
+    private final Map<String, Integer> indexOf;
+    private final int[][] edges;
+    private final int[] component;
+    private final boolean[] cyclicComponent;
+    private final int[] depth;
+
+    IncludeGraphAnalysis(@NotNull Map<String, List<String>> adjacency) {
+        this.keys = List.copyOf(adjacency.keySet());
+        this.indexOf = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            indexOf.put(keys.get(i), i);
+        }
+        this.edges = new int[keys.size()][];
+        for (int i = 0; i < keys.size(); i++) {
+            edges[i] = adjacency.get(keys.get(i)).stream()
+                    .map(indexOf::get)
+                    .filter(target -> target != null)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        this.component = new int[keys.size()];
+        int componentCount = findComponents();
+        this.cyclicComponent = new boolean[componentCount];
+        for (int node = 0; node < keys.size(); node++) {
+            for (int target : edges[node]) {
+                if (component[target] == component[node]) {
+                    cyclicComponent[component[node]] = true;
+                }
+            }
+        }
+        this.depth = computeDepths(componentCount);
+    }
+
+    /**
+     * Returns {@code true} if the fragment takes part in an include cycle, including self includes.
+     */
+    public boolean isCyclic(@NotNull String key) {
+        Integer node = indexOf.get(key);
+        return node != null && cyclicComponent[component[node]];
+    }
+
+    public boolean inSameCycle(@NotNull String first, @NotNull String second) {
+        Integer a = indexOf.get(first);
+        Integer b = indexOf.get(second);
+        return a != null && b != null && component[a] == component[b] && cyclicComponent[component[a]];
+    }
+
+    /**
+     * Returns the longest chain of nested includes below the fragment. Edges inside a cycle are not counted.
+     */
+    public int depthOf(@NotNull String key) {
+        Integer node = indexOf.get(key);
+        return node == null ? 0 : depth[component[node]];
+    }
+
+    /**
+     * Returns a shortest include path {@code from -> ... -> to} that stays inside their shared cycle.
+     */
+    public @Nullable List<String> cyclePath(@NotNull String from, @NotNull String to) {
+        if (!inSameCycle(from, to)) {
+            return null;
+        }
+        int start = indexOf.get(from);
+        int end = indexOf.get(to);
+        int[] previous = new int[keys.size()];
+        Arrays.fill(previous, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        previous[start] = start;
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int target : edges[node]) {
+                if (component[target] != component[start]) {
+                    continue;
+                }
+                if (target == end && node != end) {
+                    previous[end] = node;
+                    queue.clear();
+                    break;
+                }
+                if (previous[target] < 0) {
+                    previous[target] = node;
+                    queue.add(target);
+                }
+            }
+        }
+
+        List<String> path = new ArrayList<>();
+        int node = end;
+        do {
+            path.add(0, keys.get(node));
+            node = previous[node];
+        } while (node != start);
+        path.add(0, keys.get(start));
+        return path;
+    }
+
+    private int findComponents() {
+        int size = keys.size();
+        int[] index = new int[size];
+        int[] lowLink = new int[size];
+        int[] nextEdge = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(index, -1);
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<Integer> callStack = new ArrayDeque<>();
+        int counter = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            callStack.push(root);
+            while (!callStack.isEmpty()) {
+                int node = callStack.peek();
+                if (index[node] < 0) {
+                    index[node] = lowLink[node] = counter++;
+                    stack.push(node);
+                    onStack[node] = true;
+                }
+
+                if (nextEdge[node] < edges[node].length) {
+                    int target = edges[node][nextEdge[node]++];
+                    if (index[target] < 0) {
+                        callStack.push(target);
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], index[target]);
+                    }
+                    continue;
+                }
+
+                callStack.pop();
+                if (!callStack.isEmpty()) {
+                    int parent = callStack.peek();
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+                if (lowLink[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack[member] = false;
+                        component[member] = componentCount;
+                    } while (member != node);
+                    componentCount++;
+                }
+            }
+        }
+        return componentCount;
+    }
+
+    /**
+     * Tarjan numbers components in reverse topological order, so every include target of a
+     * component has a smaller number and is already final when the component is visited.
+     */
+    private int @NotNull [] computeDepths(int componentCount) {
+        List<List<Integer>> members = new ArrayList<>();
+        for (int i = 0; i < componentCount; i++) {
+            members.add(new ArrayList<>());
+        }
+        for (int node = 0; node < keys.size(); node++) {
+            members.get(component[node]).add(node);
+        }
+
+        int[] result = new int[componentCount];
+        for (int current = 0; current < componentCount; current++) {
+            int max = 0;
+            for (int node : members.get(current)) {
+                for (int target : edges[node]) {
+                    if (component[target] != current) {
+                        max = Math.max(max, result[component[target]] + 1);
+                    }
+                }
+            }
+            result[current] = max;
+        }
+        return result;
+    }
+}
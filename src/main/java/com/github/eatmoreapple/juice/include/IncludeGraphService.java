@@ -0,0 +1,148 @@
+package com.github.eatmoreapple.juice.include;
+
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlTagValue;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Project-wide {@link IncludeGraph}, rebuilt lazily after any XML change.
+ * <p>
+ * The mapper files that declare {@code <sql>} fragments are found through {@link MapperStatementIndex}, so
+ * other files are never parsed, and each file's fragments are cached on the file: a rebuild re-reads only the
+ * files that changed.
+ */
+@Service(Service.Level.PROJECT)
+public final class IncludeGraphService {
+    private final Project project;
+
+    public IncludeGraphService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static @NotNull IncludeGraphService getInstance(@NotNull Project project) {
+        return project.getService(IncludeGraphService.class);
+    }
+
+    public @NotNull IncludeGraph getGraph() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, () -> CachedValueProvider.Result.create(
+                buildGraph(), PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE)));
+    }
+
+    /**
+     * Returns the body of a statement or {@code <sql>} tag with every include expanded inline.
+     */
+    public @NotNull String expandBody(@NotNull XmlTag sqlTag) {
+        IncludeGraph graph = getGraph();
+        String namespace = MapperTagUtils.getNamespace(sqlTag.getParentTag());
+        String id = sqlTag.getAttributeValue("id");
+        if (MapperTagUtils.SQL.equals(sqlTag.getName()) && namespace != null && id != null) {
+            String expanded = graph.expandFragment(IncludeGraph.keyOf(namespace, id));
+            if (expanded != null) {
+                return expanded;
+            }
+        }
+        return graph.expand(segmentsOf(sqlTag), namespace);
+    }
+
+    /**
+     * Returns the whole tag, start and end tag included, with its body expanded.
+     */
+    public @NotNull String expandTag(@NotNull XmlTag sqlTag) {
+        String text = sqlTag.getText();
+        TextRange valueRange = sqlTag.getValue().getTextRange();
+        if (valueRange.isEmpty()) {
+            return text;
+        }
+        int tagStart = sqlTag.getTextRange().getStartOffset();
+        return text.substring(0, valueRange.getStartOffset() - tagStart)
+                + expandBody(sqlTag)
+                + text.substring(valueRange.getEndOffset() - tagStart);
+    }
+
+    private @NotNull IncludeGraph buildGraph() {
+        List<IncludeGraph.Fragment> fragments = new ArrayList<>();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        Set<VirtualFile> visited = new HashSet<>();
+        for (String namespace : MapperStatementIndex.getAllNamespaces(project)) {
+            if (namespace.isBlank()) {
+                continue;
+            }
+            for (VirtualFile file : MapperStatementIndex.findMapperFiles(project, namespace)) {
+                List<MapperStatementIndex.StatementInfo> statements =
+                        MapperStatementIndex.getFileData(project, file).get(namespace);
+                if (statements == null || !visited.add(file)
+                        || statements.stream().noneMatch(statement -> MapperTagUtils.SQL.equals(statement.tagName()))) {
+                    continue;
+                }
+                PsiFile psiFile = psiManager.findFile(file);
+                if (psiFile != null) {
+                    fragments.addAll(fragmentsOf(psiFile));
+                }
+            }
+        }
+        return new IncludeGraph(fragments);
+    }
+
+    private static @NotNull List<IncludeGraph.Fragment> fragmentsOf(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> {
+            List<IncludeGraph.Fragment> fragments = new ArrayList<>();
+            XmlTag mapperTag = MapperTagUtils.getMapperTag(file);
+            String namespace = MapperTagUtils.getNamespace(mapperTag);
+            if (mapperTag != null && namespace != null && !namespace.isBlank()) {
+                for (XmlTag sqlTag : mapperTag.findSubTags(MapperTagUtils.SQL)) {
+                    String id = sqlTag.getAttributeValue("id");
+                    if (id != null && !id.isBlank()) {
+                        fragments.add(new IncludeGraph.Fragment(namespace, id, segmentsOf(sqlTag)));
+                    }
+                }
+            }
+            return CachedValueProvider.Result.create(List.copyOf(fragments), file);
+        });
+    }
+
+    /**
+     * Splits the tag body at its {@code <include>} tags, keeping every other tag as literal text.
+     */
+    static @NotNull List<IncludeGraph.Segment> segmentsOf(@NotNull XmlTag sqlTag) {
+        XmlTagValue value = sqlTag.getValue();
+        String body = value.getText();
+        int bodyStart = value.getTextRange().getStartOffset();
+
+        List<IncludeGraph.Segment> segments = new ArrayList<>();
+        int lastOffset = 0;
+        for (XmlTag include : PsiTreeUtil.findChildrenOfType(sqlTag, XmlTag.class)) {
+            String refid = include.getAttributeValue("refid");
+            if (!MapperTagUtils.INCLUDE.equals(include.getName()) || refid == null) {
+                continue;
+            }
+            TextRange range = include.getTextRange().shiftLeft(bodyStart);
+            if (lastOffset < range.getStartOffset()) {
+                segments.add(new IncludeGraph.Text(body.substring(lastOffset, range.getStartOffset())));
+            }
+            segments.add(new IncludeGraph.Include(refid));
+            lastOffset = range.getEndOffset();
+        }
+        if (lastOffset < body.length()) {
+            segments.add(new IncludeGraph.Text(body.substring(lastOffset)));
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.eatmoreapple.juice.index;
+
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes juice configuration files ({@code <configuration><mappers>}) with the mapper resources they declare.
+ */
+public class MapperConfigIndex extends FileBasedIndexExtension<String, List<String>> {
+    public static final ID<String, List<String>> NAME = ID.create("juice.mapper.configs");
+    private static final String KEY = "configuration";
+
+    @Override
+    public @NotNull ID<String, List<String>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<String>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!StringUtil.contains(inputData.getContentAsText(), "<mappers")) {
+                return Map.of();
+            }
+            PsiFile psiFile = inputData.getPsiFile();
+            XmlTag rootTag = psiFile instanceof XmlFile xmlFile ? xmlFile.getRootTag() : null;
+            if (rootTag == null || !KEY.equals(rootTag.getName())) {
+                return Map.of();
+            }
+
+            List<String> resources = new ArrayList<>();
+            for (XmlTag mappers : rootTag.findSubTags("mappers")) {
+                for (XmlTag mapper : mappers.findSubTags("mapper")) {
+                    String resource = mapper.getAttributeValue("resource");
+                    if (resource != null && !resource.isBlank()) {
+                        resources.add(resource.trim());
+                    }
+                }
+            }
+            return Map.of(KEY, resources);
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<String>> getValueExternalizer() {
+        return new StringListExternalizer();
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    public static @NotNull Collection<VirtualFile> findConfigFiles(@NotNull Project project) {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, KEY, GlobalSearchScope.projectScope(project));
+    }
+
+    public static @NotNull List<String> getResources(@NotNull Project project, @NotNull VirtualFile configFile) {
+        List<String> resources = FileBasedIndex.getInstance().getFileData(NAME, configFile, project).get(KEY);
+        return resources == null ? List.of() : resources;
+    }
+}
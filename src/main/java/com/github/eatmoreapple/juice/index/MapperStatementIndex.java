@@ -0,0 +1,187 @@
+package com.github.eatmoreapple.juice.index;
+
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes mapper files by namespace. Values list the statements and fragments declared in the file,
+ * so callers can enumerate a mapper without loading its PSI.
+ */
+public class MapperStatementIndex extends FileBasedIndexExtension<String, List<MapperStatementIndex.StatementInfo>> {
+    public static final ID<String, List<StatementInfo>> NAME = ID.create("juice.mapper.statements");
+
+    @Override
+    public @NotNull ID<String, List<StatementInfo>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<StatementInfo>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!StringUtil.contains(inputData.getContentAsText(), "<mapper")) {
+                return Map.of();
+            }
+            XmlTag mapperTag = MapperTagUtils.getMapperTag(inputData.getPsiFile());
+            if (mapperTag == null) {
+                return Map.of();
+            }
+
+            List<StatementInfo> statements = new ArrayList<>();
+            for (XmlTag tag : mapperTag.getSubTags()) {
+                String id = tag.getAttributeValue("id");
+                if (id != null && MapperTagUtils.SQL_TAGS.contains(tag.getName())) {
+                    statements.add(new StatementInfo(tag.getName(), id, tag.getTextOffset()));
+                }
+            }
+            String namespace = StringUtil.notNullize(MapperTagUtils.getNamespace(mapperTag)).trim();
+            return Map.of(namespace, statements);
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<StatementInfo>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<StatementInfo> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (StatementInfo statement : value) {
+                    IOUtil.writeUTF(out, statement.tagName());
+                    IOUtil.writeUTF(out, statement.id());
+                    DataInputOutputUtil.writeINT(out, statement.offset());
+                }
+            }
+
+            @Override
+            public List<StatementInfo> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                List<StatementInfo> statements = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    statements.add(new StatementInfo(IOUtil.readUTF(in), IOUtil.readUTF(in), DataInputOutputUtil.readINT(in)));
+                }
+                return statements;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    public static @NotNull Collection<VirtualFile> findMapperFiles(@NotNull Project project, @NotNull String namespace) {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, namespace, GlobalSearchScope.projectScope(project));
+    }
+
+    public static @NotNull Collection<String> getAllNamespaces(@NotNull Project project) {
+        return FileBasedIndex.getInstance().getAllKeys(NAME, project);
+    }
+
+    /**
+     * Finds the top-level tags declaring {@code id} in mappers of the namespace, loading PSI only for matching files.
+     */
+    public static @NotNull List<XmlTag> findStatementTags(@NotNull Project project, @NotNull String namespace, @NotNull String id) {
+        List<XmlTag> tags = new ArrayList<>();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        for (VirtualFile file : findMapperFiles(project, namespace)) {
+            List<StatementInfo> statements = getFileData(project, file).get(namespace);
+            if (statements == null || statements.stream().noneMatch(statement -> id.equals(statement.id()))) {
+                continue;
+            }
+            PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile == null) {
+                continue;
+            }
+            for (StatementInfo statement : statements) {
+                XmlTag tag = id.equals(statement.id()) ? findTag(psiFile, statement) : null;
+                if (tag != null) {
+                    tags.add(tag);
+                }
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Returns the tag of an indexed statement, or {@code null} if the index is stale.
+     */
+    public static @Nullable XmlTag findTag(@NotNull PsiFile file, @NotNull StatementInfo statement) {
+        XmlTag tag = PsiTreeUtil.getParentOfType(file.findElementAt(statement.offset()), XmlTag.class, false);
+        if (tag != null && MapperTagUtils.isSqlTag(tag) && statement.id().equals(tag.getAttributeValue("id"))) {
+            return tag;
+        }
+        return null;
+    }
+
+    /**
+     * Returns every mapper file of the project.
+     */
+    public static @NotNull Set<VirtualFile> findAllMapperFiles(@NotNull Project project) {
+        Set<VirtualFile> files = new LinkedHashSet<>();
+        for (String namespace : getAllNamespaces(project)) {
+            files.addAll(findMapperFiles(project, namespace));
+        }
+        return files;
+    }
+
+    /**
+     * Returns namespace to statements of a single mapper file, or an empty map if it is not a mapper.
+     */
+    public static @NotNull Map<String, List<StatementInfo>> getFileData(@NotNull Project project, @NotNull VirtualFile file) {
+        return FileBasedIndex.getInstance().getFileData(NAME, file, project);
+    }
+
+    /**
+     * A statement or {@code <sql>} fragment; {@code offset} is the text offset of its tag in the file.
+     */
+    public record StatementInfo(@NotNull String tagName, @NotNull String id, int offset) {
+        public boolean isStatement() {
+            return MapperTagUtils.STATEMENT_TAGS.contains(tagName);
+        }
+    }
+}
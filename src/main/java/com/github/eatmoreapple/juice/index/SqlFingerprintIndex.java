@@ -0,0 +1,177 @@
+package com.github.eatmoreapple.juice.index;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.ConditionCompiler;
+import com.github.eatmoreapple.juice.engine.FragmentResolver;
+import com.github.eatmoreapple.juice.engine.ShapeEnumerator;
+import com.github.eatmoreapple.juice.engine.SqlFingerprints;
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import com.github.eatmoreapple.juice.engine.StatementCompiler;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the fingerprint ids of every rendered shape of every statement, see {@link SqlFingerprints}.
+ * Values are the {@code namespace.id} keys of the statements rendering that fingerprint.
+ * <p>
+ * Indexing only sees the file at hand, so includes must resolve to fragments of the same mapper. Statements
+ * that include fragments of other files are listed under {@link #PARTIAL} instead, for callers to
+ * fingerprint with the project-wide compiler.
+ */
+public class SqlFingerprintIndex extends FileBasedIndexExtension<String, List<String>> {
+    public static final ID<String, List<String>> NAME = ID.create("juice.sql.fingerprints");
+    /**
+     * Key of statements that could not be fingerprinted from their own file; fingerprint ids are upper-case hex.
+     */
+    public static final String PARTIAL = "partial";
+    /**
+     * Renders per statement; statements with more paths are indexed with the shapes found so far.
+     */
+    public static final int MAX_RENDERS = 256;
+
+    @Override
+    public @NotNull ID<String, List<String>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<String>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!StringUtil.contains(inputData.getContentAsText(), "<mapper")) {
+                return Map.of();
+            }
+            XmlTag mapperTag = MapperTagUtils.getMapperTag(inputData.getPsiFile());
+            String namespace = mapperTag == null ? null : MapperTagUtils.getNamespace(mapperTag);
+            if (namespace == null || namespace.isBlank()) {
+                return Map.of();
+            }
+            namespace = namespace.trim();
+
+            Map<String, XmlTag> fragments = new HashMap<>();
+            for (XmlTag tag : mapperTag.findSubTags(MapperTagUtils.SQL)) {
+                String id = tag.getAttributeValue("id");
+                if (id != null) {
+                    fragments.putIfAbsent(id, tag);
+                }
+            }
+            String prefix = namespace + ".";
+            FragmentResolver resolver = (ns, refid) -> {
+                String local = refid.startsWith(prefix) ? refid.substring(prefix.length()) : refid;
+                XmlTag fragment = fragments.get(local);
+                return fragment == null ? null : new FragmentResolver.Fragment(
+                        prefix + local, ns, CompiledStatementService.toSource(fragment));
+            };
+            StatementCompiler compiler = new StatementCompiler(resolver, ConditionCompiler.PARAMETER);
+
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            for (XmlTag tag : mapperTag.getSubTags()) {
+                String id = tag.getAttributeValue("id");
+                if (id == null || !MapperTagUtils.STATEMENT_TAGS.contains(tag.getName())) {
+                    continue;
+                }
+                String key = prefix + id;
+                try {
+                    CompiledStatement statement = compiler.compile(namespace, CompiledStatementService.toSource(tag));
+                    for (String fingerprintId : fingerprintIds(statement)) {
+                        result.computeIfAbsent(fingerprintId, k -> new ArrayList<>()).add(key);
+                    }
+                } catch (SqlRenderException e) {
+                    result.computeIfAbsent(PARTIAL, k -> new ArrayList<>()).add(key);
+                }
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Returns the distinct fingerprint ids of the statement's shapes, read in every {@link SqlFingerprints.Dialect},
+     * since mappers do not say which database they run on.
+     *
+     * @throws SqlRenderException if the statement cannot be rendered
+     */
+    public static @NotNull Set<String> fingerprintIds(@NotNull CompiledStatement statement) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String shape : ShapeEnumerator.enumerate(statement, MAX_RENDERS).shapes()) {
+            for (SqlFingerprints.Dialect dialect : SqlFingerprints.Dialect.values()) {
+                ids.add(SqlFingerprints.id(SqlFingerprints.fingerprint(shape, dialect)));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<String>> getValueExternalizer() {
+        return new StringListExternalizer();
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Returns the {@code namespace.id} keys indexed under a fingerprint id or {@link #PARTIAL}.
+     */
+    public static @NotNull Set<String> getStatements(@NotNull Project project, @NotNull String key) {
+        Set<String> statements = new LinkedHashSet<>();
+        for (List<String> value : FileBasedIndex.getInstance().getValues(NAME, key, GlobalSearchScope.projectScope(project))) {
+            statements.addAll(value);
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the mapper files with statements listed under {@link #PARTIAL}.
+     */
+    public static @NotNull Collection<VirtualFile> getPartialFiles(@NotNull Project project) {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, PARTIAL, GlobalSearchScope.projectScope(project));
+    }
+
+    /**
+     * Returns the {@code namespace.id} keys of a file's statements listed under {@link #PARTIAL}.
+     */
+    public static @NotNull List<String> getPartialStatements(@NotNull Project project, @NotNull VirtualFile file) {
+        List<String> statements = FileBasedIndex.getInstance().getFileData(NAME, file, project).get(PARTIAL);
+        return statements == null ? List.of() : statements;
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.eatmoreapple.juice.index;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.SourceNode;
+import com.github.eatmoreapple.juice.engine.SqlTokens;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from the identifiers of statements (see {@link SqlTokens#identifiers}) to the statements
+ * using them, for ranking statements by similarity to a query. Includes of fragments in the same mapper
+ * contribute their identifiers.
+ * <p>
+ * Each value entry is {@code namespace.id}, a tab, and the statement's number of distinct identifiers.
+ */
+public class SqlTokenIndex extends FileBasedIndexExtension<String, List<String>> {
+    public static final ID<String, List<String>> NAME = ID.create("juice.sql.tokens");
+
+    @Override
+    public @NotNull ID<String, List<String>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<String>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!StringUtil.contains(inputData.getContentAsText(), "<mapper")) {
+                return Map.of();
+            }
+            XmlTag mapperTag = MapperTagUtils.getMapperTag(inputData.getPsiFile());
+            String namespace = mapperTag == null ? null : MapperTagUtils.getNamespace(mapperTag);
+            if (namespace == null || namespace.isBlank()) {
+                return Map.of();
+            }
+            String prefix = namespace.trim() + ".";
+
+            Map<String, SourceNode.Element> fragments = new HashMap<>();
+            for (XmlTag tag : mapperTag.findSubTags(MapperTagUtils.SQL)) {
+                String id = tag.getAttributeValue("id");
+                if (id != null) {
+                    fragments.putIfAbsent(id, CompiledStatementService.toSource(tag));
+                }
+            }
+
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            for (XmlTag tag : mapperTag.getSubTags()) {
+                String id = tag.getAttributeValue("id");
+                if (id == null || !MapperTagUtils.STATEMENT_TAGS.contains(tag.getName())) {
+                    continue;
+                }
+                StringBuilder text = new StringBuilder();
+                appendText(CompiledStatementService.toSource(tag), fragments, prefix, new HashSet<>(), text);
+                Set<String> identifiers = SqlTokens.identifiers(text.toString());
+                String entry = prefix + id + '\t' + identifiers.size();
+                for (String identifier : identifiers) {
+                    result.computeIfAbsent(identifier, k -> new ArrayList<>()).add(entry);
+                }
+            }
+            return result;
+        };
+    }
+
+    private static void appendText(@NotNull SourceNode.Element element,
+                                   @NotNull Map<String, SourceNode.Element> fragments,
+                                   @NotNull String prefix,
+                                   @NotNull Set<String> visited,
+                                   @NotNull StringBuilder text) {
+        for (SourceNode child : element.children()) {
+            if (child instanceof SourceNode.Text chunk) {
+                text.append(chunk.text()).append(' ');
+            } else if (child instanceof SourceNode.Element nested && MapperTagUtils.INCLUDE.equals(nested.name())) {
+                String refid = StringUtil.notNullize(nested.attribute("refid"));
+                String local = refid.startsWith(prefix) ? refid.substring(prefix.length()) : refid;
+                SourceNode.Element fragment = fragments.get(local);
+                if (fragment != null && visited.add(local)) {
+                    appendText(fragment, fragments, prefix, visited, text);
+                }
+            } else if (child instanceof SourceNode.Element nested) {
+                appendText(nested, fragments, prefix, visited, text);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<String>> getValueExternalizer() {
+        return new StringListExternalizer();
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Returns the statements using the identifier, keyed by {@code namespace.id}, with their identifier counts.
+     */
+    public static @NotNull Map<String, Integer> getStatements(@NotNull Project project, @NotNull String identifier) {
+        Map<String, Integer> statements = new LinkedHashMap<>();
+        for (List<String> value : FileBasedIndex.getInstance().getValues(NAME, identifier, GlobalSearchScope.projectScope(project))) {
+            for (String entry : value) {
+                int tab = entry.lastIndexOf('\t');
+                statements.put(entry.substring(0, tab), Integer.parseInt(entry.substring(tab + 1)));
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.eatmoreapple.juice.index;
+
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Externalizer for index values that are plain lists of strings.
+ */
+class StringListExternalizer implements DataExternalizer<List<String>> {
+    @Override
+    public void save(@NotNull DataOutput out, List<String> value) throws IOException {
+        DataInputOutputUtil.writeINT(out, value.size());
+        for (String item : value) {
+            IOUtil.writeUTF(out, item);
+        }
+    }
+
+    @Override
+    public List<String> read(@NotNull DataInput in) throws IOException {
+        int size = DataInputOutputUtil.readINT(in);
+        List<String> value = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            value.add(IOUtil.readUTF(in));
+        }
+        return value;
+    }
+}
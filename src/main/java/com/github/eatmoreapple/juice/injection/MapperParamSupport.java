@@ -26,6 +26,11 @@ public final class MapperParamSupport {
         return ranges;
     }
 
+    /**
+     * Splits text into the SQL around its placeholders, each placeholder becoming the suffix of the SQL before
+     * it or the prefix of the SQL after it. Text ending in placeholders yields a final empty fragment carrying
+     * their replacement.
+     */
     public static @NotNull List<SqlFragment> buildSqlFragments(@NotNull String text) {
         List<SqlFragment> fragments = new ArrayList<>();
         Matcher matcher = PARAM_PATTERN.matcher(text);
@@ -49,6 +54,8 @@ public final class MapperParamSupport {
             fragments.add(new SqlFragment(new TextRange(lastOffset, text.length()), pendingPrefix, null));
         } else if (!foundParam) {
             fragments.add(new SqlFragment(new TextRange(0, text.length()), null, null));
+        } else if (pendingPrefix != null) {
+            fragments.add(new SqlFragment(new TextRange(text.length(), text.length()), pendingPrefix, null));
         }
 
         return fragments;
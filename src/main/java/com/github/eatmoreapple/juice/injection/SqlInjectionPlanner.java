@@ -0,0 +1,407 @@
+package com.github.eatmoreapple.juice.injection;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lays out the SQL injected into one statement: the text hosts of the statement and its dynamic tags are
+ * visited in document order and become places of a single injected document, with the tags replaced by
+ * synthetic SQL so that the document parses as one statement.
+ * <p>
+ * Conditional bodies are kept as if their test were true. {@code <where>}, {@code <set>} and {@code <trim>}
+ * contribute their prefix and suffix, and their overrides are cut from the injected ranges the way juice
+ * trims them. {@code <foreach>} contributes {@code open} and {@code close} around a single item.
+ * {@code <include>} contributes a placeholder that fits where it sits: a name where a table or an expression
+ * is expected, {@code 1 = 1} where a condition is, nothing after a complete operand, since the fragment then
+ * continues the statement with a clause of its own, and a whole {@code SELECT} at the start of a statement.
+ * <p>
+ * {@code <when>}/{@code <otherwise>} branches after the first one of a {@code <choose>} are alternatives, so
+ * each becomes a document of its own. Its hosts are injected once, in that document, with the SQL of the
+ * enclosing document before and after the {@code <choose>} copied around them as synthetic text, so that the
+ * branch parses as part of the whole statement.
+ *
+ * @param <H> the text host type
+ */
+public final class SqlInjectionPlanner<H> {
+    private static final String INCLUDE_NAME = "juice_include";
+    private static final Pattern LAST_TOKEN = Pattern.compile("([\\w$`\"\\]]+|\\S)\\s*$");
+    private static final Pattern OPERAND_END = Pattern.compile("[\\w$`\"\\]]+|[)?']");
+    private static final Set<String> CONDITION_KEYWORDS = Set.of("where", "and", "or", "not", "on", "having");
+    private static final Set<String> OPERAND_KEYWORDS = Set.of(
+            "select", "distinct", "from", "join", "update", "into", "set", "by", "values", "limit", "offset", "as",
+            "in", "like", "between", "is", "case", "when", "then", "else", "table", "all", "any", "returning");
+    private static final String[] WHERE_PREFIX_OVERRIDES = {"AND ", "OR ", "AND\n", "OR\n", "AND\t", "OR\t"};
+    private static final String[] SET_SUFFIX_OVERRIDES = {","};
+
+    /**
+     * One injected range of a host with the synthetic text around it.
+     */
+    public record Place<H>(@NotNull H host, @NotNull TextRange range, @Nullable String prefix, @Nullable String suffix) {
+    }
+
+    private final List<Document> alternatives = new ArrayList<>();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private Document document = new Document();
+
+    /**
+     * Adds a text host in document order.
+     */
+    public void text(@NotNull H host, @NotNull String text) {
+        for (MapperParamSupport.SqlFragment fragment : MapperParamSupport.buildSqlFragments(text)) {
+            if (fragment.range().isEmpty()) {
+                document.pending.append(nullToEmpty(fragment.prefix())).append(nullToEmpty(fragment.suffix()));
+                continue;
+            }
+            String prefix = document.pending + nullToEmpty(fragment.prefix());
+            document.pending.setLength(0);
+            Entry<H> entry = new Entry<>(host, text, fragment.range(), emptyToNull(prefix), fragment.suffix());
+            if (!entry.content().isBlank()) {
+                trimPrefixOverrides(entry, fragment.prefix() == null);
+            }
+            document.places.add(entry);
+        }
+    }
+
+    /**
+     * Enters a tag nested in the statement; every call is matched by {@link #close()}.
+     */
+    public void open(@NotNull String name, @NotNull Map<String, String> attributes) {
+        Frame frame = new Frame(name, document);
+        Frame parent = frames.peek();
+        if ("choose".equals(name)) {
+            frame.head = render(document);
+            frame.trimmed = Set.copyOf(document.trimmed);
+        } else if (parent != null && "choose".equals(parent.name)
+                && ("when".equals(name) || "otherwise".equals(name)) && parent.branches++ > 0) {
+            frame.saved = document;
+            document = new Document();
+            document.head = parent.head;
+            document.trimmed.addAll(parent.trimmed);
+            frame.document = document;
+            parent.alternatives.add(document);
+            alternatives.add(document);
+        }
+        switch (name) {
+            case "where" -> trim(frame, "WHERE", "", WHERE_PREFIX_OVERRIDES, new String[0]);
+            case "set" -> trim(frame, "SET", "", new String[0], SET_SUFFIX_OVERRIDES);
+            case "trim" -> trim(frame, attributes.getOrDefault("prefix", ""), attributes.getOrDefault("suffix", ""),
+                    overrides(attributes.get("prefixOverrides")), overrides(attributes.get("suffixOverrides")));
+            case "foreach" -> {
+                synthetic(attributes.getOrDefault("open", ""));
+                frame.suffix = attributes.getOrDefault("close", "");
+            }
+            case "include" -> {
+                // The included text comes first, so a prefix override after it stays.
+                takePrefixOverrides();
+                document.pending.append(includePlaceholder(lastToken(document)));
+            }
+            default -> {
+            }
+        }
+        frames.push(frame);
+    }
+
+    public void close() {
+        Frame frame = frames.pop();
+        if (frame.suffixOverrides.length > 0) {
+            trimSuffixOverrides(frame);
+        }
+        synthetic(frame.suffix);
+        if (frame.saved != null) {
+            document = frame.saved;
+        }
+        for (Document alternative : frame.alternatives) {
+            alternative.enclosing = document;
+            alternative.tailPlaces = document.places.size();
+            alternative.tailPending = document.pending.length();
+        }
+    }
+
+    /**
+     * Returns the injected documents, the statement's own one first; documents without places are dropped.
+     */
+    public @NotNull List<List<Place<H>>> build() {
+        // Tails are read before any document is finished, which moves its pending text into its last place.
+        List<String> tails = alternatives.stream().map(this::tail).toList();
+        List<List<Place<H>>> result = new ArrayList<>();
+        finish(document, "", "", result);
+        for (int i = 0; i < alternatives.size(); i++) {
+            finish(alternatives.get(i), alternatives.get(i).head, tails.get(i), result);
+        }
+        document = new Document();
+        alternatives.clear();
+        return result;
+    }
+
+    private void trim(@NotNull Frame frame, @NotNull String prefix, @NotNull String suffix,
+                      @NotNull String[] prefixOverrides, @NotNull String[] suffixOverrides) {
+        synthetic(prefix);
+        frame.suffix = suffix;
+        frame.prefixOverrides = prefixOverrides;
+        frame.suffixOverrides = suffixOverrides;
+        frame.start = document.places.size();
+    }
+
+    private void synthetic(@NotNull String sql) {
+        if (!sql.isBlank()) {
+            document.pending.append(' ').append(sql.strip()).append(' ');
+        }
+    }
+
+    /**
+     * Cuts a prefix override from the first non-blank text inside the innermost trim that has not seen any;
+     * text that starts after a placeholder is never cut.
+     */
+    private void trimPrefixOverrides(@NotNull Entry<H> entry, boolean cut) {
+        Frame frame = takePrefixOverrides();
+        if (frame == null || !cut) {
+            return;
+        }
+        String content = entry.content();
+        int start = leadingWhitespace(content);
+        for (String override : frame.prefixOverrides) {
+            if (content.regionMatches(true, start, override, 0, override.length())) {
+                entry.range = new TextRange(entry.range.getStartOffset() + start + override.length(),
+                        entry.range.getEndOffset());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marks the innermost trim with prefix overrides that has not seen any text of the current document as
+     * having seen it, and returns it.
+     */
+    private @Nullable Frame takePrefixOverrides() {
+        for (Frame frame : frames) {
+            if (frame.prefixOverrides.length > 0 && document.trimmed.add(frame)) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private void trimSuffixOverrides(@NotNull Frame frame) {
+        if (frame.document != document || !document.pending.toString().isBlank()) {
+            return;
+        }
+        List<Entry<H>> places = document.places;
+        for (int i = places.size() - 1; i >= frame.start; i--) {
+            Entry<H> entry = places.get(i);
+            String content = entry.content();
+            if (content.isBlank()) {
+                continue;
+            }
+            if (entry.suffix != null) {
+                return;
+            }
+            String trimmed = content.stripTrailing();
+            for (String override : frame.suffixOverrides) {
+                if (trimmed.toUpperCase(Locale.ROOT).endsWith(override.toUpperCase(Locale.ROOT))) {
+                    int end = entry.range.getStartOffset() + trimmed.length() - override.length();
+                    cutEnd(i, end);
+                    return;
+                }
+            }
+            return;
+        }
+    }
+
+    private void cutEnd(int index, int end) {
+        List<Entry<H>> places = document.places;
+        Entry<H> entry = places.get(index);
+        if (end > entry.range.getStartOffset()) {
+            entry.range = new TextRange(entry.range.getStartOffset(), end);
+            return;
+        }
+        // Nothing left of this range: its synthetic prefix moves to whatever follows it.
+        places.remove(index);
+        String moved = nullToEmpty(entry.prefix);
+        if (index < places.size()) {
+            Entry<H> next = places.get(index);
+            next.prefix = emptyToNull(moved + nullToEmpty(next.prefix));
+        } else {
+            document.pending.insert(0, moved);
+        }
+    }
+
+    private void finish(@NotNull Document finished, @NotNull String head, @NotNull String tail,
+                        @NotNull List<List<Place<H>>> result) {
+        List<Entry<H>> places = finished.places;
+        if (places.isEmpty()) {
+            return;
+        }
+        Entry<H> first = places.get(0);
+        first.prefix = emptyToNull(head + nullToEmpty(first.prefix));
+        Entry<H> last = places.get(places.size() - 1);
+        last.suffix = emptyToNull(nullToEmpty(last.suffix) + finished.pending + tail);
+        result.add(places.stream()
+                .map(entry -> new Place<>(entry.host, entry.range, entry.prefix, entry.suffix))
+                .toList());
+    }
+
+    /**
+     * Returns the SQL of a document so far, synthetic text included.
+     */
+    private @NotNull String render(@NotNull Document rendered) {
+        StringBuilder sql = new StringBuilder(rendered.head);
+        for (Entry<H> entry : rendered.places) {
+            sql.append(entry.render());
+        }
+        return sql.append(rendered.pending).toString();
+    }
+
+    /**
+     * Returns the SQL that follows the {@code <choose>} of an alternative document, up to the end of the
+     * statement.
+     */
+    private @NotNull String tail(@NotNull Document alternative) {
+        Document enclosing = alternative.enclosing;
+        if (enclosing == null) {
+            return "";
+        }
+        StringBuilder sql = new StringBuilder();
+        List<Entry<H>> places = enclosing.places;
+        if (alternative.tailPlaces < places.size()) {
+            // Text pending at the end of the <choose> has become the prefix of the place that follows it.
+            Entry<H> next = places.get(alternative.tailPlaces);
+            String prefix = nullToEmpty(next.prefix);
+            sql.append(prefix.substring(Math.min(alternative.tailPending, prefix.length())))
+                    .append(next.content())
+                    .append(nullToEmpty(next.suffix));
+            for (int i = alternative.tailPlaces + 1; i < places.size(); i++) {
+                sql.append(places.get(i).render());
+            }
+            sql.append(enclosing.pending);
+        } else {
+            sql.append(enclosing.pending.substring(Math.min(alternative.tailPending, enclosing.pending.length())));
+        }
+        return sql.append(tail(enclosing)).toString();
+    }
+
+    /**
+     * Returns the last token of a document so far, or {@code null} if it has no SQL yet.
+     */
+    private @Nullable String lastToken(@NotNull Document current) {
+        String sql = current.pending.toString();
+        for (int i = current.places.size() - 1; sql.isBlank() && i >= 0; i--) {
+            sql = current.places.get(i).render();
+        }
+        if (sql.isBlank()) {
+            sql = current.head;
+        }
+        Matcher matcher = LAST_TOKEN.matcher(sql);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static @NotNull String includePlaceholder(@Nullable String previous) {
+        if (previous == null) {
+            return " SELECT * FROM " + INCLUDE_NAME + " ";
+        }
+        String word = previous.toLowerCase(Locale.ROOT);
+        if (CONDITION_KEYWORDS.contains(word)) {
+            return " 1 = 1 ";
+        }
+        if (OPERAND_KEYWORDS.contains(word) || !OPERAND_END.matcher(previous).matches()) {
+            return " " + INCLUDE_NAME + " ";
+        }
+        return " ";
+    }
+
+    private static @NotNull String[] overrides(@Nullable String attribute) {
+        if (attribute == null || attribute.isEmpty()) {
+            return new String[0];
+        }
+        return attribute.split("\\|");
+    }
+
+    private static int leadingWhitespace(@NotNull String text) {
+        int i = 0;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static @NotNull String nullToEmpty(@Nullable String text) {
+        return text == null ? "" : text;
+    }
+
+    private static @Nullable String emptyToNull(@NotNull String text) {
+        return text.isEmpty() ? null : text;
+    }
+
+    private static final class Entry<H> {
+        final H host;
+        final String text;
+        TextRange range;
+        String prefix;
+        String suffix;
+
+        Entry(@NotNull H host, @NotNull String text, @NotNull TextRange range, @Nullable String prefix, @Nullable String suffix) {
+            this.host = host;
+            this.text = text;
+            this.range = range;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        @NotNull String content() {
+            return range.substring(text);
+        }
+
+        @NotNull String render() {
+            return nullToEmpty(prefix) + content() + nullToEmpty(suffix);
+        }
+    }
+
+    private final class Document {
+        final List<Entry<H>> places = new ArrayList<>();
+        final StringBuilder pending = new StringBuilder();
+        /**
+         * Trims whose prefix overrides have seen text of this document.
+         */
+        final Set<Frame> trimmed = new HashSet<>();
+        /**
+         * For an alternative branch, the SQL of the enclosing document up to its {@code <choose>}.
+         */
+        String head = "";
+        /**
+         * For an alternative branch, the enclosing document and where it continues after the {@code <choose>}.
+         */
+        Document enclosing;
+        int tailPlaces;
+        int tailPending;
+    }
+
+    private final class Frame {
+        final String name;
+        Document document;
+        Document saved;
+        String suffix = "";
+        String[] prefixOverrides = new String[0];
+        String[] suffixOverrides = new String[0];
+        int start;
+        int branches;
+        String head = "";
+        Set<Frame> trimmed = Set.of();
+        final List<Document> alternatives = new ArrayList<>();
+
+        Frame(@NotNull String name, @NotNull Document document) {
+            this.name = name;
+            this.document = document;
+        }
+    }
+}
@@ -1,76 +1,73 @@
 package com.github.eatmoreapple.juice.injection;
 
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
 import com.intellij.lang.Language;
 import com.intellij.lang.injection.MultiHostInjector;
 import com.intellij.lang.injection.MultiHostRegistrar;
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiLanguageInjectionHost;
+import com.intellij.psi.xml.XmlAttribute;
 import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlTagChild;
 import com.intellij.psi.xml.XmlText;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * SQL 语言注入器
- * 在 MyBatis XML 文件中的 SQL 标签内注入 SQL 语言
+ * 在 MyBatis XML 文件中的 SQL 标签内注入 SQL 语言。
+ * 每个语句注入一个跨越所有文本节点的 SQL 文档，动态标签由 {@link SqlInjectionPlanner} 替换为合成 SQL。
  */
 public class SqlLanguageInjector implements MultiHostInjector {
     private static final Logger LOG = Logger.getInstance(SqlLanguageInjector.class);
     private static final boolean DEBUG = Boolean.getBoolean("juice.debug.injection");
-    // SQL 标签集合
-    private static final Set<String> SQL_TAGS = Set.of("insert", "select", "update", "delete", "sql");
     private static final Language SQL_LANGUAGE = Language.findLanguageByID("SQL");
 
     @Override
     public void getLanguagesToInject(@NotNull MultiHostRegistrar registrar, @NotNull PsiElement context) {
-        if (!(context instanceof XmlText xmlText)) {
+        // 只在语句或 <sql> 片段标签上注入，覆盖其中所有文本节点
+        if (SQL_LANGUAGE == null || !(context instanceof XmlTag tag) || !MapperTagUtils.isSqlTag(tag)) {
             return;
         }
 
-        // 快速检查：如果文本为空，直接返回
-        String text = xmlText.getText();
-        if (text.isBlank()) {
-            return;
-        }
-
-        // 检查是否在SQL标签内部
-        if (!isInsideSqlTag(xmlText)) {
-            return;
-        }
-        
-        // 检查是否正在输入 XML 标签，如果是则不注入 SQL 语言
-        if (isTypingXmlTag(text)) {
-            return;
+        SqlInjectionPlanner<PsiLanguageInjectionHost> planner = new SqlInjectionPlanner<>();
+        collect(tag, planner);
+        List<List<SqlInjectionPlanner.Place<PsiLanguageInjectionHost>>> documents = planner.build();
+        for (List<SqlInjectionPlanner.Place<PsiLanguageInjectionHost>> places : documents) {
+            registrar.startInjecting(SQL_LANGUAGE);
+            for (SqlInjectionPlanner.Place<PsiLanguageInjectionHost> place : places) {
+                registrar.addPlace(place.prefix(), place.suffix(), place.host(), place.range());
+            }
+            registrar.doneInjecting();
         }
-
-        if (SQL_LANGUAGE != null) {
-            injectSqlAroundParams(registrar, (PsiLanguageInjectionHost) context, text);
+        if (!documents.isEmpty()) {
+            debug("Injected SQL into " + documents.size() + " document(s) of <" + tag.getName() + " id=\""
+                    + tag.getAttributeValue("id") + "\">: " + summarize(tag.getValue().getText()));
         }
     }
 
-    private void injectSqlAroundParams(@NotNull MultiHostRegistrar registrar,
-                                       @NotNull PsiLanguageInjectionHost host,
-                                       @NotNull String text) {
-        List<MapperParamSupport.SqlFragment> fragments = MapperParamSupport.buildSqlFragments(text);
-        boolean started = false;
-        for (MapperParamSupport.SqlFragment fragment : fragments) {
-            if (fragment.range().isEmpty()) {
-                continue;
-            }
-            if (!started) {
-                registrar.startInjecting(SQL_LANGUAGE);
-                started = true;
+    private void collect(@NotNull XmlTag tag, @NotNull SqlInjectionPlanner<PsiLanguageInjectionHost> planner) {
+        for (XmlTagChild child : tag.getValue().getChildren()) {
+            if (child instanceof XmlText xmlText && child instanceof PsiLanguageInjectionHost host) {
+                String text = xmlText.getText();
+                // 检查是否正在输入 XML 标签，如果是则不注入 SQL 语言
+                if (!text.isBlank() && !isTypingXmlTag(text)) {
+                    planner.text(host, text);
+                }
+            } else if (child instanceof XmlTag childTag) {
+                Map<String, String> attributes = new HashMap<>();
+                for (XmlAttribute attribute : childTag.getAttributes()) {
+                    attributes.put(attribute.getName(), StringUtil.notNullize(attribute.getValue()));
+                }
+                planner.open(childTag.getName(), attributes);
+                collect(childTag, planner);
+                planner.close();
             }
-            registrar.addPlace(fragment.prefix(), fragment.suffix(), host, fragment.range());
-        }
-
-        if (started) {
-            registrar.doneInjecting();
-            debug("Injected SQL into " + fragments.size() + " fragment(s): " + summarize(text));
         }
     }
 
@@ -108,26 +105,6 @@ public class SqlLanguageInjector implements MultiHostInjector {
                trimmed.endsWith("<where");
     }
 
-    /**
-     * 检查是否在 SQL 标签内部
-     */
-    private boolean isInsideSqlTag(@NotNull XmlText xmlText) {
-        XmlTag currentTag = xmlText.getParentTag();
-        if (currentTag == null) {
-            return false;
-        }
-        
-        // 获取最近的SQL标签
-        while (currentTag != null) {
-            String tagName = currentTag.getName();
-            if (SQL_TAGS.contains(tagName)) {
-                return true;
-            }
-            currentTag = currentTag.getParentTag();
-        }
-        return false;
-    }
-
     private void debug(@NotNull String message) {
         if (DEBUG) {
             LOG.warn(message);
@@ -144,6 +121,6 @@ public class SqlLanguageInjector implements MultiHostInjector {
 
     @Override
     public @NotNull List<? extends Class<? extends PsiElement>> elementsToInjectIn() {
-        return List.of(XmlText.class);
+        return List.of(XmlTag.class);
     }
 }
@@ -0,0 +1,50 @@
+package com.github.eatmoreapple.juice.injection;
+
+import com.github.eatmoreapple.juice.lang.JuiceExprLanguage;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.lang.injection.MultiHostInjector;
+import com.intellij.lang.injection.MultiHostRegistrar;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.ElementManipulators;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlAttributeValue;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Injects {@link JuiceExprLanguage} into {@code test} attributes of {@code <if>} and {@code <when>} in mappers.
+ */
+public class TestExpressionInjector implements MultiHostInjector {
+    private static final Set<String> CONDITION_TAGS = Set.of("if", "when");
+
+    @Override
+    public void getLanguagesToInject(@NotNull MultiHostRegistrar registrar, @NotNull PsiElement context) {
+        if (!(context instanceof XmlAttributeValue value) || !isTestAttribute(value)) {
+            return;
+        }
+        TextRange range = ElementManipulators.getValueTextRange(value);
+        if (range.isEmpty()) {
+            return;
+        }
+        registrar.startInjecting(JuiceExprLanguage.INSTANCE)
+                .addPlace(null, null, value, range)
+                .doneInjecting();
+    }
+
+    @Override
+    public @NotNull List<Class<? extends PsiElement>> elementsToInjectIn() {
+        return List.of(XmlAttributeValue.class);
+    }
+
+    public static boolean isTestAttribute(@NotNull XmlAttributeValue value) {
+        return value.getParent() instanceof XmlAttribute attribute
+                && "test".equals(attribute.getName())
+                && attribute.getParent() instanceof XmlTag tag
+                && CONDITION_TAGS.contains(tag.getName())
+                && MapperTagUtils.findSqlTag(tag) != null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.BindBudget;
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.ForeachSqlNode;
+import com.github.eatmoreapple.juice.expression.Expr;
+import com.github.eatmoreapple.juice.expression.Expressions;
+import com.github.eatmoreapple.juice.expression.LengthBounds;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+/**
+ * Reports {@code <foreach>} tags whose statement would exceed the bind parameter limit or the maximum
+ * packet size when the collection holds the configured maximum number of items.
+ * <p>
+ * A loop is bounded by the {@code batchSize} of an {@code <insert>}, the only statement juice batches, or by an
+ * enclosing {@code <if>}/{@code <when>} test such as {@code len(ids) <= 1000}; other loops, those of included
+ * fragments among them, are evaluated at the {@code batchSize} or the configured maximum collection size. Costs come from {@link BindBudget} over the
+ * compiled statement, so included fragments count too; when only their loops exceed a limit, the statement
+ * tag is reported.
+ */
+public class ForeachBudgetInspection extends XmlSuppressableInspectionTool {
+    public int maxCollectionSize = 10_000;
+    public int maxPlaceholders = 65_535;
+    public int maxPacketBytes = 64 * 1024 * 1024;
+    public int bytesPerValue = 32;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(
+                number("maxCollectionSize", "Maximum collection size to evaluate", 1, Integer.MAX_VALUE),
+                number("maxPlaceholders", "Maximum bind parameters per statement", 1, Integer.MAX_VALUE),
+                number("maxPacketBytes", "Maximum statement size in bytes (max_allowed_packet)", 1024, Integer.MAX_VALUE),
+                number("bytesPerValue", "Assumed bytes per bound value", 1, 1_000_000));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (MapperTagUtils.getMapperTag(holder.getFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if (MapperTagUtils.isStatementTag(tag)) {
+                    checkStatement(tag, holder);
+                }
+            }
+        };
+    }
+
+    private void checkStatement(@NotNull XmlTag statement, @NotNull ProblemsHolder holder) {
+        CompiledStatement compiled = CompiledStatementService.getInstance(statement.getProject()).getCompiled(statement);
+        if (compiled == null) {
+            return;
+        }
+        List<ForeachSqlNode> loops = BindBudget.loops(compiled.root());
+        List<XmlTag> tags = new ArrayList<>();
+        for (XmlTag tag : PsiTreeUtil.findChildrenOfType(statement, XmlTag.class)) {
+            if ("foreach".equals(tag.getName())) {
+                tags.add(tag);
+            }
+        }
+        // Tags the compiler drops, such as a <foreach> directly inside <choose>, would misalign the two lists;
+        // the loops are then sized like those of included fragments, which have no tag here either.
+        boolean aligned = loops.size() == tags.size();
+
+        boolean insert = "insert".equals(statement.getName());
+        long batchSize = insert ? parseSize(statement.getAttributeValue("batchSize")) : -1;
+        long defaultSize = batchSize > 0 ? batchSize : maxCollectionSize;
+        Map<ForeachSqlNode, Long> bounds = new IdentityHashMap<>();
+        if (aligned && batchSize <= 0) {
+            for (int i = 0; i < loops.size(); i++) {
+                bounds.put(loops.get(i), enclosingBound(tags.get(i), statement));
+            }
+        }
+        BindBudget budget = new BindBudget(bytesPerValue, BindBudget.sizes(bounds, defaultSize));
+        BindBudget.Cost total = budget.of(compiled.root());
+        boolean overPlaceholders = total.placeholders() > maxPlaceholders;
+        boolean overBytes = total.bytes() > maxPacketBytes;
+        if (!overPlaceholders && !overBytes) {
+            return;
+        }
+
+        boolean reported = false;
+        for (int i = 0; aligned && i < loops.size(); i++) {
+            ForeachSqlNode loop = loops.get(i);
+            BindBudget.Cost perItem = budget.perItem(loop);
+            if (perItem.placeholders() == 0 && !overBytes) {
+                continue;
+            }
+            long bound = bounds.getOrDefault(loop, -1L);
+            String collection = loop.collection().text();
+            StringBuilder message = new StringBuilder("<foreach> over '").append(collection).append("' binds ")
+                    .append(perItem.placeholders()).append(" placeholder(s) per item; with ")
+                    .append(bound >= 0 ? bound : defaultSize).append(" items the statement has ");
+            appendTotal(message, total, overPlaceholders);
+            if (batchSize > 0) {
+                message.append(". Lower batchSize");
+            } else if (bound >= 0) {
+                message.append(". Lower the length bound of '").append(collection).append("'");
+            } else if (insert) {
+                message.append(". Set batchSize on the statement or bound len(").append(collection).append(")");
+            } else {
+                message.append(". Bound len(").append(collection).append(") or pass it in chunks from the caller");
+            }
+            holder.registerProblem(MapperTagUtils.getAnchor(tags.get(i)), message.toString());
+            reported = true;
+        }
+        if (!reported) {
+            // The loops that exceed the limit come from included fragments, or could not be matched to tags.
+            StringBuilder message = new StringBuilder("With ").append(defaultSize)
+                    .append(" items per <foreach>, included fragments counted, the statement has ");
+            appendTotal(message, total, overPlaceholders);
+            message.append(batchSize > 0 ? ". Lower batchSize"
+                    : insert ? ". Set batchSize on the statement" : ". Pass the collections in chunks from the caller");
+            holder.registerProblem(MapperTagUtils.getAnchor(statement), message.toString());
+        }
+    }
+
+    private void appendTotal(@NotNull StringBuilder message, @NotNull BindBudget.Cost total, boolean overPlaceholders) {
+        if (overPlaceholders) {
+            message.append(total.placeholders()).append(" bind parameters (maximum ").append(maxPlaceholders).append(")");
+        } else {
+            message.append("about ").append(total.bytes()).append(" bytes (maximum ").append(maxPacketBytes).append(")");
+        }
+    }
+
+    /**
+     * Returns the tightest {@code len(collection)} bound of the enclosing tests, or {@code -1}.
+     */
+    private static long enclosingBound(@NotNull XmlTag foreach, @NotNull XmlTag statement) {
+        String collection = foreach.getAttributeValue("collection");
+        if (collection == null || collection.isBlank()) {
+            return -1;
+        }
+        String path = collection.strip();
+        long bound = -1;
+        for (XmlTag tag = foreach.getParentTag(); tag != null && tag != statement; tag = tag.getParentTag()) {
+            String test = "if".equals(tag.getName()) || "when".equals(tag.getName()) ? tag.getAttributeValue("test") : null;
+            Expr expr = test == null ? null : Expressions.parse(test).expr();
+            long tagBound = expr == null ? -1 : LengthBounds.upperBound(expr, path);
+            if (tagBound >= 0 && (bound < 0 || tagBound < bound)) {
+                bound = tagBound;
+            }
+        }
+        return bound;
+    }
+
+    private static long parseSize(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
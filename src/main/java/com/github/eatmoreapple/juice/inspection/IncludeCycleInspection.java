@@ -0,0 +1,115 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.include.IncludeGraph;
+import com.github.eatmoreapple.juice.include.IncludeGraphAnalysis;
+import com.github.eatmoreapple.juice.include.IncludeGraphService;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+/**
+ * Reports {@code <include>} tags that take part in an include cycle or start a chain deeper than the configured limit.
+ * <p>
+ * The check reads the project-wide include graph, which is analysed once and reused until an XML file changes,
+ * so it is equally cheap on the fly and in batch "Inspect Code" runs.
+ */
+public class IncludeCycleInspection extends XmlSuppressableInspectionTool {
+    public int maxDepth = 3;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(number("maxDepth", "Maximum include depth", 1, 50));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (MapperTagUtils.getMapperTag(holder.getFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if (!MapperTagUtils.INCLUDE.equals(tag.getName())) {
+                    return;
+                }
+                String refid = tag.getAttributeValue("refid");
+                XmlTag sqlTag = MapperTagUtils.findSqlTag(tag);
+                if (refid == null || sqlTag == null) {
+                    return;
+                }
+
+                IncludeGraph graph = IncludeGraphService.getInstance(tag.getProject()).getGraph();
+                String namespace = MapperTagUtils.getNamespace(sqlTag.getParentTag());
+                String target = graph.resolveKey(namespace, refid);
+                if (target == null) {
+                    return;
+                }
+
+                IncludeGraphAnalysis analysis = graph.getAnalysis();
+                PsiElement anchor = anchorOf(tag);
+                String source = sourceKey(sqlTag, namespace);
+                if (source != null && analysis.inSameCycle(source, target)) {
+                    holder.registerProblem(anchor, cycleMessage(analysis, source, target), ProblemHighlightType.GENERIC_ERROR);
+                    return;
+                }
+                if (analysis.isCyclic(target)) {
+                    holder.registerProblem(anchor, "Included fragment '" + target + "' is part of an include cycle",
+                            ProblemHighlightType.GENERIC_ERROR);
+                    return;
+                }
+
+                int depth = analysis.depthOf(target) + 1;
+                if (depth > maxDepth) {
+                    holder.registerProblem(anchor, "Include chain is " + depth + " levels deep (maximum " + maxDepth + ")");
+                }
+            }
+        };
+    }
+
+    private static @Nullable String sourceKey(@NotNull XmlTag sqlTag, @Nullable String namespace) {
+        String id = sqlTag.getAttributeValue("id");
+        if (!MapperTagUtils.SQL.equals(sqlTag.getName()) || namespace == null || id == null) {
+            return null;
+        }
+        return IncludeGraph.keyOf(namespace, id);
+    }
+
+    private static @NotNull String cycleMessage(@NotNull IncludeGraphAnalysis analysis,
+                                                @NotNull String source,
+                                                @NotNull String target) {
+        if (source.equals(target)) {
+            return "Fragment '" + source + "' includes itself";
+        }
+        List<String> path = new ArrayList<>();
+        path.add(source);
+        List<String> back = analysis.cyclePath(target, source);
+        if (back != null) {
+            path.addAll(back);
+        }
+        return "Include cycle: " + String.join(" → ", path);
+    }
+
+    private static @NotNull PsiElement anchorOf(@NotNull XmlTag includeTag) {
+        XmlAttribute refid = includeTag.getAttribute("refid");
+        if (refid != null && refid.getValueElement() != null) {
+            return refid.getValueElement();
+        }
+        return includeTag;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.resolve.MapperCalls;
+import com.goide.psi.GoCallExpr;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoReferenceExpression;
+import com.goide.psi.GoVisitor;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reports calls of mapper interface methods made once per iteration of a {@code for} loop, each a round trip
+ * to the database. The method must map to a statement, see {@link MapperCalls#statementOf}; when the interface
+ * has a slice-taking variant, the report names it and offers to navigate to it.
+ */
+public class MapperCallInLoopInspection extends LocalInspectionTool {
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!(holder.getFile() instanceof GoFile)) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new GoVisitor() {
+            @Override
+            public void visitCallExpr(@NotNull GoCallExpr call) {
+                if (!(call.getExpression() instanceof GoReferenceExpression reference)
+                        || MapperCalls.enclosingLoop(call) == null) {
+                    return;
+                }
+                GoMethodSpec method = MapperCalls.calledMethod(call);
+                XmlTag statement = method == null ? null : MapperCalls.statementOf(method);
+                if (statement == null) {
+                    return;
+                }
+                PsiElement anchor = reference.getIdentifier();
+                String message = "'" + method.getName() + "' runs <" + statement.getName() + "> once per loop iteration, "
+                        + "one round trip each";
+                GoMethodSpec variant = MapperCalls.findBatchVariant(method);
+                if (variant != null) {
+                    holder.registerProblem(anchor, message + "; call '" + variant.getName() + "' once with the elements",
+                            new GoToBatchVariantFix(variant.getName()));
+                } else {
+                    holder.registerProblem(anchor, message + "; move the call out of the loop with a statement that "
+                            + "takes every element, such as <foreach> over a slice");
+                }
+            }
+        };
+    }
+
+    /**
+     * Opens the declaration of the slice-taking variant.
+     */
+    private static final class GoToBatchVariantFix implements LocalQuickFix {
+        private final String variantName;
+
+        GoToBatchVariantFix(@NotNull String variantName) {
+            this.variantName = variantName;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "Go to '" + variantName + "'";
+        }
+
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Go to the batched variant";
+        }
+
+        @Override
+        public boolean startInWriteAction() {
+            return false;
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            GoCallExpr call = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), GoCallExpr.class);
+            GoMethodSpec method = call == null ? null : MapperCalls.calledMethod(call);
+            GoMethodSpec variant = method == null ? null : MapperCalls.findBatchVariant(method);
+            if (variant != null && variant.canNavigate()) {
+                variant.navigate(true);
+            }
+        }
+    }
+}
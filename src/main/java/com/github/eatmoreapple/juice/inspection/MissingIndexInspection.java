@@ -0,0 +1,84 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.IndexAdvisor;
+import com.github.eatmoreapple.juice.engine.Schema;
+import com.github.eatmoreapple.juice.engine.SchemaService;
+import com.github.eatmoreapple.juice.engine.SqlTokens;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.datatransfer.StringSelection;
+
+/**
+ * Reports statements that filter, join or sort a table of the project's {@code schema/*.sql} migrations by
+ * columns no index starts with, see {@link IndexAdvisor}, and suggests a composite index.
+ */
+public class MissingIndexInspection extends XmlSuppressableInspectionTool {
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        Schema schema = SchemaService.getInstance(holder.getProject()).getSchema();
+        if (schema.tables().isEmpty() || MapperTagUtils.getMapperTag(holder.getFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if ("insert".equals(tag.getName()) || !MapperTagUtils.isStatementTag(tag)) {
+                    return;
+                }
+                CompiledStatement statement = CompiledStatementService.getInstance(tag.getProject()).getCompiled(tag);
+                if (statement == null) {
+                    return;
+                }
+                for (IndexAdvisor.Suggestion suggestion : IndexAdvisor.suggest(SqlTokens.text(statement), schema)) {
+                    holder.registerProblem(MapperTagUtils.getAnchor(tag), "No index on '" + suggestion.table() + "' starts with a column "
+                                    + "this statement filters or sorts by; consider (" + String.join(", ", suggestion.columns()) + ")",
+                            new CopyIndexDdlFix(suggestion.ddl()));
+                }
+            }
+        };
+    }
+
+    /**
+     * Copies the {@code CREATE INDEX} statement, to be added as a migration.
+     */
+    private static final class CopyIndexDdlFix implements LocalQuickFix {
+        private final String ddl;
+
+        CopyIndexDdlFix(@NotNull String ddl) {
+            this.ddl = ddl;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "Copy '" + ddl + "'";
+        }
+
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Copy CREATE INDEX statement";
+        }
+
+        @Override
+        public boolean startInWriteAction() {
+            return false;
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            CopyPasteManager.getInstance().setContents(new StringSelection(ddl + ";"));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.NonSargablePredicates;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.lang.injection.InjectedLanguageManager;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiLanguageInjectionHost;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.sql.psi.SqlExpression;
+import com.intellij.sql.psi.SqlJoinConditionClause;
+import com.intellij.sql.psi.SqlOrderByClause;
+import com.intellij.sql.psi.SqlWhereClause;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports predicates that cannot use an index, see {@link NonSargablePredicates}, in the SQL injected into
+ * mapper statements. The SQL PSI scopes the checks to {@code WHERE}, join conditions and {@code ORDER BY};
+ * clauses nested in a checked clause, such as a subquery's {@code WHERE}, are checked on their own.
+ * <p>
+ * Wrapped columns are looked for in every expression of a {@code WHERE} or join condition that is an operand
+ * of the expression around it, so both sides of a comparison are checked, e.g. {@code ? = lower(name)}.
+ */
+public class NonSargablePredicateInspection extends LocalInspectionTool {
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        PsiLanguageInjectionHost host = InjectedLanguageManager.getInstance(holder.getProject()).getInjectionHost(holder.getFile());
+        if (host == null || MapperTagUtils.getMapperTag(host.getContainingFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new PsiElementVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element instanceof SqlExpression expression) {
+                    checkOperand(expression, holder);
+                } else if (element instanceof SqlWhereClause || element instanceof SqlJoinConditionClause) {
+                    report(element, NonSargablePredicates.inPredicates(element.getText()), holder);
+                } else if (element instanceof SqlOrderByClause) {
+                    report(element, NonSargablePredicates.inOrderBy(element.getText()), holder);
+                }
+            }
+        };
+    }
+
+    private static void checkOperand(@NotNull SqlExpression operand, @NotNull ProblemsHolder holder) {
+        if (!(operand.getParent() instanceof SqlExpression parent)) {
+            return;
+        }
+        PsiElement clause = PsiTreeUtil.getParentOfType(operand,
+                SqlWhereClause.class, SqlJoinConditionClause.class, SqlOrderByClause.class);
+        if (!(clause instanceof SqlWhereClause) && !(clause instanceof SqlJoinConditionClause)) {
+            return;
+        }
+        String text = parent.getText();
+        TextRange range = operand.getTextRange().shiftLeft(parent.getTextRange().getStartOffset());
+        NonSargablePredicates.Finding finding = NonSargablePredicates.inOperand(
+                text.substring(0, range.getStartOffset()), range.substring(text), text.substring(range.getEndOffset()));
+        if (finding != null) {
+            holder.registerProblem(operand, new TextRange(finding.start(), finding.end()), finding.message());
+        }
+    }
+
+    private static void report(@NotNull PsiElement clause, @NotNull List<NonSargablePredicates.Finding> findings,
+                               @NotNull ProblemsHolder holder) {
+        List<TextRange> nested = new ArrayList<>();
+        int start = clause.getTextRange().getStartOffset();
+        for (PsiElement inner : PsiTreeUtil.findChildrenOfAnyType(clause,
+                SqlWhereClause.class, SqlJoinConditionClause.class, SqlOrderByClause.class)) {
+            nested.add(inner.getTextRange().shiftLeft(start));
+        }
+        for (NonSargablePredicates.Finding finding : findings) {
+            TextRange range = new TextRange(finding.start(), finding.end());
+            if (nested.stream().noneMatch(inner -> inner.contains(range))) {
+                holder.registerProblem(clause, range, finding.message());
+            }
+        }
+    }
+}
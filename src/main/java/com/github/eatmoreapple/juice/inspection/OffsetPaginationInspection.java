@@ -0,0 +1,234 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.KeysetPagination;
+import com.github.eatmoreapple.juice.resolve.GoMethodResolver;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoParamDefinition;
+import com.goide.psi.GoParameterDeclaration;
+import com.goide.psi.GoSignature;
+import com.goide.psi.GoType;
+import com.intellij.codeInsight.intention.preview.IntentionPreviewUtils;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlText;
+import com.intellij.testFramework.LightVirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reports offset pagination in {@code <select>} statements, see {@link KeysetPagination}. When the
+ * {@code ORDER BY} keys are plain columns in one direction, the quick fix rewrites the statement to keyset form
+ * and opens the matching Go method changes for review.
+ * <p>
+ * The keyset guard is appended to the statement's predicate with {@code AND}. A static {@code WHERE} with an
+ * {@code OR} outside parentheses is wrapped in them first; a {@code <where>} body with one gets no fix, since
+ * parentheses around it would keep {@code <where>} from dropping the leading {@code AND}/{@code OR} of its
+ * first {@code <if>}.
+ */
+public class OffsetPaginationInspection extends XmlSuppressableInspectionTool {
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (MapperTagUtils.getMapperTag(holder.getFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if (!"select".equals(tag.getName()) || !MapperTagUtils.isStatementTag(tag)) {
+                    return;
+                }
+                for (XmlText text : PsiTreeUtil.findChildrenOfType(tag, XmlText.class)) {
+                    String raw = text.getText();
+                    for (KeysetPagination.Page page : KeysetPagination.findPages(raw)) {
+                        TextRange range = new TextRange(page.start(), page.end());
+                        String message = "Offset pagination reads and discards every skipped row, so deep pages get "
+                                + "slower with their depth; continue after the last row of the previous page instead";
+                        if (KeysetPagination.orderBy(raw, page) != null
+                                && canGuard(whereTagBefore(tag, text.getTextRange().getStartOffset()))) {
+                            holder.registerProblem(text, range, message, new KeysetFix());
+                        } else {
+                            holder.registerProblem(text, range, message);
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the last {@code <where>} of the statement that ends before the offset, or {@code null}.
+     */
+    private static @Nullable XmlTag whereTagBefore(@NotNull XmlTag statement, int offset) {
+        XmlTag where = null;
+        for (XmlTag tag : PsiTreeUtil.findChildrenOfType(statement, XmlTag.class)) {
+            if ("where".equals(tag.getName()) && tag.getTextRange().getEndOffset() <= offset) {
+                where = tag;
+            }
+        }
+        return where;
+    }
+
+    private static boolean canGuard(@Nullable XmlTag where) {
+        return where == null || !KeysetPagination.hasTopLevelOr(where.getValue().getText());
+    }
+
+    private static final class KeysetFix implements LocalQuickFix {
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Convert to keyset pagination";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            if (!(descriptor.getPsiElement() instanceof XmlText text) || descriptor.getTextRangeInElement() == null) {
+                return;
+            }
+            XmlTag statement = PsiTreeUtil.getParentOfType(text, XmlTag.class);
+            while (statement != null && !MapperTagUtils.isStatementTag(statement)) {
+                statement = statement.getParentTag();
+            }
+            Document document = PsiDocumentManager.getInstance(project).getDocument(text.getContainingFile());
+            String raw = text.getText();
+            KeysetPagination.Page page = KeysetPagination.findPages(raw).stream()
+                    .filter(candidate -> candidate.start() == descriptor.getTextRangeInElement().getStartOffset())
+                    .findFirst().orElse(null);
+            KeysetPagination.OrderBy orderBy = page == null ? null : KeysetPagination.orderBy(raw, page);
+            int textStart = text.getTextRange().getStartOffset();
+            XmlTag where = statement == null ? null : whereTagBefore(statement, textStart);
+            if (statement == null || document == null || orderBy == null || !canGuard(where)) {
+                return;
+            }
+
+            int bodyStart = statement.getTextRange().getStartOffset();
+            String before = document.getText(new TextRange(bodyStart, textStart + orderBy.start()));
+            bodyStart += before.indexOf('>') + 1;
+            String sql = before.substring(before.indexOf('>') + 1);
+            int predicate = where == null ? KeysetPagination.whereBody(sql) : -1;
+            boolean staticWhere = predicate >= 0;
+            boolean wrap = staticWhere && KeysetPagination.hasTopLevelOr(sql.substring(predicate));
+            List<String> columns = orderBy.columns();
+            String guard = "<if test=\"" + KeysetPagination.parameterName(columns.get(columns.size() - 1)) + " != nil\">"
+                    + (where != null || staticWhere ? "AND " : "") + KeysetPagination.predicate(orderBy) + "</if>";
+
+            String orderAndLimit = KeysetPagination.orderAndLimit(orderBy, page);
+            String replacement = where != null ? orderAndLimit
+                    : staticWhere ? (wrap ? ") " : "") + guard + " " + orderAndLimit
+                    : "<where>" + guard + "</where> " + orderAndLimit;
+            document.replaceString(textStart + orderBy.start(), textStart + page.end(), replacement);
+            if (where != null) {
+                document.insertString(where.getValue().getTextRange().getEndOffset(), guard);
+            } else if (wrap) {
+                document.insertString(bodyStart + predicate, "(");
+            }
+
+            String review = reviewText(project, statement, page, orderBy);
+            PsiDocumentManager.getInstance(project).commitDocument(document);
+            if (review != null && !IntentionPreviewUtils.isIntentionPreviewActive()) {
+                String id = statement.getAttributeValue("id");
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    LightVirtualFile file = new LightVirtualFile(id + ".keyset.go", review);
+                    file.setWritable(false);
+                    FileEditorManager.getInstance(project).openFile(file, true);
+                }, project.getDisposed());
+            }
+        }
+
+        /**
+         * Describes the Go method changes the rewrite needs: the offset parameter gives way to the key columns of
+         * the previous page's last row, as pointers so that the first page passes nil.
+         */
+        private static @Nullable String reviewText(@NotNull Project project, @NotNull XmlTag statement,
+                                                   @NotNull KeysetPagination.Page page,
+                                                   @NotNull KeysetPagination.OrderBy orderBy) {
+            String id = statement.getAttributeValue("id");
+            String namespace = MapperTagUtils.getNamespace(statement.getParentTag());
+            if (id == null || namespace == null
+                    || !(GoMethodResolver.resolveBySqlId(project, id, namespace) instanceof GoMethodSpec method)) {
+                return null;
+            }
+            Map<String, StatementParameters.Binding> columns =
+                    StatementParameters.columnsOf(StatementParameters.elementType(StatementParameters.resultType(method)));
+            List<String> parameters = new ArrayList<>();
+            for (String column : orderBy.columns()) {
+                parameters.add(KeysetPagination.parameterName(column) + " " + pointerTo(fieldType(columns, column)));
+            }
+            String offset = page.offset().replaceAll("^[#$]\\{|}$", "").strip();
+
+            StringBuilder review = new StringBuilder()
+                    .append("// Keyset pagination for ").append(namespace).append('.').append(id).append("\n//\n")
+                    .append("// The statement now continues after the last row of the previous page instead of skipping\n")
+                    .append("// ").append(page.offset()).append(" rows. Replace '").append(offset)
+                    .append("' with the ").append(String.join(", ", orderBy.columns()))
+                    .append(" of that row, nil for the first page:\n//\n");
+            for (String parameter : parameters) {
+                review.append("//     ").append(parameter).append('\n');
+            }
+            review.append("\n// Before:\n").append(method.getText()).append('\n');
+            String after = replaceParameter(method, offset, String.join(", ", parameters));
+            if (after != null) {
+                review.append("\n// After:\n").append(after).append('\n');
+            }
+            return review.toString();
+        }
+
+        private static @Nullable String replaceParameter(@NotNull GoMethodSpec method, @NotNull String name,
+                                                         @NotNull String parameters) {
+            GoSignature signature = method.getSignature();
+            if (signature == null) {
+                return null;
+            }
+            for (GoParameterDeclaration declaration : signature.getParameters().getParameterDeclarationList()) {
+                List<GoParamDefinition> definitions = declaration.getParamDefinitionList();
+                if (definitions.size() == 1 && name.equals(definitions.get(0).getName())) {
+                    TextRange range = declaration.getTextRange().shiftLeft(method.getTextRange().getStartOffset());
+                    return range.replace(method.getText(), parameters);
+                }
+            }
+            return null;
+        }
+
+        private static @Nullable GoType fieldType(@NotNull Map<String, StatementParameters.Binding> columns,
+                                                  @NotNull String column) {
+            String wanted = normalize(column.substring(column.lastIndexOf('.') + 1));
+            for (Map.Entry<String, StatementParameters.Binding> field : columns.entrySet()) {
+                if (normalize(field.getKey()).equals(wanted)) {
+                    return field.getValue().type();
+                }
+            }
+            return null;
+        }
+
+        private static @NotNull String pointerTo(@Nullable GoType type) {
+            if (type == null) {
+                return "any";
+            }
+            String text = type.getText();
+            return text.startsWith("*") ? text : "*" + text;
+        }
+
+        private static @NotNull String normalize(@NotNull String name) {
+            return name.replace("_", "").toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.ResultFanOut;
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+/**
+ * Reports slice-returning {@code <select>} statements whose {@code resultMap} has collections, when the rows
+ * read per parent, estimated by {@link ResultFanOut} at the configured collection size, exceed the limit.
+ * Each parent's columns are repeated on every one of those rows, and sibling collections multiply each other.
+ */
+public class ResultFanOutInspection extends XmlSuppressableInspectionTool {
+    public int rowsPerCollection = 10;
+    public int maxRowsPerParent = 50;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(
+                number("rowsPerCollection", "Assumed elements per collection", 1, 1_000_000),
+                number("maxRowsPerParent", "Maximum joined rows per parent", 1, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        XmlTag mapperTag = MapperTagUtils.getMapperTag(holder.getFile());
+        String namespace = mapperTag == null ? null : MapperTagUtils.getNamespace(mapperTag);
+        if (namespace == null || namespace.isBlank() || mapperTag.findSubTags(MapperTagUtils.RESULT_MAP).length == 0) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        MapperNamespaceResolver.ResolvedNamespace resolved = MapperNamespaceResolver.parse(holder.getProject(), namespace.trim());
+        if (resolved == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                String id = tag.getAttributeValue("id");
+                String resultMap = tag.getAttributeValue(MapperTagUtils.RESULT_MAP);
+                if (!"select".equals(tag.getName()) || id == null || resultMap == null || !MapperTagUtils.isStatementTag(tag)) {
+                    return;
+                }
+                XmlTag mapping = findResultMap(mapperTag, resultMap.strip());
+                ResultFanOut fanOut = mapping == null ? null : ResultFanOut.of(CompiledStatementService.toSource(mapping));
+                if (fanOut == null || fanOut.collections().isEmpty()) {
+                    return;
+                }
+                long rows = fanOut.rowsPerParent(rowsPerCollection);
+                if (rows <= maxRowsPerParent) {
+                    return;
+                }
+                GoMethodSpec method = MapperNamespaceResolver.resolveMethod(tag.getProject(), resolved, id);
+                GoType result = method == null ? null : StatementParameters.resultType(method);
+                if (!StatementParameters.isSlice(result)) {
+                    return;
+                }
+                String collections = String.join(", ", fanOut.collections());
+                holder.registerProblem(MapperTagUtils.getAnchor(tag), fanOut.collections().size() > 1
+                        ? "resultMap '" + resultMap.strip() + "' joins " + fanOut.collections().size()
+                        + " collections (" + collections + ") that multiply each other: with " + rowsPerCollection
+                        + " elements each, every element of " + result.getText() + " is read from about " + rows
+                        + " rows. Load all but one collection with a separate query keyed by the parent ids"
+                        : "resultMap '" + resultMap.strip() + "' joins collection '" + collections + "': with "
+                        + rowsPerCollection + " elements, every element of " + result.getText() + " is read from about "
+                        + rows + " rows. Load the collection with a separate query keyed by the parent ids");
+            }
+        };
+    }
+
+    private static XmlTag findResultMap(@NotNull XmlTag mapperTag, @NotNull String id) {
+        for (XmlTag tag : mapperTag.findSubTags(MapperTagUtils.RESULT_MAP)) {
+            if (id.equals(tag.getAttributeValue("id"))) {
+                return tag;
+            }
+        }
+        return null;
+    }
+}
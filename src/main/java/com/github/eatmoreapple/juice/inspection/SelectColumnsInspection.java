@@ -0,0 +1,227 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.SelectList;
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoFieldDeclaration;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoTag;
+import com.goide.psi.GoType;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlText;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.intellij.codeInspection.options.OptPane.checkbox;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+/**
+ * Compares the select list of a {@code <select>} with the columns its result reads: the {@code <id>} and
+ * {@code <result>} columns of its {@code resultMap}, or else the fields of the Go method's result struct by
+ * {@code column} tag or name. {@code *} is reported with a fix that writes those columns out, untagged field
+ * names in snake_case, and selected columns nothing reads are reported as unused.
+ * <p>
+ * The result's columns are not known per table, so the fix is only offered for the one {@code *} or
+ * {@code t.*} of a statement reading a single table; with joins or several stars the columns are listed in the
+ * message only.
+ * <p>
+ * Only a select list written in the statement's text is read; lists built with tags or includes are skipped.
+ */
+public class SelectColumnsInspection extends XmlSuppressableInspectionTool {
+    public boolean reportUnusedColumns = true;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(checkbox("reportUnusedColumns", "Report selected columns the result does not read"));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        XmlTag mapperTag = MapperTagUtils.getMapperTag(holder.getFile());
+        String namespace = mapperTag == null ? null : MapperTagUtils.getNamespace(mapperTag);
+        if (namespace == null || namespace.isBlank()) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        MapperNamespaceResolver.ResolvedNamespace resolved = MapperNamespaceResolver.parse(holder.getProject(), namespace.trim());
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if ("select".equals(tag.getName()) && MapperTagUtils.isStatementTag(tag)) {
+                    checkStatement(tag, mapperTag, resolved, holder);
+                }
+            }
+        };
+    }
+
+    private void checkStatement(@NotNull XmlTag statement, @NotNull XmlTag mapperTag,
+                                @Nullable MapperNamespaceResolver.ResolvedNamespace resolved,
+                                @NotNull ProblemsHolder holder) {
+        XmlText text = selectText(statement);
+        String sql = text == null ? null : sqlOf(text);
+        List<SelectList.Item> items = sql == null ? null : SelectList.parse(sql);
+        if (items == null) {
+            return;
+        }
+        ReadColumns read = readColumns(statement, mapperTag, resolved);
+        if (read == null || read.columns().isEmpty()) {
+            return;
+        }
+
+        boolean expandable = SelectList.singleTable(sql) && items.stream().filter(SelectList.Item::star).count() == 1;
+        Set<String> normalized = new HashSet<>();
+        read.columns().forEach(column -> normalized.add(SelectList.normalize(column.name())));
+        for (SelectList.Item item : items) {
+            TextRange range = new TextRange(item.start(), item.end());
+            if (item.star() && expandable) {
+                String list = SelectList.expansion(item.qualifier(), read.columns());
+                holder.registerProblem(text, range, "'" + range.substring(text.getText()) + "' selects every column; "
+                                + read.source() + " reads " + read.columns().size() + ": " + list,
+                        new ExpandStarFix(range.substring(text.getText()), list));
+            } else if (item.star()) {
+                holder.registerProblem(text, range, "'" + range.substring(text.getText()) + "' selects every column; "
+                        + read.source() + " reads " + read.columns().size() + ": "
+                        + SelectList.expansion(null, read.columns()) + ". Name the columns of each table");
+            } else if (reportUnusedColumns && item.name() != null
+                    && !normalized.contains(SelectList.normalize(item.name()))) {
+                holder.registerProblem(text, range, "Column '" + item.name() + "' is selected but " + read.source()
+                        + " does not read it", ProblemHighlightType.LIKE_UNUSED_SYMBOL);
+            }
+        }
+    }
+
+    /**
+     * The columns a statement's result reads, in declaration order, and what declares them.
+     */
+    private record ReadColumns(@NotNull List<SelectList.Column> columns, @NotNull String source) {
+    }
+
+    private static @Nullable ReadColumns readColumns(@NotNull XmlTag statement, @NotNull XmlTag mapperTag,
+                                                     @Nullable MapperNamespaceResolver.ResolvedNamespace resolved) {
+        String resultMap = statement.getAttributeValue(MapperTagUtils.RESULT_MAP);
+        if (resultMap != null && !resultMap.isBlank()) {
+            for (XmlTag tag : mapperTag.findSubTags(MapperTagUtils.RESULT_MAP)) {
+                if (resultMap.strip().equals(tag.getAttributeValue("id"))) {
+                    List<SelectList.Column> columns = new ArrayList<>();
+                    collectResultColumns(tag, columns);
+                    return new ReadColumns(columns, "resultMap '" + resultMap.strip() + "'");
+                }
+            }
+            return null;
+        }
+
+        String id = statement.getAttributeValue("id");
+        GoMethodSpec method = resolved == null || id == null ? null
+                : MapperNamespaceResolver.resolveMethod(statement.getProject(), resolved, id);
+        GoType result = method == null ? null : StatementParameters.resultType(method);
+        GoType element = StatementParameters.isStruct(result) ? result : StatementParameters.elementType(result);
+        if (!StatementParameters.isStruct(element)) {
+            return null;
+        }
+        List<SelectList.Column> columns = new ArrayList<>();
+        StatementParameters.columnsOf(element).forEach((column, binding) ->
+                columns.add(new SelectList.Column(column, hasColumnTag(binding.element()))));
+        return new ReadColumns(columns, "'" + element.getText() + "'");
+    }
+
+    private static boolean hasColumnTag(@NotNull PsiElement field) {
+        GoFieldDeclaration declaration = PsiTreeUtil.getParentOfType(field, GoFieldDeclaration.class);
+        GoTag tag = declaration == null ? null : declaration.getTag();
+        String column = tag == null ? null : tag.getValue("column");
+        return column != null && !column.isEmpty();
+    }
+
+    private static void collectResultColumns(@NotNull XmlTag tag, @NotNull List<SelectList.Column> columns) {
+        for (XmlTag child : tag.getSubTags()) {
+            String column = child.getAttributeValue("column");
+            if (("id".equals(child.getName()) || "result".equals(child.getName())) && column != null && !column.isBlank()) {
+                columns.add(new SelectList.Column(column.strip(), true));
+            } else if ("association".equals(child.getName()) || "collection".equals(child.getName())) {
+                collectResultColumns(child, columns);
+            }
+        }
+    }
+
+    /**
+     * Returns the first text of the statement that starts a select list, or {@code null}.
+     */
+    private static @Nullable XmlText selectText(@NotNull XmlTag statement) {
+        for (PsiElement child = statement.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof XmlText text && !text.getText().isBlank()) {
+                return text;
+            }
+            if (child instanceof XmlTag) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the raw text with CDATA markers blanked out, so offsets still match the text.
+     */
+    private static @NotNull String sqlOf(@NotNull XmlText text) {
+        return text.getText().replace("<![CDATA[", "         ").replace("]]>", "   ");
+    }
+
+    /**
+     * Replaces {@code *} or {@code t.*} with the columns the result reads.
+     */
+    private static final class ExpandStarFix implements LocalQuickFix {
+        private final String star;
+        private final String columns;
+
+        ExpandStarFix(@NotNull String star, @NotNull String columns) {
+            this.star = star;
+            this.columns = columns;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "Replace '" + star + "' with the columns the result reads";
+        }
+
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Replace * with an explicit column list";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiElement element = descriptor.getPsiElement();
+            TextRange range = descriptor.getTextRangeInElement();
+            Document document = element == null || range == null ? null
+                    : PsiDocumentManager.getInstance(project).getDocument(element.getContainingFile());
+            if (document == null) {
+                return;
+            }
+            int start = element.getTextRange().getStartOffset() + range.getStartOffset();
+            int end = start + star.length();
+            if (end > document.getTextLength() || !star.contentEquals(document.getCharsSequence().subSequence(start, end))) {
+                return;
+            }
+            document.replaceString(start, end, columns);
+            PsiDocumentManager.getInstance(project).commitDocument(document);
+        }
+    }
+}
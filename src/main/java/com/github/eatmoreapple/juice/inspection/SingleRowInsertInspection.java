@@ -0,0 +1,226 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.BatchInsert;
+import com.github.eatmoreapple.juice.resolve.GoMethodResolver;
+import com.github.eatmoreapple.juice.resolve.MapperCalls;
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoCallExpr;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoParamDefinition;
+import com.goide.psi.GoParameterDeclaration;
+import com.goide.psi.GoSignature;
+import com.goide.psi.GoType;
+import com.intellij.codeInsight.FileModificationService;
+import com.intellij.codeInsight.intention.preview.IntentionPreviewUtils;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+/**
+ * Reports single-row {@code <insert>} statements whose Go method is called inside a loop, one round trip per
+ * row. When the interface already has a slice-taking variant, see {@link MapperCalls#findBatchVariant}, the
+ * report points to it; otherwise the fix generates a multi-row {@code <insert>} with {@code <foreach>} and
+ * {@code batchSize}, and the Go interface method taking a slice.
+ */
+public class SingleRowInsertInspection extends XmlSuppressableInspectionTool {
+    private static final String BATCH_SUFFIX = "Batch";
+    private static final String ITEM = "item";
+
+    public int preferredBatchSize = 500;
+    public int maxPlaceholders = 65_535;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(
+                number("preferredBatchSize", "Preferred rows per generated batch", 1, 100_000),
+                number("maxPlaceholders", "Maximum bind parameters per statement", 1, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        XmlTag mapperTag = MapperTagUtils.getMapperTag(holder.getFile());
+        String namespace = mapperTag == null ? null : MapperTagUtils.getNamespace(mapperTag);
+        if (namespace == null || namespace.isBlank()) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        MapperNamespaceResolver.ResolvedNamespace resolved = MapperNamespaceResolver.parse(holder.getProject(), namespace.trim());
+        if (resolved == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                String id = tag.getAttributeValue("id");
+                if (!"insert".equals(tag.getName()) || id == null || tag.getAttributeValue("batchSize") != null
+                        || !MapperTagUtils.isStatementTag(tag) || hasTag(tag, "foreach")) {
+                    return;
+                }
+                GoMethodSpec method = MapperNamespaceResolver.resolveMethod(tag.getProject(), resolved, id);
+                GoParameterDeclaration parameter = method == null ? null : StatementParameters.singleParameter(method);
+                if (parameter == null || StatementParameters.isSlice(parameter.getType())) {
+                    return;
+                }
+                List<GoCallExpr> loopCalls = MapperCalls.findLoopCalls(method);
+                if (loopCalls.isEmpty()) {
+                    return;
+                }
+
+                String where = location(loopCalls.get(0)) + (loopCalls.size() > 1 ? " and " + (loopCalls.size() - 1) + " more" : "");
+                GoMethodSpec variant = MapperCalls.findBatchVariant(method);
+                if (variant != null) {
+                    holder.registerProblem(MapperTagUtils.getAnchor(tag), "'" + id + "' inserts one row and is called in a loop (" + where
+                            + "); call '" + variant.getName() + "' with the rows instead");
+                } else {
+                    holder.registerProblem(MapperTagUtils.getAnchor(tag), "'" + id + "' inserts one row and is called in a loop (" + where
+                            + "), one round trip per row. Insert the rows with a multi-row statement",
+                            isBatchable(tag) ? new LocalQuickFix[]{new GenerateBatchInsertFix(preferredBatchSize, maxPlaceholders)}
+                                    : LocalQuickFix.EMPTY_ARRAY);
+                }
+            }
+        };
+    }
+
+    /**
+     * Whether the statement is plain text the fix can rewrite.
+     */
+    private static boolean isBatchable(@NotNull XmlTag statement) {
+        return statement.getSubTags().length == 0
+                && BatchInsert.rewrite(statement.getValue().getText(), null, ITEM + "s", ITEM) != null;
+    }
+
+    private static boolean hasTag(@NotNull XmlTag statement, @NotNull String name) {
+        return PsiTreeUtil.findChildrenOfType(statement, XmlTag.class).stream().anyMatch(tag -> name.equals(tag.getName()));
+    }
+
+    private static @NotNull String location(@NotNull GoCallExpr call) {
+        Document document = PsiDocumentManager.getInstance(call.getProject()).getDocument(call.getContainingFile());
+        String line = document == null ? "" : ":" + (document.getLineNumber(call.getTextRange().getStartOffset()) + 1);
+        return call.getContainingFile().getName() + line;
+    }
+
+    /**
+     * Adds {@code <id>Batch} after the statement: the same insert with its value tuple in a {@code <foreach>}
+     * over the rows, split into batches that stay within the bind parameter limit. Key generation settings are
+     * kept, with IDs assigned to the rows in order. The Go interface gets the matching method taking a slice;
+     * the preview shows only the mapper change, since the Go file is not the one being previewed.
+     */
+    private static final class GenerateBatchInsertFix implements LocalQuickFix {
+        private final int preferredBatchSize;
+        private final int maxPlaceholders;
+
+        GenerateBatchInsertFix(int preferredBatchSize, int maxPlaceholders) {
+            this.preferredBatchSize = preferredBatchSize;
+            this.maxPlaceholders = maxPlaceholders;
+        }
+
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Generate batched insert";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            XmlTag statement = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), XmlTag.class, false);
+            String id = statement == null ? null : statement.getAttributeValue("id");
+            String namespace = statement == null ? null : MapperTagUtils.getNamespace(statement.getParentTag());
+            if (id == null || namespace == null
+                    || !(GoMethodResolver.resolveBySqlId(project, id, namespace) instanceof GoMethodSpec method)) {
+                return;
+            }
+            GoParameterDeclaration parameter = StatementParameters.singleParameter(method);
+            GoType type = parameter == null ? null : parameter.getType();
+            String goMethod = type == null ? null : batchMethod(method, parameter, type, id + BATCH_SUFFIX);
+            if (goMethod == null) {
+                return;
+            }
+            String name = parameter.getParamDefinitionList().isEmpty() ? null : parameter.getParamDefinitionList().get(0).getName();
+            String collection = name == null ? "param" : plural(name);
+            BatchInsert.Rewrite rewrite = BatchInsert.rewrite(statement.getValue().getText(), name, collection, ITEM);
+            Document xml = PsiDocumentManager.getInstance(project).getDocument(statement.getContainingFile());
+            Document go = PsiDocumentManager.getInstance(project).getDocument(method.getContainingFile());
+            boolean preview = IntentionPreviewUtils.isIntentionPreviewActive();
+            if (rewrite == null || xml == null || go == null
+                    || !preview && !FileModificationService.getInstance().prepareFileForWrite(method.getContainingFile())) {
+                return;
+            }
+
+            StringBuilder insert = new StringBuilder("<insert id=\"").append(id).append(BATCH_SUFFIX).append("\" batchSize=\"")
+                    .append(BatchInsert.batchSize(rewrite.placeholdersPerRow(), maxPlaceholders, preferredBatchSize)).append('"');
+            for (String attribute : List.of("useGeneratedKeys", "keyProperty")) {
+                String value = statement.getAttributeValue(attribute);
+                if (value != null) {
+                    insert.append(' ').append(attribute).append("=\"").append(StringUtil.escapeXmlEntities(value)).append('"');
+                }
+            }
+            if ("true".equals(statement.getAttributeValue("useGeneratedKeys"))) {
+                insert.append(" batchInsertIDGenerateStrategy=\"INCREMENTAL\"");
+            }
+            insert.append('>').append(rewrite.text()).append("</insert>");
+
+            int statementEnd = statement.getTextRange().getEndOffset();
+            xml.insertString(statementEnd, "\n\n" + indentAt(xml, statement.getTextRange().getStartOffset()) + insert);
+            PsiDocumentManager.getInstance(project).commitDocument(xml);
+            if (!preview) {
+                int methodEnd = method.getTextRange().getEndOffset();
+                go.insertString(methodEnd, "\n" + indentAt(go, method.getTextRange().getStartOffset()) + goMethod);
+                PsiDocumentManager.getInstance(project).commitDocument(go);
+            }
+        }
+
+        /**
+         * Returns the method declaration with the row parameter turned into a slice, or {@code null}.
+         */
+        private static @Nullable String batchMethod(@NotNull GoMethodSpec method, @NotNull GoParameterDeclaration row,
+                                                    @NotNull GoType type, @NotNull String name) {
+            GoSignature signature = method.getSignature();
+            if (signature == null) {
+                return null;
+            }
+            List<String> parameters = new ArrayList<>();
+            for (GoParameterDeclaration declaration : signature.getParameters().getParameterDeclarationList()) {
+                if (declaration != row) {
+                    parameters.add(declaration.getText());
+                    continue;
+                }
+                List<String> names = new ArrayList<>();
+                for (GoParamDefinition definition : declaration.getParamDefinitionList()) {
+                    names.add(definition.getName() == null ? "_" : plural(definition.getName()));
+                }
+                parameters.add((names.isEmpty() ? "" : String.join(", ", names) + " ") + "[]" + type.getText());
+            }
+            String result = signature.getResult() == null ? "" : " " + signature.getResult().getText();
+            return name + "(" + String.join(", ", parameters) + ")" + result;
+        }
+
+        private static @NotNull String plural(@NotNull String name) {
+            return name.endsWith("s") ? name + "List" : name + "s";
+        }
+
+        private static @NotNull String indentAt(@NotNull Document document, int offset) {
+            int lineStart = document.getLineStartOffset(document.getLineNumber(offset));
+            CharSequence prefix = document.getCharsSequence().subSequence(lineStart, offset);
+            return prefix.toString().isBlank() ? prefix.toString() : "";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.ShapeCounter;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+/**
+ * Reports statements that can render more distinct SQL strings than the configured threshold, since each one
+ * takes its own prepared statement and plan cache entry. See {@link ShapeCounter} for how shapes are bounded.
+ */
+public class SqlShapeCountInspection extends XmlSuppressableInspectionTool {
+    public static final String SHORT_NAME = "JuiceSqlShapeCount";
+
+    public int maxShapes = 64;
+    public int collectionSizes = 10;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(
+                number("maxShapes", "Maximum SQL shapes per statement", 1, 1_000_000),
+                number("collectionSizes", "Distinct collection sizes assumed per <foreach>", 1, 1000));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (MapperTagUtils.getMapperTag(holder.getFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        ShapeCounter counter = new ShapeCounter(collectionSizes);
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if (!MapperTagUtils.isStatementTag(tag)) {
+                    return;
+                }
+                CompiledStatement statement = CompiledStatementService.getInstance(tag.getProject()).getCompiled(tag);
+                if (statement == null) {
+                    return;
+                }
+                ShapeCounter.Shapes shapes = counter.count(statement);
+                if (shapes.shapes() > maxShapes) {
+                    holder.registerProblem(MapperTagUtils.getAnchor(tag), message(shapes));
+                }
+            }
+        };
+    }
+
+    private @NotNull String message(@NotNull ShapeCounter.Shapes shapes) {
+        StringBuilder message = new StringBuilder("Statement can render ")
+                .append(format(shapes))
+                .append(" distinct SQL strings (maximum ").append(maxShapes).append("): ")
+                .append(shapes.conditions()).append(" condition(s)");
+        if (shapes.loops() > 0) {
+            message.append(", ").append(shapes.loops()).append(" <foreach> with up to ")
+                    .append(collectionSizes).append(" collection sizes");
+        }
+        return message.toString();
+    }
+
+    private static @NotNull String format(@NotNull ShapeCounter.Shapes shapes) {
+        return shapes.isSaturated() ? "more than " + Long.MAX_VALUE : String.valueOf(shapes.shapes());
+    }
+}
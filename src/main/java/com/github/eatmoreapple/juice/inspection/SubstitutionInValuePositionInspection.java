@@ -0,0 +1,184 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.SubstitutionPosition;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlTagChild;
+import com.intellij.psi.xml.XmlText;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reports {@code ${}} substitutions in value positions (see {@link SubstitutionPosition}), where a {@code #{}}
+ * bind parameter would do. Every substituted value is a new SQL text, so the statement never reuses a
+ * prepared statement or cached plan, and the value reaches the database unescaped. A substitution making up
+ * a whole {@code IN} list is pointed to {@code <foreach>} instead, since one bind parameter would change
+ * what the list matches.
+ * <p>
+ * The SQL before a placeholder is the text of the statement up to it, with {@code <where>}, {@code <set>},
+ * {@code <trim>} and {@code <foreach>} contributing their prefixes and suffixes the way they render.
+ */
+public class SubstitutionInValuePositionInspection extends XmlSuppressableInspectionTool {
+    private static final Pattern PLACEHOLDER = Pattern.compile("([#$])\\{([^}]*)}");
+    private static final Pattern WHOLE_LITERAL = Pattern.compile("(['\"])\\$\\{([^}]*)}\\1");
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (MapperTagUtils.getMapperTag(holder.getFile()) == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                if (MapperTagUtils.isSqlTag(tag)) {
+                    visitBody(tag, new StringBuilder(), holder);
+                }
+            }
+        };
+    }
+
+    private static void visitBody(@NotNull XmlTag tag, @NotNull StringBuilder before, @NotNull ProblemsHolder holder) {
+        for (XmlTagChild child : tag.getValue().getChildren()) {
+            if (child instanceof XmlText text) {
+                visitText(text, before, holder);
+            } else if (child instanceof XmlTag nested) {
+                before.append(' ').append(opening(nested)).append(' ');
+                visitBody(nested, before, holder);
+                before.append(' ').append(closing(nested)).append(' ');
+            }
+        }
+    }
+
+    private static void visitText(@NotNull XmlText text, @NotNull StringBuilder before, @NotNull ProblemsHolder holder) {
+        String raw = text.getText();
+        Matcher matcher = PLACEHOLDER.matcher(raw);
+        int last = 0;
+        while (matcher.find()) {
+            before.append(decode(raw.substring(last, matcher.start())));
+            last = matcher.end();
+            if (matcher.group(1).equals("$")) {
+                SubstitutionPosition position = SubstitutionPosition.of(before.toString(), decode(raw.substring(last)));
+                TextRange range = new TextRange(matcher.start(), matcher.end());
+                String name = matcher.group(2).strip();
+                if (position == SubstitutionPosition.VALUE) {
+                    holder.registerProblem(text, range, "'" + matcher.group() + "' is substituted into the SQL text: "
+                            + "every value makes a new statement for the plan cache and is not escaped. Use #{" + name + "}",
+                            new UseBindParameterFix());
+                } else if (position == SubstitutionPosition.QUOTED_WHOLE_VALUE && matcher.start() > 0
+                        && WHOLE_LITERAL.matcher(raw.substring(matcher.start() - 1, Math.min(matcher.end() + 1, raw.length()))).matches()) {
+                    holder.registerProblem(text, new TextRange(matcher.start() - 1, matcher.end() + 1),
+                            "'" + matcher.group() + "' is substituted into a string literal: every value makes a new "
+                                    + "statement for the plan cache and is not escaped. Use #{" + name + "} without the quotes",
+                            new UnquoteBindParameterFix());
+                } else if (position == SubstitutionPosition.QUOTED_VALUE || position == SubstitutionPosition.QUOTED_WHOLE_VALUE) {
+                    holder.registerProblem(text, range, "'" + matcher.group() + "' is substituted into a string literal: "
+                            + "every value makes a new statement for the plan cache and is not escaped. "
+                            + "Bind #{" + name + "} and build the string with CONCAT");
+                } else if (position == SubstitutionPosition.LIST) {
+                    holder.registerProblem(text, range, "'" + matcher.group() + "' is substituted as a whole IN list: "
+                            + "every list makes a new statement for the plan cache and is not escaped. "
+                            + "Bind the items with <foreach collection=\"" + name + "\" item=\"item\" separator=\",\">#{item}</foreach>");
+                }
+            }
+            before.append(" ? ");
+        }
+        before.append(decode(raw.substring(last)));
+    }
+
+    private static @NotNull String opening(@NotNull XmlTag tag) {
+        return switch (tag.getName()) {
+            case "where" -> "where";
+            case "set" -> "set";
+            case "trim" -> StringUtil.notNullize(tag.getAttributeValue("prefix"));
+            case "foreach" -> StringUtil.notNullize(tag.getAttributeValue("open"));
+            case MapperTagUtils.INCLUDE -> "?";
+            default -> "";
+        };
+    }
+
+    private static @NotNull String closing(@NotNull XmlTag tag) {
+        return switch (tag.getName()) {
+            case "trim" -> StringUtil.notNullize(tag.getAttributeValue("suffix"));
+            case "foreach" -> StringUtil.notNullize(tag.getAttributeValue("close"));
+            default -> "";
+        };
+    }
+
+    private static @NotNull String decode(@NotNull String raw) {
+        return StringUtil.unescapeXmlEntities(raw.replace("<![CDATA[", " ").replace("]]>", " "));
+    }
+
+    /**
+     * Turns a {@code '${}'} literal into a {@code #{}}, replacing the quotes with spaces so that, as with
+     * {@link UseBindParameterFix}, the text length is kept.
+     */
+    private static final class UnquoteBindParameterFix implements LocalQuickFix {
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Replace '${}' with #{}";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiElement element = descriptor.getPsiElement();
+            TextRange range = descriptor.getTextRangeInElement();
+            Document document = element == null || range == null ? null
+                    : PsiDocumentManager.getInstance(project).getDocument(element.getContainingFile());
+            if (document == null) {
+                return;
+            }
+            TextRange literal = range.shiftRight(element.getTextRange().getStartOffset());
+            String text = literal.getEndOffset() > document.getTextLength() ? "" : document.getText(literal);
+            Matcher matcher = WHOLE_LITERAL.matcher(text);
+            if (!matcher.matches()) {
+                return;
+            }
+            document.replaceString(literal.getStartOffset(), literal.getEndOffset(), " #{" + matcher.group(2) + "} ");
+            PsiDocumentManager.getInstance(project).commitDocument(document);
+        }
+    }
+
+    /**
+     * Turns the {@code ${}} into a {@code #{}} in place. The edit keeps the text length, so the ranges of other
+     * problems in the same file stay valid when the fix is applied to all of them.
+     */
+    private static final class UseBindParameterFix implements LocalQuickFix {
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Replace ${} with #{}";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiElement element = descriptor.getPsiElement();
+            TextRange range = descriptor.getTextRangeInElement();
+            Document document = element == null || range == null ? null
+                    : PsiDocumentManager.getInstance(project).getDocument(element.getContainingFile());
+            if (document == null) {
+                return;
+            }
+            int offset = element.getTextRange().getStartOffset() + range.getStartOffset();
+            if (offset + 2 > document.getTextLength()
+                    || !"${".contentEquals(document.getCharsSequence().subSequence(offset, offset + 2))) {
+                return;
+            }
+            document.replaceString(offset, offset + 1, "#");
+            PsiDocumentManager.getInstance(project).commitDocument(document);
+        }
+    }
+}
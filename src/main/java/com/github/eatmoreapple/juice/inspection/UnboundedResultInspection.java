@@ -0,0 +1,99 @@
+package com.github.eatmoreapple.juice.inspection;
+
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.RowLimit;
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.XmlSuppressableInspectionTool;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static com.intellij.codeInspection.options.OptPane.checkbox;
+import static com.intellij.codeInspection.options.OptPane.pane;
+import static com.intellij.codeInspection.options.OptPane.stringList;
+
+/**
+ * Reports {@code <select>} statements whose Go method returns a slice while the SQL has no row limit, so the
+ * result grows with the table. A limit that only some renderings have, see {@link RowLimit}, is reported as
+ * conditional. Statements matching the allowlist are skipped.
+ */
+public class UnboundedResultInspection extends XmlSuppressableInspectionTool {
+    /**
+     * {@code namespace.id} or {@code id} patterns of deliberately unbounded statements; {@code *} matches anything.
+     */
+    public List<String> allowlist = new ArrayList<>();
+    public boolean reportConditional = true;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(
+                checkbox("reportConditional", "Report statements whose LIMIT is inside <if> or <choose>"),
+                stringList("allowlist", "Deliberately unbounded statements (namespace.id or id, * as wildcard)"));
+    }
+
+    @Override
+    public @NotNull PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        XmlTag mapperTag = MapperTagUtils.getMapperTag(holder.getFile());
+        String namespace = mapperTag == null ? null : MapperTagUtils.getNamespace(mapperTag);
+        if (namespace == null || namespace.isBlank()) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        MapperNamespaceResolver.ResolvedNamespace resolved = MapperNamespaceResolver.parse(holder.getProject(), namespace.trim());
+        if (resolved == null) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        List<Pattern> allowed = allowlist.stream().map(UnboundedResultInspection::globPattern).toList();
+
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlTag(@NotNull XmlTag tag) {
+                String id = tag.getAttributeValue("id");
+                if (!"select".equals(tag.getName()) || id == null || !MapperTagUtils.isStatementTag(tag)) {
+                    return;
+                }
+                String key = namespace.trim() + "." + id;
+                if (allowed.stream().anyMatch(pattern -> pattern.matcher(key).matches() || pattern.matcher(id).matches())) {
+                    return;
+                }
+                CompiledStatement statement = CompiledStatementService.getInstance(tag.getProject()).getCompiled(tag);
+                RowLimit limit = statement == null ? RowLimit.ALWAYS : RowLimit.of(statement);
+                if (limit == RowLimit.ALWAYS || limit == RowLimit.CONDITIONAL && !reportConditional) {
+                    return;
+                }
+                GoMethodSpec method = MapperNamespaceResolver.resolveMethod(tag.getProject(), resolved, id);
+                GoType slice = method == null ? null : StatementParameters.resultType(method);
+                if (!StatementParameters.isSlice(slice)) {
+                    return;
+                }
+                holder.registerProblem(MapperTagUtils.getAnchor(tag), limit == RowLimit.NONE
+                        ? "'" + method.getName() + "' returns " + slice.getText() + " but the statement has no LIMIT; "
+                        + "the result grows with the table"
+                        : "'" + method.getName() + "' returns " + slice.getText() + " but the statement's LIMIT is "
+                        + "conditional; some renderings return every matching row");
+            }
+        };
+    }
+
+    private static @NotNull Pattern globPattern(@NotNull String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.strip().split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.eatmoreapple.juice.lang;
+
+import com.intellij.openapi.fileTypes.LanguageFileType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.Icon;
+
+public class JuiceExprFileType extends LanguageFileType {
+    public static final JuiceExprFileType INSTANCE = new JuiceExprFileType();
+
+    private JuiceExprFileType() {
+        super(JuiceExprLanguage.INSTANCE);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "JuiceExpression";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Juice test expression";
+    }
+
+    @Override
+    public @NotNull String getDefaultExtension() {
+        return "juiceexpr";
+    }
+
+    @Override
+    public @Nullable Icon getIcon() {
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.eatmoreapple.juice.lang;
+
+import com.intellij.lang.Language;
+
+/**
+ * Expression language of {@code test} attributes on {@code <if>} and {@code <when>}.
+ */
+public class JuiceExprLanguage extends Language {
+    public static final JuiceExprLanguage INSTANCE = new JuiceExprLanguage();
+
+    private JuiceExprLanguage() {
+        super("JuiceExpression");
+    }
+}
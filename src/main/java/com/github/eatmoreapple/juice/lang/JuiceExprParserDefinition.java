@@ -0,0 +1,115 @@
+package com.github.eatmoreapple.juice.lang;
+
+import com.github.eatmoreapple.juice.lexer.JuiceExprLexer;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.extapi.psi.PsiFileBase;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiParser;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.FileViewProvider;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IFileElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Builds a shallow tree: only parameter references and function names get their own nodes. Syntax errors are
+ * reported by {@code TestExpressionAnnotator} from the cached full parse instead.
+ */
+public class JuiceExprParserDefinition implements ParserDefinition {
+    private static final IFileElementType FILE = new IFileElementType(JuiceExprLanguage.INSTANCE);
+    private static final TokenSet WHITESPACE = TokenSet.create(TokenType.WHITE_SPACE);
+    private static final TokenSet STRINGS = TokenSet.create(JuiceExprTokenType.STRING);
+    private static final PsiParser PARSER = new PsiParser() {
+        @Override
+        public @NotNull ASTNode parse(@NotNull IElementType root, @NotNull PsiBuilder builder) {
+            PsiBuilder.Marker file = builder.mark();
+            IElementType previous = null;
+            while (!builder.eof()) {
+                IElementType type = builder.getTokenType();
+                if (type == JuiceExprTokenType.IDENTIFIER && previous != JuiceExprTokenType.DOT) {
+                    PsiBuilder.Marker marker = builder.mark();
+                    if (builder.lookAhead(1) == JuiceExprTokenType.LPAREN) {
+                        builder.advanceLexer();
+                        marker.done(JuiceExprTokenType.FUNCTION_NAME);
+                    } else {
+                        builder.advanceLexer();
+                        while (builder.getTokenType() == JuiceExprTokenType.DOT
+                                && builder.lookAhead(1) == JuiceExprTokenType.IDENTIFIER) {
+                            builder.advanceLexer();
+                            builder.advanceLexer();
+                        }
+                        marker.done(JuiceExprTokenType.REFERENCE_EXPRESSION);
+                    }
+                    previous = JuiceExprTokenType.IDENTIFIER;
+                    continue;
+                }
+                previous = type;
+                builder.advanceLexer();
+            }
+            file.done(root);
+            return builder.getTreeBuilt();
+        }
+
+    };
+
+    @Override
+    public @NotNull Lexer createLexer(Project project) {
+        return new JuiceExprLexer();
+    }
+
+    @Override
+    public @NotNull PsiParser createParser(Project project) {
+        return PARSER;
+    }
+
+    @Override
+    public @NotNull IFileElementType getFileNodeType() {
+        return FILE;
+    }
+
+    @Override
+    public @NotNull TokenSet getWhitespaceTokens() {
+        return WHITESPACE;
+    }
+
+    @Override
+    public @NotNull TokenSet getCommentTokens() {
+        return TokenSet.EMPTY;
+    }
+
+    @Override
+    public @NotNull TokenSet getStringLiteralElements() {
+        return STRINGS;
+    }
+
+    @Override
+    public @NotNull PsiElement createElement(ASTNode node) {
+        if (node.getElementType() == JuiceExprTokenType.REFERENCE_EXPRESSION) {
+            return new JuiceExprReferenceExpression(node);
+        }
+        return new ASTWrapperPsiElement(node);
+    }
+
+    @Override
+    public @NotNull PsiFile createFile(@NotNull FileViewProvider viewProvider) {
+        return new PsiFileBase(viewProvider, JuiceExprLanguage.INSTANCE) {
+            @Override
+            public @NotNull FileType getFileType() {
+                return JuiceExprFileType.INSTANCE;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull SpaceRequirements spaceExistenceTypeBetweenTokens(ASTNode left, ASTNode right) {
+        return SpaceRequirements.MAY;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.eatmoreapple.juice.lang;
+
+import com.github.eatmoreapple.juice.reference.TestExpressionReference;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.injection.InjectedLanguageManager;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiLanguageInjectionHost;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A parameter path such as {@code user.Name}, with one reference per segment.
+ */
+public class JuiceExprReferenceExpression extends ASTWrapperPsiElement {
+    public JuiceExprReferenceExpression(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    public @NotNull List<ASTNode> getSegments() {
+        List<ASTNode> segments = new ArrayList<>();
+        for (ASTNode child = getNode().getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (child.getElementType() == JuiceExprTokenType.IDENTIFIER) {
+                segments.add(child);
+            }
+        }
+        return segments;
+    }
+
+    public @NotNull List<String> getPath() {
+        return getSegments().stream().map(ASTNode::getText).toList();
+    }
+
+    /**
+     * Names visible where the expression is injected, or {@code null} outside a mapper statement.
+     */
+    public @Nullable StatementParameters.Scope getScope() {
+        PsiLanguageInjectionHost host = InjectedLanguageManager.getInstance(getProject()).getInjectionHost(this);
+        XmlTag tag = PsiTreeUtil.getParentOfType(host, XmlTag.class);
+        return tag == null ? null : StatementParameters.scopeAt(tag);
+    }
+
+    @Override
+    public PsiReference @NotNull [] getReferences() {
+        List<ASTNode> segments = getSegments();
+        PsiReference[] references = new PsiReference[segments.size()];
+        int start = getTextRange().getStartOffset();
+        for (int i = 0; i < segments.size(); i++) {
+            TextRange range = segments.get(i).getTextRange().shiftLeft(start);
+            references[i] = new TestExpressionReference(this, range, i);
+        }
+        return references;
+    }
+
+    @Override
+    public @Nullable PsiReference getReference() {
+        PsiReference[] references = getReferences();
+        return references.length == 0 ? null : references[0];
+    }
+
+    @Override
+    public PsiElement getNavigationElement() {
+        return this;
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.eatmoreapple.juice.lang;
+
+import com.github.eatmoreapple.juice.expression.ExprTokenizer;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+public class JuiceExprTokenType extends IElementType {
+    public static final JuiceExprTokenType IDENTIFIER = new JuiceExprTokenType("IDENTIFIER");
+    public static final JuiceExprTokenType NUMBER = new JuiceExprTokenType("NUMBER");
+    public static final JuiceExprTokenType STRING = new JuiceExprTokenType("STRING");
+    public static final JuiceExprTokenType KEYWORD = new JuiceExprTokenType("KEYWORD");
+    public static final JuiceExprTokenType OPERATOR = new JuiceExprTokenType("OPERATOR");
+    public static final JuiceExprTokenType LPAREN = new JuiceExprTokenType("LPAREN");
+    public static final JuiceExprTokenType RPAREN = new JuiceExprTokenType("RPAREN");
+    public static final JuiceExprTokenType BRACKET = new JuiceExprTokenType("BRACKET");
+    public static final JuiceExprTokenType DOT = new JuiceExprTokenType("DOT");
+    public static final JuiceExprTokenType COMMA = new JuiceExprTokenType("COMMA");
+
+    /**
+     * A root identifier and the {@code .field} accesses following it, e.g. {@code user.Name}.
+     */
+    public static final JuiceExprTokenType REFERENCE_EXPRESSION = new JuiceExprTokenType("REFERENCE_EXPRESSION");
+    public static final JuiceExprTokenType FUNCTION_NAME = new JuiceExprTokenType("FUNCTION_NAME");
+
+    private JuiceExprTokenType(@NotNull @NonNls String debugName) {
+        super(debugName, JuiceExprLanguage.INSTANCE);
+    }
+
+    public static @NotNull IElementType of(@NotNull ExprTokenizer.Kind kind) {
+        return switch (kind) {
+            case IDENTIFIER -> IDENTIFIER;
+            case NUMBER -> NUMBER;
+            case STRING -> STRING;
+            case KEYWORD -> KEYWORD;
+            case OPERATOR -> OPERATOR;
+            case LPAREN -> LPAREN;
+            case RPAREN -> RPAREN;
+            case LBRACKET, RBRACKET -> BRACKET;
+            case DOT -> DOT;
+            case COMMA -> COMMA;
+            case WHITESPACE -> TokenType.WHITE_SPACE;
+            case BAD_CHARACTER -> TokenType.BAD_CHARACTER;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "JuiceExprTokenType." + super.toString();
+    }
+}
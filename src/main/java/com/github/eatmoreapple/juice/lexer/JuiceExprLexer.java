@@ -0,0 +1,71 @@
+package com.github.eatmoreapple.juice.lexer;
+
+import com.github.eatmoreapple.juice.expression.ExprTokenizer;
+import com.github.eatmoreapple.juice.lang.JuiceExprTokenType;
+import com.intellij.lexer.LexerBase;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Editor lexer over {@link ExprTokenizer}, so highlighting and evaluation agree on tokens.
+ */
+public class JuiceExprLexer extends LexerBase {
+    private CharSequence buffer = "";
+    private int bufferEnd;
+    private int tokenStart;
+    private int tokenEnd;
+    private IElementType tokenType;
+
+    @Override
+    public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
+        this.buffer = buffer;
+        this.bufferEnd = endOffset;
+        this.tokenStart = startOffset;
+        this.tokenEnd = startOffset;
+        this.tokenType = null;
+        advance();
+    }
+
+    @Override
+    public int getState() {
+        return 0;
+    }
+
+    @Override
+    public @Nullable IElementType getTokenType() {
+        return tokenType;
+    }
+
+    @Override
+    public int getTokenStart() {
+        return tokenStart;
+    }
+
+    @Override
+    public int getTokenEnd() {
+        return tokenEnd;
+    }
+
+    @Override
+    public void advance() {
+        tokenStart = tokenEnd;
+        if (tokenStart >= bufferEnd) {
+            tokenType = null;
+            return;
+        }
+        ExprTokenizer.Token token = ExprTokenizer.next(buffer, tokenStart, bufferEnd);
+        tokenEnd = token.end();
+        tokenType = JuiceExprTokenType.of(token.kind());
+    }
+
+    @Override
+    public @NotNull CharSequence getBufferSequence() {
+        return buffer;
+    }
+
+    @Override
+    public int getBufferEnd() {
+        return bufferEnd;
+    }
+}
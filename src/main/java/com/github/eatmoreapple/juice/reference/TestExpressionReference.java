@@ -0,0 +1,52 @@
+package com.github.eatmoreapple.juice.reference;
+
+import com.github.eatmoreapple.juice.lang.JuiceExprReferenceExpression;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiReferenceBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reference from one segment of a {@code test} expression path to the Go parameter, struct field or
+ * {@code <foreach>} variable it names.
+ */
+public class TestExpressionReference extends PsiReferenceBase<JuiceExprReferenceExpression> {
+    private final int segment;
+
+    public TestExpressionReference(@NotNull JuiceExprReferenceExpression element, @NotNull TextRange range, int segment) {
+        super(element, range, true);
+        this.segment = segment;
+    }
+
+    @Override
+    public @Nullable PsiElement resolve() {
+        StatementParameters.Scope scope = getElement().getScope();
+        if (scope == null) {
+            return null;
+        }
+        List<StatementParameters.Binding> resolved = scope.resolve(getElement().getPath().subList(0, segment + 1));
+        return resolved.size() == segment + 1 ? resolved.get(segment).element() : null;
+    }
+
+    @Override
+    public Object @NotNull [] getVariants() {
+        StatementParameters.Scope scope = getElement().getScope();
+        if (scope == null) {
+            return new Object[0];
+        }
+        if (segment == 0) {
+            return scope.roots().keySet().toArray();
+        }
+        List<StatementParameters.Binding> parents = scope.resolve(getElement().getPath().subList(0, segment));
+        if (parents.size() < segment) {
+            return new Object[0];
+        }
+        Map<String, StatementParameters.Binding> fields = StatementParameters.fieldsOf(parents.get(segment - 1).type());
+        return fields.keySet().toArray();
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.eatmoreapple.juice.report;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A table with one row per statement, shown in the reports tool window.
+ */
+public record StatementReport(@NotNull String title, @NotNull List<String> columns, @NotNull List<Row> rows) {
+    /**
+     * Returns the columns and the given rows as RFC 4180 CSV.
+     */
+    public @NotNull String toCsv(@NotNull List<Row> rows) {
+        StringBuilder csv = new StringBuilder();
+        appendCsvLine(csv, columns);
+        for (Row row : rows) {
+            appendCsvLine(csv, row.values());
+        }
+        return csv.toString();
+    }
+
+    private static void appendCsvLine(@NotNull StringBuilder csv, @NotNull List<?> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            String value = values.get(i) == null ? "" : values.get(i).toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                csv.append(value);
+            }
+        }
+        csv.append("\r\n");
+    }
+
+    /**
+     * Cell values are compared when sorting, so numbers should stay numbers; {@code file} and {@code offset}
+     * locate the statement for navigation.
+     */
+    public record Row(@NotNull List<Object> values, @Nullable VirtualFile file, int offset) {
+    }
+
+    /**
+     * A cell that opens its own location, such as a Go method, when double-clicked instead of the row's statement.
+     */
+    public record Link(@NotNull String text, @NotNull VirtualFile file, int offset) {
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * A cell shown as a warning, such as a finding in a query plan; empty when there is nothing to point out.
+     */
+    public record Highlight(@NotNull String text) {
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.eatmoreapple.juice.report;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.ColoredTableCellRenderer;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A sortable table of a {@link StatementReport}; double-clicking a row opens its statement, or the target of
+ * a {@link StatementReport.Link} cell. {@link StatementReport.Highlight} cells are shown as warnings. The rows
+ * can be exported as CSV in their sorted order.
+ */
+class StatementReportPanel extends SimpleToolWindowPanel {
+    StatementReportPanel(@NotNull Project project, @NotNull StatementReport report) {
+        super(true, true);
+
+        JBTable table = new JBTable(new ReportTableModel(report));
+        table.setAutoCreateRowSorter(true);
+        table.getEmptyText().setText("No statements");
+        table.setDefaultRenderer(StatementReport.Highlight.class, new ColoredTableCellRenderer() {
+            @Override
+            protected void customizeCellRenderer(@NotNull JTable table, @Nullable Object value, boolean selected,
+                                                 boolean hasFocus, int row, int column) {
+                if (value != null) {
+                    append(value.toString(), SimpleTextAttributes.ERROR_ATTRIBUTES);
+                }
+            }
+        });
+
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                int row = table.getSelectedRow();
+                if (row < 0) {
+                    return false;
+                }
+                StatementReport.Row selected = report.rows().get(table.convertRowIndexToModel(row));
+                int column = table.columnAtPoint(event.getPoint());
+                if (column >= 0 && selected.values().get(table.convertColumnIndexToModel(column)) instanceof StatementReport.Link link
+                        && link.file().isValid()) {
+                    new OpenFileDescriptor(project, link.file(), link.offset()).navigate(true);
+                    return true;
+                }
+                if (selected.file() == null || !selected.file().isValid()) {
+                    return false;
+                }
+                new OpenFileDescriptor(project, selected.file(), selected.offset()).navigate(true);
+                return true;
+            }
+        }.installOn(table);
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Export to CSV", "Save the rows in their current order as CSV", AllIcons.ToolbarDecorator.Export) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                List<StatementReport.Row> rows = new ArrayList<>();
+                for (int row = 0; row < table.getRowCount(); row++) {
+                    rows.add(report.rows().get(table.convertRowIndexToModel(row)));
+                }
+                exportCsv(project, report, rows);
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("JuiceStatementReport", group, true);
+        toolbar.setTargetComponent(table);
+
+        setToolbar(toolbar.getComponent());
+        setContent(ScrollPaneFactory.createScrollPane(table));
+    }
+
+    private static void exportCsv(@NotNull Project project, @NotNull StatementReport report,
+                                  @NotNull List<StatementReport.Row> rows) {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Report", "Save the report as CSV", "csv");
+        Path baseDir = project.getBasePath() == null ? null : Path.of(project.getBasePath());
+        String fileName = report.title().replaceAll("[^\\w-]+", "-").toLowerCase(Locale.ROOT) + ".csv";
+        VirtualFileWrapper target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project)
+                .save(baseDir, fileName);
+        if (target == null) {
+            return;
+        }
+        try {
+            Files.writeString(target.getFile().toPath(), report.toCsv(rows), StandardCharsets.UTF_8);
+            target.getVirtualFile(true);
+        } catch (IOException e) {
+            Messages.showErrorDialog(project, "Could not write " + target.getFile() + ": " + e.getMessage(), "Export Report");
+        }
+    }
+
+    private static final class ReportTableModel extends AbstractTableModel {
+        private final StatementReport report;
+
+        ReportTableModel(@NotNull StatementReport report) {
+            this.report = report;
+        }
+
+        @Override
+        public int getRowCount() {
+            return report.rows().size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return report.columns().size();
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return report.columns().get(column);
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            for (StatementReport.Row row : report.rows()) {
+                Object value = row.values().get(column);
+                if (value != null) {
+                    return value.getClass();
+                }
+            }
+            return Object.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return report.rows().get(row).values().get(column);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.eatmoreapple.juice.report;
+
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Builds statement reports in the background and shows them in the {@value #TOOL_WINDOW_ID} tool window.
+ */
+public final class StatementReports {
+    public static final String TOOL_WINDOW_ID = "Juice Reports";
+
+    private StatementReports() {
+    }
+
+    /**
+     * Computes the cells of one statement's row, or {@code null} to leave it out of the report.
+     */
+    @FunctionalInterface
+    public interface RowFunction {
+        @Nullable List<Object> compute(@NotNull XmlTag statement, @NotNull String key);
+    }
+
+    /**
+     * Turns the rows of every statement into the rows of the report, for reports that look at statements
+     * together. Called on the background thread without a read action.
+     */
+    @FunctionalInterface
+    public interface ReportFunction {
+        @NotNull List<StatementReport.Row> finish(@NotNull List<StatementReport.Row> rows, @NotNull ProgressIndicator indicator);
+    }
+
+    /**
+     * Runs {@code function} over every statement of the project, one mapper file per read action and several
+     * files at a time, and shows the rows in {@code order}. {@code function} must be thread-safe.
+     */
+    public static void run(@NotNull Project project,
+                           @NotNull String title,
+                           @NotNull List<String> columns,
+                           @NotNull RowFunction function,
+                           @NotNull Comparator<StatementReport.Row> order) {
+        runCombined(project, title, columns, function, (rows, indicator) -> {
+            rows.sort(order);
+            return rows;
+        });
+    }
+
+    /**
+     * Like {@link #run}, but shows the rows {@code report} makes of the rows of every statement, which are
+     * in mapper file order.
+     */
+    public static void runCombined(@NotNull Project project,
+                                   @NotNull String title,
+                                   @NotNull List<String> columns,
+                                   @NotNull RowFunction function,
+                                   @NotNull ReportFunction report) {
+        new Task.Backgroundable(project, title, true) {
+            private List<StatementReport.Row> rows = new ArrayList<>();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                DumbService dumbService = DumbService.getInstance(project);
+                List<VirtualFile> files = new ArrayList<>(dumbService.runReadActionInSmartMode(
+                        () -> MapperStatementIndex.findAllMapperFiles(project)));
+                indicator.setIndeterminate(false);
+                // Files are independent and statement models are cached per tag, so they are read in parallel.
+                AtomicReferenceArray<List<StatementReport.Row>> rowsByFile = new AtomicReferenceArray<>(files.size());
+                AtomicInteger done = new AtomicInteger();
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(
+                        IntStream.range(0, files.size()).boxed().toList(), indicator, i -> {
+                            VirtualFile file = files.get(i);
+                            rowsByFile.set(i, dumbService.runReadActionInSmartMode(() -> rowsOf(project, file, function)));
+                            indicator.setFraction((double) done.incrementAndGet() / files.size());
+                            return true;
+                        });
+                indicator.checkCanceled();
+                for (int i = 0; i < files.size(); i++) {
+                    rows.addAll(rowsByFile.get(i));
+                }
+                rows = report.finish(rows, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                show(project, new StatementReport(title, columns, List.copyOf(rows)));
+            }
+        }.queue();
+    }
+
+    static @NotNull List<StatementReport.Row> rowsOf(@NotNull Project project,
+                                                     @NotNull VirtualFile file,
+                                                     @NotNull RowFunction function) {
+        PsiFile psiFile = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+        if (psiFile == null) {
+            return List.of();
+        }
+        List<StatementReport.Row> rows = new ArrayList<>();
+        for (Map.Entry<String, List<MapperStatementIndex.StatementInfo>> entry
+                : MapperStatementIndex.getFileData(project, file).entrySet()) {
+            for (MapperStatementIndex.StatementInfo statement : entry.getValue()) {
+                XmlTag tag = statement.isStatement() ? MapperStatementIndex.findTag(psiFile, statement) : null;
+                List<Object> values = tag == null ? null : function.compute(tag, entry.getKey() + "." + statement.id());
+                if (values != null) {
+                    rows.add(new StatementReport.Row(values, file, statement.offset()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Adds the report as a new tab of the reports tool window and activates it.
+     */
+    public static void show(@NotNull Project project, @NotNull StatementReport report) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(TOOL_WINDOW_ID);
+            if (toolWindow == null) {
+                return;
+            }
+            StatementReportPanel panel = new StatementReportPanel(project, report);
+            Content content = ContentFactory.getInstance().createContent(panel, report.title(), false);
+            content.setCloseable(true);
+            toolWindow.getContentManager().addContent(content);
+            toolWindow.getContentManager().setSelectedContent(content);
+            toolWindow.activate(null);
+        }, project.getDisposed());
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.eatmoreapple.juice.report;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Starts empty; {@link StatementReports#show} adds a tab per report.
+ */
+public class StatementReportsToolWindowFactory implements ToolWindowFactory, DumbAware {
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+    }
+}
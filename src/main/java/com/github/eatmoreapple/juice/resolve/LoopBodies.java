@@ -0,0 +1,46 @@
+package com.github.eatmoreapple.juice.resolve;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the loop whose body runs a node once per iteration, over any syntax tree. The walk stops at a function
+ * declaration, whose body runs once per call, and looks through function literals, since a closure created in a
+ * loop body usually runs in it too. A node in a loop's header, such as its range expression, runs once per loop
+ * and is not in its body.
+ */
+public final class LoopBodies {
+    private LoopBodies() {
+    }
+
+    /**
+     * The shape of the tree the walk needs.
+     */
+    public interface Tree<N> {
+        @Nullable N parent(@NotNull N node);
+
+        boolean isFunctionDeclaration(@NotNull N node);
+
+        /**
+         * Returns the body of the loop, or {@code null} if the node is not a loop.
+         */
+        @Nullable N loopBody(@NotNull N node);
+    }
+
+    /**
+     * Returns the innermost loop whose body contains {@code node}, or {@code null}.
+     */
+    public static <N> @Nullable N enclosingLoop(@NotNull N node, @NotNull Tree<N> tree) {
+        N child = node;
+        for (N parent = tree.parent(node); parent != null; child = parent, parent = tree.parent(parent)) {
+            if (tree.isFunctionDeclaration(parent)) {
+                return null;
+            }
+            N body = tree.loopBody(parent);
+            if (body != null && body == child) {
+                return parent;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.eatmoreapple.juice.resolve;
+
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.GoFileType;
+import com.goide.psi.GoCallExpr;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoForStatement;
+import com.goide.psi.GoFunctionOrMethodDeclaration;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoParameterDeclaration;
+import com.goide.psi.GoReferenceExpression;
+import com.goide.psi.GoType;
+import com.goide.psi.GoTypeSpec;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiSearchHelper;
+import com.intellij.psi.search.UsageSearchContext;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Go calls of mapper interface methods: the statement a method maps to, the calls made once per loop
+ * iteration, and the slice-taking variant of a single-element method.
+ */
+public final class MapperCalls {
+    private static final LoopBodies.Tree<PsiElement> GO_TREE = new LoopBodies.Tree<>() {
+        @Override
+        public @Nullable PsiElement parent(@NotNull PsiElement node) {
+            return node.getParent();
+        }
+
+        @Override
+        public boolean isFunctionDeclaration(@NotNull PsiElement node) {
+            return node instanceof GoFunctionOrMethodDeclaration;
+        }
+
+        @Override
+        public @Nullable PsiElement loopBody(@NotNull PsiElement node) {
+            return node instanceof GoForStatement loop ? loop.getBlock() : null;
+        }
+    };
+
+    private MapperCalls() {
+    }
+
+    /**
+     * Returns the interface method a call invokes, or {@code null} if it is not an interface method.
+     */
+    public static @Nullable GoMethodSpec calledMethod(@NotNull GoCallExpr call) {
+        return call.getExpression() instanceof GoReferenceExpression reference
+                && reference.resolve() instanceof GoMethodSpec method ? method : null;
+    }
+
+    /**
+     * Returns the statement a mapper interface method maps to, or {@code null} if its interface has no mapper.
+     */
+    public static @Nullable XmlTag statementOf(@NotNull GoMethodSpec method) {
+        GoTypeSpec typeSpec = PsiTreeUtil.getParentOfType(method, GoTypeSpec.class);
+        String methodName = method.getName();
+        if (typeSpec == null || methodName == null) {
+            return null;
+        }
+        String namespace = MapperNamespaceResolver.namespaceOf(method.getProject(), typeSpec);
+        if (namespace == null) {
+            return null;
+        }
+        List<XmlTag> tags = statementTags(method.getProject()).computeIfAbsent(namespace + "." + methodName,
+                key -> MapperStatementIndex.findStatementTags(method.getProject(), namespace, methodName).stream()
+                        .filter(MapperTagUtils::isStatementTag)
+                        .toList());
+        return tags.isEmpty() ? null : tags.get(0);
+    }
+
+    /**
+     * Returns the statement tags looked up so far by {@code namespace.id}, dropped on the next XML change.
+     */
+    private static @NotNull Map<String, List<XmlTag>> statementTags(@NotNull Project project) {
+        return CachedValuesManager.getManager(project).getCachedValue(project, () -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<String, List<XmlTag>>(),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE)));
+    }
+
+    /**
+     * Returns the {@code for} statement whose body runs {@code element} once per iteration, or {@code null},
+     * see {@link LoopBodies}.
+     */
+    public static @Nullable GoForStatement enclosingLoop(@NotNull PsiElement element) {
+        return (GoForStatement) LoopBodies.enclosingLoop(element, GO_TREE);
+    }
+
+    /**
+     * Returns the project calls of {@code method} that run once per loop iteration. Only Go files containing
+     * the method name are read, and the calls made in loops are collected once per file until it changes.
+     */
+    public static @NotNull List<GoCallExpr> findLoopCalls(@NotNull GoMethodSpec method) {
+        return CachedValuesManager.getCachedValue(method, () -> CachedValueProvider.Result.create(
+                computeLoopCalls(method), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static @NotNull List<GoCallExpr> computeLoopCalls(@NotNull GoMethodSpec method) {
+        String name = method.getName();
+        if (name == null) {
+            return List.of();
+        }
+        Project project = method.getProject();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.getScopeRestrictedByFileTypes(
+                GlobalSearchScope.projectScope(project), GoFileType.INSTANCE);
+        List<GoCallExpr> calls = new ArrayList<>();
+        PsiSearchHelper.getInstance(project).processCandidateFilesForText(scope, UsageSearchContext.IN_CODE, true, name, file -> {
+            if (psiManager.findFile(file) instanceof GoFile goFile) {
+                for (GoCallExpr call : loopCallsOf(goFile).getOrDefault(name, List.of())) {
+                    if (psiManager.areElementsEquivalent(calledMethod(call), method)) {
+                        calls.add(call);
+                    }
+                }
+            }
+            return true;
+        });
+        return List.copyOf(calls);
+    }
+
+    /**
+     * Returns the calls of the file that run once per loop iteration, keyed by the name they call.
+     */
+    private static @NotNull Map<String, List<GoCallExpr>> loopCallsOf(@NotNull GoFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> {
+            Map<String, List<GoCallExpr>> calls = new HashMap<>();
+            for (GoCallExpr call : PsiTreeUtil.findChildrenOfType(file, GoCallExpr.class)) {
+                if (call.getExpression() instanceof GoReferenceExpression reference && enclosingLoop(call) != null) {
+                    calls.computeIfAbsent(reference.getIdentifier().getText(), k -> new ArrayList<>()).add(call);
+                }
+            }
+            return CachedValueProvider.Result.create(calls, file);
+        });
+    }
+
+    /**
+     * Returns a method of the same interface whose only parameter is a slice of this method's only parameter
+     * type, such as {@code CreateUsers(ctx, []*User)} for {@code CreateUser(ctx, *User)}, or {@code null}.
+     */
+    public static @Nullable GoMethodSpec findBatchVariant(@NotNull GoMethodSpec method) {
+        GoTypeSpec typeSpec = PsiTreeUtil.getParentOfType(method, GoTypeSpec.class);
+        GoParameterDeclaration parameter = StatementParameters.singleParameter(method);
+        GoType type = parameter == null ? null : parameter.getType();
+        if (typeSpec == null || type == null) {
+            return null;
+        }
+        String element = elementName(type.getText());
+        for (GoMethodSpec candidate : typeSpec.getAllMethods()) {
+            GoParameterDeclaration candidateParameter = candidate == method ? null : StatementParameters.singleParameter(candidate);
+            GoType candidateType = candidateParameter == null ? null : candidateParameter.getType();
+            if (candidateType != null && candidateType.getText().startsWith("[]")
+                    && element.equals(elementName(candidateType.getText().substring(2)))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static @NotNull String elementName(@NotNull String type) {
+        return type.replaceAll("\\s+", "").replaceFirst("^\\*", "");
+    }
+}
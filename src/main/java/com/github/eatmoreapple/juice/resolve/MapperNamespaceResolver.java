@@ -17,8 +17,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -78,6 +80,36 @@ public final class MapperNamespaceResolver {
         return new ResolvedNamespace(namespace, interfaceName, relativeDirPath, false);
     }
 
+    /**
+     * Builds the mapper namespace that refers to the given Go type, the inverse of {@link #parse(Project, String)}.
+     */
+    public static @Nullable String namespaceOf(@NotNull Project project, @NotNull GoTypeSpec typeSpec) {
+        String interfaceName = typeSpec.getName();
+        PsiFile file = typeSpec.getContainingFile();
+        if (interfaceName == null || !(file instanceof GoFile goFile)) {
+            return null;
+        }
+        if ("main".equals(goFile.getPackageName())) {
+            return "main." + interfaceName;
+        }
+
+        VirtualFile parent = file.getVirtualFile() == null ? null : file.getVirtualFile().getParent();
+        String basePath = project.getBasePath();
+        String moduleName = ModuleUtils.getModuleName(project);
+        if (parent == null || basePath == null || moduleName == null || !parent.getPath().startsWith(basePath)) {
+            return null;
+        }
+        return format(moduleName, parent.getPath().substring(basePath.length()), interfaceName);
+    }
+
+    static @Nullable String format(@NotNull String moduleName, @NotNull String relativeDirPath, @NotNull String interfaceName) {
+        String relativePackage = relativeDirPath.replaceAll("^/+|/+$", "").replace('/', '.');
+        if (relativePackage.isEmpty()) {
+            return null;
+        }
+        return moduleName + "." + relativePackage + "." + interfaceName;
+    }
+
     public static @NotNull Collection<GoTypeSpec> findTypes(@NotNull Project project,
                                                             @NotNull ResolvedNamespace namespace,
                                                             boolean interfacesOnly) {
@@ -134,6 +166,24 @@ public final class MapperNamespaceResolver {
         return List.copyOf(names);
     }
 
+    /**
+     * Returns method name -> signature text (whitespace collapsed) for every interface matching the namespace.
+     */
+    public static @NotNull Map<String, String> findMethodSignatures(@NotNull Project project,
+                                                                   @NotNull ResolvedNamespace namespace) {
+        Map<String, String> signatures = new LinkedHashMap<>();
+        for (GoTypeSpec typeSpec : findTypes(project, namespace, true)) {
+            for (var method : typeSpec.getAllMethods()) {
+                var signature = method.getSignature();
+                String name = method.getName();
+                if (name != null && signature != null) {
+                    signatures.putIfAbsent(name, signature.getText().replaceAll("\\s+", " "));
+                }
+            }
+        }
+        return signatures;
+    }
+
     public static boolean matchesNamespace(@NotNull Project project,
                                            @NotNull GoTypeSpec typeSpec,
                                            @NotNull ResolvedNamespace namespace) {
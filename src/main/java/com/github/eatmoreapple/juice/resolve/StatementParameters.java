@@ -0,0 +1,303 @@
+package com.github.eatmoreapple.juice.resolve;
+
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.goide.psi.GoAnonymousFieldDefinition;
+import com.goide.psi.GoArrayOrSliceType;
+import com.goide.psi.GoFieldDeclaration;
+import com.goide.psi.GoFieldDefinition;
+import com.goide.psi.GoMapType;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoParamDefinition;
+import com.goide.psi.GoParameterDeclaration;
+import com.goide.psi.GoParameters;
+import com.goide.psi.GoPointerType;
+import com.goide.psi.GoResult;
+import com.goide.psi.GoSignature;
+import com.goide.psi.GoStructType;
+import com.goide.psi.GoTag;
+import com.goide.psi.GoType;
+import com.goide.psi.GoTypeList;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Names a statement can reference in {@code test} expressions and placeholders, backed by its Go method.
+ * <p>
+ * Parameters are visible by name, except {@code context.Context}. When the method has a single parameter it
+ * is also visible as {@code param}, and if it is a struct its fields are visible directly, by their
+ * {@code param} tag or field name, as juice binds them. {@code <foreach>} adds its item and index variables.
+ */
+public final class StatementParameters {
+    private static final String CONTEXT_TYPE = "context.Context";
+
+    private StatementParameters() {
+    }
+
+    /**
+     * A name and where it is declared; {@code type} is {@code null} when it is unknown.
+     */
+    public record Binding(@NotNull PsiElement element, @Nullable GoType type) {
+    }
+
+    /**
+     * Returns the names visible at {@code tag}, which is a statement or one of its descendants.
+     */
+    public static @Nullable Scope scopeAt(@NotNull XmlTag tag) {
+        XmlTag statement = MapperTagUtils.findSqlTag(tag);
+        if (statement == null) {
+            return null;
+        }
+        Scope scope = statementScope(statement);
+
+        List<XmlTag> loops = new ArrayList<>();
+        for (XmlTag current = tag; current != null && current != statement; current = current.getParentTag()) {
+            if ("foreach".equals(current.getName())) {
+                loops.add(current);
+            }
+        }
+        Collections.reverse(loops);
+        for (XmlTag loop : loops) {
+            scope = scope.withLoop(loop);
+        }
+        return scope;
+    }
+
+    private static @NotNull Scope statementScope(@NotNull XmlTag statement) {
+        return CachedValuesManager.getCachedValue(statement, () -> CachedValueProvider.Result.create(
+                computeStatementScope(statement), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static @NotNull Scope computeStatementScope(@NotNull XmlTag statement) {
+        String id = statement.getAttributeValue("id");
+        String namespace = MapperTagUtils.getNamespace(statement.getParentTag());
+        if (!MapperTagUtils.isStatementTag(statement) || id == null || namespace == null) {
+            return new Scope(Map.of(), false);
+        }
+        if (!(GoMethodResolver.resolveBySqlId(statement.getProject(), id, namespace) instanceof GoMethodSpec method)) {
+            return new Scope(Map.of(), false);
+        }
+        GoSignature signature = method.getSignature();
+        if (signature == null) {
+            return new Scope(Map.of(), false);
+        }
+
+        Map<String, Binding> roots = new LinkedHashMap<>();
+        List<Binding> parameters = new ArrayList<>();
+        for (GoParameterDeclaration declaration : signature.getParameters().getParameterDeclarationList()) {
+            GoType type = declaration.getType();
+            if (type != null && CONTEXT_TYPE.equals(type.getText())) {
+                continue;
+            }
+            for (GoParamDefinition definition : declaration.getParamDefinitionList()) {
+                Binding binding = new Binding(definition, type);
+                parameters.add(binding);
+                String name = definition.getName();
+                if (name != null && !"_".equals(name)) {
+                    roots.put(name, binding);
+                }
+            }
+        }
+        if (parameters.size() == 1) {
+            Binding single = parameters.get(0);
+            fieldsOf(single.type()).forEach(roots::putIfAbsent);
+            roots.putIfAbsent("param", single);
+        }
+        return new Scope(Map.copyOf(roots), true);
+    }
+
+    /**
+     * Returns the declaration of the method's only parameter besides {@code context.Context}, or {@code null}
+     * if there is not exactly one.
+     */
+    public static @Nullable GoParameterDeclaration singleParameter(@NotNull GoMethodSpec method) {
+        GoSignature signature = method.getSignature();
+        if (signature == null) {
+            return null;
+        }
+        GoParameterDeclaration single = null;
+        int count = 0;
+        for (GoParameterDeclaration declaration : signature.getParameters().getParameterDeclarationList()) {
+            GoType type = declaration.getType();
+            if (type != null && CONTEXT_TYPE.equals(type.getText())) {
+                continue;
+            }
+            single = declaration;
+            count += Math.max(1, declaration.getParamDefinitionList().size());
+        }
+        return count == 1 ? single : null;
+    }
+
+    /**
+     * Returns the fields of a struct (through pointers and named types) keyed as juice sees them,
+     * or an empty map if the type is not a struct.
+     */
+    public static @NotNull Map<String, Binding> fieldsOf(@Nullable GoType type) {
+        if (!(unwrap(type) instanceof GoStructType struct)) {
+            return Map.of();
+        }
+        Map<String, Binding> fields = new LinkedHashMap<>();
+        for (GoFieldDeclaration declaration : struct.getFieldDeclarationList()) {
+            GoTag tag = declaration.getTag();
+            String tagName = tag == null ? null : tag.getValue("param");
+            GoAnonymousFieldDefinition embedded = declaration.getAnonymousFieldDefinition();
+            if (embedded != null) {
+                fieldsOf(embedded.getGoType(null)).forEach(fields::putIfAbsent);
+                continue;
+            }
+            for (GoFieldDefinition field : declaration.getFieldDefinitionList()) {
+                String name = tagName != null && !tagName.isEmpty() && !"-".equals(tagName) ? tagName : field.getName();
+                if (name != null) {
+                    fields.put(name, new Binding(field, field.getGoType(null)));
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the fields of a struct (through pointers and named types) keyed by the column juice scans into
+     * them, their {@code column} tag or else their name, or an empty map if the type is not a struct.
+     */
+    public static @NotNull Map<String, Binding> columnsOf(@Nullable GoType type) {
+        if (!(unwrap(type) instanceof GoStructType struct)) {
+            return Map.of();
+        }
+        Map<String, Binding> columns = new LinkedHashMap<>();
+        for (GoFieldDeclaration declaration : struct.getFieldDeclarationList()) {
+            GoTag tag = declaration.getTag();
+            String column = tag == null ? null : tag.getValue("column");
+            if ("-".equals(column)) {
+                continue;
+            }
+            GoAnonymousFieldDefinition embedded = declaration.getAnonymousFieldDefinition();
+            if (embedded != null) {
+                columnsOf(embedded.getGoType(null)).forEach(columns::putIfAbsent);
+                continue;
+            }
+            for (GoFieldDefinition field : declaration.getFieldDefinitionList()) {
+                String name = column != null && !column.isEmpty() ? column : field.getName();
+                if (name != null && field.isPublic()) {
+                    columns.put(name, new Binding(field, field.getGoType(null)));
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the type of the method's first result, the one juice fills, or {@code null} if it has none.
+     */
+    public static @Nullable GoType resultType(@NotNull GoMethodSpec method) {
+        GoSignature signature = method.getSignature();
+        GoResult result = signature == null ? null : signature.getResult();
+        if (result == null) {
+            return null;
+        }
+        GoType type = result.getType();
+        if (type instanceof GoTypeList list) {
+            return list.getTypeList().isEmpty() ? null : list.getTypeList().get(0);
+        }
+        GoParameters parameters = result.getParameters();
+        if (type == null && parameters != null && !parameters.getParameterDeclarationList().isEmpty()) {
+            return parameters.getParameterDeclarationList().get(0).getType();
+        }
+        return type;
+    }
+
+    /**
+     * Whether the type is a slice, through named types.
+     */
+    public static boolean isSlice(@Nullable GoType type) {
+        GoType underlying = unwrap(type);
+        return underlying instanceof GoArrayOrSliceType && underlying.getText().startsWith("[]");
+    }
+
+    public static boolean isStruct(@Nullable GoType type) {
+        return unwrap(type) instanceof GoStructType;
+    }
+
+    /**
+     * Returns the element type of a slice, array or map, or {@code null} if the type is not a collection.
+     */
+    public static @Nullable GoType elementType(@Nullable GoType type) {
+        GoType underlying = unwrap(type);
+        if (underlying instanceof GoArrayOrSliceType slice) {
+            return slice.getType();
+        }
+        if (underlying instanceof GoMapType map) {
+            return map.getValueType();
+        }
+        return null;
+    }
+
+    private static @Nullable GoType unwrap(@Nullable GoType type) {
+        for (int depth = 0; type != null && depth < 16; depth++) {
+            GoType next = type instanceof GoPointerType pointer ? pointer.getType() : type.getUnderlyingType();
+            if (next == null || next == type) {
+                return type;
+            }
+            type = next;
+        }
+        return type;
+    }
+
+    /**
+     * Visible names; {@code complete} is {@code false} when the Go method is unknown, so unresolved names
+     * cannot be told apart from parameters of a method the plugin does not see.
+     */
+    public record Scope(@NotNull Map<String, Binding> roots, boolean complete) {
+        /**
+         * Resolves {@code path} segment by segment; the result has one entry per resolved segment, so a
+         * shorter list means resolution stopped at that index.
+         */
+        public @NotNull List<Binding> resolve(@NotNull List<String> path) {
+            List<Binding> resolved = new ArrayList<>(path.size());
+            Binding current = path.isEmpty() ? null : roots.get(path.get(0));
+            for (int i = 0; current != null; ) {
+                resolved.add(current);
+                if (++i == path.size()) {
+                    break;
+                }
+                current = fieldsOf(current.type()).get(path.get(i));
+            }
+            return resolved;
+        }
+
+        @NotNull Scope withLoop(@NotNull XmlTag loop) {
+            Map<String, Binding> nested = new LinkedHashMap<>(roots);
+            String collection = loop.getAttributeValue("collection");
+            GoType elementType = null;
+            if (collection != null) {
+                List<String> path = List.of(collection.strip().split("\\s*\\.\\s*"));
+                List<Binding> resolved = resolve(path);
+                if (resolved.size() == path.size()) {
+                    elementType = elementType(resolved.get(resolved.size() - 1).type());
+                }
+            }
+            bindAttribute(nested, loop.getAttribute("item"), elementType);
+            bindAttribute(nested, loop.getAttribute("index"), null);
+            return new Scope(nested, complete);
+        }
+
+        private static void bindAttribute(@NotNull Map<String, Binding> scope,
+                                          @Nullable XmlAttribute attribute,
+                                          @Nullable GoType type) {
+            String name = attribute == null ? null : attribute.getValue();
+            if (name != null && !name.isBlank() && attribute.getValueElement() != null) {
+                scope.put(name.strip(), new Binding(attribute.getValueElement(), type));
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.eatmoreapple.juice.search;
+
+import com.github.eatmoreapple.juice.engine.SqlFingerprintService;
+import com.github.eatmoreapple.juice.engine.SqlTokens;
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.index.SqlTokenIndex;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the statements that render a piece of SQL, such as a query copied from a slow log.
+ * <p>
+ * Statements rendering the same {@link com.github.eatmoreapple.juice.engine.SqlFingerprints fingerprint} are
+ * exact matches. Otherwise statements are ranked by the Jaccard similarity of their identifiers to the
+ * query's, read from the posting lists of {@link SqlTokenIndex}, so only statements sharing an identifier
+ * with the query are ever scored. Must be called in a read action.
+ */
+public final class SqlStatementFinder {
+    /**
+     * Statements sharing less than this fraction of identifiers with the query are not reported.
+     */
+    private static final double MIN_SCORE = 0.2;
+
+    private SqlStatementFinder() {
+    }
+
+    /**
+     * @param key   the statement's {@code namespace.id}
+     * @param score 1 for exact matches, the identifier similarity otherwise
+     */
+    public record Match(@NotNull String key, double score, boolean exact) {
+        public @NotNull String presentableText() {
+            return exact ? key : key + "  (" + Math.round(score * 100) + "% similar)";
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} statements, exact matches first and the rest by descending similarity.
+     */
+    public static @NotNull List<Match> find(@NotNull Project project, @NotNull String sql, int limit) {
+        List<Match> matches = new ArrayList<>();
+        Set<String> exact = SqlFingerprintService.getInstance(project).findStatementsForSql(sql);
+        for (String key : exact) {
+            matches.add(new Match(key, 1, true));
+        }
+        if (!matches.isEmpty()) {
+            return matches.size() > limit ? matches.subList(0, limit) : matches;
+        }
+
+        Set<String> identifiers = new LinkedHashSet<>(SqlTokens.identifiers(sql));
+        if (identifiers.isEmpty()) {
+            return matches;
+        }
+        Map<String, int[]> hits = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        for (String identifier : identifiers) {
+            ProgressManager.checkCanceled();
+            SqlTokenIndex.getStatements(project, identifier).forEach((key, size) -> {
+                hits.computeIfAbsent(key, k -> new int[1])[0]++;
+                sizes.put(key, size);
+            });
+        }
+        for (Map.Entry<String, int[]> entry : hits.entrySet()) {
+            int shared = entry.getValue()[0];
+            double score = (double) shared / (identifiers.size() + sizes.get(entry.getKey()) - shared);
+            if (score >= MIN_SCORE) {
+                matches.add(new Match(entry.getKey(), score, false));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed().thenComparing(Match::key));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Returns the tag of a matched statement, or {@code null} if it is gone.
+     */
+    public static @Nullable XmlTag findTag(@NotNull Project project, @NotNull Match match) {
+        int dot = match.key().lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        List<XmlTag> tags = MapperStatementIndex.findStatementTags(project, match.key().substring(0, dot),
+                match.key().substring(dot + 1));
+        return tags.isEmpty() ? null : tags.get(0);
+    }
+
+    /**
+     * Whether the text starts like a statement rather than arbitrary text.
+     */
+    public static boolean looksLikeSql(@Nullable String text) {
+        if (text == null) {
+            return false;
+        }
+        String start = text.stripLeading().toLowerCase(Locale.ROOT);
+        return start.startsWith("select") || start.startsWith("insert") || start.startsWith("update")
+                || start.startsWith("delete") || start.startsWith("replace") || start.startsWith("with");
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.eatmoreapple.juice.search;
+
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributor;
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributorFactory;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.ui.SimpleListCellRenderer;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.ListCellRenderer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search Everywhere results for patterns that look like SQL: the statements found by {@link SqlStatementFinder}.
+ */
+public class SqlStatementSearchContributor implements SearchEverywhereContributor<SqlStatementFinder.Match> {
+    private static final int MAX_RESULTS = 20;
+
+    private final Project project;
+
+    public SqlStatementSearchContributor(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public @NotNull String getSearchProviderId() {
+        return SqlStatementSearchContributor.class.getSimpleName();
+    }
+
+    @Override
+    public @NotNull String getGroupName() {
+        return "Mapper Statements";
+    }
+
+    @Override
+    public int getSortWeight() {
+        return 1000;
+    }
+
+    @Override
+    public boolean showInFindResults() {
+        return false;
+    }
+
+    @Override
+    public void fetchElements(@NotNull String pattern, @NotNull ProgressIndicator progressIndicator,
+                              @NotNull Processor<? super SqlStatementFinder.Match> consumer) {
+        if (!SqlStatementFinder.looksLikeSql(pattern) || DumbService.isDumb(project)) {
+            return;
+        }
+        // Runs per keystroke, so the lookup yields to writes; Search Everywhere restarts it after them.
+        List<SqlStatementFinder.Match> matches = new ArrayList<>();
+        boolean completed = ProgressManager.getInstance().runInReadActionWithWriteActionPriority(() -> {
+            if (!DumbService.isDumb(project)) {
+                matches.addAll(SqlStatementFinder.find(project, pattern, MAX_RESULTS));
+            }
+        }, progressIndicator);
+        if (!completed) {
+            return;
+        }
+        for (SqlStatementFinder.Match match : matches) {
+            progressIndicator.checkCanceled();
+            if (!consumer.process(match)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean processSelectedItem(@NotNull SqlStatementFinder.Match selected, int modifiers, @NotNull String searchText) {
+        XmlTag tag = ReadAction.compute(() -> SqlStatementFinder.findTag(project, selected));
+        if (tag != null) {
+            tag.navigate(true);
+        }
+        return true;
+    }
+
+    @Override
+    public @NotNull ListCellRenderer<? super SqlStatementFinder.Match> getElementsRenderer() {
+        return SimpleListCellRenderer.create("", SqlStatementFinder.Match::presentableText);
+    }
+
+    @Override
+    public @Nullable Object getDataForItem(@NotNull SqlStatementFinder.Match element, @NotNull String dataId) {
+        return null;
+    }
+
+    public static class Factory implements SearchEverywhereContributorFactory<SqlStatementFinder.Match> {
+        @Override
+        public @NotNull SearchEverywhereContributor<SqlStatementFinder.Match> createContributor(@NotNull AnActionEvent initEvent) {
+            return new SqlStatementSearchContributor(initEvent.getRequiredData(CommonDataKeys.PROJECT));
+        }
+    }
+}
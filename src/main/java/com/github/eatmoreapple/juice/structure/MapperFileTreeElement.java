@@ -0,0 +1,79 @@
+package com.github.eatmoreapple.juice.structure;
+
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.structureView.StructureViewTreeElement;
+import com.intellij.ide.structureView.impl.common.PsiTreeElementBase;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Root of the mapper structure view. Only the direct children of {@code <mapper>} are listed here;
+ * Go signatures are looked up once per file, the first time a statement node is rendered.
+ */
+class MapperFileTreeElement extends PsiTreeElementBase<XmlFile> {
+    private volatile Map<String, String> signatures;
+
+    MapperFileTreeElement(@NotNull XmlFile file) {
+        super(file);
+    }
+
+    @Override
+    public @NotNull Collection<StructureViewTreeElement> getChildrenBase() {
+        XmlTag mapperTag = MapperTagUtils.getMapperTag(getElement());
+        if (mapperTag == null) {
+            return List.of();
+        }
+
+        List<StructureViewTreeElement> children = new ArrayList<>();
+        for (XmlTag tag : mapperTag.getSubTags()) {
+            if (MapperTagUtils.isSqlTag(tag) || MapperTagUtils.RESULT_MAP.equals(tag.getName())) {
+                children.add(new MapperTagTreeElement(tag, this));
+            }
+        }
+        return children;
+    }
+
+    @Override
+    public @Nullable String getPresentableText() {
+        XmlFile file = getElement();
+        if (file == null) {
+            return null;
+        }
+        String namespace = MapperTagUtils.getNamespace(MapperTagUtils.getMapperTag(file));
+        return namespace == null || namespace.isBlank() ? file.getName() : namespace;
+    }
+
+    @Nullable String findSignature(@NotNull String methodName) {
+        Map<String, String> current = signatures;
+        if (current == null) {
+            current = collectSignatures();
+            signatures = current;
+        }
+        return current.get(methodName);
+    }
+
+    private @NotNull Map<String, String> collectSignatures() {
+        XmlFile file = getElement();
+        String namespace = MapperTagUtils.getNamespace(MapperTagUtils.getMapperTag(file));
+        if (file == null || namespace == null || namespace.isBlank()) {
+            return Map.of();
+        }
+
+        Project project = file.getProject();
+        MapperNamespaceResolver.ResolvedNamespace resolvedNamespace = MapperNamespaceResolver.parse(project, namespace);
+        if (resolvedNamespace == null) {
+            return Map.of();
+        }
+
+        return MapperNamespaceResolver.findMethodSignatures(project, resolvedNamespace);
+    }
+}
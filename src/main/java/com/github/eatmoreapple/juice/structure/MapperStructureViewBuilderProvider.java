@@ -0,0 +1,35 @@
+package com.github.eatmoreapple.juice.structure;
+
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.structureView.StructureViewBuilder;
+import com.intellij.ide.structureView.StructureViewModel;
+import com.intellij.ide.structureView.TreeBasedStructureViewBuilder;
+import com.intellij.ide.structureView.xml.XmlStructureViewBuilderProvider;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.psi.xml.XmlFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Replaces the generic XML structure view (and the file structure popup) for juice mapper files.
+ */
+public class MapperStructureViewBuilderProvider implements XmlStructureViewBuilderProvider {
+    @Override
+    public @Nullable StructureViewBuilder createStructureViewBuilder(@NotNull XmlFile file) {
+        if (MapperTagUtils.getMapperTag(file) == null) {
+            return null;
+        }
+
+        return new TreeBasedStructureViewBuilder() {
+            @Override
+            public @NotNull StructureViewModel createStructureViewModel(@Nullable Editor editor) {
+                return new MapperStructureViewModel(file, editor);
+            }
+
+            @Override
+            public boolean isRootNodeShown() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.eatmoreapple.juice.structure;
+
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.structureView.StructureViewModel;
+import com.intellij.ide.structureView.StructureViewModelBase;
+import com.intellij.ide.structureView.StructureViewTreeElement;
+import com.intellij.ide.util.treeView.smartTree.Sorter;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Structure model that lists only statements, fragments and resultMaps.
+ * <p>
+ * Leaf checks are answered from the tag itself so the tree never builds children
+ * before a node is expanded.
+ */
+public class MapperStructureViewModel extends StructureViewModelBase implements StructureViewModel.ElementInfoProvider {
+    public MapperStructureViewModel(@NotNull XmlFile file, @Nullable Editor editor) {
+        super(file, editor, new MapperFileTreeElement(file));
+        withSuitableClasses(XmlTag.class);
+        withSorters(Sorter.ALPHA_SORTER);
+    }
+
+    @Override
+    public boolean isAlwaysShowsPlus(StructureViewTreeElement element) {
+        return element instanceof MapperTagTreeElement tagElement && tagElement.mayHaveChildren();
+    }
+
+    @Override
+    public boolean isAlwaysLeaf(StructureViewTreeElement element) {
+        if (!(element instanceof MapperTagTreeElement tagElement)) {
+            return false;
+        }
+        return !tagElement.mayHaveChildren();
+    }
+
+    @Override
+    protected boolean isSuitable(@Nullable PsiElement element) {
+        return element instanceof XmlTag tag
+                && (MapperTagUtils.isSqlTag(tag) || MapperTagUtils.RESULT_MAP.equals(tag.getName()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.eatmoreapple.juice.structure;
+
+import com.github.eatmoreapple.juice.util.MapperIcons;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.ide.structureView.StructureViewTreeElement;
+import com.intellij.ide.structureView.impl.common.PsiTreeElementBase;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.Icon;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Structure node for a statement, fragment, resultMap or one of their children.
+ * Children are only collected when the node is expanded.
+ */
+class MapperTagTreeElement extends PsiTreeElementBase<XmlTag> {
+    private static final Set<String> MAPPING_TAGS = Set.of("resultMap", "association", "collection");
+
+    private final MapperFileTreeElement fileElement;
+
+    MapperTagTreeElement(@NotNull XmlTag tag, @NotNull MapperFileTreeElement fileElement) {
+        super(tag);
+        this.fileElement = fileElement;
+    }
+
+    @Override
+    public @NotNull Collection<StructureViewTreeElement> getChildrenBase() {
+        XmlTag tag = getElement();
+        if (tag == null) {
+            return List.of();
+        }
+
+        List<StructureViewTreeElement> children = new ArrayList<>();
+        if (MAPPING_TAGS.contains(tag.getName())) {
+            for (XmlTag subTag : tag.getSubTags()) {
+                children.add(new MapperTagTreeElement(subTag, fileElement));
+            }
+        } else if (MapperTagUtils.SQL_TAGS.contains(tag.getName())) {
+            for (XmlTag subTag : PsiTreeUtil.findChildrenOfType(tag, XmlTag.class)) {
+                if (MapperTagUtils.INCLUDE.equals(subTag.getName())) {
+                    children.add(new MapperTagTreeElement(subTag, fileElement));
+                }
+            }
+        }
+        return children;
+    }
+
+    @Override
+    public @Nullable String getPresentableText() {
+        XmlTag tag = getElement();
+        if (tag == null) {
+            return null;
+        }
+        String name = switch (tag.getName()) {
+            case "include" -> tag.getAttributeValue("refid");
+            case "id", "result", "association", "collection" -> tag.getAttributeValue("property");
+            default -> tag.getAttributeValue("id");
+        };
+        return name == null || name.isBlank() ? "<" + tag.getName() + ">" : name;
+    }
+
+    @Override
+    public @Nullable String getLocationString() {
+        XmlTag tag = getElement();
+        if (tag == null) {
+            return null;
+        }
+        if (MapperTagUtils.STATEMENT_TAGS.contains(tag.getName())) {
+            String id = tag.getAttributeValue("id");
+            return id == null ? null : fileElement.findSignature(id);
+        }
+        if ("id".equals(tag.getName()) || "result".equals(tag.getName())) {
+            return tag.getAttributeValue("column");
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable Icon getIcon(boolean open) {
+        XmlTag tag = getElement();
+        return tag == null ? null : MapperIcons.forTag(tag.getName());
+    }
+
+    /**
+     * Cheap check used by the model so leaf nodes never compute their children.
+     */
+    boolean mayHaveChildren() {
+        XmlTag tag = getElement();
+        if (tag == null) {
+            return false;
+        }
+        if (MAPPING_TAGS.contains(tag.getName())) {
+            return tag.getSubTags().length > 0;
+        }
+        if (MapperTagUtils.SQL_TAGS.contains(tag.getName())) {
+            return tag.getText().contains("<include");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.eatmoreapple.juice.toolwindow;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.util.treeView.NodeDescriptor;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.tree.AsyncTreeModel;
+import com.intellij.ui.tree.StructureTreeModel;
+import com.intellij.ui.treeStructure.Tree;
+import com.intellij.util.ui.tree.TreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.tree.TreePath;
+import java.awt.event.MouseEvent;
+
+/**
+ * Mapper explorer: an asynchronous tree over {@link MapperExplorerTreeStructure}. Only visible rows are
+ * rendered and children are loaded in the background when a node is first expanded.
+ */
+class MapperExplorerPanel extends SimpleToolWindowPanel {
+    MapperExplorerPanel(@NotNull Project project, @NotNull Disposable parent) {
+        super(true, true);
+
+        StructureTreeModel<MapperExplorerTreeStructure> structureModel =
+                new StructureTreeModel<>(new MapperExplorerTreeStructure(project), parent);
+        Tree tree = new Tree(new AsyncTreeModel(structureModel, parent));
+        tree.setRootVisible(false);
+        tree.setShowsRootHandles(true);
+
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                TreePath path = tree.getSelectionPath();
+                return path != null && navigate(project, TreeUtil.getUserObject(path.getLastPathComponent()));
+            }
+        }.installOn(tree);
+
+        // Indexes are unavailable while indexing, reload once it finishes.
+        project.getMessageBus().connect(parent).subscribe(DumbService.DUMB_MODE, new DumbService.DumbModeListener() {
+            @Override
+            public void exitDumbMode() {
+                structureModel.invalidate();
+            }
+        });
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Refresh", "Reload mappers from the index", AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                structureModel.invalidate();
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("JuiceMapperExplorer", group, true);
+        toolbar.setTargetComponent(tree);
+
+        setToolbar(toolbar.getComponent());
+        setContent(ScrollPaneFactory.createScrollPane(tree));
+    }
+
+    private static boolean navigate(@NotNull Project project, Object userObject) {
+        if (!(userObject instanceof NodeDescriptor<?> descriptor)) {
+            return false;
+        }
+
+        Object element = descriptor.getElement();
+        VirtualFile file = null;
+        int offset = 0;
+        if (element instanceof MapperExplorerTreeStructure.ConfigNode config) {
+            file = config.file();
+        } else if (element instanceof MapperExplorerTreeStructure.MapperNode mapper) {
+            file = mapper.file();
+        } else if (element instanceof MapperExplorerTreeStructure.NamespaceNode namespace) {
+            file = namespace.file();
+        } else if (element instanceof MapperExplorerTreeStructure.StatementNode statement) {
+            file = statement.file();
+            offset = statement.statement().offset();
+        }
+
+        if (file == null || !file.isValid()) {
+            return false;
+        }
+        new OpenFileDescriptor(project, file, offset).navigate(true);
+        return true;
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.eatmoreapple.juice.toolwindow;
+
+import com.github.eatmoreapple.juice.index.MapperConfigIndex;
+import com.github.eatmoreapple.juice.index.MapperStatementIndex;
+import com.github.eatmoreapple.juice.resolve.MapperNamespaceResolver;
+import com.github.eatmoreapple.juice.util.MapperIcons;
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.projectView.PresentationData;
+import com.intellij.ide.util.treeView.AbstractTreeStructure;
+import com.intellij.ide.util.treeView.NodeDescriptor;
+import com.intellij.ide.util.treeView.PresentableNodeDescriptor;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.util.ArrayUtilRt;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tree of configs → mappers → namespaces → statements, read from {@link MapperConfigIndex} and
+ * {@link MapperStatementIndex}.
+ * <p>
+ * Nodes only hold virtual files and strings, so no PSI is loaded or retained for mappers the user never
+ * expands. Children are computed per node on the tree's background invoker.
+ */
+class MapperExplorerTreeStructure extends AbstractTreeStructure {
+    private static final Object ROOT = new Object();
+
+    private final Project project;
+
+    MapperExplorerTreeStructure(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public @NotNull Object getRootElement() {
+        return ROOT;
+    }
+
+    @Override
+    public Object @NotNull [] getChildElements(@NotNull Object element) {
+        if (DumbService.isDumb(project)) {
+            return ArrayUtilRt.EMPTY_OBJECT_ARRAY;
+        }
+        List<Object> children = ReadAction.compute(() -> collectChildren(element));
+        return children.toArray();
+    }
+
+    private @NotNull List<Object> collectChildren(@NotNull Object element) {
+        List<Object> children = new ArrayList<>();
+        if (element == ROOT) {
+            MapperConfigIndex.findConfigFiles(project).stream()
+                    .sorted(Comparator.comparing(VirtualFile::getPath))
+                    .map(ConfigNode::new)
+                    .forEach(children::add);
+            children.add(new UnreferencedNode());
+        } else if (element instanceof ConfigNode config) {
+            VirtualFile baseDir = config.file().getParent();
+            for (String resource : MapperConfigIndex.getResources(project, config.file())) {
+                VirtualFile mapperFile = baseDir == null ? null : baseDir.findFileByRelativePath(resource);
+                children.add(new MapperNode(mapperFile, resource));
+            }
+        } else if (element instanceof UnreferencedNode) {
+            Set<VirtualFile> referenced = referencedMapperFiles();
+            allMapperFiles().stream()
+                    .filter(file -> !referenced.contains(file))
+                    .sorted(Comparator.comparing(VirtualFile::getPath))
+                    .map(file -> new MapperNode(file, file.getPath()))
+                    .forEach(children::add);
+        } else if (element instanceof MapperNode mapper && mapper.file() != null) {
+            for (String namespace : MapperStatementIndex.getFileData(project, mapper.file()).keySet()) {
+                MapperNamespaceResolver.ResolvedNamespace resolved = MapperNamespaceResolver.parse(project, namespace);
+                boolean exists = resolved != null && !MapperNamespaceResolver.findTypes(project, resolved, true).isEmpty();
+                children.add(new NamespaceNode(mapper.file(), namespace,
+                        resolved == null ? null : resolved.interfaceName(), exists));
+            }
+        } else if (element instanceof NamespaceNode namespace) {
+            List<MapperStatementIndex.StatementInfo> statements =
+                    MapperStatementIndex.getFileData(project, namespace.file()).get(namespace.namespace());
+            if (statements == null) {
+                return children;
+            }
+            Map<String, String> signatures = methodSignatures(namespace.namespace());
+            for (MapperStatementIndex.StatementInfo statement : statements) {
+                children.add(new StatementNode(namespace.file(), statement, signatures.get(statement.id())));
+            }
+        }
+        return children;
+    }
+
+    private @NotNull Map<String, String> methodSignatures(@NotNull String namespace) {
+        MapperNamespaceResolver.ResolvedNamespace resolved = MapperNamespaceResolver.parse(project, namespace);
+        return resolved == null ? Map.of() : MapperNamespaceResolver.findMethodSignatures(project, resolved);
+    }
+
+    private @NotNull Set<VirtualFile> allMapperFiles() {
+        Set<VirtualFile> files = new LinkedHashSet<>();
+        for (String namespace : MapperStatementIndex.getAllNamespaces(project)) {
+            files.addAll(MapperStatementIndex.findMapperFiles(project, namespace));
+        }
+        return files;
+    }
+
+    private @NotNull Set<VirtualFile> referencedMapperFiles() {
+        Set<VirtualFile> files = new HashSet<>();
+        for (VirtualFile config : MapperConfigIndex.findConfigFiles(project)) {
+            VirtualFile baseDir = config.getParent();
+            if (baseDir == null) {
+                continue;
+            }
+            for (String resource : MapperConfigIndex.getResources(project, config)) {
+                VirtualFile mapperFile = baseDir.findFileByRelativePath(resource);
+                if (mapperFile != null) {
+                    files.add(mapperFile);
+                }
+            }
+        }
+        return files;
+    }
+
+    @Override
+    public @Nullable Object getParentElement(@NotNull Object element) {
+        return null;
+    }
+
+    @Override
+    public boolean isAlwaysLeaf(@NotNull Object element) {
+        return element instanceof StatementNode;
+    }
+
+    @Override
+    public @NotNull NodeDescriptor<?> createDescriptor(@NotNull Object element, @Nullable NodeDescriptor<?> parentDescriptor) {
+        return new Descriptor(project, parentDescriptor, element);
+    }
+
+    @Override
+    public void commit() {
+    }
+
+    @Override
+    public boolean hasSomethingToCommit() {
+        return false;
+    }
+
+    record ConfigNode(@NotNull VirtualFile file) {
+    }
+
+    record UnreferencedNode() {
+    }
+
+    record MapperNode(@Nullable VirtualFile file, @NotNull String resource) {
+    }
+
+    record NamespaceNode(@NotNull VirtualFile file, @NotNull String namespace,
+                         @Nullable String interfaceName, boolean resolved) {
+    }
+
+    record StatementNode(@NotNull VirtualFile file, @NotNull MapperStatementIndex.StatementInfo statement,
+                         @Nullable String signature) {
+    }
+
+    private static class Descriptor extends PresentableNodeDescriptor<Object> {
+        private final Object element;
+
+        Descriptor(@NotNull Project project, @Nullable NodeDescriptor<?> parentDescriptor, @NotNull Object element) {
+            super(project, parentDescriptor);
+            this.element = element;
+        }
+
+        @Override
+        public Object getElement() {
+            return element;
+        }
+
+        @Override
+        protected void update(@NotNull PresentationData presentation) {
+            if (element instanceof ConfigNode config) {
+                presentation.setIcon(AllIcons.FileTypes.Config);
+                presentation.addText(config.file().getName(), SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES);
+                presentation.addText("  " + config.file().getPath(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            } else if (element instanceof UnreferencedNode) {
+                presentation.setIcon(AllIcons.Nodes.Folder);
+                presentation.addText("Mappers not listed in any configuration", SimpleTextAttributes.GRAYED_BOLD_ATTRIBUTES);
+            } else if (element instanceof MapperNode mapper) {
+                presentation.setIcon(MapperIcons.forTag("mapper"));
+                presentation.addText(mapper.resource(), mapper.file() == null
+                        ? SimpleTextAttributes.ERROR_ATTRIBUTES : SimpleTextAttributes.REGULAR_ATTRIBUTES);
+                if (mapper.file() == null) {
+                    presentation.addText("  file not found", SimpleTextAttributes.ERROR_ATTRIBUTES);
+                }
+            } else if (element instanceof NamespaceNode namespace) {
+                presentation.setIcon(AllIcons.Nodes.Interface);
+                presentation.addText(namespace.namespace(), SimpleTextAttributes.REGULAR_ATTRIBUTES);
+                if (namespace.resolved()) {
+                    presentation.addText("  → " + namespace.interfaceName(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                } else {
+                    presentation.addText("  Go interface not found", SimpleTextAttributes.ERROR_ATTRIBUTES);
+                }
+            } else if (element instanceof StatementNode node) {
+                MapperStatementIndex.StatementInfo statement = node.statement();
+                presentation.setIcon(MapperIcons.forTag(statement.tagName()));
+                presentation.addText(statement.id(), SimpleTextAttributes.REGULAR_ATTRIBUTES);
+                if (!statement.isStatement()) {
+                    presentation.addText("  sql fragment", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                } else if (node.signature() != null) {
+                    presentation.addText("  " + node.signature(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                } else {
+                    presentation.addText("  Go method not found", SimpleTextAttributes.ERROR_ATTRIBUTES);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.eatmoreapple.juice.toolwindow;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON parameter fixtures of the SQL preview, per {@code namespace.id}, kept in the workspace file.
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "JuiceSqlPreviewFixtures", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public final class SqlPreviewFixtures implements PersistentStateComponent<SqlPreviewFixtures.State> {
+    private State state = new State();
+
+    public static @NotNull SqlPreviewFixtures getInstance(@NotNull Project project) {
+        return project.getService(SqlPreviewFixtures.class);
+    }
+
+    public synchronized @Nullable String get(@NotNull String statementKey) {
+        return state.fixtures.get(statementKey);
+    }
+
+    public synchronized void put(@NotNull String statementKey, @NotNull String fixture) {
+        state.fixtures.put(statementKey, fixture);
+    }
+
+    @Override
+    public synchronized @NotNull State getState() {
+        return state;
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull State state) {
+        this.state = state;
+    }
+
+    public static class State {
+        public Map<String, String> fixtures = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,306 @@
+package com.github.eatmoreapple.juice.toolwindow;
+
+import com.github.eatmoreapple.juice.engine.BoundSql;
+import com.github.eatmoreapple.juice.engine.CompiledStatement;
+import com.github.eatmoreapple.juice.engine.CompiledStatementService;
+import com.github.eatmoreapple.juice.engine.IncrementalRenderer;
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import com.github.eatmoreapple.juice.resolve.StatementParameters;
+import com.github.eatmoreapple.juice.util.MapperTagUtils;
+import com.intellij.lang.Language;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.event.CaretEvent;
+import com.intellij.openapi.editor.event.CaretListener;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.ui.EditorTextField;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.UIUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import java.awt.BorderLayout;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the statement under the caret with a JSON parameter fixture, re-rendering shortly after the
+ * statement, the fixture or the caret changes. Rendering runs in a non-blocking read action through one
+ * {@link IncrementalRenderer} per statement, so an edit only renders the subtrees it affects.
+ */
+class SqlPreviewPanel extends SimpleToolWindowPanel {
+    private static final int DELAY_MILLIS = 150;
+    private static final int MAX_RENDERERS = 32;
+
+    private final Project project;
+    private final Disposable parent;
+    private final Alarm alarm;
+    private final Map<String, IncrementalRenderer> renderers = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, IncrementalRenderer> eldest) {
+                    return size() > MAX_RENDERERS;
+                }
+            });
+
+    private final JBLabel title = new JBLabel();
+    private final JBLabel status = new JBLabel();
+    private final EditorTextField fixtureField;
+    private final EditorTextField sqlField;
+    private final JBTextArea argsArea = new JBTextArea();
+
+    private @Nullable SmartPsiElementPointer<XmlTag> current;
+    private @Nullable String currentKey;
+    private boolean loadingFixture;
+
+    SqlPreviewPanel(@NotNull Project project, @NotNull Disposable parent) {
+        super(true, true);
+        this.project = project;
+        this.parent = parent;
+        this.alarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, parent);
+
+        fixtureField = createField(fileTypeOf("JSON"), false);
+        sqlField = createField(fileTypeOf("SQL"), true);
+        argsArea.setEditable(false);
+        status.setForeground(UIUtil.getContextHelpForeground());
+
+        JBSplitter output = new JBSplitter(true, 0.7f);
+        output.setFirstComponent(titled("SQL", sqlField));
+        output.setSecondComponent(titled("Arguments", new JBScrollPane(argsArea)));
+        JBSplitter splitter = new JBSplitter(false, 0.35f);
+        splitter.setFirstComponent(titled("Parameters (JSON)", fixtureField));
+        splitter.setSecondComponent(output);
+
+        JPanel content = new JPanel(new BorderLayout());
+        title.setBorder(JBUI.Borders.empty(4, 6));
+        status.setBorder(JBUI.Borders.empty(2, 6));
+        content.add(title, BorderLayout.NORTH);
+        content.add(splitter, BorderLayout.CENTER);
+        content.add(status, BorderLayout.SOUTH);
+        setContent(content);
+
+        installListeners();
+        title.setText("Place the caret inside a mapper statement");
+        schedule();
+    }
+
+    private void installListeners() {
+        fixtureField.addDocumentListener(new DocumentListener() {
+            @Override
+            public void documentChanged(@NotNull DocumentEvent event) {
+                if (!loadingFixture && currentKey != null) {
+                    SqlPreviewFixtures.getInstance(project).put(currentKey, fixtureField.getText());
+                    schedule();
+                }
+            }
+        });
+
+        EditorFactory.getInstance().getEventMulticaster().addCaretListener(new CaretListener() {
+            @Override
+            public void caretPositionChanged(@NotNull CaretEvent event) {
+                if (event.getEditor().getProject() == project && !isOwnDocument(event.getEditor().getDocument())) {
+                    schedule();
+                }
+            }
+        }, parent);
+        EditorFactory.getInstance().getEventMulticaster().addDocumentListener(new DocumentListener() {
+            @Override
+            public void documentChanged(@NotNull DocumentEvent event) {
+                if (!isOwnDocument(event.getDocument())) {
+                    schedule();
+                }
+            }
+        }, parent);
+        project.getMessageBus().connect(parent).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER,
+                new FileEditorManagerListener() {
+                    @Override
+                    public void selectionChanged(@NotNull FileEditorManagerEvent event) {
+                        schedule();
+                    }
+                });
+    }
+
+    private boolean isOwnDocument(@NotNull Document document) {
+        return document == fixtureField.getDocument() || document == sqlField.getDocument();
+    }
+
+    private void schedule() {
+        alarm.cancelAllRequests();
+        alarm.addRequest(this::refresh, DELAY_MILLIS);
+    }
+
+    private void refresh() {
+        Editor editor = FileEditorManager.getInstance(project).getSelectedTextEditor();
+        Document document = editor == null ? null : editor.getDocument();
+        int offset = editor == null ? -1 : editor.getCaretModel().getOffset();
+        SmartPsiElementPointer<XmlTag> previous = current;
+        String previousKey = currentKey;
+        String fixture = fixtureField.getText();
+
+        ReadAction.nonBlocking(() -> compute(document, offset, previous, previousKey, fixture))
+                .withDocumentsCommitted(project)
+                .expireWith(parent)
+                .coalesceBy(this)
+                .finishOnUiThread(ModalityState.defaultModalityState(), this::show)
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    private @Nullable Preview compute(@Nullable Document document,
+                                      int offset,
+                                      @Nullable SmartPsiElementPointer<XmlTag> previous,
+                                      @Nullable String previousKey,
+                                      @NotNull String fixture) {
+        XmlTag tag = findStatement(document, offset);
+        if (tag == null) {
+            // Keep previewing the last statement while the caret is elsewhere, e.g. in the Go code.
+            tag = previous == null ? null : previous.getElement();
+        }
+        if (tag == null) {
+            return null;
+        }
+        String id = tag.getAttributeValue("id");
+        String namespace = MapperTagUtils.getNamespace(tag.getParentTag());
+        if (id == null || namespace == null) {
+            return null;
+        }
+
+        String key = namespace + "." + id;
+        String fixtureToLoad = null;
+        if (!key.equals(previousKey)) {
+            fixtureToLoad = SqlPreviewFixtures.getInstance(project).get(key);
+            if (fixtureToLoad == null) {
+                StatementParameters.Scope scope = StatementParameters.scopeAt(tag);
+                fixtureToLoad = SqlPreviewSupport.skeleton(scope == null ? List.of() : scope.roots().keySet().stream()
+                        .filter(name -> !"param".equals(name))
+                        .toList());
+            }
+            fixture = fixtureToLoad;
+        }
+        SmartPsiElementPointer<XmlTag> pointer = SmartPointerManager.createPointer(tag);
+        String heading = "<" + tag.getName() + "> " + key;
+
+        CompiledStatement compiled = CompiledStatementService.getInstance(project).getCompiled(tag);
+        if (compiled == null) {
+            return new Preview(pointer, key, heading, fixtureToLoad, null, "Not a mapper statement");
+        }
+        Map<String, Object> parameters;
+        try {
+            parameters = SqlPreviewSupport.parseFixture(fixture);
+        } catch (IllegalArgumentException e) {
+            return new Preview(pointer, key, heading, fixtureToLoad, null, "Invalid fixture: " + e.getMessage());
+        }
+
+        IncrementalRenderer renderer = renderers.computeIfAbsent(key, k -> new IncrementalRenderer());
+        long start = System.nanoTime();
+        try {
+            BoundSql sql = renderer.render(compiled, parameters);
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            String summary = String.format("Rendered %d, reused %d subtrees in %.2f ms",
+                    renderer.getRenderedCount(), renderer.getReusedCount(), micros / 1000.0);
+            return new Preview(pointer, key, heading, fixtureToLoad, sql, summary);
+        } catch (SqlRenderException e) {
+            return new Preview(pointer, key, heading, fixtureToLoad, null, e.getMessage());
+        }
+    }
+
+    private @Nullable XmlTag findStatement(@Nullable Document document, int offset) {
+        if (document == null || offset < 0) {
+            return null;
+        }
+        PsiFile file = PsiDocumentManager.getInstance(project).getPsiFile(document);
+        if (!(file instanceof XmlFile)) {
+            return null;
+        }
+        PsiElement element = file.findElementAt(offset);
+        XmlTag tag = element == null ? null : PsiTreeUtil.getParentOfType(element, XmlTag.class, false);
+        XmlTag statement = tag == null ? null : MapperTagUtils.findSqlTag(tag);
+        return statement != null && MapperTagUtils.isStatementTag(statement) ? statement : null;
+    }
+
+    private void show(@Nullable Preview preview) {
+        if (preview == null) {
+            return;
+        }
+        current = preview.pointer();
+        currentKey = preview.key();
+        title.setText(preview.heading());
+        if (preview.fixtureToLoad() != null) {
+            loadingFixture = true;
+            try {
+                fixtureField.setText(preview.fixtureToLoad());
+            } finally {
+                loadingFixture = false;
+            }
+        }
+        if (preview.sql() != null) {
+            sqlField.setText(preview.sql().sql());
+            argsArea.setText(SqlPreviewSupport.formatArgs(preview.sql().args()));
+        }
+        status.setText(preview.status());
+    }
+
+    private @NotNull EditorTextField createField(@NotNull FileType fileType, boolean viewer) {
+        EditorTextField field = new EditorTextField(EditorFactory.getInstance().createDocument(""), project,
+                fileType, viewer, false);
+        field.setFontInheritedFromLAF(false);
+        return field;
+    }
+
+    private static @NotNull FileType fileTypeOf(@NotNull String languageId) {
+        Language language = Language.findLanguageByID(languageId);
+        FileType fileType = language == null ? null : language.getAssociatedFileType();
+        return fileType == null ? PlainTextFileType.INSTANCE : fileType;
+    }
+
+    private static @NotNull JComponent titled(@NotNull String text, @NotNull JComponent component) {
+        JPanel panel = new JPanel(new BorderLayout());
+        JBLabel label = new JBLabel(text);
+        label.setBorder(JBUI.Borders.empty(2, 6));
+        panel.add(label, BorderLayout.NORTH);
+        panel.add(component, BorderLayout.CENTER);
+        return panel;
+    }
+
+    /**
+     * Result of one render; {@code sql} is {@code null} when rendering failed and {@code status} says why,
+     * and {@code fixtureToLoad} is set when the statement changed and its fixture replaces the editor text.
+     */
+    private record Preview(@NotNull SmartPsiElementPointer<XmlTag> pointer,
+                           @NotNull String key,
+                           @NotNull String heading,
+                           @Nullable String fixtureToLoad,
+                           @Nullable BoundSql sql,
+                           @NotNull String status) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.eatmoreapple.juice.toolwindow;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON fixture conversion and bind argument formatting for the SQL preview.
+ */
+public final class SqlPreviewSupport {
+    private SqlPreviewSupport() {
+    }
+
+    /**
+     * Parses a fixture into maps, lists, strings, booleans, {@code Long}/{@code Double} numbers and nulls.
+     *
+     * @throws IllegalArgumentException if the text is not a JSON object
+     */
+    public static @NotNull Map<String, Object> parseFixture(@NotNull String json) {
+        if (json.isBlank()) {
+            return Map.of();
+        }
+        JsonElement element;
+        try {
+            element = JsonParser.parseString(json);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        if (!element.isJsonObject()) {
+            throw new IllegalArgumentException("The fixture must be a JSON object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> parameters = (Map<String, Object>) convert(element);
+        return parameters;
+    }
+
+    private static @Nullable Object convert(@NotNull JsonElement element) {
+        if (element.isJsonObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            element.getAsJsonObject().entrySet().forEach(entry -> map.put(entry.getKey(), convert(entry.getValue())));
+            return map;
+        }
+        if (element.isJsonArray()) {
+            List<Object> list = new ArrayList<>();
+            element.getAsJsonArray().forEach(item -> list.add(convert(item)));
+            return list;
+        }
+        if (!(element instanceof JsonPrimitive primitive)) {
+            return null;
+        }
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isString()) {
+            return primitive.getAsString();
+        }
+        String number = primitive.getAsString();
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            try {
+                return Long.parseLong(number);
+            } catch (NumberFormatException ignored) {
+                // Too large for int64, fall back to float64 as Go's json package would.
+            }
+        }
+        return primitive.getAsDouble();
+    }
+
+    /**
+     * Builds a fixture with a {@code null} entry for every name the statement can see.
+     */
+    static @NotNull String skeleton(@NotNull Collection<String> names) {
+        JsonObject object = new JsonObject();
+        for (String name : names) {
+            object.add(name, JsonNull.INSTANCE);
+        }
+        return new GsonBuilder().setPrettyPrinting().serializeNulls().create().toJson(object);
+    }
+
+    static @NotNull String formatArgs(@NotNull List<Object> args) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < args.size(); i++) {
+            Object arg = args.get(i);
+            text.append('$').append(i + 1).append("  ");
+            if (arg == null) {
+                text.append("nil");
+            } else if (arg instanceof CharSequence) {
+                text.append('\'').append(arg).append("'  string");
+            } else if (arg instanceof Map<?, ?> || arg instanceof Collection<?>) {
+                text.append(new GsonBuilder().serializeNulls().create().toJson(arg)).append("  ")
+                        .append(arg instanceof Map<?, ?> ? "object" : "array");
+            } else {
+                text.append(arg).append("  ").append(arg.getClass().getSimpleName().toLowerCase());
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.eatmoreapple.juice.util;
+
+import com.intellij.icons.AllIcons;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.Icon;
+
+/**
+ * Icons for mapper element kinds, shared by the structure view and the mapper explorer.
+ */
+public final class MapperIcons {
+    private MapperIcons() {
+    }
+
+    public static @NotNull Icon forTag(@NotNull String tagName) {
+        return switch (tagName) {
+            case "select" -> AllIcons.Actions.Find;
+            case "insert" -> AllIcons.General.Add;
+            case "update" -> AllIcons.Actions.Edit;
+            case "delete" -> AllIcons.General.Remove;
+            case "sql" -> AllIcons.Nodes.DataTables;
+            case "resultMap", "association", "collection" -> AllIcons.Nodes.Class;
+            case "id" -> AllIcons.Nodes.Property;
+            case "result" -> AllIcons.Nodes.Field;
+            case "include" -> AllIcons.Nodes.Tag;
+            case "mapper" -> AllIcons.FileTypes.Xml;
+            default -> AllIcons.Nodes.Tag;
+        };
+    }
+}
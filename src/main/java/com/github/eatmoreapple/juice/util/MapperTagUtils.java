@@ -0,0 +1,101 @@
+package com.github.eatmoreapple.juice.util;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.xml.util.XmlTagUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Shared helpers for recognising juice mapper files and their top-level tags.
+ */
+public final class MapperTagUtils {
+    public static final String MAPPER = "mapper";
+    public static final String SQL = "sql";
+    public static final String RESULT_MAP = "resultMap";
+    public static final String INCLUDE = "include";
+
+    /**
+     * Tags that map to a Go interface method.
+     */
+    public static final Set<String> STATEMENT_TAGS = Set.of("select", "insert", "update", "delete");
+
+    /**
+     * Tags whose body is SQL text, i.e. statements plus reusable {@code <sql>} fragments.
+     */
+    public static final Set<String> SQL_TAGS = Set.of("select", "insert", "update", "delete", SQL);
+
+    private MapperTagUtils() {
+    }
+
+    /**
+     * Returns the root {@code <mapper>} tag of the file, or {@code null} if the file is not a mapper.
+     */
+    public static @Nullable XmlTag getMapperTag(@Nullable PsiFile file) {
+        if (!(file instanceof XmlFile xmlFile)) {
+            return null;
+        }
+        XmlTag rootTag = xmlFile.getRootTag();
+        if (rootTag == null || !MAPPER.equals(rootTag.getName())) {
+            return null;
+        }
+        return rootTag;
+    }
+
+    /**
+     * Returns the enclosing {@code <mapper>} tag of the element, or {@code null}.
+     */
+    public static @Nullable XmlTag findMapperTag(@Nullable PsiElement element) {
+        PsiElement current = element;
+        while (current != null && !(current instanceof PsiFile)) {
+            if (current instanceof XmlTag tag && MAPPER.equals(tag.getName())) {
+                return tag;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the top-level statement or {@code <sql>} tag enclosing the element, or {@code null}.
+     */
+    public static @Nullable XmlTag findSqlTag(@Nullable PsiElement element) {
+        PsiElement current = element;
+        while (current != null && !(current instanceof PsiFile)) {
+            if (current instanceof XmlTag tag && isSqlTag(tag)) {
+                return tag;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    public static @Nullable String getNamespace(@Nullable XmlTag mapperTag) {
+        return mapperTag == null ? null : mapperTag.getAttributeValue("namespace");
+    }
+
+    public static boolean isStatementTag(@NotNull XmlTag tag) {
+        return STATEMENT_TAGS.contains(tag.getName()) && isTopLevel(tag);
+    }
+
+    public static boolean isSqlTag(@NotNull XmlTag tag) {
+        return SQL_TAGS.contains(tag.getName()) && isTopLevel(tag);
+    }
+
+    /**
+     * Returns the name in the tag's start tag, to report problems of the whole tag on, or the tag itself.
+     */
+    public static @NotNull PsiElement getAnchor(@NotNull XmlTag tag) {
+        PsiElement name = XmlTagUtil.getStartTagNameElement(tag);
+        return name != null ? name : tag;
+    }
+
+    private static boolean isTopLevel(@NotNull XmlTag tag) {
+        XmlTag parent = tag.getParentTag();
+        return parent != null && MAPPER.equals(parent.getName());
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BatchInsertTest {
+    @Test
+    void wrapsTheValueTupleInForeach() {
+        BatchInsert.Rewrite rewrite = BatchInsert.rewrite(
+                "insert into users (name, email, created_at) values (#{user.Name}, #{Email}, now()) ",
+                "user", "users", "item");
+
+        assertEquals("insert into users (name, email, created_at) values <foreach collection=\"users\" item=\"item\" "
+                + "separator=\",\">(#{item.Name}, #{item.Email}, now())</foreach> ", rewrite.text());
+        assertEquals(2, rewrite.placeholdersPerRow());
+    }
+
+    @Test
+    void skipsTextWithoutValues() {
+        assertNull(BatchInsert.rewrite("insert into users select * from staged_users", null, "users", "item"));
+        assertNull(BatchInsert.rewrite("insert into users values (#{Name}", null, "users", "item"));
+    }
+
+    @Test
+    void capsBatchSizeByBindParameters() {
+        assertEquals(500, BatchInsert.batchSize(3, 65_535, 500));
+        assertEquals(2_621, BatchInsert.batchSize(25, 65_535, 5_000));
+        assertEquals(1, BatchInsert.batchSize(100_000, 65_535, 500));
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BindBudgetTest {
+    @Test
+    void countsPlaceholdersPerItemAndForWholeStatement() {
+        CompiledStatement statement = compile("""
+                <insert id="insertAll">
+                    insert into users (name, age, tenant) values
+                    <foreach collection="users" item="u" separator=",">
+                        (#{u.name}, #{u.age}, #{tenant})
+                    </foreach>
+                    <if test="upsert">on duplicate key update age = values(age)</if>
+                </insert>""");
+        BindBudget budget = new BindBudget(8, loop -> 30_000);
+        ForeachSqlNode loop = BindBudget.loops(statement.root()).get(0);
+
+        assertEquals(3, budget.perItem(loop).placeholders());
+        assertEquals(90_000, budget.of(statement.root()).placeholders());
+    }
+
+    @Test
+    void takesCostliestChooseBranchAndNestedLoops() {
+        CompiledStatement statement = compile("""
+                <select id="find">
+                    select * from t where
+                    <choose>
+                        <when test="a">a = #{a}</when>
+                        <otherwise>
+                            <foreach collection="groups" item="g" separator=" or ">
+                                (<foreach collection="g" item="id" separator=",">#{id}</foreach>)
+                            </foreach>
+                        </otherwise>
+                    </choose>
+                </select>""");
+        List<ForeachSqlNode> loops = BindBudget.loops(statement.root());
+
+        assertEquals(2, loops.size());
+        assertEquals(100, new BindBudget(8, loop -> 10).of(statement.root()).placeholders());
+    }
+
+    @Test
+    void sizesLoopsOfIncludedFragmentsByDefault() {
+        String namespace = "main.UserMapper";
+        FragmentResolver.Fragment tags = new FragmentResolver.Fragment(namespace + ".tags", namespace,
+                StatementCompilerTest.parse("""
+                        <sql id="tags">
+                            and tag in <foreach collection="tags" item="t" open="(" separator="," close=")">#{t}</foreach>
+                        </sql>"""));
+        CompiledStatement statement = new StatementCompiler((ns, refid) -> refid.equals("tags") ? tags : null,
+                ConditionCompiler.PARAMETER).compile(namespace, StatementCompilerTest.parse("""
+                <select id="find">
+                    select * from t where id in
+                    <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+                    <include refid="tags"/>
+                </select>"""));
+        List<ForeachSqlNode> own = BindBudget.loops(statement.root());
+
+        BindBudget budget = new BindBudget(8, BindBudget.sizes(Map.of(own.get(0), 10L), 1_000));
+
+        assertEquals(1, own.size());
+        assertEquals(1_010, budget.of(statement.root()).placeholders());
+    }
+
+    private static CompiledStatement compile(String xml) {
+        return new StatementCompiler(FragmentResolver.NONE, ConditionCompiler.PARAMETER)
+                .compile("main.UserMapper", StatementCompilerTest.parse(xml));
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExplainPlanTest {
+    @Test
+    void readsMySqlExtraAndAccessType() {
+        ExplainPlan plan = new ExplainPlan(List.of("id", "table", "type", "key", "Extra"), List.of(
+                List.of("1", "users", "ALL", "", "Using where; Using temporary; Using filesort"),
+                List.of("1", "orders", "ref", "idx_orders_user_id", "")));
+
+        assertEquals(EnumSet.allOf(ExplainPlan.Finding.class), plan.findings(0));
+        assertEquals(Set.of(), plan.findings(1));
+    }
+
+    @Test
+    void readsPostgresSqliteAndH2Plans() {
+        assertEquals(Set.of(ExplainPlan.Finding.FILESORT),
+                ExplainPlan.classify("QUERY PLAN=Sort  (cost=10.1..10.2 rows=40 width=8)"));
+        assertEquals(Set.of(), ExplainPlan.classify("QUERY PLAN=  Sort Key: created_at"));
+        assertEquals(Set.of(ExplainPlan.Finding.FULL_SCAN),
+                ExplainPlan.classify("QUERY PLAN=  ->  Seq Scan on users  (cost=0.00..35.50 rows=2550 width=8)"));
+        assertEquals(Set.of(ExplainPlan.Finding.FULL_SCAN), ExplainPlan.classify("id=2  parent=0  detail=SCAN users"));
+        assertEquals(Set.of(), ExplainPlan.classify("detail=SCAN users USING INDEX idx_users_status"));
+        assertEquals(Set.of(ExplainPlan.Finding.FILESORT), ExplainPlan.classify("detail=USE TEMP B-TREE FOR ORDER BY"));
+        assertEquals(Set.of(ExplainPlan.Finding.FULL_SCAN),
+                ExplainPlan.classify("PLAN=SELECT \"ID\" FROM \"PUBLIC\".\"USERS\" /* PUBLIC.USERS.tableScan */"));
+    }
+
+    @Test
+    void infersH2SortsAndGroupingWithoutIndexOrder() {
+        assertEquals(Set.of(ExplainPlan.Finding.FILESORT, ExplainPlan.Finding.TEMPORARY), ExplainPlan.classify(
+                "PLAN=SELECT\n    \"user_id\"\nFROM \"public\".\"orders\"\n    /* public.idx_orders_total */\n"
+                        + "WHERE \"total\" > ?1\nGROUP BY \"user_id\"\nORDER BY 1"));
+        assertEquals(Set.of(), ExplainPlan.classify(
+                "PLAN=SELECT\n    \"id\"\nFROM \"public\".\"users\"\n    /* public.PRIMARY_KEY_6 */\n"
+                        + "ORDER BY 1\n/* index sorted */"));
+        assertEquals(Set.of(ExplainPlan.Finding.TEMPORARY), ExplainPlan.classify("PLAN=SELECT DISTINCT\n    \"status\""));
+        assertEquals(Set.of(ExplainPlan.Finding.FILESORT), ExplainPlan.classify("detail=USE TEMP B-TREE FOR ORDER BY"));
+    }
+
+    @Test
+    void choosesDialectAndH2Mode() {
+        assertEquals(ExplainPlan.Dialect.MYSQL, ExplainPlan.Dialect.of("MariaDB"));
+        assertEquals("EXPLAIN QUERY PLAN select 1", ExplainPlan.Dialect.of("SQLite").explain("select 1"));
+        assertEquals("PostgreSQL", ExplainPlan.h2Mode(List.of("create table users (id bigserial primary key)")));
+        assertEquals("MySQL", ExplainPlan.h2Mode(List.of("create table `users` (id bigint auto_increment)")));
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.eatmoreapple.juice.engine;
+
+import com.github.eatmoreapple.juice.expression.Expressions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalRendererTest {
+    private static final String STATEMENT = """
+            <select id="find">
+                select * from users
+                <where>
+                    <if test="name != nil">and name = #{name}</if>
+                    <if test="age > 0">and age = #{age}</if>
+                    <if test="len(ids) > 0">
+                        and id in <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+                    </if>
+                </where>
+            </select>""";
+
+    @Test
+    void rendersLikeAFreshRender() {
+        CompiledStatement statement = compile(STATEMENT);
+        IncrementalRenderer renderer = new IncrementalRenderer();
+        List<Map<String, Object>> fixtures = List.of(
+                Map.of("name", "bob", "age", 3, "ids", List.of(1, 2)),
+                Map.of("name", "bob", "age", 0, "ids", List.of(1, 2)),
+                Map.of("name", "ann", "age", 0, "ids", List.of()),
+                Map.of("name", "ann", "age", 5, "ids", List.of(7)));
+
+        for (Map<String, Object> fixture : fixtures) {
+            assertEquals(statement.render(fixture), renderer.render(statement, fixture));
+        }
+    }
+
+    @Test
+    void reusesSubtreesWhoseParametersDidNotChange() {
+        CompiledStatement statement = compile(STATEMENT);
+        IncrementalRenderer renderer = new IncrementalRenderer();
+        renderer.render(statement, Map.of("name", "bob", "age", 3, "ids", List.of(1, 2)));
+
+        BoundSql sql = renderer.render(statement, Map.of("name", "bob", "age", 4, "ids", List.of(1, 2)));
+
+        assertEquals("select * from users WHERE name = ? and age = ? and id in (?, ?)", sql.sql());
+        assertEquals(List.of("bob", 4, 1, 2), sql.args());
+        // Only the age branch, its text and its ancestors (root, where, its body) render again.
+        assertEquals(5, renderer.getRenderedCount());
+        assertTrue(renderer.getReusedCount() >= 2);
+    }
+
+    @Test
+    void reusesUnchangedSubtreesAfterRecompiling() {
+        IncrementalRenderer renderer = new IncrementalRenderer();
+        Map<String, Object> fixture = Map.of("name", "bob", "age", 3, "ids", List.of(1, 2));
+        renderer.render(compile(STATEMENT), fixture);
+
+        CompiledStatement edited = compile(STATEMENT.replace("select * from users", "select id from users"));
+        BoundSql sql = renderer.render(edited, fixture);
+
+        assertEquals(edited.render(fixture), sql);
+        // The edited text and the root render again; the where clause is replayed as a whole.
+        assertEquals(2, renderer.getRenderedCount());
+        assertEquals(1, renderer.getReusedCount());
+    }
+
+    private static CompiledStatement compile(String xml) {
+        return new StatementCompiler(FragmentResolver.NONE, Expressions.CONDITIONS)
+                .compile("main.UserMapper", StatementCompilerTest.parse(xml));
+    }
+}
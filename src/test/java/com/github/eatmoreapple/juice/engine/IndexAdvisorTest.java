@@ -0,0 +1,70 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexAdvisorTest {
+    private static final Schema SCHEMA = Schema.of(List.of(Schema.statements("""
+            create table users (id bigint primary key, email varchar(255), status int, created_at datetime);
+            create unique index idx_users_email on users (email);
+            create table orders (id bigint primary key, user_id bigint, state int, total int, created_at datetime);
+            """)));
+
+    @Test
+    void ordersEqualityThenSortThenRange() {
+        List<IndexAdvisor.Suggestion> suggestions = IndexAdvisor.suggest("""
+                select * from users u where u.status = #{status} and created_at > #{since}
+                order by u.created_at desc limit 20""", SCHEMA);
+
+        assertEquals(List.of(new IndexAdvisor.Suggestion("users", List.of("status", "created_at"))), suggestions);
+        assertEquals("CREATE INDEX idx_users_status_created_at ON users (status, created_at)", suggestions.get(0).ddl());
+    }
+
+    @Test
+    void suggestsJoinKeysAndSkipsCoveredTables() {
+        List<IndexAdvisor.Suggestion> suggestions = IndexAdvisor.suggest("""
+                select o.* from users as u join orders o on o.user_id = u.id
+                where u.email = #{email} and o.state in (1, 2) and lower(o.total) > 0""", SCHEMA);
+
+        assertEquals(List.of(new IndexAdvisor.Suggestion("orders", List.of("user_id", "state"))), suggestions);
+    }
+
+    @Test
+    void ignoresUnknownTablesAndAssignments() {
+        assertTrue(IndexAdvisor.suggest("update users set status = #{status} where id = #{id}", SCHEMA).isEmpty());
+        assertTrue(IndexAdvisor.suggest("select * from audit where actor = #{actor}", SCHEMA).isEmpty());
+    }
+
+    @Test
+    void needsAnIndexOnEachSideOfOr() {
+        assertEquals(List.of(new IndexAdvisor.Suggestion("users", List.of("status"))),
+                IndexAdvisor.suggest("select * from users where email = #{email} or status = #{status}", SCHEMA));
+        assertTrue(IndexAdvisor.suggest(
+                "select * from users where email = #{email} and (status = 1 or created_at > #{since})", SCHEMA).isEmpty());
+        assertEquals(List.of(new IndexAdvisor.Suggestion("users", List.of("status")),
+                        new IndexAdvisor.Suggestion("users", List.of("created_at"))),
+                IndexAdvisor.suggest("select * from users where (status = 1 or created_at > #{since})", SCHEMA));
+    }
+
+    @Test
+    void keepsReadingPredicatesAfterSubqueries() {
+        List<IndexAdvisor.Suggestion> suggestions = IndexAdvisor.suggest("""
+                select * from users where status in (select state from orders where total > 0)
+                and created_at > #{since}""", SCHEMA);
+
+        assertEquals(List.of(new IndexAdvisor.Suggestion("users", List.of("status", "created_at")),
+                new IndexAdvisor.Suggestion("orders", List.of("total"))), suggestions);
+    }
+
+    @Test
+    void longerSuggestionServesItsPrefix() {
+        IndexAdvisor.Suggestion wide = new IndexAdvisor.Suggestion("orders", List.of("user_id", "state"));
+
+        assertTrue(wide.serves(new IndexAdvisor.Suggestion("orders", List.of("user_id"))));
+        assertTrue(!wide.serves(new IndexAdvisor.Suggestion("orders", List.of("state"))));
+    }
+}
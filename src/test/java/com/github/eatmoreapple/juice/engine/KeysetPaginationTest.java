@@ -0,0 +1,64 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetPaginationTest {
+    @Test
+    void findsOffsetPages() {
+        String text = "select * from orders order by created_at desc limit #{size} offset #{offset}";
+
+        List<KeysetPagination.Page> pages = KeysetPagination.findPages(text);
+
+        assertEquals(1, pages.size());
+        assertEquals("#{offset}", pages.get(0).offset());
+        assertEquals("#{size}", pages.get(0).limit());
+        assertEquals(List.of(), KeysetPagination.findPages("select * from orders limit 10 offset 0"));
+        assertEquals("#{size}", KeysetPagination.findPages("select * from orders limit #{offset}, #{size}").get(0).limit());
+    }
+
+    @Test
+    void rewritesToKeyset() {
+        String text = "select * from orders o order by o.created_at desc limit #{size} offset #{offset}";
+        KeysetPagination.Page page = KeysetPagination.findPages(text).get(0);
+
+        KeysetPagination.OrderBy orderBy = KeysetPagination.orderBy(text, page);
+
+        assertEquals(List.of("o.created_at", "o.id"), orderBy.columns());
+        assertEquals("(o.created_at, o.id) &lt; (#{lastCreatedAt}, #{lastId})", KeysetPagination.predicate(orderBy));
+        assertEquals("ORDER BY o.created_at DESC, o.id DESC LIMIT #{size}", KeysetPagination.orderAndLimit(orderBy, page));
+    }
+
+    @Test
+    void rejectsMixedDirectionsAndExpressions() {
+        String mixed = "select * from orders order by status, created_at desc limit #{size} offset #{offset}";
+        String expression = "select * from orders order by field(status, 1, 2) limit #{size} offset #{offset}";
+
+        assertNull(KeysetPagination.orderBy(mixed, KeysetPagination.findPages(mixed).get(0)));
+        assertNull(KeysetPagination.orderBy(expression, KeysetPagination.findPages(expression).get(0)));
+    }
+
+    @Test
+    void findsTheStatementsOwnWhere() {
+        String text = "select * from orders where id in (select order_id from items where qty > 0) and a = 1 ";
+        String subquery = "select * from (select * from orders where a = 1) o ";
+
+        assertEquals(text.indexOf("id in"), KeysetPagination.whereBody(text));
+        assertEquals(-1, KeysetPagination.whereBody(subquery));
+        assertEquals(-1, KeysetPagination.whereBody("select * from orders <where><if test=\"a\">a = 1</if></where>"));
+    }
+
+    @Test
+    void findsAnOrThatAnAppendedAndWouldBind() {
+        assertTrue(KeysetPagination.hasTopLevelOr("a = 1 OR b = 2 "));
+        assertTrue(KeysetPagination.hasTopLevelOr("<if test=\"a != nil\">a = #{a}</if> <if test=\"b != nil\">or b = #{b}</if>"));
+        assertFalse(KeysetPagination.hasTopLevelOr("(a = 1 OR b = 2) AND c = 'x or y'"));
+        assertFalse(KeysetPagination.hasTopLevelOr("<if test=\"a or b\">AND c = 1</if> AND status = #{orderStatus}"));
+    }
+}
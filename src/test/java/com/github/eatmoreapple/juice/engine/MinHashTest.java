@@ -0,0 +1,46 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+    private final MinHash minHash = new MinHash(16, 4, 0.7);
+
+    @Test
+    void clustersNearDuplicatesOnly() {
+        List<int[]> signatures = new ArrayList<>();
+        signatures.add(signature("select id, user_id, status, amount, created_at from orders where user_id = ? and status = ? order by created_at desc"));
+        signatures.add(signature("select name, email from users where id = ?"));
+        signatures.add(signature("select id, user_id, status, amount, created_at from orders where user_id = ? and status = ? order by created_at"));
+        signatures.add(signature(""));
+
+        List<MinHash.Cluster> clusters = minHash.cluster(signatures);
+
+        assertEquals(1, clusters.size());
+        assertEquals(List.of(0, 2), clusters.get(0).members());
+        assertEquals(1.0, clusters.get(0).similarities().get(0));
+        assertTrue(clusters.get(0).similarities().get(1) >= 0.7);
+    }
+
+    @Test
+    void estimatesJaccardSimilarity() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            words.add("w" + i);
+        }
+        int[] a = minHash.signature(MinHash.shingles(words.subList(0, 150), 1));
+        int[] b = minHash.signature(MinHash.shingles(words.subList(50, 200), 1));
+
+        // 100 shared words out of 200 distinct ones
+        assertEquals(0.5, MinHash.similarity(a, b), 0.2);
+    }
+
+    private int[] signature(String sql) {
+        return minHash.signature(MinHash.shingles(SqlTokens.words(sql), 3));
+    }
+}
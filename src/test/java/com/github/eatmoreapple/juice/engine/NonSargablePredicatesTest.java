@@ -0,0 +1,81 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NonSargablePredicatesTest {
+    @Test
+    void findsWrappedColumnsAndLeadingWildcards() {
+        assertEquals(List.of("DATE(o.created_at)"), flagged("DATE(o.created_at) = ?", "DATE(o.created_at)"));
+        assertEquals(List.of("LOWER(name)"), flagged("LOWER(name) = ?", "LOWER(name)"));
+        assertEquals(List.of("amount"), flagged("amount + 0 > ?", "amount + 0"));
+        assertTrue(check("DATE(o.created_at) = ?", "DATE(o.created_at)").message()
+                .contains("o.created_at >= ? AND o.created_at < ? + INTERVAL 1 DAY"));
+
+        String clause = "WHERE title LIKE '%' || ? AND note LIKE concat('%', ?) AND tag LIKE ?";
+        assertEquals(List.of("LIKE '%' ||", "LIKE concat('%'"), NonSargablePredicates.inPredicates(clause).stream()
+                .map(finding -> clause.substring(finding.start(), finding.end())).toList());
+    }
+
+    @Test
+    void checksBothSidesOfAComparison() {
+        assertEquals(List.of("lower(name)"), flagged("? = lower(name)", "lower(name)"));
+        assertEquals(List.of("price"), flagged("? < price * 2", "price * 2"));
+        assertEquals(List.of("price"), flagged("? < 2 * price", "2 * price"));
+        assertEquals(List.of("cast(created_at as date)"), flagged("cast(created_at as date) = ?", "cast(created_at as date)"));
+        assertEquals(List.of("CAST(total AS decimal(10, 2))"),
+                flagged("CAST(total AS decimal(10, 2)) >= ?", "CAST(total AS decimal(10, 2))"));
+        assertEquals(List.of("created_at::date"), flagged("created_at::date = ?", "created_at::date"));
+        assertEquals(List.of("year(d)"), flagged("year(d) in (?, ?)", "year(d)"));
+    }
+
+    @Test
+    void acceptsFunctionsOfParameters() {
+        assertEquals(List.of(), flagged("created_at >= DATE(?)", "DATE(?)"));
+        assertEquals(List.of(), flagged("name = LOWER(?)", "LOWER(?)"));
+        assertEquals(List.of(), flagged("id = ? + 1", "? + 1"));
+        assertEquals(List.of(), flagged("juice_x * 2 = ?", "juice_x * 2"));
+        assertEquals(List.of(), NonSargablePredicates.inPredicates("WHERE title LIKE concat(?, '%')"));
+    }
+
+    @Test
+    void ignoresOperandsOutsideComparisons() {
+        // The column inside price * 2 is reported with the product, not on its own.
+        assertEquals(List.of(), flagged("lower(name) + 1", "lower(name)"));
+        assertEquals(List.of(), flagged("price * 2 + tax", "price * 2"));
+    }
+
+    @Test
+    void ignoresLiteralsAndComments() {
+        assertEquals(List.of(), NonSargablePredicates.inPredicates(
+                "WHERE note = 'lower(x) = 1' AND tag = 'it''s like ''%x' /* year(d) = 1 */ AND a = 1 -- b like '%x"));
+        assertEquals(List.of(), flagged("note = 'lower(x)'", "'lower(x)'"));
+        assertEquals(List.of(), flagged("b + 1 /* = ? */", "b + 1"));
+        assertEquals(List.of(), NonSargablePredicates.inOrderBy("ORDER BY id /* rand() */"));
+        assertEquals(1, NonSargablePredicates.inPredicates("WHERE note = 'lower(x)' AND title LIKE '%x'").size());
+    }
+
+    @Test
+    void findsRandomOrder() {
+        assertEquals(1, NonSargablePredicates.inOrderBy("ORDER BY RAND()").size());
+        assertEquals(List.of(), NonSargablePredicates.inOrderBy("ORDER BY created_at DESC"));
+    }
+
+    private static NonSargablePredicates.Finding check(String expression, String operand) {
+        int start = expression.indexOf(operand);
+        return NonSargablePredicates.inOperand(expression.substring(0, start), operand,
+                expression.substring(start + operand.length()));
+    }
+
+    /**
+     * Checks the operand of the expression and returns the reported text, if any.
+     */
+    private static List<String> flagged(String expression, String operand) {
+        NonSargablePredicates.Finding finding = check(expression, operand);
+        return finding == null ? List.of() : List.of(operand.substring(finding.start(), finding.end()));
+    }
+}
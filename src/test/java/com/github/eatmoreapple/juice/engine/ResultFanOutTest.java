@@ -0,0 +1,40 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResultFanOutTest {
+    @Test
+    void multipliesSiblingAndNestedCollections() {
+        ResultFanOut fanOut = ResultFanOut.of(StatementCompilerTest.parse("""
+                <resultMap id="userDetail">
+                    <id column="id" property="ID"/>
+                    <collection property="Orders">
+                        <id column="order_id" property="ID"/>
+                    </collection>
+                    <association property="Profile">
+                        <result column="bio" property="Bio"/>
+                    </association>
+                    <association property="Team">
+                        <association property="Members"/>
+                    </association>
+                    <collection property="Roles">
+                        <result column="role" property="Name"/>
+                    </collection>
+                </resultMap>"""));
+
+        assertEquals(List.of("Orders", "Roles"), fanOut.collections());
+        assertEquals(100, fanOut.rowsPerParent(10));
+    }
+
+    @Test
+    void saturatesInsteadOfOverflowing() {
+        ResultFanOut fanOut = new ResultFanOut(List.of("a", "b", "c", "d", "e"));
+
+        assertEquals(Long.MAX_VALUE, fanOut.rowsPerParent(1_000_000));
+        assertEquals(1, new ResultFanOut(List.of()).rowsPerParent(10));
+    }
+}
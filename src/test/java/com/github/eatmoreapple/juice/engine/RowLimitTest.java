@@ -0,0 +1,42 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RowLimitTest {
+    private static final String NS = "main.OrderMapper";
+
+    @Test
+    void findsLimits() {
+        assertEquals(RowLimit.NONE, of("<select id=\"a\">select * from orders where user_id = #{userId}</select>"));
+        assertEquals(RowLimit.ALWAYS, of("<select id=\"a\">select * from orders limit #{size}</select>"));
+        assertEquals(RowLimit.ALWAYS, of("<select id=\"a\">select * from orders fetch first 10 rows only</select>"));
+        assertEquals(RowLimit.CONDITIONAL, of("<select id=\"a\">select * from orders <if test=\"size > 0\">limit #{size}</if></select>"));
+    }
+
+    @Test
+    void requiresLimitInEveryChooseBranch() {
+        assertEquals(RowLimit.ALWAYS, of("<select id=\"a\">select * from orders <choose>"
+                + "<when test=\"small\">limit 10</when><otherwise>limit 100</otherwise></choose></select>"));
+        assertEquals(RowLimit.CONDITIONAL, of("<select id=\"a\">select * from orders <choose>"
+                + "<when test=\"small\">limit 10</when><otherwise>order by id</otherwise></choose></select>"));
+    }
+
+    @Test
+    void readsIncludedFragments() {
+        FragmentResolver.Fragment page = new FragmentResolver.Fragment(NS + ".page", NS,
+                StatementCompilerTest.parse("<sql id=\"page\">limit #{offset}, #{size}</sql>"));
+        StatementCompiler compiler = new StatementCompiler((namespace, refid) -> "page".equals(refid) ? page : null,
+                ConditionCompiler.PARAMETER);
+
+        assertEquals(RowLimit.ALWAYS, RowLimit.of(compiler.compile(NS,
+                StatementCompilerTest.parse("<select id=\"a\">select * from orders <include refid=\"page\"/></select>"))));
+    }
+
+    private static RowLimit of(String xml) {
+        return RowLimit.of(new StatementCompiler(FragmentResolver.NONE, ConditionCompiler.PARAMETER)
+                .compile(NS, StatementCompilerTest.parse(xml)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaTest {
+    @Test
+    void appliesMigrationsInOrder() {
+        Schema schema = Schema.of(List.of(
+                Schema.statements("""
+                        -- users; orders
+                        CREATE TABLE IF NOT EXISTS `users` (
+                            `id` BIGINT NOT NULL AUTO_INCREMENT,
+                            `email` VARCHAR(255) NOT NULL UNIQUE,
+                            `status` TINYINT NOT NULL DEFAULT 0,
+                            `created_at` DATETIME NOT NULL,
+                            PRIMARY KEY (`id`),
+                            KEY `idx_users_status` (`status`, `created_at`)
+                        ) ENGINE=InnoDB;
+                        CREATE TABLE orders (
+                            id bigint primary key,
+                            user_id bigint not null,
+                            total decimal(10, 2),
+                            CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (id)
+                        );
+                        """),
+                Schema.statements("""
+                        /* drop the old lookup */
+                        ALTER TABLE users DROP INDEX idx_users_status, ADD COLUMN name varchar(64);
+                        CREATE UNIQUE INDEX idx_users_name ON public.users (lower(name), created_at DESC);
+                        DROP TABLE IF EXISTS sessions;
+                        """)));
+
+        Schema.Table users = schema.table("USERS");
+        assertEquals(List.of("id", "email", "status", "created_at", "name"), users.columns());
+        assertEquals(List.of("email", "primary", "idx_users_name"), users.indexes().stream().map(Schema.Index::name).toList());
+        assertEquals(List.of("lower(name)", "created_at"), users.indexes().get(2).columns());
+        assertTrue(users.hasIndexStartingWith("email"));
+        assertFalse(users.hasIndexStartingWith("status"));
+        assertEquals(List.of("id", "user_id", "total"), schema.table("orders").columns());
+        assertEquals(1, schema.table("orders").indexes().size());
+        assertNull(schema.table("sessions"));
+    }
+
+    @Test
+    void ordersMigrationsByVersion() {
+        List<String> names = new ArrayList<>(List.of("V10__add_index.sql", "R__views.sql", "V2__users.sql",
+                "V1_1__fix.sql", "V1__init.sql"));
+        List<String> goose = new ArrayList<>(List.of("10_x.sql", "2_y.sql", "001_init.sql", "20240101120000_z.sql"));
+
+        names.sort(Schema::compareMigrations);
+        goose.sort(Schema::compareMigrations);
+
+        assertEquals(List.of("V1__init.sql", "V1_1__fix.sql", "V2__users.sql", "V10__add_index.sql", "R__views.sql"), names);
+        assertEquals(List.of("001_init.sql", "2_y.sql", "10_x.sql", "20240101120000_z.sql"), goose);
+        assertEquals(0, Schema.compareMigrations("1_init.up.sql", "01_init.down.sql"));
+    }
+}
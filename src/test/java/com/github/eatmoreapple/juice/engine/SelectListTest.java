@@ -0,0 +1,61 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectListTest {
+    @Test
+    void readsColumnsAliasesAndStars() {
+        String sql = "select distinct o.*, u.`name`, count(i.id) as items, concat(a, ',', b) label, max(x) from orders o";
+
+        List<SelectList.Item> items = SelectList.parse(sql);
+
+        assertEquals(5, items.size());
+        assertTrue(items.get(0).star());
+        assertEquals("o", items.get(0).qualifier());
+        assertEquals("o.*", sql.substring(items.get(0).start(), items.get(0).end()));
+        assertEquals("name", items.get(1).name());
+        assertEquals("items", items.get(2).name());
+        assertEquals("label", items.get(3).name());
+        assertNull(items.get(4).name());
+    }
+
+    @Test
+    void ignoresSubqueriesAndIncompleteLists() {
+        List<SelectList.Item> items = SelectList.parse("select id, (select max(total) from orders) as top from users");
+
+        assertEquals(List.of("id", "top"), items.stream().map(SelectList.Item::name).toList());
+        assertNull(SelectList.parse("select id, "));
+    }
+
+    @Test
+    void expandsStarsWithColumnNamesJuiceReadsBack() {
+        List<SelectList.Column> columns = List.of(new SelectList.Column("ID", false),
+                new SelectList.Column("CreatedAt", false), new SelectList.Column("HTTPStatus", false),
+                new SelectList.Column("displayName", true));
+
+        String expansion = SelectList.expansion("u", columns);
+
+        assertEquals("u.id, u.created_at, u.http_status, u.displayName", expansion);
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(SelectList.normalize(columns.get(i).name()),
+                    SelectList.normalize(expansion.split(", ")[i].substring(2)));
+        }
+        assertEquals("id", SelectList.expansion(null, List.of(new SelectList.Column("id", true))));
+    }
+
+    @Test
+    void expandsStarsOfASingleTableOnly() {
+        assertTrue(SelectList.singleTable("select u.* from users u where id in (select user_id from a, b)"));
+        assertTrue(SelectList.singleTable("select * from (select id, name from users join teams) t order by id"));
+        assertFalse(SelectList.singleTable("select o.*, u.* from orders o join users u on u.id = o.user_id"));
+        assertFalse(SelectList.singleTable("select o.* from orders o, users u where u.id = o.user_id"));
+        assertFalse(SelectList.singleTable("select id, "));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShapeCounterTest {
+    private static final String NS = "main.UserMapper";
+
+    @Test
+    void countsIfAndChooseCombinations() {
+        ShapeCounter.Shapes shapes = count(new ShapeCounter(4), """
+                <select id="find">
+                    select * from users
+                    <where>
+                        <if test="name">and name = #{name}</if>
+                        <if test="age">and age = #{age}</if>
+                        <choose>
+                            <when test="id">and id = #{id}</when>
+                            <when test="email">and email = #{email}</when>
+                        </choose>
+                    </where>
+                    order by ${sort}
+                </select>""");
+
+        assertEquals(2 * 2 * 3, shapes.shapes());
+        assertEquals(4, shapes.conditions());
+        assertEquals(1, shapes.substitutions());
+    }
+
+    @Test
+    void capsRepeatedConditionsByDistinctExpressions() {
+        ShapeCounter.Shapes shapes = count(new ShapeCounter(4), """
+                <select id="find">
+                    select id
+                    <if test="detail">, name, email</if>
+                    from users
+                    <if test="detail">join profiles using (id)</if>
+                </select>""");
+
+        assertEquals(2, shapes.shapes());
+    }
+
+    @Test
+    void multipliesForeachLengthsAndBodies() {
+        ShapeCounter.Shapes shapes = count(new ShapeCounter(3), """
+                <select id="find">
+                    select * from users where id in
+                    <foreach collection="users" item="u" open="(" separator="," close=")">
+                        #{u.id}<if test="u.admin">, 0</if>
+                    </foreach>
+                </select>""");
+
+        // Empty plus lengths 1..3 with two shapes per item: 1 + 2 + 4 + 8.
+        assertEquals(15, shapes.shapes());
+        assertEquals(1, shapes.loops());
+        assertEquals(0, shapes.conditions());
+    }
+
+    @Test
+    void saturatesExponentialBlowupsWithoutEnumerating() {
+        StringBuilder xml = new StringBuilder("<select id=\"find\">select 1");
+        for (int i = 0; i < 200; i++) {
+            xml.append("<if test=\"p").append(i).append("\">, ").append(i).append("</if>");
+        }
+        xml.append("</select>");
+
+        ShapeCounter.Shapes shapes = count(new ShapeCounter(10), xml.toString());
+
+        assertTrue(shapes.isSaturated());
+        assertEquals(200, shapes.conditions());
+    }
+
+    private static ShapeCounter.Shapes count(ShapeCounter counter, String xml) {
+        CompiledStatement statement = new StatementCompiler(FragmentResolver.NONE, ConditionCompiler.PARAMETER)
+                .compile(NS, StatementCompilerTest.parse(xml));
+        return counter.count(statement);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlFingerprintsTest {
+    @Test
+    void normalizesLiteralsListsAndCase() {
+        assertEquals("select * from users where name = ? and age > ? and id in(?+)",
+                SqlFingerprints.fingerprint("SELECT *  FROM users\n WHERE name = 'O''Brien' AND age > 30 AND id IN (1, 2, 3)"));
+        assertEquals("insert into t1 (a, b) values(?+)",
+                SqlFingerprints.fingerprint("INSERT INTO t1 (a, b) VALUES (?, ?), (?, now()) /* batch */"));
+        assertEquals("select `Name` from t where x = ?",
+                SqlFingerprints.fingerprint("select `Name` from t -- comment\nwhere x = 0x1F"));
+    }
+
+    @Test
+    void readsPostgresqlParametersQuotesAndOperators() {
+        String rendered = SqlFingerprints.fingerprint("select * from users where a = ? and b in (?, ?)");
+
+        assertEquals(rendered, SqlFingerprints.fingerprint(
+                "select * from users where a = $1 and b in ($2, $3)", SqlFingerprints.Dialect.POSTGRESQL));
+        assertEquals("select \"Name\" from t where tags # ? = ?", SqlFingerprints.fingerprint(
+                "select \"Name\" from t where tags # 'x' = $10", SqlFingerprints.Dialect.POSTGRESQL));
+        assertEquals("select ? from t", SqlFingerprints.fingerprint("select \"Name\" from t # comment"));
+    }
+
+    @Test
+    void givesStableIds() {
+        String id = SqlFingerprints.id("select ?");
+
+        assertEquals(16, id.length());
+        assertEquals(id, SqlFingerprints.id("select ?"));
+        assertFalse(id.equals(SqlFingerprints.id("select ? from dual")));
+    }
+
+    @Test
+    void enumeratesConsistentShapes() {
+        CompiledStatement statement = new StatementCompiler(FragmentResolver.NONE, ConditionCompiler.PARAMETER)
+                .compile("main.UserMapper", StatementCompilerTest.parse("""
+                        <select id="find">
+                            select id<if test="detail">, name</if> from users
+                            <where>
+                                <if test="detail">deleted = 0</if>
+                                <foreach collection="ids" item="id" open="and id in (" separator="," close=")">#{id}</foreach>
+                            </where>
+                        </select>"""));
+
+        ShapeEnumerator.Result result = ShapeEnumerator.enumerate(statement, 100);
+
+        assertTrue(result.complete());
+        assertEquals(List.of(
+                "select id, name from users WHERE deleted = 0 and id in (?)",
+                "select id, name from users WHERE deleted = 0",
+                "select id from users WHERE id in (?)",
+                "select id from users"), result.shapes());
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlTokensTest {
+    @Test
+    void splitsFingerprintIntoWords() {
+        assertEquals(List.of("select", "id", "from", "users", "where", "name", "in"),
+                SqlTokens.words("SELECT id FROM `users` WHERE name IN ('a', 'b')"));
+    }
+
+    @Test
+    void keepsIdentifiersOnly() {
+        assertEquals(Set.of("o", "orders", "user_id", "status"),
+                SqlTokens.identifiers("select o.* from orders o where o.user_id = #{userId} and status = ${status}"));
+    }
+
+    @Test
+    void readsEveryBranchOfCompiledStatement() {
+        CompiledStatement statement = new StatementCompiler(FragmentResolver.NONE, ConditionCompiler.PARAMETER)
+                .compile("main.OrderMapper", StatementCompilerTest.parse(
+                        "<select id=\"find\">select id from orders <where><if test=\"status != nil\">and status = #{status}</if>"
+                                + "<foreach collection=\"ids\" open=\"and id in (\" close=\")\" separator=\",\">#{id}</foreach>"
+                                + "</where></select>"));
+
+        assertEquals(List.of("select", "id", "from", "orders", "where", "and", "status", "and", "id", "in"),
+                SqlTokens.words(statement));
+    }
+}
@@ -0,0 +1,197 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatementCompilerTest {
+    private static final String NS = "main.UserMapper";
+
+    @Test
+    void rendersWhereWithConditionsAndBinds() {
+        CompiledStatement statement = compile("""
+                <select id="find">
+                    select * from users
+                    <where>
+                        <if test="name">and name = #{name}</if>
+                        <if test="age">
+                            and age &gt; #{age}
+                        </if>
+                    </where>
+                    order by ${sort}
+                </select>""");
+
+        BoundSql all = statement.render(Map.of("name", "bob", "age", 3, "sort", "id"));
+        assertEquals("select * from users WHERE name = ? and age > ? order by id", all.sql());
+        assertEquals(List.of("bob", 3), all.args());
+
+        BoundSql none = statement.render(Map.of("name", "", "age", 0, "sort", "id"));
+        assertEquals("select * from users order by id", none.sql());
+        assertEquals(List.of(), none.args());
+    }
+
+    @Test
+    void rendersSetAndChoose() {
+        CompiledStatement statement = compile("""
+                <update id="update">
+                    update users
+                    <set>
+                        <if test="name">name = #{name},</if>
+                        <if test="age">age = #{age},</if>
+                    </set>
+                    where
+                    <choose>
+                        <when test="id">id = #{id}</when>
+                        <otherwise>1 = 0</otherwise>
+                    </choose>
+                </update>""");
+
+        assertEquals("update users SET name = ? where id = ?",
+                statement.render(Map.of("name", "bob", "age", 0, "id", 7)).sql());
+        assertEquals("update users SET age = ? where 1 = 0",
+                statement.render(Map.of("name", "", "age", 1, "id", 0)).sql());
+    }
+
+    @Test
+    void rendersForeachWithNestedItemsAndSkipsEmptyCollection() {
+        CompiledStatement statement = compile("""
+                <select id="findByIds">
+                    select * from users where deleted = 0
+                    <if test="users">
+                        and id in
+                        <foreach collection="users" item="user" index="i" open="(" separator="," close=")">
+                            #{user.id}
+                        </foreach>
+                    </if>
+                    <foreach collection="tags" item="tag" open="and tag in (" separator="," close=")">#{tag}</foreach>
+                </select>""");
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("users", List.of(Map.of("id", 1), Map.of("id", 2)));
+        parameters.put("tags", new String[0]);
+        BoundSql sql = statement.render(parameters);
+
+        assertEquals("select * from users where deleted = 0 and id in (?, ?)", sql.sql());
+        assertEquals(List.of(1, 2), sql.args());
+    }
+
+    @Test
+    void rendersTrimOverrides() {
+        CompiledStatement statement = compile("""
+                <insert id="insert">
+                    insert into users
+                    <trim prefix="(" suffix=")" suffixOverrides=",">
+                        <if test="name">name,</if>
+                        <if test="age">age,</if>
+                    </trim>
+                    values (#{name}, #{age})
+                </insert>""");
+
+        assertEquals("insert into users (name, age) values (?, ?)",
+                statement.render(Map.of("name", "bob", "age", 3)).sql());
+    }
+
+    @Test
+    void sharesCompiledFragmentsAcrossStatements() {
+        Map<String, FragmentResolver.Fragment> fragments = new HashMap<>();
+        fragments.put(NS + ".columns", new FragmentResolver.Fragment(NS + ".columns", NS,
+                parse("<sql id=\"columns\">id, name<include refid=\"main.AuditMapper.audit\"/></sql>")));
+        fragments.put("main.AuditMapper.audit", new FragmentResolver.Fragment("main.AuditMapper.audit",
+                "main.AuditMapper", parse("<sql id=\"audit\">, created_at</sql>")));
+        StatementCompiler compiler = new StatementCompiler(
+                (namespace, refid) -> fragments.getOrDefault(namespace + "." + refid, fragments.get(refid)),
+                ConditionCompiler.PARAMETER);
+
+        CompiledStatement first = compiler.compile(NS, parse("<select id=\"a\">select <include refid=\"columns\"/> from users</select>"));
+        CompiledStatement second = compiler.compile(NS, parse("<select id=\"b\">select <include refid=\"columns\"/> from admins</select>"));
+
+        assertEquals("select id, name, created_at from users", first.render(Map.of()).sql());
+        assertSame(include(first).fragment(), include(second).fragment());
+    }
+
+    @Test
+    void failsOnCyclicAndUnresolvedIncludes() {
+        FragmentResolver.Fragment loop = new FragmentResolver.Fragment(NS + ".loop", NS,
+                parse("<sql id=\"loop\">x <include refid=\"loop\"/></sql>"));
+        StatementCompiler compiler = new StatementCompiler(
+                (namespace, refid) -> "loop".equals(refid) ? loop : null, ConditionCompiler.PARAMETER);
+
+        CompiledStatement cyclic = compiler.compile(NS, parse("<select id=\"a\"><include refid=\"loop\"/></select>"));
+        CompiledStatement missing = compiler.compile(NS, parse("<select id=\"b\"><include refid=\"nope\"/></select>"));
+
+        assertThrows(SqlRenderException.class, () -> cyclic.render(Map.of()));
+        assertThrows(SqlRenderException.class, () -> missing.render(Map.of()));
+    }
+
+    @Test
+    void failsOnMissingParameter() {
+        CompiledStatement statement = compile("<select id=\"a\">select #{nope}</select>");
+
+        SqlRenderException error = assertThrows(SqlRenderException.class, () -> statement.render(Map.of()));
+        assertEquals("Parameter not found: nope", error.getMessage());
+    }
+
+    @Test
+    void bindsNullParameters() {
+        CompiledStatement statement = compile("<select id=\"a\">select #{name}</select>");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", null);
+
+        assertEquals(Arrays.asList((Object) null), statement.render(parameters).args());
+    }
+
+    private static IncludeSqlNode include(CompiledStatement statement) {
+        return ((MixedSqlNode) statement.root()).children().stream()
+                .filter(IncludeSqlNode.class::isInstance)
+                .map(IncludeSqlNode.class::cast)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static CompiledStatement compile(String xml) {
+        return new StatementCompiler(FragmentResolver.NONE, ConditionCompiler.PARAMETER).compile(NS, parse(xml));
+    }
+
+    static SourceNode.Element parse(String xml) {
+        try {
+            Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(xml)))
+                    .getDocumentElement();
+            return toSource(root);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static SourceNode.Element toSource(Element element) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        NamedNodeMap map = element.getAttributes();
+        for (int i = 0; i < map.getLength(); i++) {
+            attributes.put(map.item(i).getNodeName(), map.item(i).getNodeValue());
+        }
+        List<SourceNode> children = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element childElement) {
+                children.add(toSource(childElement));
+            } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                children.add(new SourceNode.Text(child.getNodeValue()));
+            }
+        }
+        return new SourceNode.Element(element.getTagName(), attributes, children);
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementMetricsTest {
+    private static final String NS = "main.OrderMapper";
+
+    @Test
+    void countsTemplateFigures() {
+        FragmentResolver.Fragment filter = new FragmentResolver.Fragment(NS + ".filter", NS,
+                StatementCompilerTest.parse("<sql id=\"filter\"><if test=\"status != nil\">and o.status = ${status}</if>"
+                        + "<foreach collection=\"groups\" item=\"group\">"
+                        + "<foreach collection=\"group\" item=\"id\">#{id}</foreach></foreach></sql>"));
+        Map<String, FragmentResolver.Fragment> fragments = Map.of("filter", filter);
+        StatementCompiler compiler = new StatementCompiler((namespace, refid) -> fragments.get(refid),
+                ConditionCompiler.PARAMETER);
+
+        StatementMetrics metrics = StatementMetrics.of(compiler.compile(NS, StatementCompilerTest.parse(
+                "<select id=\"find\">select o.* from orders o left join users u on u.id = o.user_id"
+                        + " join items i on i.order_id = o.id"
+                        + " where o.total > (select avg(total) from orders) and u.name = #{name}"
+                        + "<choose><when test=\"a\">and 1 = 1</when><otherwise>and 2 = 2</otherwise></choose>"
+                        + "<include refid=\"filter\"/></select>")));
+
+        assertEquals(new StatementMetrics(2, 1, 3, 2, 1, 2, 1), metrics);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.eatmoreapple.juice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SubstitutionPositionTest {
+    @Test
+    void findsValuePositions() {
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users where id = "));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users where age >= ? and age <"));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users limit "));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users limit ?, "));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users where id between ? and "));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users where id in ("));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("insert into users (id, name) values (?, "));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("insert into users (id, name) values (?, 'a'), (?, "));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("update users set name = ?, age = "));
+    }
+
+    @Test
+    void findsQuotedValues() {
+        assertEquals(SubstitutionPosition.QUOTED_VALUE, SubstitutionPosition.of("select * from users where name like '%"));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from users where note = 'it''s' order by '"));
+    }
+
+    @Test
+    void findsValuesThatAreAWholeLiteral() {
+        assertEquals(SubstitutionPosition.QUOTED_WHOLE_VALUE, SubstitutionPosition.of("select * from users where name = '", "'"));
+        assertEquals(SubstitutionPosition.QUOTED_WHOLE_VALUE,
+                SubstitutionPosition.of("update users set note = \"", "\" where id = 1"));
+        assertEquals(SubstitutionPosition.QUOTED_VALUE, SubstitutionPosition.of("select * from users where name like '%", "%'"));
+        assertEquals(SubstitutionPosition.QUOTED_VALUE, SubstitutionPosition.of("select * from users where name = '", "''s'"));
+        assertEquals(SubstitutionPosition.QUOTED_VALUE, SubstitutionPosition.of("select * from users where name = '", "\""));
+    }
+
+    @Test
+    void leavesIdentifierPositionsAlone() {
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from users order by "));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from users order by name, "));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from "));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select id, "));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("insert into users ("));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select count("));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from users where id = ? and "));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from users u join roles r on r.user_id = ", ".id"));
+        assertEquals(SubstitutionPosition.OTHER, SubstitutionPosition.of("select * from users where id = ", "(7)"));
+    }
+
+    @Test
+    void findsWholeInLists() {
+        assertEquals(SubstitutionPosition.LIST, SubstitutionPosition.of("select * from users where id in (", ")"));
+        assertEquals(SubstitutionPosition.LIST, SubstitutionPosition.of("select * from users where id not in ( ", " ) and a = 1"));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users where id in (", ", 2)"));
+        assertEquals(SubstitutionPosition.VALUE, SubstitutionPosition.of("select * from users where id = ", " and a = 1"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.eatmoreapple.juice.explain;
+
+import com.github.eatmoreapple.juice.engine.BoundSql;
+import com.github.eatmoreapple.juice.engine.ExplainPlan;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedExplainerTest {
+    private static final List<String> DDL = List.of(
+            "create table users (id bigint auto_increment primary key, email varchar(255), status int, created_at datetime)",
+            "create index idx_users_status on users (status)",
+            "alter table users add fulltext index ft_users_email (email)",
+            "create table orders (id bigint primary key, user_id bigint, total int)");
+
+    @Test
+    void loadsDdlSkippingWhatH2RejectsAndExplains() throws Exception {
+        EmbeddedExplainer.Result result = EmbeddedExplainer.explain(DDL,
+                new BoundSql("select * from users where status = ? order by id", List.of(1)));
+
+        assertEquals(1, result.skippedStatements());
+        assertNotNull(result.firstError());
+        assertEquals(1, result.plan().rows().size());
+        assertEquals(Set.of(ExplainPlan.Finding.FILESORT), result.plan().findings(0));
+    }
+
+    @Test
+    void reportsScansSortsAndGrouping() throws Exception {
+        ExplainPlan plan = EmbeddedExplainer.explain(DDL, new BoundSql(
+                "select user_id, sum(total) from orders where total > ? group by user_id order by user_id",
+                List.of(10))).plan();
+
+        assertEquals(Set.of(ExplainPlan.Finding.FULL_SCAN, ExplainPlan.Finding.FILESORT, ExplainPlan.Finding.TEMPORARY),
+                plan.findings(0));
+        assertTrue(plan.rowText(0).startsWith("PLAN="));
+    }
+
+    @Test
+    void doesNotReportOrderServedByAnIndex() throws Exception {
+        assertEquals(Set.of(), EmbeddedExplainer.explain(DDL,
+                new BoundSql("select id from users order by id", List.of())).plan().findings(0));
+        assertEquals(Set.of(), EmbeddedExplainer.explain(DDL,
+                new BoundSql("select status, count(*) from users group by status", List.of())).plan().findings(0));
+    }
+
+    @Test
+    void runsOnlyUnderstoodDdlWithoutAdminRights(@TempDir Path directory) throws Exception {
+        Path written = directory.resolve("written");
+        List<String> ddl = List.of(
+                "create alias exec for 'java.lang.Runtime.getRuntime'",
+                "call file_write('x', '" + written + "')",
+                "create table t (x int) as select file_write('x', '" + written + "')",
+                "create table users (id bigint primary key, status int)");
+
+        EmbeddedExplainer.Result result = EmbeddedExplainer.explain(ddl,
+                new BoundSql("select * from users where id = ?", List.of(1)));
+
+        assertEquals(3, result.skippedStatements());
+        assertTrue(result.firstError().startsWith("not a CREATE TABLE"));
+        assertFalse(Files.exists(written));
+        assertEquals(1, result.plan().rows().size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.eatmoreapple.juice.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExprParserTest {
+    @Test
+    void parsesWithGoPrecedence() throws ExprSyntaxException {
+        Expr expr = ExprParser.parse("user.Name != nil and len(ids) > 0 || !deleted");
+
+        Expr.Binary or = assertInstanceOf(Expr.Binary.class, expr);
+        assertEquals("||", or.operator());
+        Expr.Binary and = assertInstanceOf(Expr.Binary.class, or.left());
+        assertEquals("&&", and.operator());
+        Expr.Member member = assertInstanceOf(Expr.Member.class, ((Expr.Binary) and.left()).left());
+        assertEquals("Name", member.name());
+        assertEquals(5, member.nameStart());
+        assertInstanceOf(Expr.Unary.class, or.right());
+    }
+
+    @Test
+    void parsesIndexesCallsAndStrings() throws ExprSyntaxException {
+        Expr expr = ExprParser.parse("hasPrefix(tags[0], \"a\\\"b\")");
+
+        Expr.Call call = assertInstanceOf(Expr.Call.class, expr);
+        assertEquals("hasPrefix", call.function());
+        assertInstanceOf(Expr.Index.class, call.args().get(0));
+        assertEquals("a\"b", ((Expr.Literal) call.args().get(1)).value());
+        assertEquals(0, call.start());
+        assertEquals(26, call.end());
+    }
+
+    @Test
+    void reportsErrorOffsets() {
+        assertError("name = 1", 5, "Unexpected character '=', use '=='");
+        assertError("a &&", 4, "Unexpected end of expression");
+        assertError("(a", 2, "')' expected");
+        assertError("user.", 5, "Field name expected");
+        assertError("a b", 2, "Unexpected 'b'");
+        assertError("'open", 0, "Unterminated string");
+        assertError("  ", 0, "Empty expression");
+    }
+
+    @Test
+    void tokenizesForHighlighting() {
+        List<ExprTokenizer.Token> tokens = ExprTokenizer.tokenize("a.b>=1 or `x`");
+
+        assertEquals(List.of(ExprTokenizer.Kind.IDENTIFIER, ExprTokenizer.Kind.DOT, ExprTokenizer.Kind.IDENTIFIER,
+                        ExprTokenizer.Kind.OPERATOR, ExprTokenizer.Kind.NUMBER, ExprTokenizer.Kind.KEYWORD,
+                        ExprTokenizer.Kind.STRING),
+                tokens.stream().map(ExprTokenizer.Token::kind).toList());
+    }
+
+    private static void assertError(String text, int offset, String message) {
+        ExprSyntaxException error = assertThrows(ExprSyntaxException.class, () -> ExprParser.parse(text));
+        assertEquals(message, error.getMessage());
+        assertEquals(offset, error.getOffset());
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.eatmoreapple.juice.expression;
+
+import com.github.eatmoreapple.juice.engine.Bindings;
+import com.github.eatmoreapple.juice.engine.Condition;
+import com.github.eatmoreapple.juice.engine.SqlRenderException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionsTest {
+    @Test
+    void evaluatesAgainstManyFixturesWithoutReparsing() {
+        String text = "user.Age >= 18 && len(user.Tags) > 0 && user.Name != \"\"";
+        Condition condition = Expressions.condition(text);
+
+        assertSame(condition, Expressions.condition(text));
+        assertTrue(condition.test(bindings(Map.of("user", Map.of("Age", 18, "Tags", List.of("a"), "Name", "bob")))));
+        assertFalse(condition.test(bindings(Map.of("user", Map.of("Age", 17L, "Tags", List.of("a"), "Name", "bob")))));
+        assertFalse(condition.test(bindings(Map.of("user", Map.of("Age", 30.0, "Tags", List.of(), "Name", "bob")))));
+    }
+
+    @Test
+    void treatsMissingValuesAsNil() {
+        Condition condition = Expressions.condition("user.Name == nil or user == nil");
+
+        assertTrue(condition.test(bindings(Map.of())));
+        assertTrue(condition.test(bindings(Map.of("user", Map.of()))));
+        Map<String, Object> user = new HashMap<>();
+        user.put("Name", null);
+        assertTrue(condition.test(bindings(Map.of("user", user))));
+        assertFalse(condition.test(bindings(Map.of("user", Map.of("Name", "x")))));
+    }
+
+    @Test
+    void seesForeachVariables() {
+        Bindings bindings = bindings(Map.of("ids", List.of(1, 2)));
+        bindings.push("item", 2);
+
+        assertTrue(Expressions.condition("item % 2 == 0 && ids[1] == item").test(bindings));
+    }
+
+    @Test
+    void keepsSyntaxErrorsAndFailsWhenRendered() {
+        Expressions.Parsed parsed = Expressions.parse("name = 'x'");
+
+        assertNull(parsed.expr());
+        assertNotNull(parsed.error());
+        assertThrows(SqlRenderException.class, () -> parsed.test(bindings(Map.of("name", "x"))));
+    }
+
+    @Test
+    void rejectsNonBooleanResults() {
+        assertThrows(SqlRenderException.class, () -> Expressions.condition("name").test(bindings(Map.of("name", "x"))));
+        assertThrows(SqlRenderException.class, () -> Expressions.condition("1 && true").test(bindings(Map.of())));
+    }
+
+    private static Bindings bindings(Map<String, ?> parameters) {
+        return new Bindings(parameters);
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.eatmoreapple.juice.expression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LengthBoundsTest {
+    @Test
+    void readsComparisonsOfLen() {
+        assertEquals(1000, bound("len(ids) <= 1000", "ids"));
+        assertEquals(99, bound("100 > len(param.ids)", "param.ids"));
+        assertEquals(50, bound("len(ids) > 0 && len(ids) < 51", "ids"));
+    }
+
+    @Test
+    void ignoresOtherExpressions() {
+        assertEquals(-1, bound("len(ids) > 0", "ids"));
+        assertEquals(-1, bound("len(names) < 10", "ids"));
+        assertEquals(-1, bound("len(ids) < 10 || all", "ids"));
+    }
+
+    private static long bound(String expression, String path) {
+        return LengthBounds.upperBound(Expressions.parse(expression).expr(), path);
+    }
+}
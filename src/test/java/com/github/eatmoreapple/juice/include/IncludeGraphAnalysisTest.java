@@ -0,0 +1,73 @@
+package com.github.eatmoreapple.juice.include;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncludeGraphAnalysisTest {
+    private static final String NS = "main.UserMapper";
+
+    @Test
+    void detectsCyclesAcrossNamespaces() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "a", "b"),
+                fragment(NS, "b", "main.OrderMapper.c"),
+                fragment("main.OrderMapper", "c", "main.UserMapper.a"),
+                fragment(NS, "leaf")
+        ));
+        IncludeGraphAnalysis analysis = graph.getAnalysis();
+
+        assertTrue(analysis.inSameCycle(NS + ".a", "main.OrderMapper.c"));
+        assertFalse(analysis.isCyclic(NS + ".leaf"));
+        assertEquals(List.of(NS + ".b", "main.OrderMapper.c", NS + ".a"), analysis.cyclePath(NS + ".b", NS + ".a"));
+        assertNull(analysis.cyclePath(NS + ".leaf", NS + ".a"));
+    }
+
+    @Test
+    void treatsSelfIncludeAsCycle() {
+        IncludeGraph graph = new IncludeGraph(List.of(fragment(NS, "self", "self")));
+
+        assertTrue(graph.getAnalysis().isCyclic(NS + ".self"));
+    }
+
+    @Test
+    void computesLongestChainBelowFragment() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "top", "middle", "bottom"),
+                fragment(NS, "middle", "bottom"),
+                fragment(NS, "bottom")
+        ));
+        IncludeGraphAnalysis analysis = graph.getAnalysis();
+
+        assertEquals(2, analysis.depthOf(NS + ".top"));
+        assertEquals(1, analysis.depthOf(NS + ".middle"));
+        assertEquals(0, analysis.depthOf(NS + ".bottom"));
+    }
+
+    @Test
+    void handlesLongChainsWithoutRecursion() {
+        List<IncludeGraph.Fragment> fragments = new ArrayList<>();
+        int length = 20_000;
+        for (int i = 0; i < length; i++) {
+            fragments.add(i + 1 < length ? fragment(NS, "f" + i, "f" + (i + 1)) : fragment(NS, "f" + i));
+        }
+        IncludeGraphAnalysis analysis = new IncludeGraph(fragments).getAnalysis();
+
+        assertEquals(length - 1, analysis.depthOf(NS + ".f0"));
+        assertFalse(analysis.isCyclic(NS + ".f0"));
+    }
+
+    private static IncludeGraph.Fragment fragment(String namespace, String id, String... includes) {
+        List<IncludeGraph.Segment> segments = new ArrayList<>();
+        for (String refid : includes) {
+            segments.add(new IncludeGraph.Include(refid));
+        }
+        return new IncludeGraph.Fragment(namespace, id, segments);
+    }
+}
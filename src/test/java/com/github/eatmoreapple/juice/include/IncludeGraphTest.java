@@ -0,0 +1,89 @@
+package com.github.eatmoreapple.juice.include;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IncludeGraphTest {
+    private static final String NS = "main.UserMapper";
+
+    @Test
+    void expandsNestedIncludesInline() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "columns", text("id, name, "), include("audit")),
+                fragment(NS, "audit", text(" created_at ")),
+                fragment("main.OrderMapper", "table", text(" users "))
+        ));
+
+        String sql = graph.expand(List.of(
+                text("select "), include("columns"), text(" from "), include("main.OrderMapper.table")), NS);
+
+        assertEquals("select id, name, created_at from users", sql);
+    }
+
+    @Test
+    void reusesExpandedFragmentText() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "columns", text("id, "), include("audit")),
+                fragment(NS, "audit", text("created_at"))
+        ));
+
+        String first = graph.expandFragment(NS + ".columns");
+        String second = graph.expandFragment(NS + ".columns");
+
+        assertEquals("id, created_at", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    void prefersFragmentOfIncludingNamespace() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "main.OrderMapper.table", text("local")),
+                fragment("main.OrderMapper", "table", text("remote"))
+        ));
+
+        assertEquals(NS + ".main.OrderMapper.table", graph.resolveKey(NS, "main.OrderMapper.table"));
+        assertEquals("main.OrderMapper.table", graph.resolveKey("main.Other", "main.OrderMapper.table"));
+        assertNull(graph.resolveKey(NS, "missing"));
+    }
+
+    @Test
+    void marksCyclesAndUnresolvedIncludes() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "a", text("a "), include("b")),
+                fragment(NS, "b", text("b "), include("a"), include("missing"))
+        ));
+
+        assertEquals("a b <!-- include cycle: main.UserMapper.a --><!-- unresolved include: missing -->",
+                graph.expandFragment(NS + ".a"));
+    }
+
+    @Test
+    void cutsCyclesRelativeToEachEntryPoint() {
+        IncludeGraph graph = new IncludeGraph(List.of(
+                fragment(NS, "a", text("a "), include("b")),
+                fragment(NS, "b", text("b "), include("a")),
+                fragment(NS, "c", text("c "), include("b"))
+        ));
+
+        assertEquals("a b <!-- include cycle: main.UserMapper.a -->", graph.expandFragment(NS + ".a"));
+        assertEquals("c b a <!-- include cycle: main.UserMapper.b -->", graph.expandFragment(NS + ".c"));
+        assertEquals("b a <!-- include cycle: main.UserMapper.b -->", graph.expandFragment(NS + ".b"));
+    }
+
+    private static IncludeGraph.Fragment fragment(String namespace, String id, IncludeGraph.Segment... segments) {
+        return new IncludeGraph.Fragment(namespace, id, List.of(segments));
+    }
+
+    private static IncludeGraph.Segment text(String text) {
+        return new IncludeGraph.Text(text);
+    }
+
+    private static IncludeGraph.Segment include(String refid) {
+        return new IncludeGraph.Include(refid);
+    }
+}
@@ -52,4 +52,13 @@ class MapperParamSupportTest {
         assertEquals(" ?  juice_param ", fragments.get(0).prefix());
         assertEquals(null, fragments.get(0).suffix());
     }
+
+    @Test
+    void keepsReplacementOfTextMadeOfParameters() {
+        List<MapperParamSupport.SqlFragment> fragments = MapperParamSupport.buildSqlFragments("#{id}");
+
+        assertEquals(1, fragments.size());
+        assertEquals(new TextRange(5, 5), fragments.get(0).range());
+        assertEquals(" ? ", fragments.get(0).prefix());
+    }
 }
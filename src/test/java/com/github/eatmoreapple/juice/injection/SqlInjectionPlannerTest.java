@@ -0,0 +1,154 @@
+package com.github.eatmoreapple.juice.injection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlInjectionPlannerTest {
+    @Test
+    void joinsHostsOfDynamicTagsIntoOneDocument() {
+        SqlInjectionPlanner<String> planner = new SqlInjectionPlanner<>();
+        text(planner, "select * from users ");
+        planner.open("where", Map.of());
+        planner.open("if", Map.of("test", "name"));
+        text(planner, "and name = #{name}");
+        planner.close();
+        planner.open("if", Map.of("test", "ids"));
+        text(planner, " and id in ");
+        planner.open("foreach", Map.of("collection", "ids", "open", "(", "close", ")"));
+        text(planner, "#{id}");
+        planner.close();
+        planner.close();
+        planner.close();
+        text(planner, " order by id");
+
+        List<List<SqlInjectionPlanner.Place<String>>> documents = planner.build();
+
+        assertEquals(1, documents.size());
+        assertEquals("select * from users  WHERE name =  ?  and id in  (  ?  )  order by id", render(documents.get(0)));
+    }
+
+    @Test
+    void cutsSetSuffixOverridesFromHosts() {
+        SqlInjectionPlanner<String> planner = new SqlInjectionPlanner<>();
+        text(planner, "update users ");
+        planner.open("set", Map.of());
+        planner.open("if", Map.of());
+        text(planner, "name = #{name},");
+        planner.close();
+        planner.open("if", Map.of());
+        text(planner, "age = #{age}, ");
+        planner.close();
+        planner.close();
+        text(planner, " where id = #{id}");
+
+        List<List<SqlInjectionPlanner.Place<String>>> documents = planner.build();
+
+        assertEquals(1, documents.size());
+        assertEquals("update users  SET name =  ? ,age =  ?  where id =  ? ", render(documents.get(0)));
+    }
+
+    @Test
+    void injectsLaterChooseBranchesInsideTheStatement() {
+        SqlInjectionPlanner<String> planner = new SqlInjectionPlanner<>();
+        text(planner, "select * from users where ");
+        planner.open("choose", Map.of());
+        planner.open("when", Map.of());
+        text(planner, "id = #{id}");
+        planner.close();
+        planner.open("otherwise", Map.of());
+        text(planner, "1 = 0");
+        planner.close();
+        planner.close();
+        text(planner, " order by id");
+
+        List<List<SqlInjectionPlanner.Place<String>>> documents = planner.build();
+
+        assertEquals(2, documents.size());
+        assertEquals("select * from users where id =  ?  order by id", render(documents.get(0)));
+        assertEquals("select * from users where 1 = 0 order by id", render(documents.get(1)));
+        assertEquals(List.of("1 = 0"), hosts(documents.get(1)));
+    }
+
+    @Test
+    void cutsPrefixOverridesInEveryChooseBranch() {
+        SqlInjectionPlanner<String> planner = new SqlInjectionPlanner<>();
+        text(planner, "select * from users");
+        planner.open("where", Map.of());
+        planner.open("choose", Map.of());
+        planner.open("when", Map.of());
+        text(planner, "AND a = 1");
+        planner.close();
+        planner.open("otherwise", Map.of());
+        text(planner, "AND b = 2");
+        planner.close();
+        planner.close();
+        planner.close();
+
+        List<List<SqlInjectionPlanner.Place<String>>> documents = planner.build();
+
+        assertEquals("select * from users WHERE a = 1", render(documents.get(0)).strip());
+        assertEquals("select * from users WHERE b = 2", render(documents.get(1)).strip());
+    }
+
+    @Test
+    void picksIncludePlaceholderByPosition() {
+        assertEquals("select  juice_include  from users",
+                render(plan("select ", " from users")));
+        assertEquals("select * from  juice_include  where id = 1",
+                render(plan("select * from ", " where id = 1")));
+        assertEquals("select * from users where  1 = 1  and id = 1",
+                render(plan("select * from users where ", " and id = 1")));
+        assertEquals("select * from users u   order by id",
+                render(plan("select * from users u ", " order by id")));
+        assertEquals(" SELECT * FROM juice_include  where id = 1",
+                render(plan(null, " where id = 1")));
+    }
+
+    @Test
+    void keepsPrefixOverrideAfterLeadingInclude() {
+        SqlInjectionPlanner<String> planner = new SqlInjectionPlanner<>();
+        text(planner, "select * from users");
+        planner.open("where", Map.of());
+        planner.open("include", Map.of("refid", "conditions"));
+        planner.close();
+        planner.open("if", Map.of());
+        text(planner, "AND id = 1");
+        planner.close();
+        planner.close();
+
+        assertEquals("select * from users WHERE  1 = 1 AND id = 1", render(planner.build().get(0)).strip());
+    }
+
+    private static List<SqlInjectionPlanner.Place<String>> plan(String before, String after) {
+        SqlInjectionPlanner<String> planner = new SqlInjectionPlanner<>();
+        if (before != null) {
+            text(planner, before);
+        }
+        planner.open("include", Map.of("refid", "fragment"));
+        planner.close();
+        text(planner, after);
+        return planner.build().get(0);
+    }
+
+    private static void text(SqlInjectionPlanner<String> planner, String text) {
+        planner.text(text, text);
+    }
+
+    private static List<String> hosts(List<SqlInjectionPlanner.Place<String>> places) {
+        return places.stream().map(place -> place.range().substring(place.host())).toList();
+    }
+
+    private static String render(List<SqlInjectionPlanner.Place<String>> places) {
+        StringBuilder sql = new StringBuilder();
+        for (SqlInjectionPlanner.Place<String> place : places) {
+            sql.append(place.prefix() == null ? "" : place.prefix())
+                    .append(place.range().substring(place.host()))
+                    .append(place.suffix() == null ? "" : place.suffix());
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.eatmoreapple.juice.resolve;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LoopBodiesTest {
+    @Test
+    void findsTheInnermostLoopRunningTheNode() {
+        Node outer = new Node("for", null);
+        Node inner = new Node("for", outer.body);
+        Node call = new Node("call", inner.body);
+
+        assertSame(inner, LoopBodies.enclosingLoop(call, TREE));
+        assertSame(outer, LoopBodies.enclosingLoop(inner, TREE));
+    }
+
+    @Test
+    void looksThroughFunctionLiterals() {
+        Node loop = new Node("for", null);
+        Node literal = new Node("func literal", loop.body);
+        Node call = new Node("call", literal);
+
+        assertSame(loop, LoopBodies.enclosingLoop(call, TREE));
+    }
+
+    @Test
+    void stopsAtFunctionDeclarations() {
+        Node loop = new Node("for", null);
+        Node declaration = new Node("func", loop.body);
+        Node call = new Node("call", declaration);
+
+        assertNull(LoopBodies.enclosingLoop(call, TREE));
+    }
+
+    @Test
+    void excludesTheRangeExpression() {
+        Node loop = new Node("for", null);
+        Node range = new Node("range", loop);
+        Node call = new Node("call", range);
+
+        assertNull(LoopBodies.enclosingLoop(call, TREE));
+        assertSame(loop, LoopBodies.enclosingLoop(new Node("call", loop.body), TREE));
+    }
+
+    private static final LoopBodies.Tree<Node> TREE = new LoopBodies.Tree<>() {
+        @Override
+        public Node parent(Node node) {
+            return node.parent;
+        }
+
+        @Override
+        public boolean isFunctionDeclaration(Node node) {
+            return "func".equals(node.kind);
+        }
+
+        @Override
+        public Node loopBody(Node node) {
+            return node.body;
+        }
+    };
+
+    private static final class Node {
+        final String kind;
+        final Node parent;
+        final Node body;
+
+        Node(String kind, Node parent) {
+            this.kind = kind;
+            this.parent = parent;
+            this.body = "for".equals(kind) ? new Node("block", this) : null;
+        }
+    }
+}
@@ -40,4 +40,19 @@ class MapperNamespaceResolverTest {
     void rejectsNamespaceMissingPackagePath() {
         assertNull(MapperNamespaceResolver.parse("github.com.demo.project", "github.com.demo.project.UserMapper"));
     }
+
+    @Test
+    void formatsNamespaceThatParsesBack() {
+        String namespace = MapperNamespaceResolver.format("github.com.demo.project", "/user/repo", "UserMapper");
+
+        assertEquals("github.com.demo.project.user.repo.UserMapper", namespace);
+        MapperNamespaceResolver.ResolvedNamespace parsed = MapperNamespaceResolver.parse("github.com.demo.project", namespace);
+        assertNotNull(parsed);
+        assertEquals("user/repo", parsed.relativeDirPath());
+    }
+
+    @Test
+    void doesNotFormatNamespaceForModuleRootPackage() {
+        assertNull(MapperNamespaceResolver.format("github.com.demo.project", "", "UserMapper"));
+    }
 }